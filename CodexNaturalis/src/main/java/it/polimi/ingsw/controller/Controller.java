@@ -7,7 +7,9 @@ import it.polimi.ingsw.message.*;
 import it.polimi.ingsw.message.action.*;
 import it.polimi.ingsw.message.error.*;
 import it.polimi.ingsw.model.field.Position;
+import it.polimi.ingsw.model.game.Match;
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.network.codec.PreparedMessage;
 import it.polimi.ingsw.network.server.Connection;
 
 /**
@@ -50,6 +52,8 @@ public class Controller {
 
     /**
      * Processes a game action message.
+     * The action is submitted to the mailbox of the player's match, so that it never runs concurrently
+     * with the other actions of the same match.
      *
      * @param m The game message containing the action to process.
      */
@@ -60,8 +64,23 @@ public class Controller {
 
         if (p == null){
             c.send(new MatchDoesNotExistError());
+            return;
         }
 
+        Match match = p.getMatch();
+        if (match == null){
+            execute(m);
+        } else {
+            match.submit(() -> execute(m));
+        }
+    }
+
+    /**
+     * Executes a game action on the player.
+     *
+     * @param m The game message containing the action to execute.
+     */
+    private void execute(GameMessage m){
         switch (m.getAction()){
             case GameAction.CHOOSE_STARTER:
                 ChooseStarter starterMessage = (ChooseStarter) m;
@@ -160,6 +179,19 @@ public class Controller {
         c.send(m);
     }
 
+    /**
+     * Updates the connection with a message shared with other players, encoded once for all of them.
+     *
+     * @param m The prepared message to send as an update.
+     */
+    public void update(PreparedMessage m){
+        if (disconnected){
+            return;
+        }
+
+        c.send(m);
+    }
+
     /**
      * Retrieves the username associated with the controller's connection.
      *
@@ -0,0 +1,240 @@
+package it.polimi.ingsw.gamestate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records every action accepted by a match, one line per action.
+ * Each line holds a sequence number, the name of the action and its arguments separated by spaces, so that a turn
+ * costs a few dozen bytes on disk instead of a whole snapshot, and the log is a readable trail of the match since its
+ * last checkpoint.
+ * A snapshot remembers the sequence number of the last action it includes, so that a match is recovered by loading
+ * the snapshot and replaying the actions that follow it; a match interrupted before its first snapshot cannot be
+ * recovered, so its journal is deleted at startup.
+ * The lines are written and synced in the {@link CommitLog} shared by all the matches, tagged with the ID of the match.
+ * Nothing is written if the directory of the commit log does not exist.
+ */
+public class ActionJournal implements Closeable {
+    private static final Logger logger = Logger.getLogger(ActionJournal.class.getName());
+
+    /**
+     * An action read back from the journal.
+     *
+     * @param seq    The sequence number of the action.
+     * @param action The name of the action.
+     * @param args   The arguments of the action.
+     */
+    public record Entry(long seq, String action, String[] args) {
+
+        /**
+         * Gets an argument of the action.
+         *
+         * @param index The index of the argument.
+         * @return The argument.
+         */
+        public String arg(int index) {
+            return args[index];
+        }
+
+        /**
+         * Gets an integer argument of the action.
+         *
+         * @param index The index of the argument.
+         * @return The argument as an integer.
+         */
+        public int intArg(int index) {
+            return Integer.parseInt(args[index]);
+        }
+    }
+
+    private final int id;
+    private final CommitLog commitLog;
+    private final List<Entry> entries = new ArrayList<>();
+    private boolean enabled;
+    private long seq;
+
+    /**
+     * Constructs an ActionJournal.
+     *
+     * @param commitLog The commit log writing the journal.
+     * @param id        The ID of the match.
+     * @param recover   True to read back and continue the existing journal, False to start a new one.
+     */
+    public ActionJournal(CommitLog commitLog, int id, boolean recover) {
+        this.id = id;
+        this.commitLog = commitLog;
+        if (!commitLog.isEnabled()) {
+            logger.info("Journal of match " + id + " disabled, missing commit log directory");
+            return;
+        }
+
+        try {
+            if (recover) {
+                for (String line : commitLog.getActions(id)) {
+                    String[] tokens = line.split(" ");
+                    Entry entry = new Entry(Long.parseLong(tokens[0]), tokens[1], Arrays.copyOfRange(tokens, 2, tokens.length));
+                    entries.add(entry);
+                    seq = entry.seq();
+                }
+            } else if (!commitLog.getActions(id).isEmpty()) {
+                commitLog.discard(id, 1);
+            }
+            enabled = true;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Journal of match " + id + " disabled", e);
+        }
+    }
+
+    /**
+     * Starts a new journal for a match in the shared commit log.
+     *
+     * @param id The ID of the match.
+     * @return The journal.
+     */
+    public static ActionJournal create(int id) {
+        return new ActionJournal(CommitLog.getInstance(), id, false);
+    }
+
+    /**
+     * Reads back the journal of a match from the shared commit log, ready to be continued.
+     *
+     * @param id The ID of the match.
+     * @return The journal.
+     */
+    public static ActionJournal recover(int id) {
+        return new ActionJournal(CommitLog.getInstance(), id, true);
+    }
+
+    /**
+     * Deletes the journal of a match from the shared commit log.
+     *
+     * @param id The ID of the match.
+     */
+    public static void delete(int id) {
+        CommitLog commitLog = CommitLog.getInstance();
+        if (commitLog.isEnabled()) {
+            commitLog.discard(id, 1);
+        }
+    }
+
+    /**
+     * Deletes from the commit log the journals of the matches without a saved checkpoint, which cannot be
+     * replayed: they belong to matches interrupted during the set up or whose end was not fully recorded.
+     *
+     * @param commitLog    The commit log holding the journals.
+     * @param checkpointed The IDs of the matches with a saved checkpoint.
+     * @return The number of journals deleted.
+     */
+    public static int deleteAllExcept(CommitLog commitLog, Set<Integer> checkpointed) {
+        if (!commitLog.isEnabled()) {
+            return 0;
+        }
+        int deleted = 0;
+        try {
+            for (int id : commitLog.getIds()) {
+                if (!checkpointed.contains(id)) {
+                    commitLog.discard(id, 1);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read the commit log", e);
+        }
+        return deleted;
+    }
+
+    /**
+     * Appends an action to the journal, returning without waiting for it to reach the disk.
+     *
+     * @param action The name of the action.
+     * @param args   The arguments of the action, none of which may contain spaces.
+     * @return A future completed with the sequence number of the action once it is synced to disk.
+     */
+    public synchronized CompletableFuture<Long> append(String action, Object... args) {
+        long appended = ++seq;
+        if (!enabled) {
+            return CompletableFuture.completedFuture(appended);
+        }
+
+        StringBuilder line = new StringBuilder(action);
+        for (Object arg : args) {
+            line.append(' ').append(arg);
+        }
+
+        return commitLog.append(id, appended, line.toString()).thenApply(v -> appended);
+    }
+
+    /**
+     * Gets the actions read back from the journal following a checkpoint.
+     *
+     * @param checkpoint The sequence number of the last action included in the checkpoint.
+     * @return The actions recorded after the checkpoint, in order.
+     */
+    public synchronized List<Entry> getEntriesAfter(long checkpoint) {
+        return entries.stream().filter(e -> e.seq() > checkpoint).toList();
+    }
+
+    /**
+     * Discards the actions read back from the journal starting from the given one, so that they are not replayed
+     * by a later recovery; used for the actions that could not be replayed.
+     *
+     * @param from The sequence number of the first action to discard.
+     */
+    public synchronized void discardFrom(long from) {
+        if (!entries.removeIf(e -> e.seq() >= from)) {
+            return;
+        }
+        seq = from - 1;
+        if (enabled) {
+            commitLog.discard(id, from);
+        }
+    }
+
+    /**
+     * Drops the actions up to the given one, once a saved checkpoint includes them, so that neither the journal nor
+     * the commit log keeps them any longer; the sequence numbers carry on.
+     *
+     * @param checkpoint The sequence number of the last action included in the checkpoint.
+     */
+    public synchronized void truncate(long checkpoint) {
+        entries.removeIf(e -> e.seq() <= checkpoint);
+        if (enabled) {
+            commitLog.truncate(id, checkpoint);
+        }
+    }
+
+    /**
+     * Moves the sequence number forward, so that the following actions are numbered after a checkpoint
+     * taken from a journal that was lost.
+     *
+     * @param checkpoint The sequence number of the last action included in the checkpoint.
+     */
+    public synchronized void skipTo(long checkpoint) {
+        seq = Math.max(seq, checkpoint);
+    }
+
+    /**
+     * Gets the sequence number of the last action appended or read back.
+     *
+     * @return The last sequence number, or 0 if the journal is empty.
+     */
+    public synchronized long getLastSeq() {
+        return seq;
+    }
+
+    /**
+     * Closes the journal without waiting for the actions appended so far, which the commit log still writes;
+     * the following actions are numbered but not written.
+     */
+    @Override
+    public synchronized void close() {
+        enabled = false;
+    }
+}
@@ -0,0 +1,444 @@
+package it.polimi.ingsw.gamestate;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Makes the actions of all the matches durable in a single server-wide log, with group commits on a single writer thread.
+ * Each line of the log holds the ID of the match, the sequence number of the action and the action itself.
+ * Actions are queued by any thread; the writer takes every action waiting, appends them in order and then syncs the
+ * log once, so that while a sync is in progress the actions of all the matches pile up and are covered together by the
+ * next one, instead of every action paying for its own sync.
+ * Each action comes with a future completed once it is synced to disk, or completed exceptionally if it failed.
+ * A line with a sequence number not following the previous one of the same match replaces the actions from that number
+ * on, and a {@value #DISCARD} line drops them, so that the actions of a match are never rewritten in place.
+ * The actions of the matches are also kept in memory, split by match; the actions included in a saved checkpoint are
+ * dropped from memory, and the log is compacted to the actions left when it is opened and again by the writer thread
+ * once most of its lines are dead, so that its size follows the live actions instead of growing with the uptime.
+ * Nothing is written if the directory does not exist, it is created by the server when the first game is saved.
+ */
+public class CommitLog implements Closeable {
+    private static final Logger logger = Logger.getLogger(CommitLog.class.getName());
+    private static final String DIRECTORY = "interruptedGames";
+    private static final String FILE = "commit.log";
+    private static final int MAX_BATCH = 4096;
+    private static final int COMPACT_MIN_LINES = 4096;
+    private static final int COMPACT_RATIO = 4;
+    /**
+     * The action dropping the actions of a match from its sequence number on.
+     */
+    public static final String DISCARD = "DISCARD";
+    private static CommitLog instance;
+
+    /**
+     * A line waiting to be written.
+     *
+     * @param data   The bytes of the line.
+     * @param synced Completed once the line is synced to disk.
+     */
+    private record Change(ByteBuffer data, CompletableFuture<Void> synced) {}
+
+    private static final Change CLOSE = new Change(null, null);
+
+    private final File directory;
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+    // The actions of each match by sequence number, as "seq action args".
+    private final Map<Integer, TreeMap<Long, String>> actions = new HashMap<>();
+    private final Thread writer;
+    private FileChannel channel;
+    private boolean closed;
+    // The number of lines in the log and of actions still in memory, which decide when the log is compacted.
+    private long lines;
+    private long live;
+    private volatile long compactions;
+    private volatile long batches;
+    private volatile long changes;
+    private volatile long syncs;
+
+    /**
+     * Constructs a CommitLog writing to a log in a directory and starts its writer thread.
+     * The log is opened the first time it is used.
+     *
+     * @param directory The directory of the log.
+     */
+    public CommitLog(File directory) {
+        this.directory = directory;
+        writer = Thread.ofPlatform().name("commit-log").daemon().start(this::run);
+    }
+
+    /**
+     * Gets the commit log shared by all the matches, starting it on first use.
+     *
+     * @return The shared commit log.
+     */
+    public static synchronized CommitLog getInstance() {
+        if (instance == null) {
+            instance = new CommitLog(new File(DIRECTORY));
+        }
+        return instance;
+    }
+
+    /**
+     * Checks if the actions can be written, which is when the directory of the log exists.
+     *
+     * @return True if the log is enabled, False otherwise.
+     */
+    public boolean isEnabled() {
+        return directory.isDirectory();
+    }
+
+    /**
+     * Queues an action of a match to be appended to the log.
+     * The actions are written in the order they are queued.
+     *
+     * @param id     The ID of the match.
+     * @param seq    The sequence number of the action.
+     * @param action The action, without line breaks.
+     * @return A future completed once the action is synced to disk.
+     */
+    public CompletableFuture<Void> append(int id, long seq, String action) {
+        CompletableFuture<Void> synced = new CompletableFuture<>();
+        byte[] line = (id + " " + seq + " " + action + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            try {
+                open();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to open the commit log", e);
+                synced.completeExceptionally(e);
+                return synced;
+            }
+            if (closed) {
+                synced.completeExceptionally(new IOException("Commit log closed"));
+                return synced;
+            }
+            apply(id, seq, action);
+            // queued under the lock, so that the lines are written in the same order as they are applied
+            queue.add(new Change(ByteBuffer.wrap(line), synced));
+        }
+        return synced;
+    }
+
+    /**
+     * Queues the removal of the actions of a match from a sequence number on.
+     *
+     * @param id   The ID of the match.
+     * @param from The sequence number of the first action to drop, 1 to drop them all.
+     * @return A future completed once the removal is synced to disk.
+     */
+    public CompletableFuture<Void> discard(int id, long from) {
+        return append(id, from, DISCARD);
+    }
+
+    /**
+     * Drops from memory the actions of a match up to a sequence number, once they are included in a saved checkpoint;
+     * their lines are dropped from the log by the next compaction.
+     *
+     * @param id   The ID of the match.
+     * @param upTo The sequence number of the last action to drop.
+     */
+    public synchronized void truncate(int id, long upTo) {
+        TreeMap<Long, String> match = actions.get(id);
+        if (match == null) {
+            return;
+        }
+        int before = match.size();
+        match.headMap(upTo, true).clear();
+        live += match.size() - before;
+        if (match.isEmpty()) {
+            actions.remove(id);
+        }
+    }
+
+    /**
+     * Gets the actions of a match, in order.
+     *
+     * @param id The ID of the match.
+     * @return The actions, as "seq action args".
+     * @throws IOException If the log cannot be read.
+     */
+    public synchronized List<String> getActions(int id) throws IOException {
+        open();
+        TreeMap<Long, String> match = actions.get(id);
+        return match == null ? List.of() : new ArrayList<>(match.values());
+    }
+
+    /**
+     * Gets the IDs of the matches with actions in the log.
+     *
+     * @return The IDs.
+     * @throws IOException If the log cannot be read.
+     */
+    public synchronized Set<Integer> getIds() throws IOException {
+        open();
+        return new HashSet<>(actions.keySet());
+    }
+
+    /**
+     * Records an action in memory, replacing the actions from its sequence number on.
+     *
+     * @param id     The ID of the match.
+     * @param seq    The sequence number of the action.
+     * @param action The action.
+     */
+    private void apply(int id, long seq, String action) {
+        TreeMap<Long, String> match = actions.computeIfAbsent(id, k -> new TreeMap<>());
+        int before = match.size();
+        match.tailMap(seq, true).clear();
+        if (!action.equals(DISCARD)) {
+            match.put(seq, seq + " " + action);
+        }
+        live += match.size() - before;
+        if (match.isEmpty()) {
+            actions.remove(id);
+        }
+    }
+
+    /**
+     * Opens the log the first time it is used: reads the existing one, stopping at the first incomplete or malformed
+     * line, which is what a crash in the middle of a write leaves behind, and compacts it.
+     *
+     * @throws IOException If the log cannot be read or written.
+     */
+    private void open() throws IOException {
+        if (channel != null || closed) {
+            return;
+        }
+        Path file = directory.toPath().resolve(FILE);
+        if (Files.exists(file)) {
+            read(Files.readAllBytes(file));
+        }
+        compact();
+    }
+
+    /**
+     * Rewrites the log with only the actions in memory, then reopens it for appending.
+     * Must be called with the lock held and every queued line written, so that the log and the memory agree.
+     *
+     * @throws IOException If the log cannot be written.
+     */
+    private void compact() throws IOException {
+        Path file = directory.toPath().resolve(FILE);
+        Path compacted = directory.toPath().resolve(FILE + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<Integer, TreeMap<Long, String>> match : actions.entrySet()) {
+            for (String action : match.getValue().values()) {
+                content.append(match.getKey()).append(' ').append(action).append('\n');
+            }
+        }
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (data.hasRemaining()) {
+                out.write(data);
+            }
+            out.force(true);
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        lines = live;
+    }
+
+    /**
+     * Compacts the log from the writer thread once most of its lines are dead, between two batches.
+     * Appending waits meanwhile, for as long as it takes to rewrite the live actions.
+     */
+    private synchronized void compactIfNeeded() {
+        if (closed || channel == null || !queue.isEmpty() || lines < COMPACT_MIN_LINES || lines < COMPACT_RATIO * live) {
+            return;
+        }
+        try {
+            long before = lines;
+            compact();
+            compactions++;
+            logger.fine("Commit log compacted from " + before + " to " + lines + " lines");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to compact the commit log", e);
+        }
+    }
+
+    /**
+     * Parses the lines of an existing log into the actions of the matches.
+     *
+     * @param content The content of the log.
+     */
+    private void read(byte[] content) {
+        int start = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            String[] tokens = new String(content, start, i - start, StandardCharsets.UTF_8).split(" ", 3);
+            try {
+                apply(Integer.parseInt(tokens[0]), Long.parseLong(tokens[1]), tokens[2]);
+            } catch (RuntimeException e) {
+                return;
+            }
+            start = i + 1;
+        }
+    }
+
+    /**
+     * Writes and syncs the queued lines one batch at a time, until the log is closed.
+     */
+    private void run() {
+        List<Change> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                logger.warning("Commit log interrupted");
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            boolean close = batch.remove(CLOSE);
+            commit(batch);
+            batch.clear();
+            if (close) {
+                return;
+            }
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Writes a batch of lines, syncs the log once and completes the futures of the lines.
+     *
+     * @param batch The lines, in the order they were queued.
+     */
+    private void commit(List<Change> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        IOException failure = null;
+        try {
+            for (Change change : batch) {
+                while (change.data().hasRemaining()) {
+                    channel.write(change.data());
+                }
+            }
+            channel.force(false);
+            syncs++;
+            synchronized (this) {
+                lines += batch.size();
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write the commit log", e);
+            failure = e;
+        }
+
+        // counted before the futures complete, so that a caller woken by its future sees its change counted
+        batches++;
+        changes += batch.size();
+
+        for (Change change : batch) {
+            if (failure == null) {
+                change.synced().complete(null);
+            } else {
+                change.synced().completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Writes the lines queued so far, then stops the writer thread and closes the log, compacted if it has dead lines.
+     * The following actions fail.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (channel != null) {
+                try {
+                    // leaves only the live actions for the next start
+                    if (lines > live) {
+                        compact();
+                    }
+                    channel.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Failed to close the commit log", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of batches committed.
+     *
+     * @return The number of batches.
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Gets the number of lines committed.
+     *
+     * @return The number of lines.
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the number of times the log was compacted by the writer thread.
+     *
+     * @return The number of compactions.
+     */
+    public long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Gets the number of lines in the log.
+     *
+     * @return The number of lines.
+     */
+    public synchronized long getLines() {
+        return lines;
+    }
+
+    /**
+     * Gets the number of times the log was synced to disk.
+     *
+     * @return The number of syncs.
+     */
+    public long getSyncs() {
+        return syncs;
+    }
+}
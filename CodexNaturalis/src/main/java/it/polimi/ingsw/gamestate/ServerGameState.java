@@ -1,6 +1,14 @@
 package it.polimi.ingsw.gamestate;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import it.polimi.ingsw.exception.JsonLoadException;
+import it.polimi.ingsw.model.card.Card;
+import it.polimi.ingsw.model.card.CardCatalog;
 import it.polimi.ingsw.model.card.PlayableCard;
 import it.polimi.ingsw.model.card.StarterCard;
 import it.polimi.ingsw.model.field.CardPlacement;
@@ -13,17 +21,24 @@ import it.polimi.ingsw.model.player.PlayerColor;
 import it.polimi.ingsw.utilities.GsonSingleton;
 
 import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
 
 /**
  * Represents the server-side state of the game, including player information, card placements,
  * objectives, decks, market state, and current game progress.
- * This class is serializable to JSON format for saving and loading game states.
+ * This class is serializable to JSON format for saving and loading game states; the saved format references
+ * the cards and the objectives by ID and starts with its version, so that it can evolve.
  */
 public class ServerGameState implements Serializable {
     private static final Logger logger = Logger.getLogger(ServerGameState.class.getName());
+    public static final int FORMAT_VERSION = 2;
+    private static final String VERSION_HEADER = "{\"version\":";
+    private static final Gson SAVED_GSON = GsonSingleton.getCompactGson();
 
     private List<PlayerColor> gameOrder;
 
@@ -49,8 +64,10 @@ public class ServerGameState implements Serializable {
     private PlayerColor currentPlayer;
     private boolean lastLap;
 
+    private long journalSeq;
+
     /**
-     * Constructs a ServerGameState by loading the game state from a JSON file identified by the provided lobby ID.
+     * Constructs a ServerGameState by loading the game state saved for the provided lobby ID.
      *
      * @param lobbyId The ID of the lobby from which to load the game state.
      * @throws IOException If an I/O error occurs during loading.
@@ -60,7 +77,14 @@ public class ServerGameState implements Serializable {
     }
 
     /**
-     * Constructs a ServerGameState with the provided game state parameters and saves it to a JSON file identified by the lobby ID.
+     * Constructs an empty ServerGameState, filled when decoding a saved state.
+     */
+    private ServerGameState() {}
+
+    /**
+     * Constructs a ServerGameState with the provided game state parameters.
+     * The decks, the market and the objectives are copied, so that the snapshot can be saved later by another thread
+     * while the match goes on; it is saved by handing it to a {@link SnapshotWriter}.
      *
      * @param lobbyId           The ID of the lobby to which this game state belongs.
      * @param gameOrder         The list of player colors representing the order of turns in the game.
@@ -75,8 +99,9 @@ public class ServerGameState implements Serializable {
      * @param market            The array of cards available in the market.
      * @param currentPlayer     The current player taking their turn.
      * @param lastLap           Indicates if it is the last lap of the game.
+     * @param journalSeq        The sequence number of the last action of the {@link ActionJournal} included in the state.
      */
-    public ServerGameState(int lobbyId, List<PlayerColor> gameOrder, List<String> players, List<PlayerField> fields, List<Integer> scores, List<Objective> personalObjectives, List<PlayableCard[]> hands, Objective[] commonObjectives, GoldDeck goldDeck, ResourceDeck resourceDeck, PlayableCard[] market, PlayerColor currentPlayer, boolean lastLap) {
+    public ServerGameState(int lobbyId, List<PlayerColor> gameOrder, List<String> players, List<PlayerField> fields, List<Integer> scores, List<Objective> personalObjectives, List<PlayableCard[]> hands, Objective[] commonObjectives, GoldDeck goldDeck, ResourceDeck resourceDeck, PlayableCard[] market, PlayerColor currentPlayer, boolean lastLap, long journalSeq) {
         this.gameOrder = gameOrder;
         this.players = players;
 
@@ -106,14 +131,13 @@ public class ServerGameState implements Serializable {
         this.scores = scores;
         this.personalObjectives = personalObjectives;
         this.hands = hands;
-        this.commonObjectives = commonObjectives;
-        this.goldDeck = goldDeck;
-        this.resourceDeck = resourceDeck;
-        this.market = market;
+        this.commonObjectives = Arrays.copyOf(commonObjectives, commonObjectives.length);
+        this.goldDeck = new GoldDeck(goldDeck);
+        this.resourceDeck = new ResourceDeck(resourceDeck);
+        this.market = Arrays.copyOf(market, market.length);
         this.currentPlayer = currentPlayer;
         this.lastLap = lastLap;
-
-        save(lobbyId);
+        this.journalSeq = journalSeq;
     }
 
     /**
@@ -238,65 +262,281 @@ public class ServerGameState implements Serializable {
     }
 
     /**
-     * Saves the current ServerGameState instance to a JSON file identified by the provided ID.
+     * Returns the sequence number of the last journaled action included in the state;
+     * the actions following it are replayed from the journal.
      *
-     * @param id The ID used to identify the JSON file.
+     * @return The sequence number, 0 for a state saved before the game was journaled.
      */
-    private void save(int id) {
-        Gson gson = GsonSingleton.getGson();
-
-        File directory = new File("interruptedGames");
+    public long getJournalSeq() {
+        return journalSeq;
+    }
 
-        File file = new File(directory, id + ".json");
-        // Create file if it doesn't exist
+    /**
+     * Writes the ServerGameState instance in the current saved format, compact JSON with a version header
+     * referencing every card and objective by ID.
+     *
+     * @param writer The writer to write to.
+     * @throws IOException If an I/O error occurs during writing.
+     */
+    public void write(Writer writer) throws IOException {
         try {
-            if (!file.exists()) {
-                boolean created = file.createNewFile();
-                if (!created) {
-                    logger.info("Failed to create file: " + file.getPath());
-                    return;
-                }
-            }
-        } catch (IOException e) {
-            logger.info("Failed to save file");
-            return;
+            SAVED_GSON.toJson(new Saved(this), writer);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
         }
+    }
 
-        try (FileWriter writer = new FileWriter(file)) {
-            gson.toJson(this, writer);
-        } catch (IOException e){
-            logger.info("Failed to save file");
+    /**
+     * Decodes a saved ServerGameState, in the current format or in the original one embedding the full cards,
+     * which is only found in the files imported by {@link SnapshotWriter#importLegacy()}.
+     *
+     * @param data The saved state.
+     * @return The decoded state.
+     * @throws IOException If the data is not a valid saved state.
+     */
+    public static ServerGameState decode(byte[] data) throws IOException {
+        String header = new String(data, 0, Math.min(data.length, VERSION_HEADER.length()), StandardCharsets.UTF_8);
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)) {
+            if (!header.equals(VERSION_HEADER)) {
+                return decodeLegacy(reader);
+            }
+
+            Saved saved = SAVED_GSON.fromJson(reader, Saved.class);
+            if (saved.version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + saved.version);
+            }
+            return saved.toState();
+        } catch (JsonParseException e) {
+            throw new IOException(e);
         }
     }
 
     /**
-     * Loads the ServerGameState instance from a JSON file identified by the provided ID.
+     * Decodes a state saved in the original format, the fields of the ServerGameState written by reflection.
+     * The decks were saved as a stack of cards, so they are rebuilt from the cards alone.
      *
-     * @param id The ID used to identify the JSON file.
+     * @param reader The reader of the saved state.
+     * @return The decoded state.
+     */
+    private static ServerGameState decodeLegacy(Reader reader) {
+        JsonObject tree = JsonParser.parseReader(reader).getAsJsonObject();
+        ServerGameState state = SAVED_GSON.fromJson(tree, ServerGameState.class);
+        Type cards = new TypeToken<List<PlayableCard>>(){}.getType();
+        state.goldDeck = new GoldDeck(SAVED_GSON.<List<PlayableCard>>fromJson(tree.getAsJsonObject("goldDeck").get("cards"), cards));
+        state.resourceDeck = new ResourceDeck(SAVED_GSON.<List<PlayableCard>>fromJson(tree.getAsJsonObject("resourceDeck").get("cards"), cards));
+        return state;
+    }
+
+    /**
+     * Loads the ServerGameState instance from the snapshot saved by the {@link SnapshotWriter} for the provided ID.
+     *
+     * @param id The ID of the lobby.
      * @throws IOException If an I/O error occurs during loading.
      */
     private void load(int id) throws IOException {
-        Gson gson = GsonSingleton.getGson();
-        try (FileReader reader = new FileReader("interruptedGames/" + id + ".json")) {
-            ServerGameState loadedState = gson.fromJson(reader, ServerGameState.class);
-            this.players = loadedState.players;
-            this.gameOrder = loadedState.gameOrder;
-
-            this.starters = loadedState.starters;
-            this.starterSides = loadedState.starterSides;
-            this.playableCards = loadedState.playableCards;
-            this.positions = loadedState.positions;
-            this.sides = loadedState.sides;
-
-            this.scores = loadedState.scores;
-            this.personalObjectives = loadedState.personalObjectives;
-            this.hands = loadedState.hands;
-            this.commonObjectives = loadedState.commonObjectives;
-            this.goldDeck = loadedState.goldDeck;
-            this.resourceDeck = loadedState.resourceDeck;
-            this.market = loadedState.market;
-            this.currentPlayer = loadedState.currentPlayer;
-            this.lastLap = loadedState.lastLap;
+        ServerGameState loadedState = decode(SnapshotWriter.getInstance().read(id));
+        this.players = loadedState.players;
+        this.gameOrder = loadedState.gameOrder;
+
+        this.starters = loadedState.starters;
+        this.starterSides = loadedState.starterSides;
+        this.playableCards = loadedState.playableCards;
+        this.positions = loadedState.positions;
+        this.sides = loadedState.sides;
+
+        this.scores = loadedState.scores;
+        this.personalObjectives = loadedState.personalObjectives;
+        this.hands = loadedState.hands;
+        this.commonObjectives = loadedState.commonObjectives;
+        this.goldDeck = loadedState.goldDeck;
+        this.resourceDeck = loadedState.resourceDeck;
+        this.market = loadedState.market;
+        this.currentPlayer = loadedState.currentPlayer;
+        this.lastLap = loadedState.lastLap;
+        this.journalSeq = loadedState.journalSeq;
+    }
+
+    /**
+     * The saved form of a ServerGameState: the cards and the objectives are static resources,
+     * so only their IDs are saved and they are resolved against the {@link CardCatalog} when decoded.
+     * The version comes first, so that the format can be recognized from the first bytes.
+     */
+    private static final class Saved {
+        private int version;
+        private List<PlayerColor> gameOrder;
+        private List<String> players;
+        private List<String> starters;
+        private List<Boolean> starterSides;
+        private List<List<String>> playableCards;
+        private List<List<Position>> positions;
+        private List<List<Boolean>> sides;
+        private List<Integer> scores;
+        private List<String> personalObjectives;
+        private List<List<String>> hands;
+        private List<String> commonObjectives;
+        private List<String> goldDeck;
+        private List<String> resourceDeck;
+        private List<String> market;
+        private PlayerColor currentPlayer;
+        private boolean lastLap;
+        private long journalSeq;
+
+        /**
+         * Constructs the saved form of a state.
+         *
+         * @param state The state.
+         */
+        private Saved(ServerGameState state) {
+            version = FORMAT_VERSION;
+            gameOrder = state.gameOrder;
+            players = state.players;
+            starters = state.starters.stream().map(Card::getId).toList();
+            starterSides = state.starterSides;
+            playableCards = state.playableCards.stream().map(Saved::cardIds).toList();
+            positions = state.positions;
+            sides = state.sides;
+            scores = state.scores;
+            personalObjectives = state.personalObjectives.stream().map(Saved::objectiveId).toList();
+            hands = state.hands.stream().map(hand -> cardIds(Arrays.asList(hand))).toList();
+            commonObjectives = Arrays.stream(state.commonObjectives).map(Saved::objectiveId).toList();
+            goldDeck = cardIds(state.goldDeck.getCards());
+            resourceDeck = cardIds(state.resourceDeck.getCards());
+            market = cardIds(Arrays.asList(state.market));
+            currentPlayer = state.currentPlayer;
+            lastLap = state.lastLap;
+            journalSeq = state.journalSeq;
+        }
+
+        /**
+         * Rebuilds the state, resolving the IDs against the card catalog.
+         *
+         * @return The state.
+         * @throws IOException If an ID does not match any definition.
+         */
+        private ServerGameState toState() throws IOException {
+            ServerGameState state = new ServerGameState();
+            state.gameOrder = gameOrder;
+            state.players = players;
+            state.starters = new ArrayList<>();
+            for (String id : starters) {
+                state.starters.add((StarterCard) card(id));
+            }
+            state.starterSides = starterSides;
+            state.playableCards = new ArrayList<>();
+            for (List<String> ids : playableCards) {
+                state.playableCards.add(cards(ids));
+            }
+            state.positions = positions;
+            state.sides = sides;
+            state.scores = scores;
+            state.personalObjectives = new ArrayList<>();
+            for (String id : personalObjectives) {
+                state.personalObjectives.add(objective(id));
+            }
+            state.hands = new ArrayList<>();
+            for (List<String> ids : hands) {
+                state.hands.add(cards(ids).toArray(new PlayableCard[0]));
+            }
+            state.commonObjectives = new Objective[commonObjectives.size()];
+            for (int i = 0; i < commonObjectives.size(); i++) {
+                state.commonObjectives[i] = objective(commonObjectives.get(i));
+            }
+            state.goldDeck = new GoldDeck(cards(goldDeck));
+            state.resourceDeck = new ResourceDeck(cards(resourceDeck));
+            state.market = cards(market).toArray(new PlayableCard[0]);
+            state.currentPlayer = currentPlayer;
+            state.lastLap = lastLap;
+            state.journalSeq = journalSeq;
+            return state;
+        }
+
+        /**
+         * Lists the IDs of some cards, keeping the empty places as null.
+         *
+         * @param cards The cards.
+         * @return The IDs of the cards.
+         */
+        private static List<String> cardIds(List<? extends Card> cards) {
+            List<String> ids = new ArrayList<>(cards.size());
+            for (Card card : cards) {
+                ids.add(card == null ? null : card.getId());
+            }
+            return ids;
+        }
+
+        /**
+         * Gets the ID of an objective, or null for no objective.
+         *
+         * @param objective The objective.
+         * @return The ID of the objective.
+         */
+        private static String objectiveId(Objective objective) {
+            return objective == null ? null : objective.getId();
+        }
+
+        /**
+         * Resolves the IDs of some playable cards, keeping the empty places as null.
+         *
+         * @param ids The IDs of the cards.
+         * @return The cards.
+         * @throws IOException If an ID does not match any playable card.
+         */
+        private static List<PlayableCard> cards(List<String> ids) throws IOException {
+            List<PlayableCard> cards = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                cards.add(id == null ? null : (PlayableCard) card(id));
+            }
+            return cards;
+        }
+
+        /**
+         * Resolves the ID of a card against the {@link CardCatalog}.
+         *
+         * @param id The ID of the card.
+         * @return The card, or null for a null ID.
+         * @throws IOException If the catalog cannot be loaded or the ID does not match any card.
+         */
+        private static Card card(String id) throws IOException {
+            if (id == null) {
+                return null;
+            }
+            Card card = catalog().getCard(id);
+            if (card == null) {
+                throw new IOException("Unknown card " + id);
+            }
+            return card;
+        }
+
+        /**
+         * Resolves the ID of an objective against the {@link CardCatalog}.
+         *
+         * @param id The ID of the objective.
+         * @return The objective, or null for a null ID.
+         * @throws IOException If the catalog cannot be loaded or the ID does not match any objective.
+         */
+        private static Objective objective(String id) throws IOException {
+            if (id == null) {
+                return null;
+            }
+            Objective objective = catalog().getObjective(id);
+            if (objective == null) {
+                throw new IOException("Unknown objective " + id);
+            }
+            return objective;
+        }
+
+        /**
+         * Gets the card catalog.
+         *
+         * @return The catalog.
+         * @throws IOException If the catalog cannot be loaded.
+         */
+        private static CardCatalog catalog() throws IOException {
+            try {
+                return CardCatalog.getInstance();
+            } catch (JsonLoadException e) {
+                throw new IOException(e);
+            }
         }
     }
 }
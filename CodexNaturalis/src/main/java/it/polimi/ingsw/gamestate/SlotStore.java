@@ -0,0 +1,391 @@
+package it.polimi.ingsw.gamestate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the snapshots of all the matches in a single memory-mapped file, split into fixed-size slots.
+ * A snapshot takes a chain of slots, the first of which, the head, holds the ID of the match, a generation number
+ * and a checksum of the whole snapshot; the file grows by doubling its number of slots when none is free.
+ * A snapshot can come with a short label, such as the players of the match, stored at the start of the head slot
+ * so that it is read without reading nor decoding the rest of the snapshot.
+ * A new snapshot is written to free slots and synced before the slots of the previous one are released, so that a
+ * crash leaves either the old or the new snapshot; at startup the heads are found by scanning the slot headers
+ * through the mapping, the newest valid head of each match wins and every other slot goes back to the free list.
+ */
+public class SlotStore implements Closeable {
+    private static final Logger logger = Logger.getLogger(SlotStore.class.getName());
+    private static final int MAGIC = 0x434E5353;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_HEADER_SIZE = 32;
+    private static final int FREE = 0;
+    private static final int HEAD = 1;
+    private static final int BODY = 2;
+    private static final int NONE = -1;
+
+    /**
+     * The head of a stored snapshot.
+     *
+     * @param slot       The index of the head slot.
+     * @param generation The generation number of the snapshot, higher for newer snapshots.
+     */
+    private record Head(int slot, long generation) {}
+
+    private final FileChannel channel;
+    private final int slotSize;
+    private MappedByteBuffer map;
+    private int slotCount;
+    private long generation;
+    private final Map<Integer, Head> heads = new HashMap<>();
+    private final TreeSet<Integer> free = new TreeSet<>();
+
+    /**
+     * Opens a SlotStore, creating the file if it does not exist and recovering the stored snapshots otherwise.
+     *
+     * @param file         The path of the file.
+     * @param slotSize     The size of a slot of a new file, in bytes; an existing file keeps its own.
+     * @param initialSlots The number of slots of a new file.
+     * @throws IOException If the file cannot be opened or is not a slot store.
+     */
+    public SlotStore(Path file, int slotSize, int initialSlots) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                this.slotSize = slotSize;
+                slotCount = initialSlots;
+                map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * slotSize);
+                map.putInt(0, MAGIC);
+                map.putInt(4, VERSION);
+                map.putInt(8, slotSize);
+                map.putInt(12, slotCount);
+                map.force();
+            } else {
+                map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                    throw new IOException("Not a snapshot store: " + file);
+                }
+                this.slotSize = map.getInt(8);
+                slotCount = (int) Math.min(map.getInt(12), (channel.size() - HEADER_SIZE) / this.slotSize);
+            }
+            recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds the index of the snapshots and the free list from the slot headers.
+     */
+    private void recover() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (state(slot) != HEAD) {
+                continue;
+            }
+            int id = map.getInt(offset(slot) + 4);
+            long gen = map.getLong(offset(slot) + 8);
+            generation = Math.max(generation, gen);
+
+            Head current = heads.get(id);
+            if ((current == null || current.generation() < gen) && read(slot) != null) {
+                heads.put(id, new Head(slot, gen));
+            }
+        }
+
+        boolean[] used = new boolean[slotCount];
+        for (Head head : heads.values()) {
+            for (int slot : chain(head.slot())) {
+                used[slot] = true;
+            }
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!used[slot]) {
+                free.add(slot);
+            }
+        }
+        logger.info("Recovered " + heads.size() + " snapshots, " + free.size() + " of " + slotCount + " slots free");
+    }
+
+    /**
+     * Stores the snapshot of a match without a label, replacing the previous one once the new one is synced to disk.
+     *
+     * @param id   The ID of the match.
+     * @param data The snapshot.
+     * @throws IOException If the file cannot grow to hold the snapshot.
+     */
+    public void put(int id, byte[] data) throws IOException {
+        put(id, new byte[0], data);
+    }
+
+    /**
+     * Stores the snapshot of a match with its label, replacing the previous one once the new one is synced to disk.
+     *
+     * @param id       The ID of the match.
+     * @param label    The label of the snapshot, which must fit in a single slot.
+     * @param snapshot The snapshot.
+     * @throws IOException If the label is too long or the file cannot grow to hold the snapshot.
+     */
+    public synchronized void put(int id, byte[] label, byte[] snapshot) throws IOException {
+        int payload = slotSize - SLOT_HEADER_SIZE;
+        if (label.length > payload) {
+            throw new IOException("Label of match " + id + " longer than a slot");
+        }
+        byte[] data = new byte[label.length + snapshot.length];
+        System.arraycopy(label, 0, data, 0, label.length);
+        System.arraycopy(snapshot, 0, data, label.length, snapshot.length);
+
+        int needed = Math.max(1, (data.length + payload - 1) / payload);
+        while (free.size() < needed) {
+            grow();
+        }
+
+        List<Integer> slots = new ArrayList<>(needed);
+        for (int i = 0; i < needed; i++) {
+            slots.add(free.pollFirst());
+        }
+
+        // the body first, then the head, all synced together
+        for (int i = needed - 1; i >= 0; i--) {
+            int slot = slots.get(i);
+            int from = i * payload;
+            int length = Math.min(payload, data.length - from);
+            int base = offset(slot);
+            map.put(base + SLOT_HEADER_SIZE, data, from, length);
+            map.putInt(base + 4, id);
+            map.putInt(base + 16, i == 0 ? data.length : length);
+            map.putInt(base + 20, i + 1 < needed ? slots.get(i + 1) : NONE);
+            if (i > 0) {
+                map.putInt(base, BODY);
+            }
+        }
+        int base = offset(slots.getFirst());
+        map.putLong(base + 8, ++generation);
+        map.putInt(base + 24, checksum(data));
+        map.putInt(base + 28, label.length);
+        map.putInt(base, HEAD);
+        map.force();
+
+        Head old = heads.put(id, new Head(slots.getFirst(), generation));
+        if (old != null) {
+            release(old);
+        }
+    }
+
+    /**
+     * Reads the snapshot of a match.
+     *
+     * @param id The ID of the match.
+     * @return The snapshot, or null if no snapshot of the match is stored.
+     */
+    public synchronized byte[] get(int id) {
+        Head head = heads.get(id);
+        if (head == null) {
+            return null;
+        }
+        byte[] data = read(head.slot());
+        return data == null ? null : Arrays.copyOfRange(data, labelLength(head.slot()), data.length);
+    }
+
+    /**
+     * Reads the label of the snapshot of a match, from its head slot only.
+     *
+     * @param id The ID of the match.
+     * @return The label, empty if the snapshot has none, or null if no snapshot of the match is stored.
+     */
+    public synchronized byte[] getLabel(int id) {
+        Head head = heads.get(id);
+        if (head == null) {
+            return null;
+        }
+        byte[] label = new byte[labelLength(head.slot())];
+        map.get(offset(head.slot()) + SLOT_HEADER_SIZE, label);
+        return label;
+    }
+
+    /**
+     * Gets the length of the label of the snapshot starting at a head slot.
+     *
+     * @param head The index of the head slot.
+     * @return The length of the label, in bytes.
+     */
+    private int labelLength(int head) {
+        return map.getInt(offset(head) + 28);
+    }
+
+    /**
+     * Removes the snapshot of a match, making its slots free for the following snapshots.
+     *
+     * @param id The ID of the match.
+     */
+    public synchronized void remove(int id) {
+        Head head = heads.remove(id);
+        if (head != null) {
+            release(head);
+            map.force();
+        }
+    }
+
+    /**
+     * Gets the IDs of the matches with a stored snapshot.
+     *
+     * @return The IDs, in ascending order.
+     */
+    public synchronized Set<Integer> getIds() {
+        return new TreeSet<>(heads.keySet());
+    }
+
+    /**
+     * Gets the number of slots not holding any snapshot.
+     *
+     * @return The number of free slots.
+     */
+    public synchronized int getFreeSlots() {
+        return free.size();
+    }
+
+    /**
+     * Gets the number of slots of the file.
+     *
+     * @return The number of slots.
+     */
+    public synchronized int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Marks the head of a snapshot free and returns its slots to the free list.
+     *
+     * @param head The head of the snapshot.
+     */
+    private void release(Head head) {
+        List<Integer> slots = chain(head.slot());
+        map.putInt(offset(head.slot()), FREE);
+        free.addAll(slots);
+    }
+
+    /**
+     * Doubles the number of slots, extending the file and the mapping.
+     *
+     * @throws IOException If the file cannot be extended.
+     */
+    private void grow() throws IOException {
+        int grown = slotCount * 2;
+        if (HEADER_SIZE + (long) grown * slotSize > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot store full");
+        }
+        map.force();
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) grown * slotSize);
+        for (int slot = slotCount; slot < grown; slot++) {
+            map.putInt(offset(slot), FREE);
+            free.add(slot);
+        }
+        slotCount = grown;
+        map.putInt(12, slotCount);
+        logger.info("Snapshot store grown to " + slotCount + " slots");
+    }
+
+    /**
+     * Reads the label and the snapshot starting at a head slot, checking that they are complete.
+     *
+     * @param head The index of the head slot.
+     * @return The label followed by the snapshot, or null if they are torn or corrupted.
+     */
+    private byte[] read(int head) {
+        int length = map.getInt(offset(head) + 16);
+        int label = labelLength(head);
+        if (length < 0 || length > (long) slotCount * (slotSize - SLOT_HEADER_SIZE)
+                || label < 0 || label > Math.min(length, slotSize - SLOT_HEADER_SIZE)) {
+            return null;
+        }
+
+        byte[] data = new byte[length];
+        int position = 0;
+        int slot = head;
+        while (position < length && slot >= 0 && slot < slotCount) {
+            int chunk = Math.min(slotSize - SLOT_HEADER_SIZE, length - position);
+            map.get(offset(slot) + SLOT_HEADER_SIZE, data, position, chunk);
+            position += chunk;
+            slot = map.getInt(offset(slot) + 20);
+        }
+
+        if (position < length || checksum(data) != map.getInt(offset(head) + 24)) {
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Lists the slots of the snapshot starting at a head slot.
+     *
+     * @param head The index of the head slot.
+     * @return The slots, head first.
+     */
+    private List<Integer> chain(int head) {
+        int payload = slotSize - SLOT_HEADER_SIZE;
+        int count = Math.max(1, (map.getInt(offset(head) + 16) + payload - 1) / payload);
+        List<Integer> slots = new ArrayList<>(count);
+        int slot = head;
+        for (int i = 0; i < count && slot >= 0 && slot < slotCount; i++) {
+            slots.add(slot);
+            slot = map.getInt(offset(slot) + 20);
+        }
+        return slots;
+    }
+
+    /**
+     * Gets the state of a slot.
+     *
+     * @param slot The index of the slot.
+     * @return The state, FREE, HEAD or BODY.
+     */
+    private int state(int slot) {
+        return map.getInt(offset(slot));
+    }
+
+    /**
+     * Gets the position of a slot in the file.
+     *
+     * @param slot The index of the slot.
+     * @return The offset of the slot.
+     */
+    private int offset(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    /**
+     * Computes the checksum of a snapshot.
+     *
+     * @param data The snapshot.
+     * @return The checksum.
+     */
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Syncs and closes the file.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,394 @@
+package it.polimi.ingsw.gamestate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves the snapshots of the matches on a background thread, so that the matches never wait for the disk.
+ * Only the latest snapshot of each match is kept: a snapshot submitted while the previous one of the same match is
+ * still waiting replaces it, so a slow disk costs skipped intermediate snapshots instead of a growing backlog.
+ * The snapshots of all the matches are kept in a single {@link SlotStore}, which never leaves a truncated
+ * snapshot behind after a crash; each snapshot is labelled with the usernames of its players, so that the players of
+ * the saved matches are known at startup without decoding the snapshots.
+ */
+public class SnapshotWriter {
+    private static final Logger logger = Logger.getLogger(SnapshotWriter.class.getName());
+    private static final long LAG_WARNING = 1000;
+    private static final String STORE_FILE = "snapshots.db";
+    private static final String LEGACY_INFO_FILE = "info.json";
+    private static final int SLOT_SIZE = 16 * 1024;
+    private static final int INITIAL_SLOTS = 64;
+    private static SnapshotWriter instance;
+
+    /**
+     * A snapshot waiting to be written.
+     *
+     * @param state       The snapshot, or null if the saved snapshot must be deleted.
+     * @param saved       Run once the snapshot is saved, not run if it is replaced before being written.
+     * @param submittedAt The time the snapshot was submitted, in milliseconds.
+     */
+    private record Pending(ServerGameState state, Runnable saved, long submittedAt) {}
+
+    private final File directory;
+    private SlotStore store;
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<Integer> dirty = new LinkedBlockingQueue<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile long lastLag;
+    private volatile long maxLag;
+    private int inFlight;
+
+    /**
+     * Constructs a SnapshotWriter and starts its writer thread.
+     *
+     * @param directory The directory holding the snapshot store.
+     */
+    public SnapshotWriter(File directory) {
+        this.directory = directory;
+        Thread.ofPlatform().name("snapshot-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Gets the writer saving the snapshots in the interrupted games directory, starting it on first use.
+     *
+     * @return The shared snapshot writer.
+     */
+    public static synchronized SnapshotWriter getInstance() {
+        if (instance == null) {
+            instance = new SnapshotWriter(new File("interruptedGames"));
+        }
+        return instance;
+    }
+
+    /**
+     * Queues the snapshot of a match to be saved, replacing the one still waiting if any.
+     *
+     * @param id    The ID of the match.
+     * @param state The snapshot.
+     */
+    public void submit(int id, ServerGameState state) {
+        submit(id, state, () -> {});
+    }
+
+    /**
+     * Queues the snapshot of a match to be saved, replacing the one still waiting if any, with an action run on the
+     * writer thread once the snapshot is on disk; the action is dropped if the snapshot is replaced or not saved.
+     *
+     * @param id    The ID of the match.
+     * @param state The snapshot.
+     * @param saved The action run once the snapshot is saved.
+     */
+    public void submit(int id, ServerGameState state, Runnable saved) {
+        enqueue(id, new Pending(state, saved, System.currentTimeMillis()));
+    }
+
+    /**
+     * Queues the deletion of the saved snapshot of a match, discarding the one still waiting if any.
+     *
+     * @param id The ID of the match.
+     */
+    public void delete(int id) {
+        enqueue(id, new Pending(null, () -> {}, System.currentTimeMillis()));
+    }
+
+    /**
+     * Records the latest pending operation of a match, marking the match dirty unless it already was.
+     *
+     * @param id     The ID of the match.
+     * @param latest The operation.
+     */
+    private void enqueue(int id, Pending latest) {
+        synchronized (this) {
+            inFlight++;
+        }
+        if (pending.put(id, latest) == null) {
+            dirty.add(id);
+        } else {
+            coalesced.incrementAndGet();
+            done();
+        }
+    }
+
+    /**
+     * Writes the dirty matches one at a time, each with its latest snapshot.
+     */
+    private void run() {
+        while (true) {
+            int id;
+            try {
+                id = dirty.take();
+            } catch (InterruptedException e) {
+                logger.warning("Snapshot writer interrupted");
+                return;
+            }
+
+            Pending latest = pending.remove(id);
+            if (latest == null) {
+                continue;
+            }
+
+            try {
+                if (latest.state() == null) {
+                    SlotStore store = store();
+                    if (store != null) {
+                        store.remove(id);
+                    }
+                } else if (write(id, latest.state())) {
+                    latest.saved().run();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to save match " + id, e);
+            } finally {
+                long lag = System.currentTimeMillis() - latest.submittedAt();
+                lastLag = lag;
+                maxLag = Math.max(maxLag, lag);
+                if (lag > LAG_WARNING) {
+                    logger.warning("Snapshot of match " + id + " written " + lag + " ms after being taken");
+                }
+                done();
+            }
+        }
+    }
+
+    /**
+     * Encodes a snapshot and stores it in place of the previous one.
+     * Nothing is written if the directory does not exist, it is created by the server at startup.
+     *
+     * @param id    The ID of the match.
+     * @param state The snapshot.
+     * @return True if the snapshot was saved, False if the directory does not exist.
+     * @throws IOException If an I/O error occurs.
+     */
+    private boolean write(int id, ServerGameState state) throws IOException {
+        SlotStore store = store();
+        if (store == null) {
+            logger.info("Failed to save match " + id + ", missing directory " + directory.getPath());
+            return false;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            state.write(writer);
+        }
+        ByteArrayOutputStream label = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(label)) {
+            out.writeInt(state.getPlayers().size());
+            for (String player : state.getPlayers()) {
+                out.writeUTF(player);
+            }
+        }
+        store.put(id, label.toByteArray(), bytes.toByteArray());
+        return true;
+    }
+
+    /**
+     * Gets the snapshot store, opening it the first time it is needed if the directory exists,
+     * and closing it if the directory was removed meanwhile.
+     *
+     * @return The store, or null if the directory does not exist.
+     * @throws IOException If the store cannot be opened.
+     */
+    private synchronized SlotStore store() throws IOException {
+        if (!directory.isDirectory()) {
+            if (store != null) {
+                store.close();
+                store = null;
+            }
+        } else if (store == null) {
+            store = new SlotStore(new File(directory, STORE_FILE).toPath(), SLOT_SIZE, INITIAL_SLOTS);
+        }
+        return store;
+    }
+
+    /**
+     * Reads the saved snapshot of a match.
+     *
+     * @param id The ID of the match.
+     * @return The encoded snapshot.
+     * @throws IOException If no snapshot of the match is saved or the store cannot be opened.
+     */
+    public byte[] read(int id) throws IOException {
+        SlotStore store = store();
+        byte[] data = store == null ? null : store.get(id);
+        if (data == null) {
+            throw new IOException("No saved snapshot of match " + id);
+        }
+        return data;
+    }
+
+    /**
+     * Gets the usernames of the players of every match with a saved snapshot, from the labels of the snapshots.
+     *
+     * @return The usernames by match ID, empty if the store cannot be opened.
+     */
+    public Map<Integer, List<String>> getSavedPlayers() {
+        Map<Integer, List<String>> players = new HashMap<>();
+        try {
+            SlotStore store = store();
+            if (store == null) {
+                return players;
+            }
+            for (int id : store.getIds()) {
+                byte[] label = store.getLabel(id);
+                if (label == null) {
+                    continue;
+                }
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(label))) {
+                    List<String> usernames = new ArrayList<>();
+                    for (int i = in.readInt(); i > 0; i--) {
+                        usernames.add(in.readUTF());
+                    }
+                    players.put(id, usernames);
+                } catch (IOException e) {
+                    logger.warning("Failed to read the players of match " + id + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to open the snapshot store", e);
+        }
+        return players;
+    }
+
+    /**
+     * Gets the IDs of the matches with a saved snapshot.
+     *
+     * @return The IDs, empty if the store cannot be opened.
+     */
+    public Set<Integer> getSavedIds() {
+        try {
+            SlotStore store = store();
+            return store == null ? Set.of() : store.getIds();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to open the snapshot store", e);
+            return Set.of();
+        }
+    }
+
+    /**
+     * Imports the matches saved by the original server, one JSON file per match named after its ID next to an
+     * info.json file listing their players, into the store, then deletes their files.
+     * A match that cannot be decoded, or whose ID already has a snapshot, keeps its file and is not imported.
+     *
+     * @return The number of imported matches.
+     * @throws InterruptedException If the thread is interrupted while waiting for the snapshots to be written.
+     */
+    public int importLegacy() throws InterruptedException {
+        File[] files = directory.listFiles((dir, name) -> name.matches("\\d{1,9}\\.json"));
+        if (files == null || files.length == 0) {
+            return 0;
+        }
+
+        Set<Integer> saved = getSavedIds();
+        Map<Integer, File> submitted = new HashMap<>();
+        Set<Integer> imported = ConcurrentHashMap.newKeySet();
+        for (File file : files) {
+            int id = Integer.parseInt(file.getName().substring(0, file.getName().length() - ".json".length()));
+            if (saved.contains(id)) {
+                logger.warning("Match " + id + " is already saved, " + file.getName() + " not imported");
+                continue;
+            }
+            try {
+                ServerGameState state = ServerGameState.decode(Files.readAllBytes(file.toPath()));
+                submit(id, state, () -> imported.add(id));
+                submitted.put(id, file);
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to import " + file.getName(), e);
+            }
+        }
+        flush();
+
+        int left = files.length;
+        for (Map.Entry<Integer, File> match : submitted.entrySet()) {
+            if (!imported.contains(match.getKey())) {
+                continue;
+            }
+            if (match.getValue().delete()) {
+                left--;
+            } else {
+                logger.warning("Failed to delete " + match.getValue().getPath());
+            }
+        }
+        File info = new File(directory, LEGACY_INFO_FILE);
+        if (left == 0 && info.exists() && !info.delete()) {
+            logger.warning("Failed to delete " + info.getPath());
+        }
+        logger.info("Imported " + imported.size() + " matches saved by the original server");
+        return imported.size();
+    }
+
+    /**
+     * Records that a submitted operation was completed or superseded.
+     */
+    private synchronized void done() {
+        inFlight--;
+        if (inFlight == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Waits until every snapshot submitted so far is written.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public synchronized void flush() throws InterruptedException {
+        while (inFlight > 0) {
+            wait();
+        }
+    }
+
+    /**
+     * Gets how long the last snapshot written waited before reaching the disk.
+     *
+     * @return The write lag in milliseconds.
+     */
+    public long getLastLag() {
+        return lastLag;
+    }
+
+    /**
+     * Gets the longest time a snapshot waited before reaching the disk.
+     *
+     * @return The maximum write lag in milliseconds.
+     */
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    /**
+     * Gets the number of snapshots replaced by a newer one before being written.
+     *
+     * @return The number of skipped snapshots.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the number of matches with a snapshot waiting to be written.
+     *
+     * @return The number of pending snapshots.
+     */
+    public int getPending() {
+        return pending.size();
+    }
+}
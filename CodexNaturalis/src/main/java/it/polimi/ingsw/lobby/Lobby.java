@@ -2,6 +2,7 @@ package it.polimi.ingsw.lobby;
 
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.exception.*;
+import it.polimi.ingsw.message.FailedGameReconnectionMessage;
 import it.polimi.ingsw.message.FailedToStartMatchMessage;
 import it.polimi.ingsw.message.lobby.PlayerLeftLobbyMessage;
 import it.polimi.ingsw.model.game.Match;
@@ -10,6 +11,7 @@ import it.polimi.ingsw.network.Server;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -37,13 +39,13 @@ public class Lobby {
     }
 
     /**
-     * Constructs a new Lobby instance with the specified ID and list of controllers.
+     * Constructs a new Lobby instance for an interrupted match, with the specified ID and list of controllers;
+     * the match is loaded by {@link #resume(List)}.
      *
      * @param id          The ID used to identify the lobby.
      * @param controllers The list of controllers representing players in the lobby.
-     * @throws IOException If an IO error occurs during initialization.
      */
-    public Lobby(int id, List<Controller> controllers) throws IOException {
+    public Lobby(int id, List<Controller> controllers) {
         this.id = id;
         match = new Match(id);
         chat = new Chat();
@@ -54,18 +56,29 @@ public class Lobby {
             chat.addUser(controller);
         }
 
-        match.load(controllers);
+        match.setOnEnd(() -> Server.matchEnded(this));
+    }
 
-        new Thread(()->{
+    /**
+     * Loads and resumes the interrupted match on its own mailbox, so that decoding the snapshot and replaying
+     * the journal never block the thread handling the connection that completed the players.
+     *
+     * @param controllers The list of controllers representing players in the lobby.
+     */
+    public void resume(List<Controller> controllers) {
+        match.submit(()->{
             try{
-                match.resumeGame();
+                match.load(controllers);
+            } catch (IOException | RuntimeException e){
+                failedToResume(controllers, e);
+                return;
+            }
+            try{
+                match.resume();
             } catch (Exception e){
-                logger.warning("Lobby " + id + " failed to start match : " + e.getMessage());
-                match.broadcast(new FailedToStartMatchMessage());
-                Server.matchEnded(this);
+                failedToStart(e);
             }
-            Server.matchEnded(this);
-        }).start();
+        });
     }
 
     /**
@@ -80,17 +93,41 @@ public class Lobby {
         players.add(username);
         chat.addUser(controller);
         if(players.size() == numPlayers){
-            new Thread(()->{
+            match.setOnEnd(() -> Server.matchEnded(this));
+            match.submit(()->{
                 try{
-                    match.startMatch();
+                    match.start();
                 } catch (Exception e){
-                    logger.warning("Lobby " + id + " failed to start match : " + e.getMessage());
-                    match.broadcast(new FailedToStartMatchMessage());
-                    Server.matchEnded(this);
+                    failedToStart(e);
                 }
-                Server.matchEnded(this);
-            }).start();
+            });
+        }
+    }
+
+    /**
+     * Notifies the players that the match could not start and releases the lobby.
+     *
+     * @param e The cause of the failure.
+     */
+    private void failedToStart(Exception e){
+        logger.warning("Lobby " + id + " failed to start match : " + e.getMessage());
+        match.broadcast(new FailedToStartMatchMessage());
+        Server.matchEnded(this);
+    }
+
+    /**
+     * Notifies the players that the interrupted match could not be loaded and releases the lobby,
+     * keeping the saved match for a later run.
+     *
+     * @param controllers The controllers of the players.
+     * @param e           The cause of the failure.
+     */
+    private void failedToResume(List<Controller> controllers, Exception e){
+        logger.log(Level.SEVERE, "Lobby " + id + " failed to load the interrupted match", e);
+        for(Controller controller : controllers){
+            controller.update(new FailedGameReconnectionMessage());
         }
+        Server.reconnectionFailed(this);
     }
 
     /**
@@ -121,7 +158,7 @@ public class Lobby {
      *
      * @return True if the lobby is empty, otherwise False.
      */
-    public boolean isEmpty(){
+    synchronized public boolean isEmpty(){
         return players.isEmpty();
     }
 
@@ -139,7 +176,7 @@ public class Lobby {
      *
      * @return The current number of players in the lobby.
      */
-    public int getCurrentPlayersNum(){
+    synchronized public int getCurrentPlayersNum(){
         return players.size();
     }
 
@@ -155,7 +192,7 @@ public class Lobby {
      *
      * @return A list of player usernames.
      */
-    public List<String> getPlayers(){return new ArrayList<>(players);}
+    synchronized public List<String> getPlayers(){return new ArrayList<>(players);}
 
     /**
      * Gets the ID of the lobby.
@@ -168,8 +205,9 @@ public class Lobby {
 
     /**
      * Terminates the match, ending it due to a disconnection.
+     * The termination is queued after the actions already submitted to the match.
      */
     public void terminateMatch(){
-        match.endForDisconnection();
+        match.submit(match::endForDisconnection);
     }
 }
@@ -4,5 +4,5 @@ package it.polimi.ingsw.message;
  * Represents the different types of messages that can be exchanged in the game.
  */
 public enum MessageType {
-    LOGIN, GAME, ERROR, SUCCESS, INFO, CHAT, JOIN, CREATE, LEAVE, GET, LOBBIES, PLAYER_JOINED_LOBBY, PLAYER_LEFT_LOBBY, LOBBY_INFO, GET_LOBBY_INFO, RECONNECTION, RECONNECTION_FAILED, GAMESTATE, FAILED_TO_START_MATCH
+    LOGIN, GAME, ERROR, SUCCESS, INFO, CHAT, JOIN, CREATE, LEAVE, GET, LOBBIES, PLAYER_JOINED_LOBBY, PLAYER_LEFT_LOBBY, LOBBY_INFO, GET_LOBBY_INFO, RECONNECTION, RECONNECTION_FAILED, GAMESTATE, FAILED_TO_START_MATCH, PING, LOBBY_UPDATE, QUEUE
 }
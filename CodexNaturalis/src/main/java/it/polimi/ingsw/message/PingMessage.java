@@ -0,0 +1,18 @@
+package it.polimi.ingsw.message;
+
+/**
+ * Represents a ping sent periodically by socket clients so that the server can tell they are still alive.
+ * It carries no data.
+ */
+public record PingMessage() implements Message {
+
+    /**
+     * Retrieves the type of this message, which is {@link MessageType#PING}.
+     *
+     * @return The message type, which is {@link MessageType#PING}.
+     */
+    @Override
+    public MessageType getType() {
+        return MessageType.PING;
+    }
+}
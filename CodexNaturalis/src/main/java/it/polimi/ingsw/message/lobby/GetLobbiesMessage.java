@@ -5,9 +5,94 @@ import it.polimi.ingsw.message.MessageType;
 
 /**
  * Represents a message to request a list of available lobbies.
+ * The request can select a page of the list and filter the lobbies by free seats and size;
+ * it can also subscribe the client to the changes of the list, which are then pushed as {@link LobbyUpdateMessage}s.
  * This message implements the {@link Message} interface and specifies the {@link MessageType#GET} type.
  */
 public class GetLobbiesMessage implements Message {
+    private final int offset;               // Number of lobbies to skip
+    private final int limit;                // Maximum number of lobbies returned, 0 for no limit
+    private final int minFreeSeats;         // Minimum number of free seats of the returned lobbies
+    private final int maxPlayers;           // Size of the returned lobbies, 0 for any size
+    private final boolean subscribe;        // Whether to receive the changes of the list
+
+    /**
+     * Constructs a request for all the available lobbies, without subscribing to their changes.
+     */
+    public GetLobbiesMessage() {
+        this(0, 0, 1, 0, false);
+    }
+
+    /**
+     * Constructs a request for a filtered page of the available lobbies.
+     *
+     * @param offset       The number of lobbies to skip.
+     * @param limit        The maximum number of lobbies to return, 0 for no limit.
+     * @param minFreeSeats The minimum number of free seats of the returned lobbies.
+     * @param maxPlayers   The size of the returned lobbies, 0 for any size.
+     * @param subscribe    True to receive the changes of the list until unsubscribing, False to stop receiving them.
+     */
+    public GetLobbiesMessage(int offset, int limit, int minFreeSeats, int maxPlayers, boolean subscribe) {
+        this.offset = offset;
+        this.limit = limit;
+        this.minFreeSeats = minFreeSeats;
+        this.maxPlayers = maxPlayers;
+        this.subscribe = subscribe;
+    }
+
+    /**
+     * Retrieves the number of lobbies to skip.
+     *
+     * @return The offset of the page.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Retrieves the maximum number of lobbies to return.
+     *
+     * @return The size of the page, 0 for no limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Retrieves the minimum number of free seats of the returned lobbies.
+     *
+     * @return The minimum number of free seats.
+     */
+    public int getMinFreeSeats() {
+        return minFreeSeats;
+    }
+
+    /**
+     * Retrieves the size of the returned lobbies.
+     *
+     * @return The number of players of the lobbies, 0 for any size.
+     */
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    /**
+     * Checks whether the client wants to receive the changes of the list.
+     *
+     * @return True to subscribe, False to unsubscribe.
+     */
+    public boolean isSubscribe() {
+        return subscribe;
+    }
+
+    /**
+     * Checks whether the request asks for the whole list, with no paging nor filters.
+     *
+     * @return True if every available lobby is requested, otherwise False.
+     */
+    public boolean isUnfiltered() {
+        return offset == 0 && limit == 0 && minFreeSeats <= 1 && maxPlayers == 0;
+    }
 
     /**
      * Retrieves the type of this message, which is {@link MessageType#GET}.
@@ -19,4 +104,3 @@ public class GetLobbiesMessage implements Message {
         return MessageType.GET;
     }
 }
-
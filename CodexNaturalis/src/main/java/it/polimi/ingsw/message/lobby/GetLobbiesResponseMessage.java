@@ -12,6 +12,7 @@ import java.util.List;
  */
 public class GetLobbiesResponseMessage implements Message {
     private final List<LobbyInfo> lobbies;
+    private final int total;
 
     /**
      * Constructs a new GetLobbiesResponseMessage with the specified list of lobbies.
@@ -19,7 +20,18 @@ public class GetLobbiesResponseMessage implements Message {
      * @param lobbies The list of lobbies to include in the response message.
      */
     public GetLobbiesResponseMessage(List<LobbyInfo> lobbies){
+        this(lobbies, lobbies.size());
+    }
+
+    /**
+     * Constructs a new GetLobbiesResponseMessage with a page of the list of lobbies.
+     *
+     * @param lobbies The page of lobbies to include in the response message.
+     * @param total   The number of lobbies matching the request, in all the pages.
+     */
+    public GetLobbiesResponseMessage(List<LobbyInfo> lobbies, int total){
         this.lobbies = lobbies;
+        this.total = total;
     }
 
     /**
@@ -31,6 +43,15 @@ public class GetLobbiesResponseMessage implements Message {
         return lobbies;
     }
 
+    /**
+     * Retrieves the number of lobbies matching the request, in all the pages.
+     *
+     * @return The total number of matching lobbies.
+     */
+    public int getTotal(){
+        return total;
+    }
+
     /**
      * Retrieves the type of this message, which is {@link MessageType#LOBBIES}.
      *
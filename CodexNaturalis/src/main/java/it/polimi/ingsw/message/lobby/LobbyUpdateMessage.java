@@ -0,0 +1,26 @@
+package it.polimi.ingsw.message.lobby;
+
+import it.polimi.ingsw.lobby.LobbyInfo;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.MessageType;
+
+/**
+ * Represents a change of the list of available lobbies, pushed to the clients subscribed to it.
+ * This message is a record that implements the {@link Message} interface
+ * and specifies the {@link MessageType#LOBBY_UPDATE} type.
+ *
+ * @param lobby The current information about the lobby.
+ * @param open  True if the lobby was added or changed, False if it is no longer available.
+ */
+public record LobbyUpdateMessage(LobbyInfo lobby, boolean open) implements Message {
+
+    /**
+     * Retrieves the type of this message, which is {@link MessageType#LOBBY_UPDATE}.
+     *
+     * @return The message type, which is {@link MessageType#LOBBY_UPDATE}.
+     */
+    @Override
+    public MessageType getType() {
+        return MessageType.LOBBY_UPDATE;
+    }
+}
@@ -0,0 +1,22 @@
+package it.polimi.ingsw.message.lobby;
+
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.MessageType;
+
+/**
+ * Represents a message to join the matchmaking queue, waiting to be put in a match with other queued players.
+ * This message implements the {@link Message} interface and specifies the {@link MessageType#QUEUE} type.
+ * @param preferredSize preferred number of players of the match
+ */
+public record QueueMessage(int preferredSize) implements Message {
+
+    /**
+     * Retrieves the type of this message, which is {@link MessageType#QUEUE}.
+     *
+     * @return The message type, which is {@link MessageType#QUEUE}.
+     */
+    @Override
+    public MessageType getType() {
+        return MessageType.QUEUE;
+    }
+}
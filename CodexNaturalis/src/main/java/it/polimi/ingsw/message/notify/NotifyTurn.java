@@ -1,20 +1,36 @@
 package it.polimi.ingsw.message.notify;
 
+import it.polimi.ingsw.model.field.Position;
 import it.polimi.ingsw.model.player.PlayerColor;
 
+import java.util.List;
+
 /**
  * This class represents a notification message that is sent to inform a player about their turn.
+ * It also carries the positions where the player whose turn it is can place a card.
  */
 public class NotifyTurn extends NotifyMessage {
     private final PlayerColor color;
+    private final List<Position> availablePositions;
 
     /**
-     * Constructs a new NotifyTurn message indicating whose turn it is.
+     * Constructs a new NotifyTurn message indicating whose turn it is, without the available positions.
      *
      * @param color the color of the player whose turn it is
      */
     public NotifyTurn(PlayerColor color) {
+        this(color, List.of());
+    }
+
+    /**
+     * Constructs a new NotifyTurn message indicating whose turn it is and where they can place a card.
+     *
+     * @param color the color of the player whose turn it is
+     * @param availablePositions the positions where the player can place a card
+     */
+    public NotifyTurn(PlayerColor color, List<Position> availablePositions) {
         this.color = color;
+        this.availablePositions = availablePositions;
     }
 
     /**
@@ -26,6 +42,15 @@ public class NotifyTurn extends NotifyMessage {
         return color;
     }
 
+    /**
+     * Returns the positions where the player whose turn it is can place a card.
+     *
+     * @return the available positions
+     */
+    public List<Position> getAvailablePositions() {
+        return availablePositions;
+    }
+
     /**
      * Retrieves the type of this message, which is {@link NotifyType#YOUR_TURN}.
      *
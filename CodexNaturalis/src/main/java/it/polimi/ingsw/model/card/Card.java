@@ -15,6 +15,11 @@ public abstract class Card implements Serializable {
      */
     protected final Map<CornerPosition, Corner> frontCorners;
 
+    /**
+     * The corners of the front side of the card, packed as described in {@link PackedCorners}
+     */
+    protected final int packedFront;
+
     /**
      * Constructs a card with the specified id and front corners.
      *
@@ -24,6 +29,7 @@ public abstract class Card implements Serializable {
     protected Card(String id, Map<CornerPosition, Corner> frontCorners) {
         this.id = id;
         this.frontCorners = frontCorners;
+        this.packedFront = PackedCorners.pack(frontCorners);
     }
 
     /**
@@ -43,6 +49,25 @@ public abstract class Card implements Serializable {
      */
     public abstract ArrayList<Symbol> getSymbolsOnSide(boolean isFront);
 
+    /**
+     * Returns the corners of the specified side of the card, packed as described in {@link PackedCorners}.
+     *
+     * @param isFront {@code true} for the front side of the card, {@code false} for the back side
+     * @return the packed corners of the specified side
+     */
+    public abstract int getPackedCorners(boolean isFront);
+
+    /**
+     * Adds the symbols on the specified side of the card to symbol counts indexed by ordinal, without allocating.
+     * The symbols added are the same as those returned by {@link #getSymbolsOnSide(boolean)}.
+     *
+     * @param counts the symbol counts
+     * @param isFront {@code true} for the front side of the card, {@code false} for the back side
+     */
+    public void addSymbolsOnSide(int[] counts, boolean isFront) {
+        PackedCorners.addSymbols(getPackedCorners(isFront), counts);
+    }
+
     /**
      * Returns the kingdom symbol of the card.
      *
@@ -0,0 +1,141 @@
+package it.polimi.ingsw.model.card;
+
+import com.google.gson.reflect.TypeToken;
+import it.polimi.ingsw.exception.JsonLoadException;
+import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.utilities.GsonSingleton;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Holds every card and objective of the game, loaded from the resources once per process.
+ * Cards and objectives are immutable, so the same instances are shared by all the matches: a deck only holds the
+ * order of references to them, and a card or an objective can be looked up by its ID.
+ */
+public final class CardCatalog {
+    private static final Logger logger = Logger.getLogger(CardCatalog.class.getName());
+    private static CardCatalog instance;
+
+    private final List<GoldCard> goldCards;
+    private final List<ResourceCard> resourceCards;
+    private final List<StarterCard> starterCards;
+    private final List<Objective> objectives;
+    private final Map<String, Card> cardsById = new HashMap<>();
+    private final Map<String, Objective> objectivesById = new HashMap<>();
+
+    /**
+     * Constructs a CardCatalog by loading and validating the card and objective resources.
+     *
+     * @throws JsonLoadException if a resource cannot be loaded or holds invalid cards.
+     */
+    private CardCatalog() throws JsonLoadException {
+        goldCards = List.copyOf(CardCatalog.<GoldCard>load("/goldCards.json", new TypeToken<List<GoldCard>>(){}));
+        resourceCards = List.copyOf(CardCatalog.<ResourceCard>load("/resourceCards.json", new TypeToken<List<ResourceCard>>(){}));
+        starterCards = List.copyOf(CardCatalog.<StarterCard>load("/starterCards.json", new TypeToken<List<StarterCard>>(){}));
+        objectives = List.copyOf(CardCatalog.<Objective>load("/objectiveCards.json", new TypeToken<List<Objective>>(){}));
+
+        for (List<? extends Card> cards : List.of(goldCards, resourceCards, starterCards)) {
+            for (Card card : cards) {
+                if (card.getId() == null || cardsById.putIfAbsent(card.getId(), card) != null) {
+                    throw new JsonLoadException("Missing or duplicate card ID: " + card.getId());
+                }
+            }
+        }
+        for (Objective objective : objectives) {
+            if (objective.getId() == null || objectivesById.putIfAbsent(objective.getId(), objective) != null) {
+                throw new JsonLoadException("Missing or duplicate objective ID: " + objective.getId());
+            }
+        }
+
+        logger.info("Loaded " + cardsById.size() + " cards and " + objectivesById.size() + " objectives");
+    }
+
+    /**
+     * Gets the catalog, loading it the first time it is needed.
+     *
+     * @return The catalog shared by the whole process.
+     * @throws JsonLoadException if a resource cannot be loaded or holds invalid cards.
+     */
+    public static synchronized CardCatalog getInstance() throws JsonLoadException {
+        if (instance == null) {
+            instance = new CardCatalog();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads a non-empty list of cards or objectives from a JSON resource.
+     *
+     * @param filePath The path of the resource.
+     * @param type     The type of the list.
+     * @param <T>      The type of the elements.
+     * @return The elements, none of which is null.
+     * @throws JsonLoadException if the resource cannot be loaded, is empty or holds a null element.
+     */
+    private static <T> List<T> load(String filePath, TypeToken<List<T>> type) throws JsonLoadException {
+        List<T> loaded = GsonSingleton.loadJson(filePath, type.getType());
+        if (loaded == null || loaded.isEmpty() || loaded.contains(null)) {
+            throw new JsonLoadException("No valid cards in " + filePath);
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the gold cards.
+     *
+     * @return An unmodifiable list of the gold cards, in the order of the resource.
+     */
+    public List<GoldCard> getGoldCards() {
+        return goldCards;
+    }
+
+    /**
+     * Gets the resource cards.
+     *
+     * @return An unmodifiable list of the resource cards, in the order of the resource.
+     */
+    public List<ResourceCard> getResourceCards() {
+        return resourceCards;
+    }
+
+    /**
+     * Gets the starter cards.
+     *
+     * @return An unmodifiable list of the starter cards, in the order of the resource.
+     */
+    public List<StarterCard> getStarterCards() {
+        return starterCards;
+    }
+
+    /**
+     * Gets the objectives.
+     *
+     * @return An unmodifiable list of the objectives, in the order of the resource.
+     */
+    public List<Objective> getObjectives() {
+        return objectives;
+    }
+
+    /**
+     * Looks up a card by its ID.
+     *
+     * @param id The ID of the card.
+     * @return The card, or null if no card has the ID.
+     */
+    public Card getCard(String id) {
+        return cardsById.get(id);
+    }
+
+    /**
+     * Looks up an objective by its ID.
+     *
+     * @param id The ID of the objective.
+     * @return The objective, or null if no objective has the ID.
+     */
+    public Objective getObjective(String id) {
+        return objectivesById.get(id);
+    }
+}
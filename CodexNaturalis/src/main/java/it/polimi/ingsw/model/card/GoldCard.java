@@ -17,6 +17,11 @@ public abstract class GoldCard extends PlayableCard{
      */
     protected final Map<Symbol, Integer> requirements;
 
+    /**
+     * Required occurrences of each symbol, indexed by ordinal
+     */
+    private final int[] requiredCounts;
+
     /**
      * Constructs a gold card with the specified kingdom, front corners, requirements, and id.
      *
@@ -37,6 +42,10 @@ public abstract class GoldCard extends PlayableCard{
         }
 
         this.requirements = requirements;
+        this.requiredCounts = new int[PackedCorners.SYMBOLS];
+        for (Map.Entry<Symbol, Integer> requirement : requirements.entrySet()) {
+            requiredCounts[requirement.getKey().ordinal()] = requirement.getValue();
+        }
     }
 
     /**
@@ -62,14 +71,6 @@ public abstract class GoldCard extends PlayableCard{
      */
     @Override
     public boolean checkRequirements(PlayerField field, boolean isFront){
-        if(isFront) {
-            for (Symbol s : requirements.keySet()) {
-                if (requirements.get(s) > field.getSymbolNum(s)) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+        return !isFront || field.hasSymbols(requiredCounts);
     }
 }
@@ -1,7 +1,6 @@
 package it.polimi.ingsw.model.card;
 
 import it.polimi.ingsw.exception.InvalidSymbolException;
-import it.polimi.ingsw.model.field.CardPlacement;
 import it.polimi.ingsw.model.field.PlayerField;
 import it.polimi.ingsw.model.field.Position;
 
@@ -51,13 +50,7 @@ public class GoldCardCorner extends GoldCard{
     @Override
     public int calcScore(PlayerField field, boolean isFront, Position pos) {
         if (isFront) {
-            int coveredCorners = 0;
-            for (CardPlacement c : field.getCards()) {
-                if (c.isCornerCovered(pos)) {
-                    coveredCorners += 1;
-                }
-            }
-            return coveredCorners * scorePerCorner;
+            return field.countCoveredCorners(pos) * scorePerCorner;
         }
 
         return 0;
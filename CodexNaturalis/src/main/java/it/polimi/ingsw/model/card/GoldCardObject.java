@@ -1,7 +1,6 @@
 package it.polimi.ingsw.model.card;
 
 import it.polimi.ingsw.exception.InvalidSymbolException;
-import it.polimi.ingsw.model.field.CardPlacement;
 import it.polimi.ingsw.model.field.PlayerField;
 import it.polimi.ingsw.model.field.Position;
 
@@ -65,15 +64,7 @@ public class GoldCardObject extends GoldCard{
      * @return number of occurrences in the card's front side of the symbol specified for scoring
      */
     private int numFrontScoreSymbol(){
-        int count = 0;
-        for(CornerPosition p : CornerPosition.values()){
-            Corner corner = getCorner(p, true);
-            if(corner.IsPresent() && corner.getSymbol() == symbol) {
-                count += 1;
-            }
-        }
-
-        return count;
+        return PackedCorners.count(packedFront, symbol);
     }
 
     /**
@@ -86,13 +77,7 @@ public class GoldCardObject extends GoldCard{
      */
     public int calcScore(PlayerField field, boolean isFront, Position pos) {
         if(isFront) {
-            int coveredScoreSymbols = 0;
-            for (CardPlacement c : field.getCards()) {
-                if (c.isCornerCovered(pos) && (
-                        c.getCorner(c.getCoveredCornerPosition(pos)).getSymbol() == symbol)) {
-                    coveredScoreSymbols += 1;
-                }
-            }
+            int coveredScoreSymbols = field.countCoveredSymbols(pos, symbol);
 
             return scorePerSymbol * (field.getSymbolNum(symbol) + numFrontScoreSymbol() - coveredScoreSymbols);
         }
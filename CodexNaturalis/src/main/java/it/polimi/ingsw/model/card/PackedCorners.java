@@ -0,0 +1,127 @@
+package it.polimi.ingsw.model.card;
+
+import java.util.Map;
+
+/**
+ * Packs the four corners of a side of a card in a single int, so that the rules can read them without going through
+ * the corner objects.
+ * Each corner takes a nibble, in the order of {@link CornerPosition}: the highest bit is set if the corner is present,
+ * and the other three hold the ordinal of its symbol.
+ */
+public final class PackedCorners {
+    /**
+     * The corner positions, shared to avoid copying them on every loop.
+     */
+    public static final CornerPosition[] POSITIONS = CornerPosition.values();
+
+    /**
+     * The number of symbols, which is the length of the symbol counts indexed by ordinal.
+     */
+    public static final int SYMBOLS = Symbol.values().length;
+
+    /**
+     * The back side of a playable card, with every corner present and empty.
+     */
+    public static final int ALL_EMPTY = 0x8888;
+
+    private static final int PRESENT = 0x8;
+    private static final int SYMBOL = 0x7;
+
+    private PackedCorners() {}
+
+    /**
+     * Packs the corners of a side of a card; a missing entry is packed as a corner that is not present.
+     *
+     * @param corners the corners by position, or null if there are none
+     * @return the packed corners
+     */
+    public static int pack(Map<CornerPosition, Corner> corners) {
+        int packed = 0;
+        if (corners == null) {
+            return packed;
+        }
+        for (CornerPosition position : POSITIONS) {
+            Corner corner = corners.get(position);
+            if (corner != null && corner.IsPresent()) {
+                Symbol symbol = corner.getSymbol();
+                packed |= (PRESENT | (symbol == null ? 0 : symbol.ordinal())) << shift(position);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Checks if a corner is present.
+     *
+     * @param corners the packed corners
+     * @param position the position of the corner
+     * @return true if the corner is present, false otherwise
+     */
+    public static boolean isPresent(int corners, CornerPosition position) {
+        return ((corners >>> shift(position)) & PRESENT) != 0;
+    }
+
+    /**
+     * Gets the symbol of a corner.
+     *
+     * @param corners the packed corners
+     * @param position the position of the corner
+     * @return the ordinal of the symbol, or -1 if the corner is not present
+     */
+    public static int symbol(int corners, CornerPosition position) {
+        int nibble = corners >>> shift(position);
+        return (nibble & PRESENT) != 0 ? nibble & SYMBOL : -1;
+    }
+
+    /**
+     * Counts the corners holding a symbol.
+     *
+     * @param corners the packed corners
+     * @param symbol the symbol
+     * @return the number of present corners holding the symbol
+     */
+    public static int count(int corners, Symbol symbol) {
+        int count = 0;
+        for (CornerPosition position : POSITIONS) {
+            if (symbol(corners, position) == symbol.ordinal()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the symbols of the present corners, except the empty ones, to symbol counts indexed by ordinal.
+     *
+     * @param corners the packed corners
+     * @param counts the symbol counts
+     */
+    public static void addSymbols(int corners, int[] counts) {
+        for (CornerPosition position : POSITIONS) {
+            int symbol = symbol(corners, position);
+            if (symbol > 0) {
+                counts[symbol]++;
+            }
+        }
+    }
+
+    /**
+     * Gets the corner opposite to a corner, which is the one it covers on a diagonally adjacent card.
+     *
+     * @param position the position of the corner
+     * @return the opposite corner
+     */
+    public static CornerPosition opposite(CornerPosition position) {
+        return POSITIONS[POSITIONS.length - 1 - position.ordinal()];
+    }
+
+    /**
+     * Gets the offset of the nibble of a corner.
+     *
+     * @param position the position of the corner
+     * @return the offset in bits
+     */
+    private static int shift(CornerPosition position) {
+        return position.ordinal() * 4;
+    }
+}
@@ -11,6 +11,11 @@ import java.util.Map;
  * Represents any card that can be played by a player in his field
  */
 public abstract class PlayableCard extends Card{
+    /**
+     * The corner of the back side of every playable card, present and empty
+     */
+    private static final Corner BACK_CORNER = new Corner(true, Symbol.EMPTY);
+
     private final Symbol kingdom;
 
     /**
@@ -52,7 +57,34 @@ public abstract class PlayableCard extends Card{
     public Corner getCorner(CornerPosition cornerPosition, boolean isFront){
         if (isFront)
             return frontCorners.get(cornerPosition);
-        return new Corner(true, Symbol.EMPTY);
+        return BACK_CORNER;
+    }
+
+    /**
+     * Retrieves the packed corners of the specified side; every corner of the back side is present and empty.
+     *
+     * @param isFront True for front side of the card, false for back side.
+     * @return The packed corners of the specified side.
+     */
+    @Override
+    public int getPackedCorners(boolean isFront){
+        return isFront ? packedFront : PackedCorners.ALL_EMPTY;
+    }
+
+    /**
+     * Adds the symbols on the specified side to symbol counts: the corner symbols on the front, the kingdom on the back.
+     *
+     * @param counts  The symbol counts indexed by ordinal.
+     * @param isFront True for front side of the card, false for back side.
+     */
+    @Override
+    public void addSymbolsOnSide(int[] counts, boolean isFront){
+        if (isFront){
+            super.addSymbolsOnSide(counts, true);
+        }
+        else{
+            counts[kingdom.ordinal()]++;
+        }
     }
 
     /**
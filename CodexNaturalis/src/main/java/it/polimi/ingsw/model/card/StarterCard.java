@@ -19,6 +19,10 @@ public class StarterCard extends Card{
      * list of the central symbols in the back side of the card
      */
     private final ArrayList<Symbol> centerSymbols;
+    /**
+     * The corners of the back side of the card, packed as described in {@link PackedCorners}
+     */
+    private final int packedBack;
 
     /**
      * Constructs a starter card with specified front and back corners and central symbols.
@@ -38,6 +42,7 @@ public class StarterCard extends Card{
             }
         }
         this.centerSymbols = centerSymbols;
+        this.packedBack = PackedCorners.pack(backCorners);
     }
 
     /**
@@ -54,6 +59,33 @@ public class StarterCard extends Card{
         return backCorners.get(cornerPosition);
     }
 
+    /**
+     * Retrieves the packed corners of the specified side of the card.
+     *
+     * @param isFront True for front side of the card, false for back side.
+     * @return The packed corners of the specified side.
+     */
+    @Override
+    public int getPackedCorners(boolean isFront){
+        return isFront ? packedFront : packedBack;
+    }
+
+    /**
+     * Adds the symbols on the specified side to symbol counts: the corner symbols, and the central ones on the front.
+     *
+     * @param counts  The symbol counts indexed by ordinal.
+     * @param isFront True for front side of the card, false for back side.
+     */
+    @Override
+    public void addSymbolsOnSide(int[] counts, boolean isFront){
+        if (isFront){
+            for (int i = 0; i < centerSymbols.size(); i++){
+                counts[centerSymbols.get(i).ordinal()]++;
+            }
+        }
+        super.addSymbolsOnSide(counts, isFront);
+    }
+
     /**
      * Retrieves the list of symbols present on the specified side of the card (front or back).
      *
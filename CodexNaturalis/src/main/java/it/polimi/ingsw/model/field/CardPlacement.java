@@ -6,6 +6,7 @@ import it.polimi.ingsw.model.card.Card;
 import it.polimi.ingsw.model.card.Symbol;
 import it.polimi.ingsw.model.card.Corner;
 import it.polimi.ingsw.model.card.CornerPosition;
+import it.polimi.ingsw.model.card.PackedCorners;
 
 import java.io.Serializable;
 
@@ -52,6 +53,15 @@ public class CardPlacement implements Serializable {
         return card.getCorner(cornerPosition, isFront);
     }
 
+    /**
+     * Gets the corners of the placed side of the card, packed as described in {@link PackedCorners}.
+     *
+     * @return The packed corners.
+     */
+    public int getPackedCorners(){
+        return card.getPackedCorners(isFront);
+    }
+
     /**
      * Gets the side of the card.
      *
@@ -86,8 +96,7 @@ public class CardPlacement implements Serializable {
      * @return True if the position is covered by a corner of the card, false otherwise.
      */
     public boolean isCornerCovered(Position p){
-        Position diff = pos.distance(p);
-        return abs(diff.x()) == 1 && abs(diff.y()) == 1;
+        return abs(p.x() - pos.x()) == 1 && abs(p.y() - pos.y()) == 1;
     }
 
     /**
@@ -98,12 +107,13 @@ public class CardPlacement implements Serializable {
      * @throws NoCoveredCornerException if there is no covered corner at the specified position.
      */
     public CornerPosition getCoveredCornerPosition(Position p) throws NoCoveredCornerException {
-        Position diff = pos.distance(p);
+        int dx = p.x() - pos.x();
+        int dy = p.y() - pos.y();
 
-        if(diff.x() == 1 && diff.y() == 1){ return CornerPosition.TOP_RIGHT; }
-        else if(diff.x() == 1 && diff.y() == -1){ return CornerPosition.BOTTOM_RIGHT; }
-        else if(diff.x() == -1 && diff.y() == 1){ return CornerPosition.TOP_LEFT; }
-        else if(diff.x() == -1 && diff.y() == -1){ return CornerPosition.BOTTOM_LEFT; }
+        if(dx == 1 && dy == 1){ return CornerPosition.TOP_RIGHT; }
+        else if(dx == 1 && dy == -1){ return CornerPosition.BOTTOM_RIGHT; }
+        else if(dx == -1 && dy == 1){ return CornerPosition.TOP_LEFT; }
+        else if(dx == -1 && dy == -1){ return CornerPosition.BOTTOM_LEFT; }
         else{ throw new NoCoveredCornerException("There aren't covered corners"); }
     }
 }
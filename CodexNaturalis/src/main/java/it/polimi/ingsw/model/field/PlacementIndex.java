@@ -0,0 +1,102 @@
+package it.polimi.ingsw.model.field;
+
+/**
+ * Maps the positions of a field to the cards placed there, with open addressing on the coordinates packed in a long,
+ * so that looking up a position neither allocates nor depends on the number of cards placed.
+ * Cards are never removed from a field, so neither are they from the index.
+ */
+public class PlacementIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private CardPlacement[] placements;
+    private int size;
+
+    /**
+     * Constructs an empty PlacementIndex.
+     */
+    public PlacementIndex() {
+        keys = new long[INITIAL_CAPACITY];
+        placements = new CardPlacement[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Packs the coordinates of a position in a single key.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @return The key of the position.
+     */
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Finds the slot of a key, or the empty slot where it would go.
+     *
+     * @param key The key.
+     * @return The index of the slot.
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int i = (int) (hash ^ (hash >>> 32)) & mask;
+        while (placements[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Records the card placed at a position, replacing the one recorded there if any.
+     *
+     * @param placement The card placement.
+     */
+    public void put(CardPlacement placement) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        long key = key(placement.getPosition().x(), placement.getPosition().y());
+        int i = slot(key);
+        if (placements[i] == null) {
+            size++;
+        }
+        keys[i] = key;
+        placements[i] = placement;
+    }
+
+    /**
+     * Gets the card placed at a position.
+     *
+     * @param x The X coordinate.
+     * @param y The Y coordinate.
+     * @return The card placement, or null if no card is placed there.
+     */
+    public CardPlacement get(int x, int y) {
+        return placements[slot(key(x, y))];
+    }
+
+    /**
+     * Gets the number of cards recorded.
+     *
+     * @return The number of card placements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the capacity, keeping the table at most half full so that the probe sequences stay short.
+     */
+    private void grow() {
+        CardPlacement[] old = placements;
+        keys = new long[keys.length * 2];
+        placements = new CardPlacement[keys.length];
+        size = 0;
+        for (CardPlacement placement : old) {
+            if (placement != null) {
+                put(placement);
+            }
+        }
+    }
+}
@@ -1,40 +1,241 @@
 package it.polimi.ingsw.model.field;
 
-import it.polimi.ingsw.model.card.Card;
+import it.polimi.ingsw.model.card.Corner;
+import it.polimi.ingsw.model.card.CornerPosition;
+import it.polimi.ingsw.model.card.PackedCorners;
 import it.polimi.ingsw.model.card.StarterCard;
 import it.polimi.ingsw.model.card.PlayableCard;
 import it.polimi.ingsw.model.card.Symbol;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the field of a player where cards can be placed.
+ * The cards are also indexed by position, so that the cards around a position are found without scanning the field,
+ * and the empty positions where a card can be placed are kept up to date as each card is placed.
+ * The placements are kept in an append-only array shared with the snapshots of the field: a snapshot only sees the
+ * placements made before it was taken, which are never written again, and copies the array before its own first
+ * placement, so that taking a snapshot does not depend on the number of cards placed.
  */
 public class PlayerField implements Serializable {
-    // List to represent the player's field.
-    private final ArrayList<CardPlacement> field;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The placements of the field in order, possibly shared with other fields: only the first count belong to this one.
+    private transient CardPlacement[] placements;
+    private transient int count;
+    // True if the array may be shared, in which case it is copied before a placement is added.
+    private transient boolean shared;
     // The pool of symbol associated to the player's field.
-    private final SymbolPool symbolPool;
+    private SymbolPool symbolPool;
+    // The cards of the field by position, rebuilt from the list when missing after deserialization.
+    private transient PlacementIndex index;
+    // The empty positions touched only by present corners, where a card can be placed.
+    private transient Set<Position> available;
+    // The empty positions touched by a missing corner, where a card can never be placed.
+    private transient Set<Position> blocked;
 
     /**
      * Constructs a new PlayerField object with an empty field and initializes the symbol pool.
      */
     public PlayerField(){
-        field = new ArrayList<>();
+        placements = new CardPlacement[INITIAL_CAPACITY];
         symbolPool = new SymbolPool();
+        index = new PlacementIndex();
+        available = new LinkedHashSet<>();
+        blocked = new HashSet<>();
+    }
+
+    /**
+     * Constructs a snapshot of a field, sharing its placements.
+     *
+     * @param other The field to take the snapshot of.
+     */
+    private PlayerField(PlayerField other){
+        placements = other.placements;
+        count = other.count;
+        shared = true;
+        other.shared = true;
+        symbolPool = new SymbolPool(other.symbolPool);
+    }
+
+    /**
+     * Takes a snapshot of the field, which is not affected by the cards placed afterwards on this field.
+     * The placements are shared rather than copied, so the cost does not grow with the number of cards placed.
+     * The snapshot can be handed to another thread while cards keep being placed on this field, as long as that thread
+     * only reads its placements and symbols, through {@link #getCards()}, {@link #getSymbolNum(Symbol)},
+     * {@link #hasSymbols(int[])} or serialization: the queries by position build the index of the snapshot on first
+     * use and are not thread-safe.
+     *
+     * @return The snapshot.
+     */
+    public PlayerField snapshot(){
+        return new PlayerField(this);
+    }
+
+    /**
+     * Appends a placement to the field, copying the array first if it is shared or full.
+     *
+     * @param c The card placement.
+     */
+    private void append(CardPlacement c){
+        if (shared || count == placements.length){
+            placements = Arrays.copyOf(placements, Math.max(INITIAL_CAPACITY, count * 2));
+            shared = false;
+        }
+        placements[count++] = c;
+    }
+
+    /**
+     * Gets the index of the cards by position, building it and the available positions from the field if missing.
+     * Not thread-safe: a snapshot builds its index on first use, so it must not be queried by position concurrently.
+     *
+     * @return The index.
+     */
+    private PlacementIndex index(){
+        if (index == null){
+            index = new PlacementIndex();
+            available = new LinkedHashSet<>();
+            blocked = new HashSet<>();
+            for (int i = 0; i < count; i++){
+                track(placements[i]);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Records a placed card in the index and updates the available positions around it:
+     * its position is no longer available, and each empty position touched by one of its corners becomes available
+     * if the corner is present, or blocked for good if it is missing.
+     *
+     * @param c The card placement.
+     */
+    private void track(CardPlacement c){
+        Position pos = c.getPosition();
+        index.put(c);
+        available.remove(pos);
+        blocked.remove(pos);
+
+        int corners = c.getPackedCorners();
+        for (CornerPosition cornerPosition : PackedCorners.POSITIONS){
+            int x = pos.x() + dx(cornerPosition);
+            int y = pos.y() + dy(cornerPosition);
+            if (index.get(x, y) != null){
+                continue;
+            }
+            Position neighbor = new Position(x, y);
+            if (!PackedCorners.isPresent(corners, cornerPosition)){
+                available.remove(neighbor);
+                blocked.add(neighbor);
+            } else if (!blocked.contains(neighbor)){
+                available.add(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Gets the horizontal direction of a corner.
+     *
+     * @param corner The corner.
+     * @return -1 for a left corner, 1 for a right corner.
+     */
+    private static int dx(CornerPosition corner){
+        return corner == CornerPosition.TOP_LEFT || corner == CornerPosition.BOTTOM_LEFT ? -1 : 1;
+    }
+
+    /**
+     * Gets the vertical direction of a corner.
+     *
+     * @param corner The corner.
+     * @return 1 for a top corner, -1 for a bottom corner.
+     */
+    private static int dy(CornerPosition corner){
+        return corner == CornerPosition.TOP_LEFT || corner == CornerPosition.TOP_RIGHT ? 1 : -1;
+    }
+
+    /**
+     * Gets the card placed at the specified position.
+     *
+     * @param pos The position.
+     * @return The card placement at the position, or null if no card is placed there.
+     */
+    public CardPlacement getCardAt(Position pos){
+        return index().get(pos.x(), pos.y());
+    }
+
+    /**
+     * Gets the corner of the card that a card placed at the specified position would cover with one of its corners,
+     * which is the opposite corner of the card diagonally adjacent in that direction.
+     *
+     * @param pos The position of the covering card.
+     * @param corner The corner of the covering card.
+     * @return The covered corner, or null if no card is placed in that direction.
+     */
+    public Corner getCoveredCorner(Position pos, CornerPosition corner){
+        CardPlacement c = index().get(pos.x() + dx(corner), pos.y() + dy(corner));
+        if (c == null){
+            return null;
+        }
+        return c.getCorner(PackedCorners.opposite(corner));
     }
 
     /**
-     * Adds symbols from a card to the symbol pool based on the specified side.
+     * Gets the symbol of the corner that a card placed at the specified position would cover with one of its corners.
      *
-     * @param c The card from which symbols will be added.
-     * @param isFront A boolean indicating whether the symbols are from the front side of the card.
+     * @param pos The position of the covering card.
+     * @param corner The corner of the covering card.
+     * @return The ordinal of the covered symbol, or -1 if no card is placed in that direction or its corner is missing.
      */
-    private void addSymbols(Card c, boolean isFront){
-        for (Symbol s : c.getSymbolsOnSide(isFront)){
-            symbolPool.addSymbol(s);
+    private int getCoveredSymbol(Position pos, CornerPosition corner){
+        CardPlacement c = index().get(pos.x() + dx(corner), pos.y() + dy(corner));
+        if (c == null){
+            return -1;
         }
+        return PackedCorners.symbol(c.getPackedCorners(), PackedCorners.opposite(corner));
+    }
+
+    /**
+     * Counts the corners of other cards that a card placed at the specified position would cover.
+     *
+     * @param pos The position of the covering card.
+     * @return The number of covered corners.
+     */
+    public int countCoveredCorners(Position pos){
+        int count = 0;
+        for (CornerPosition cornerPosition : PackedCorners.POSITIONS){
+            if (index().get(pos.x() + dx(cornerPosition), pos.y() + dy(cornerPosition)) != null){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the corners holding a symbol that a card placed at the specified position would cover.
+     *
+     * @param pos The position of the covering card.
+     * @param symbol The symbol.
+     * @return The number of covered corners holding the symbol.
+     */
+    public int countCoveredSymbols(Position pos, Symbol symbol){
+        int count = 0;
+        for (CornerPosition cornerPosition : PackedCorners.POSITIONS){
+            if (getCoveredSymbol(pos, cornerPosition) == symbol.ordinal()){
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -43,12 +244,11 @@ public class PlayerField implements Serializable {
      * @param pos The position of the card placement.
      */
     private void removeCoveredSymbols(Position pos){
-        for (CardPlacement c : field){
-            if (c.isCornerCovered(pos) && c.getCorner(c.getCoveredCornerPosition(pos)).IsPresent()){
-                Symbol s = c.getCorner(c.getCoveredCornerPosition(pos)).getSymbol();
-                if (s != Symbol.EMPTY) {
-                    symbolPool.removeSymbol(s);
-                }
+        for (CornerPosition cornerPosition : PackedCorners.POSITIONS){
+            int s = getCoveredSymbol(pos, cornerPosition);
+            // Ordinal 0 is the empty symbol, which is not counted.
+            if (s > 0){
+                symbolPool.removeSymbol(s);
             }
         }
     }
@@ -62,9 +262,11 @@ public class PlayerField implements Serializable {
     public void placeStarterCard(StarterCard c, boolean isFront){
         Position pos = new Position(0, 0);
         CardPlacement cardPlacement = new CardPlacement(isFront, pos, c);
-        field.add(cardPlacement);
+        index();
+        append(cardPlacement);
+        track(cardPlacement);
 
-        addSymbols(c, isFront);
+        symbolPool.addSymbols(c, isFront);
     }
 
     /**
@@ -77,11 +279,12 @@ public class PlayerField implements Serializable {
     public void placeCard(PlayableCard c, boolean isFront, Position pos){
         CardPlacement cardPlacement = new CardPlacement(isFront, pos, c);
 
-        addSymbols(c, isFront);
+        symbolPool.addSymbols(c, isFront);
 
         removeCoveredSymbols(pos);
 
-        field.add(cardPlacement);
+        append(cardPlacement);
+        track(cardPlacement);
     }
 
 
@@ -95,23 +298,18 @@ public class PlayerField implements Serializable {
         // Odd coordinates are invalid.
         if(pos.sum() % 2 != 0){ return false; }
 
-        boolean ret = false;
-
-        for (CardPlacement c : field){
-            if (c.getPosition().equals(pos)){
-                return false;
-            } else if(c.isCornerCovered(pos)) {
-                // If the corner is present it means I can place the card.
-                if(c.getCorner(c.getCoveredCornerPosition(pos)).IsPresent()){
-                    ret = true;
-                }
-                else{
-                    return false;
-                }
-            }
-        }
+        index();
+        return available.contains(pos);
+    }
 
-        return ret;
+    /**
+     * Gets the empty positions where a card can be placed, in the order they became available.
+     *
+     * @return A list of the available positions.
+     */
+    public List<Position> getAvailablePositions(){
+        index();
+        return new ArrayList<>(available);
     }
 
     /**
@@ -125,11 +323,55 @@ public class PlayerField implements Serializable {
     }
 
     /**
-     * Gets a copy of the list of card placements on the field.
+     * Checks if the field holds at least the given number of each symbol.
+     *
+     * @param required The required occurrences of each symbol, indexed by ordinal.
+     * @return True if every requirement is met, false otherwise.
+     */
+    public boolean hasSymbols(int[] required){
+        return symbolPool.containsAll(required);
+    }
+
+    /**
+     * Gets the card placements on the field, in the order they were placed.
+     * The list is an unmodifiable view that is not affected by the cards placed afterwards.
      *
-     * @return An ArrayList containing all card placements on the field.
+     * @return A list containing all card placements on the field.
      */
-    public ArrayList<CardPlacement> getCards(){
-        return new ArrayList<>(field);
+    public List<CardPlacement> getCards(){
+        return Collections.unmodifiableList(Arrays.asList(placements).subList(0, count));
+    }
+
+    /**
+     * Writes the field, with only the placements that belong to it.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(count);
+        for (int i = 0; i < count; i++){
+            out.writeObject(placements[i]);
+        }
+    }
+
+    /**
+     * Reads a field written by {@link #writeObject(ObjectOutputStream)}; the index is rebuilt when first needed.
+     *
+     * @param in The stream to read from.
+     * @throws IOException If an I/O error occurs.
+     * @throws ClassNotFoundException If the class of a placement cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        count = in.readInt();
+        if (count < 0){
+            throw new InvalidObjectException("Negative number of placements");
+        }
+        placements = new CardPlacement[Math.max(INITIAL_CAPACITY, count)];
+        for (int i = 0; i < count; i++){
+            placements[i] = (CardPlacement) in.readObject();
+        }
     }
 }
@@ -1,22 +1,29 @@
 package it.polimi.ingsw.model.field;
 
+import it.polimi.ingsw.model.card.Card;
+import it.polimi.ingsw.model.card.PackedCorners;
 import it.polimi.ingsw.model.card.Symbol;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents a pool of symbols available on the player's field.
  */
 public class SymbolPool implements Serializable {
-    // Map used to store, for each symbol, its occurrences.
-    private final Map<Symbol, Integer> symbolMap;
+    // Array used to store, for each symbol ordinal, its occurrences.
+    private final int[] counts;
 
     /**
-     * Constructs a new SymbolPool object with an empty symbol map.
+     * Constructs a new SymbolPool object with no symbols.
      */
-    public SymbolPool(){ symbolMap = new HashMap<>(); }
+    public SymbolPool(){ counts = new int[PackedCorners.SYMBOLS]; }
+
+    /**
+     * Constructs a copy of a symbol pool.
+     *
+     * @param other The symbol pool to copy.
+     */
+    public SymbolPool(SymbolPool other){ counts = other.counts.clone(); }
 
     /**
      * Adds a symbol to the symbol pool.
@@ -24,7 +31,17 @@ public class SymbolPool implements Serializable {
      * @param s The symbol to be added.
      */
     public void addSymbol(Symbol s){
-        symbolMap.put(s, getNumOfSymbol(s) + 1);
+        counts[s.ordinal()]++;
+    }
+
+    /**
+     * Adds the symbols on a side of a card to the symbol pool.
+     *
+     * @param c The card.
+     * @param isFront A boolean indicating whether the symbols are from the front side of the card.
+     */
+    public void addSymbols(Card c, boolean isFront){
+        c.addSymbolsOnSide(counts, isFront);
     }
 
     /**
@@ -33,7 +50,16 @@ public class SymbolPool implements Serializable {
      * @param s The symbol to be removed.
      */
     public void removeSymbol(Symbol s){
-        symbolMap.put(s, getNumOfSymbol(s) - 1);
+        counts[s.ordinal()]--;
+    }
+
+    /**
+     * Removes a symbol from the symbol pool by ordinal.
+     *
+     * @param ordinal The ordinal of the symbol to be removed.
+     */
+    void removeSymbol(int ordinal){
+        counts[ordinal]--;
     }
 
     /**
@@ -43,9 +69,21 @@ public class SymbolPool implements Serializable {
      * @return The number of occurrences of the symbol.
      */
     public int getNumOfSymbol(Symbol symbol){
-        if(symbolMap.containsKey(symbol)) {
-            return symbolMap.get(symbol);
+        return counts[symbol.ordinal()];
+    }
+
+    /**
+     * Checks if the symbol pool holds at least the given number of each symbol.
+     *
+     * @param required The required occurrences of each symbol, indexed by ordinal.
+     * @return True if every requirement is met, false otherwise.
+     */
+    public boolean containsAll(int[] required){
+        for (int i = 0; i < required.length; i++){
+            if (required[i] > counts[i]){
+                return false;
+            }
         }
-        return 0;
+        return true;
     }
 }
@@ -5,35 +5,72 @@ import it.polimi.ingsw.model.card.PlayableCard;
 import it.polimi.ingsw.model.card.Symbol;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Stack;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Represents a deck of playable cards in the game.
+ * The cards are kept in an array, the top card last, holding references to cards that may be shared with other decks:
+ * only the order of the cards belongs to the deck.
  */
 public class Deck {
 
     /**
-     * Stack to hold the cards in the deck.
+     * Array to hold the cards in the deck, from the bottom to the top.
      */
-    protected Stack<PlayableCard> cards;
+    protected PlayableCard[] cards;
+
+    /**
+     * Number of cards left in the deck.
+     */
+    protected int size;
 
     /**
      * Constructs an empty deck.
      */
     public Deck(){
-        cards = new Stack<>();
+        cards = new PlayableCard[0];
     }
 
     /**
      * Constructs a deck with the given collection of cards.
      *
-     * @param c the collection of playable cards to initialize the deck
+     * @param c the collection of playable cards to initialize the deck, the last one on top
+     */
+    public Deck(Collection<? extends PlayableCard> c){
+        cards = c.toArray(new PlayableCard[0]);
+        size = cards.length;
+    }
+
+    /**
+     * Constructs a copy of a deck, holding the same cards in the same order.
+     *
+     * @param other the deck to copy
      */
-    public Deck(Collection<PlayableCard> c){
-        cards = new Stack<>();
-        cards.addAll(c);
+    public Deck(Deck other){
+        cards = Arrays.copyOf(other.cards, other.size);
+        size = other.size;
+    }
+
+    /**
+     * Returns the cards in the deck, from the bottom to the top.
+     *
+     * @return a copy of the list of the cards
+     */
+    public List<PlayableCard> getCards(){
+        return new ArrayList<>(Arrays.asList(cards).subList(0, size));
+    }
+
+    /**
+     * Returns the number of cards in the deck.
+     *
+     * @return the number of cards left
+     */
+    public int size() {
+        return size;
     }
 
     /**
@@ -42,7 +79,7 @@ public class Deck {
      * @return true if the deck is empty, false otherwise
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -55,7 +92,9 @@ public class Deck {
         if(isEmpty()) {
             throw new PlayerExceptions(PlayerExceptions.ErrorCode.EMPTY_DECK, "The deck is empty!");
         }
-        return cards.pop();
+        PlayableCard card = cards[--size];
+        cards[size] = null;
+        return card;
     }
 
     /**
@@ -68,16 +107,24 @@ public class Deck {
         if(isEmpty()) {
             return null;
         }
-        return cards.peek().getKingdom();
+        return cards[size - 1].getKingdom();
     }
 
     /**
      * Shuffles the cards in the deck.
      */
     public void shuffle(){
-        ArrayList<PlayableCard> tmp = new ArrayList<>(cards);
-        Collections.shuffle(tmp);
-        cards.clear();
-        cards.addAll(tmp);
+        shuffle(new Random());
+    }
+
+    /**
+     * Shuffles the cards in the deck with the given source of randomness,
+     * so that the same seed always gives the same order.
+     *
+     * @param random The source of randomness.
+     */
+    public void shuffle(Random random){
+        // in place, in the same order as shuffling a list of the cards
+        Collections.shuffle(Arrays.asList(cards).subList(0, size), random);
     }
 }
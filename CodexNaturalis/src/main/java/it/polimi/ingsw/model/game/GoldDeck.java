@@ -1,12 +1,11 @@
 package it.polimi.ingsw.model.game;
 
-import com.google.gson.reflect.TypeToken;
 import it.polimi.ingsw.exception.JsonLoadException;
 
-import it.polimi.ingsw.model.card.GoldCard;
-import it.polimi.ingsw.utilities.GsonSingleton;
+import it.polimi.ingsw.model.card.CardCatalog;
+import it.polimi.ingsw.model.card.PlayableCard;
 
-import java.util.List;
+import java.util.Collection;
 
 
 /**
@@ -16,23 +15,30 @@ import java.util.List;
 public class GoldDeck extends Deck {
 
     /**
-     * Constructs a GoldDeck object by loading gold cards from the default JSON file.
+     * Constructs a GoldDeck object holding the gold cards of the {@link CardCatalog}.
      *
      * @throws JsonLoadException if there is an error loading the JSON file.
      */
     public GoldDeck() throws JsonLoadException {
-        // Load gold cards from the default JSON file and add them to the deck
-        cards.addAll(load("/goldCards.json"));
+        // the cards are shared with every other deck, only their order belongs to this deck
+        super(CardCatalog.getInstance().getGoldCards());
     }
 
     /**
-     * Loads a list of GoldCard objects from a JSON file.
+     * Constructs a copy of a GoldDeck, holding the same cards in the same order.
      *
-     * @param filepath the path to the JSON file containing GoldCard data
-     * @return a list of GoldCard objects loaded from the JSON file
-     * @throws JsonLoadException if there is an error loading the JSON file
+     * @param other the deck to copy
      */
-    public static List<GoldCard> load(String filepath) throws JsonLoadException {
-        return GsonSingleton.loadJson(filepath, new TypeToken<List<GoldCard>>(){}.getType());
+    public GoldDeck(GoldDeck other) {
+        super(other);
+    }
+
+    /**
+     * Constructs a GoldDeck holding the given cards, the last one on top.
+     *
+     * @param cards the cards of the deck, from the bottom to the top
+     */
+    public GoldDeck(Collection<PlayableCard> cards) {
+        super(cards);
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package it.polimi.ingsw.model.game;
+
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the commands submitted to a single match one at a time, in submission order.
+ * The commands are queued and executed by a drain task on a shared executor; at most one drain task per mailbox
+ * runs at a time, so the commands of the same match never overlap and each one sees the effects of the previous ones,
+ * while many matches share a few threads and an idle match holds none.
+ * A drain task stops after a bounded number of commands and reschedules itself, so that a busy match cannot
+ * starve the others sharing the executor.
+ * A command can pause the mailbox until a future completes, so that the following commands wait for it without
+ * holding a thread of the executor.
+ */
+public class Mailbox implements Executor {
+    private static final Logger logger = Logger.getLogger(Mailbox.class.getName());
+    private static final int MAX_BURST = 64;
+    private final Executor executor;
+    private final Deque<Runnable> commands = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private volatile boolean paused;
+
+    /**
+     * Constructs a Mailbox.
+     *
+     * @param executor The executor running the drain tasks, possibly shared by several mailboxes.
+     */
+    public Mailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a command and returns without waiting for it to run.
+     *
+     * @param command The command to run.
+     */
+    @Override
+    public void execute(Runnable command) {
+        commands.add(command);
+        schedule();
+    }
+
+    /**
+     * Stops running the queued commands until a future completes, then runs a command before the queued ones.
+     * Meant to be called by a running command; the commands queued in the meantime wait without holding a thread.
+     *
+     * @param future The future to wait for, whether it completes normally or exceptionally.
+     * @param first  The command to run as soon as the future completes.
+     */
+    public void pauseUntil(CompletableFuture<?> future, Runnable first) {
+        paused = true;
+        future.whenComplete((result, e) -> {
+            commands.addFirst(first);
+            paused = false;
+            schedule();
+        });
+    }
+
+    /**
+     * Submits a drain task unless one is already pending or running, or the mailbox is paused.
+     */
+    private void schedule() {
+        if (!paused && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Runs the queued commands in order until the mailbox is paused, then reschedules itself if commands are
+     * still waiting and the mailbox is not paused.
+     * A failing command is logged and does not prevent the following ones from running.
+     */
+    private void drain() {
+        try {
+            Runnable command;
+            for (int i = 0; i < MAX_BURST && !paused && (command = commands.poll()) != null; i++) {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Error running match command", e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+
+        // checked after clearing the flag, so that a pause ending meanwhile either sees it cleared or is seen here
+        if (!commands.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Returns the number of commands waiting to run.
+     *
+     * @return The number of queued commands.
+     */
+    public int getPendingCommands() {
+        return commands.size();
+    }
+}
@@ -1,31 +1,59 @@
 package it.polimi.ingsw.model.game;
 
-import com.google.gson.reflect.TypeToken;
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.exception.*;
 
+import it.polimi.ingsw.gamestate.ActionJournal;
 import it.polimi.ingsw.gamestate.ServerGameState;
+import it.polimi.ingsw.gamestate.SnapshotWriter;
 import it.polimi.ingsw.message.GameStateMessage;
 import it.polimi.ingsw.message.Message;
 import it.polimi.ingsw.message.notify.*;
+import it.polimi.ingsw.model.card.CardCatalog;
 import it.polimi.ingsw.model.card.PlayableCard;
 import it.polimi.ingsw.model.card.StarterCard;
 import it.polimi.ingsw.model.card.Symbol;
 import it.polimi.ingsw.model.field.PlayerField;
+import it.polimi.ingsw.model.field.Position;
 import it.polimi.ingsw.model.objective.Objective;
 import it.polimi.ingsw.model.player.Player;
 import it.polimi.ingsw.model.player.PlayerColor;
-
-import it.polimi.ingsw.utilities.GsonSingleton;
+import it.polimi.ingsw.network.codec.PreparedMessage;
+import it.polimi.ingsw.network.server.ServerConfig;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
  * Represents a match in the game.
+ * The actions of the players are submitted as commands to the mailbox of the match, which runs them one at a time
+ * on the executor shared by all the matches; the set up advances when the last player makes each choice,
+ * so a match waiting for its players holds no thread.
+ * Every accepted action is appended to the {@link ActionJournal} of the match, the set up included with its seed so
+ * that the trail of the match is complete, while a full snapshot is only taken as a checkpoint at the end of the set up
+ * and every few turns; a match is recovered from its last checkpoint by replaying the turns journaled after it,
+ * so a match interrupted during the set up is not recovered.
+ * In durable mode the players are only notified of an action once it is synced to disk: the notifications of a
+ * command are held, and the mailbox is paused until the sync completes instead of blocking one of its threads.
  */
 public class Match {
+    private static final Logger logger = Logger.getLogger(Match.class.getName());
+    private static final int CHECKPOINT_INTERVAL = 8;
+    private static final String SEED = "SEED";
+    private static final String SEAT = "SEAT";
+    private static final String STARTER = "STARTER";
+    private static final String OBJECTIVE = "OBJECTIVE";
+    private static final String PLAY = "PLAY";
+    private static final String DRAW = "DRAW";
+
     private final int lobbyId;
 
     private final HashMap<Player, Controller> clients;
@@ -39,7 +67,23 @@ public class Match {
     private volatile Player currentPlayer;
     private boolean lastRound;
     private final Map<Player, PlayerInitialConfig> playersInitialConfig;
-    private boolean gameEnded;
+    private volatile boolean gameEnded;
+
+    private List<Objective> setUpObjectives;
+
+    private final Mailbox mailbox = new Mailbox(ServerConfig.getMatchExecutor());
+    private final CountDownLatch ended = new CountDownLatch(1);
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private Runnable onEnd = () -> {};
+
+    private ActionJournal journal;
+    private Random random;
+    private int turnsSinceCheckpoint;
+    private boolean replaying;
+    private NotifyEndMatch endResult;
+    private boolean inCommand;
+    private CompletableFuture<Void> unsynced;
+    private final List<Runnable> held = new ArrayList<>();
 
     /**
      * Constructs a new Match object.
@@ -62,6 +106,7 @@ public class Match {
 
     /**
      * Loads the match with the provided controllers and initializes game state.
+     * The state is rebuilt from the last checkpoint, then the actions journaled after it are replayed.
      *
      * @param controllers List of controllers associated with players in the match.
      * @throws IOException If there's an error in loading game state.
@@ -113,14 +158,250 @@ public class Match {
                 }
             }
         }
+
+        journal = ActionJournal.recover(lobbyId);
+        journal.skipTo(serverGameState.getJournalSeq());
+        journal.truncate(serverGameState.getJournalSeq());
+        replay(journal.getEntriesAfter(serverGameState.getJournalSeq()));
     }
 
     /**
-     * Resumes the game from a paused state, updating players and clients with current game state.
+     * Replays the actions journaled after the checkpoint, without notifying the players nor journaling them again.
+     * A card played without the following draw belongs to a turn cut short by the shutdown, it is discarded
+     * so that the player plays the turn again; an action that cannot be replayed is discarded with the following ones.
+     *
+     * @param entries The actions to replay, in order.
+     */
+    private void replay(List<ActionJournal.Entry> entries){
+        replaying = true;
+        try {
+            for(int i = 0; i < entries.size(); i++){
+                ActionJournal.Entry entry = entries.get(i);
+                if(entry.action().equals(PLAY) && i == entries.size() - 1 && !lastRound){
+                    journal.discardFrom(entry.seq());
+                    break;
+                }
+
+                try {
+                    apply(entry);
+                } catch (PlayerExceptions | RuntimeException e){
+                    logger.log(Level.SEVERE, "Failed to replay action " + entry.seq() + " of match " + lobbyId, e);
+                    journal.discardFrom(entry.seq());
+                    break;
+                }
+            }
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /**
+     * Applies a journaled action to the match, through the same checks as the live action.
+     *
+     * @param entry The action.
+     * @throws PlayerExceptions If the action is not valid in the current state.
+     */
+    private void apply(ActionJournal.Entry entry) throws PlayerExceptions {
+        Player p = getPlayer(PlayerColor.valueOf(entry.arg(0)));
+        switch (entry.action()) {
+            case PLAY -> p.playCard(entry.intArg(1), new Position(entry.intArg(2), entry.intArg(3)), Boolean.parseBoolean(entry.arg(4)));
+            case DRAW -> {
+                switch (NotifyDraw.DrawType.valueOf(entry.arg(1))) {
+                    case GOLD -> p.drawGold();
+                    case RESOURCE -> p.drawResource();
+                    case MARKET -> p.drawMarket(entry.intArg(2));
+                }
+            }
+            default -> throw new IllegalStateException("Unexpected action " + entry.action() + " after the checkpoint");
+        }
+    }
+
+    /**
+     * Gets the player with the given color.
+     *
+     * @param color The color of the player.
+     * @return The player.
+     * @throws IllegalArgumentException If no player has the color.
+     */
+    private Player getPlayer(PlayerColor color){
+        for(Player p : players){
+            if(p.getColor() == color){
+                return p;
+            }
+        }
+        throw new IllegalArgumentException("No player with color " + color);
+    }
+
+    /**
+     * Appends an accepted action to the journal of the match, unless it is being replayed from it.
+     * In durable mode, the notifications following the action are held until it is synced to disk, so that the
+     * players are only notified of actions that survive a crash; the sync is shared with the actions of the other
+     * matches in the same batch.
+     * A command run by the mailbox does not wait for the sync, the mailbox is paused once the command returns;
+     * a caller outside the mailbox waits for it on its own thread.
+     *
+     * @param action The name of the action.
+     * @param args   The arguments of the action.
+     */
+    private void record(String action, Object... args){
+        if(replaying || journal == null){
+            return;
+        }
+
+        CompletableFuture<Long> appended = journal.append(action, args);
+        if(ServerConfig.getDurability() != ServerConfig.Durability.DURABLE){
+            return;
+        }
+
+        CompletableFuture<Void> synced = appended.handle((seq, e) -> {
+            if(e != null){
+                logger.log(Level.WARNING, "Action " + action + " of match " + lobbyId + " not saved", e);
+            }
+            return null;
+        });
+        if(inCommand){
+            unsynced = unsynced == null ? synced : CompletableFuture.allOf(unsynced, synced);
+        } else {
+            synced.join();
+        }
+    }
+
+    /**
+     * Sends a message to a player, held until the actions recorded so far are synced to disk.
+     *
+     * @param c The controller of the player.
+     * @param m The message to send.
+     */
+    private void send(Controller c, Message m){
+        deliver(() -> c.update(m));
+    }
+
+    /**
+     * Runs a delivery to the players right away, or holds it if the actions recorded by the running command
+     * are not synced to disk yet.
+     *
+     * @param delivery The delivery to run.
+     */
+    private void deliver(Runnable delivery){
+        if(unsynced == null){
+            delivery.run();
+        } else {
+            held.add(delivery);
+        }
+    }
+
+    /**
+     * Pauses the mailbox until the actions recorded by the command that just ran are synced to disk,
+     * then runs the deliveries held meanwhile before any following command.
+     */
+    private void release(){
+        if(unsynced == null){
+            return;
+        }
+
+        List<Runnable> deliveries = new ArrayList<>(held);
+        held.clear();
+        CompletableFuture<Void> synced = unsynced;
+        unsynced = null;
+        mailbox.pauseUntil(synced, () -> deliveries.forEach(Runnable::run));
+    }
+
+    /**
+     * Journals a card played by a player.
+     *
+     * @param p        The player.
+     * @param index    The index of the card in the hand of the player.
+     * @param position The position of the card on the field.
+     * @param isFront  The side of the card.
+     */
+    public void cardPlayed(Player p, int index, Position position, boolean isFront){
+        record(PLAY, p.getColor(), index, position.x(), position.y(), isFront);
+    }
+
+    /**
+     * Takes a snapshot of the match as a checkpoint and saves it in background.
+     * The snapshot includes every action journaled so far, so that only the following ones are replayed,
+     * and the journal drops them once the snapshot is saved.
+     */
+    private void checkpoint(){
+        if(replaying){
+            return;
+        }
+        turnsSinceCheckpoint = 0;
+
+        ActionJournal checkpointed = journal;
+        long seq = journal == null ? 0 : journal.getLastSeq();
+        SnapshotWriter.getInstance().submit(lobbyId, new ServerGameState(
+                lobbyId,
+                players.stream().map(Player::getColor).toList(),
+                players.stream().map(p -> clients.get(p).getUsername()).toList(),
+                players.stream().map(Player::getPlayerField).toList(),
+                players.stream().map(p -> scoreTrack.getPlayerScore(p)).toList(),
+                players.stream().map(Player::getObjective).toList(),
+                players.stream().map(Player::getHand).toList(),
+                objectives,
+                goldDeck,
+                resourceDeck,
+                market,
+                currentPlayer.getColor(),
+                lastRound,
+                seq
+        ), () -> {
+            if(checkpointed != null){
+                checkpointed.truncate(seq);
+            }
+        });
+    }
+
+    /**
+     * Submits a command to the mailbox of the match.
+     * Commands run one at a time in submission order, so they never need to synchronize on the match state;
+     * a command recording actions in durable mode holds the following ones until its actions are synced to disk.
+     *
+     * @param command The command to run.
+     */
+    public void submit(Runnable command){
+        mailbox.execute(() -> {
+            inCommand = true;
+            try {
+                command.run();
+            } finally {
+                inCommand = false;
+                release();
+            }
+        });
+    }
+
+    /**
+     * Sets the action run once when the match ends, either normally or for a disconnection.
+     *
+     * @param onEnd The action to run.
+     */
+    public void setOnEnd(Runnable onEnd){
+        this.onEnd = onEnd;
+    }
+
+    /**
+     * Resumes the game from a paused state and waits until the match ends.
      *
      * @throws InterruptedException If thread is interrupted while waiting.
      */
     public void resumeGame() throws InterruptedException {
+        resume();
+        ended.await();
+    }
+
+    /**
+     * Resumes the game from a paused state, updating players and clients with current game state.
+     */
+    public void resume(){
+        if(gameEnded){
+            // the last turn was replayed from the journal
+            broadcast(endResult);
+            finish();
+            return;
+        }
+
         Map<String, PlayerColor> playersColor = new HashMap<>();
         Map<PlayerColor, PlayerField> fields = new HashMap<>();
         Map<PlayerColor, Integer> scores = new HashMap<>();
@@ -161,7 +442,7 @@ public class Match {
         }
 
         for(Player p : players){
-            clients.get(p).update(new GameStateMessage(
+            send(clients.get(p), new GameStateMessage(
                     playersColor,
                     players.stream().map(Player::getColor).toList(),
                     fields,
@@ -171,19 +452,15 @@ public class Match {
                     p.getHand(),
                     objectives,
                     topResource,
-                    resourceDeck.cards.size(),
+                    resourceDeck.size(),
                     topGold,
-                    goldDeck.cards.size(),
+                    goldDeck.size(),
                     market,
                     currentPlayer.getColor()
             ));
         }
 
-        broadcast(new NotifyTurn(currentPlayer.getColor()));
-
-        synchronized (this){
-            wait();
-        }
+        broadcast(new NotifyTurn(currentPlayer.getColor(), currentPlayer.getAvailablePositions()));
     }
 
     // Methods for managing players
@@ -259,75 +536,109 @@ public class Match {
 
     /**
      * Allows a player to choose the side of the starter card.
+     * The last choice moves the set up on to the hands and the objectives.
      *
      * @param p     The player making the choice.
      * @param side  The chosen side of the starter card.
      * @throws PlayerExceptions If it's not the time to choose or if the card side has already been chosen
      */
     public void chooseStarterCardSide(Player p, boolean side) throws PlayerExceptions {
-        synchronized (playersInitialConfig){
-            if(!playersInitialConfig.containsKey(p)){
-                throw new PlayerExceptions(PlayerExceptions.ErrorCode.CONFIGURATION_CHOICE_NOT_PERMITTED, "Wait game to start!");
-            }
+        if(!playersInitialConfig.containsKey(p)){
+            throw new PlayerExceptions(PlayerExceptions.ErrorCode.CONFIGURATION_CHOICE_NOT_PERMITTED, "Wait game to start!");
+        }
 
-            PlayerInitialConfig config = playersInitialConfig.get(p);
-            config.setChosenStarterSide(side);
-            p.placeStarterCard(config.getStarterCard(), side);
+        PlayerInitialConfig config = playersInitialConfig.get(p);
+        config.setChosenStarterSide(side);
+        p.placeStarterCard(config.getStarterCard(), side);
+        record(STARTER, p.getColor(), side);
 
-            //NOTIFY PLAYER
-            Controller c = clients.get(p);
-            c.update(new NotifyChosenStarter(config.getStarterCard(), side));
+        //NOTIFY PLAYER
+        Controller c = clients.get(p);
+        send(c, new NotifyChosenStarter(config.getStarterCard(), side));
 
-            for(Player player : players){
-                if(playersInitialConfig.get(player).getStarterSide() == null){
-                    return;
-                }
-            }
-
-            playersInitialConfig.notify();
+        if(!gameEnded && allStarterSidesChosen()){
+            dealHandsAndObjectives();
         }
     }
 
     /**
      * Allows a player to choose an objective.
+     * The last choice completes the set up and starts the first turn.
      *
      * @param p     The player making the choice.
      * @param num   The index of the chosen objective.
      * @throws PlayerExceptions If it's not the time to choose or if the objective has already been chosen.
      */
     public void chooseObjective(Player p, int num) throws PlayerExceptions {
-        synchronized (playersInitialConfig){
-            if(!playersInitialConfig.containsKey(p)){
-                throw new PlayerExceptions(PlayerExceptions.ErrorCode.CONFIGURATION_CHOICE_NOT_PERMITTED, "Wait game to start!");
-            }
+        if(!playersInitialConfig.containsKey(p)){
+            throw new PlayerExceptions(PlayerExceptions.ErrorCode.CONFIGURATION_CHOICE_NOT_PERMITTED, "Wait game to start!");
+        }
 
-            PlayerInitialConfig config = playersInitialConfig.get(p);
-            config.setChosenObjective(num);
-            p.setObjective(config.getChosenObjective());
+        PlayerInitialConfig config = playersInitialConfig.get(p);
+        config.setChosenObjective(num);
+        p.setObjective(config.getChosenObjective());
+        record(OBJECTIVE, p.getColor(), num);
 
-            //NOTIFY PLAYER
-            Controller c = clients.get(p);
-            c.update(new NotifyChosenObjective(config.getChosenObjective()));
+        //NOTIFY PLAYER
+        Controller c = clients.get(p);
+        send(c, new NotifyChosenObjective(config.getChosenObjective()));
 
-            for(Player player : players){
+        if(!gameEnded && allObjectivesChosen()){
+            finishSetUp();
+        }
+    }
 
-                if(playersInitialConfig.get(player).getChosenObjective() == null){
-                    return;
-                }
+    /**
+     * Checks if every player has chosen the side of their starter card.
+     *
+     * @return True if all the starter card sides have been chosen, otherwise False.
+     */
+    private boolean allStarterSidesChosen(){
+        for(Player player : players){
+            if(playersInitialConfig.get(player).getStarterSide() == null){
+                return false;
             }
+        }
+        return true;
+    }
 
-            playersInitialConfig.notify();
+    /**
+     * Checks if every player has chosen their personal objective.
+     *
+     * @return True if all the personal objectives have been chosen, otherwise False.
+     */
+    private boolean allObjectivesChosen(){
+        for(Player player : players){
+            if(playersInitialConfig.get(player).getChosenObjective() == null){
+                return false;
+            }
         }
+        return true;
     }
 
     /**
-     * Starts the match.
+     * Starts the match and waits until it ends.
      *
      * @throws MatchExceptions   If the match has already started or if the number of players is invalid.
      * @throws InterruptedException if a thread is interrupted while waiting
      * @throws JsonLoadException              If there is an error loading JSON data.
      */
     public void startMatch() throws JsonLoadException, InterruptedException, MatchExceptions {
+        start();
+        ended.await();
+    }
+
+    /**
+     * Starts the match, setting up the table and asking every player to choose the side of their starter card.
+     * Every random choice of the set up comes from a seed written to the journal, so that the trail of the match
+     * tells how the decks and the objectives were dealt; the set up itself is never replayed, recovery starts from
+     * the checkpoint taken at its end.
+     * Returns without waiting for the choices.
+     *
+     * @throws MatchExceptions   If the match has already started or if the number of players is invalid.
+     * @throws JsonLoadException              If there is an error loading JSON data.
+     */
+    public void start() throws JsonLoadException, MatchExceptions {
         synchronized (players) {
             if(!started) {
                 if (players.size() > 1 && players.size() < 5) {
@@ -340,6 +651,11 @@ public class Match {
             }
         }
 
+        long seed = new Random().nextLong();
+        random = new Random(seed);
+        journal = ActionJournal.create(lobbyId);
+        record(SEED, seed);
+
         goldDeck = new GoldDeck();
         resourceDeck = new ResourceDeck();
 
@@ -350,10 +666,9 @@ public class Match {
         }
 
         // Color Assignment
-        Random rand = new Random();
         for(Player p : players){
             List<PlayerColor> availableColors = getAvailableColor();
-            int randomIndex = rand.nextInt(availableColors.size());
+            int randomIndex = random.nextInt(availableColors.size());
             p.setPlayerColor(availableColors.get(randomIndex));
         }
 
@@ -361,6 +676,7 @@ public class Match {
         for (Player p : players){
             String username = clients.get(p).getUsername();
             colors.put(username, p.getColor());
+            record(SEAT, p.getColor(), URLEncoder.encode(username, StandardCharsets.UTF_8));
         }
 
         broadcast(new NotifyColorsAssignment(colors));
@@ -371,8 +687,8 @@ public class Match {
         scoreTrack = new ScoreTrack(players);
 
         // 2 : decks, market
-        resourceDeck.shuffle();
-        goldDeck.shuffle();
+        resourceDeck.shuffle(random);
+        goldDeck.shuffle(random);
 
         try {
             market[0] = resourceDeck.draw();
@@ -386,25 +702,29 @@ public class Match {
         }
 
         // 3 : starter card, color, hand
-        ArrayList<StarterCard> starterCards = GsonSingleton.loadJson("/starterCards.json", new TypeToken<List<StarterCard>>(){}.getType());
-        Collections.shuffle(starterCards);
+        CardCatalog catalog = CardCatalog.getInstance();
+        ArrayList<StarterCard> starterCards = new ArrayList<>(catalog.getStarterCards());
+        Collections.shuffle(starterCards, random);
 
-        synchronized (playersInitialConfig) {
-            for (Player p : players) {
-                StarterCard c = starterCards.removeFirst();
-                playersInitialConfig.get(p).setStarterCard(c);
+        ArrayList<Objective> objectiveCards = new ArrayList<>(catalog.getObjectives());
+        Collections.shuffle(objectiveCards, random);
+        setUpObjectives = objectiveCards;
 
-                // NOTIFY PLAYER
-                Controller controller = clients.get(p);
-                controller.update(new NotifyToChooseStarter(c));
-            }
-            playersInitialConfig.wait();
-        }
+        for (Player p : players) {
+            StarterCard c = starterCards.removeFirst();
+            playersInitialConfig.get(p).setStarterCard(c);
 
-        if(gameEnded){
-            return;
+            // NOTIFY PLAYER
+            Controller controller = clients.get(p);
+            send(controller, new NotifyToChooseStarter(c));
         }
+    }
 
+    /**
+     * Continues the set up once every starter card is placed, dealing the hands and the objectives
+     * and asking every player to choose their personal objective.
+     */
+    private void dealHandsAndObjectives(){
         broadcast(new NotifyStarterCards(
                 players.stream()
                         .map(Player::getColor)
@@ -436,12 +756,12 @@ public class Match {
         // NOTIFY PLAYERS
         for(Player p : players) {
             Controller controller = clients.get(p);
-            controller.update(new NotifyPlayerHand(p.getHand(), backHands));
+            send(controller, new NotifyPlayerHand(p.getHand(), backHands));
         }
 
         // 4 : common objectives
-        ArrayList<Objective> objectiveCards = GsonSingleton.loadJson("/objectiveCards.json", new TypeToken<List<Objective>>(){}.getType());
-        Collections.shuffle(objectiveCards);
+        List<Objective> objectiveCards = setUpObjectives;
+        setUpObjectives = null;
 
         objectives[0] = objectiveCards.removeFirst();
         objectives[1] = objectiveCards.removeFirst();
@@ -449,27 +769,25 @@ public class Match {
         broadcast(new NotifyGlobalObjectives(objectives));
 
         // 5 : personal objectives
-        synchronized (playersInitialConfig) {
-            for(Player p : players) {
-                Objective[] objectives = new Objective[]{
-                        objectiveCards.removeFirst(),
-                        objectiveCards.removeFirst()
-                };
-                playersInitialConfig.get(p).setObjectives(objectives);
-
-                // NOTIFY PLAYER
-                Controller controller = clients.get(p);
-                controller.update(new NotifyToChooseObjective(objectives[0], objectives[1]));
-            }
-            playersInitialConfig.wait();
-        }
+        for(Player p : players) {
+            Objective[] objectives = new Objective[]{
+                    objectiveCards.removeFirst(),
+                    objectiveCards.removeFirst()
+            };
+            playersInitialConfig.get(p).setObjectives(objectives);
 
-        if(gameEnded){
-            return;
+            // NOTIFY PLAYER
+            Controller controller = clients.get(p);
+            send(controller, new NotifyToChooseObjective(objectives[0], objectives[1]));
         }
+    }
 
+    /**
+     * Completes the set up once every personal objective is chosen, choosing the first player and starting the game.
+     */
+    private void finishSetUp(){
         // 6 : choose first player
-        Collections.shuffle(players); //starting player is the first of the list
+        Collections.shuffle(players, random); //starting player is the first of the list
 
         // start the game
         currentPlayer = getStartingPlayer();
@@ -487,28 +805,9 @@ public class Match {
         ));
 
         // NOTIFY PLAYER ITS TURN TO PLAY
-        broadcast(new NotifyTurn(currentPlayer.getColor()));
-
-        // save ServerGameState
-        new ServerGameState(
-            lobbyId,
-            players.stream().map(Player::getColor).toList(),
-            players.stream().map(p -> clients.get(p).getUsername()).toList(),
-            players.stream().map(Player::getPlayerField).toList(),
-            players.stream().map(p -> scoreTrack.getPlayerScore(p)).toList(),
-            players.stream().map(Player::getObjective).toList(),
-            players.stream().map(Player::getHand).toList(),
-            objectives,
-            goldDeck,
-            resourceDeck,
-            market,
-            currentPlayer.getColor(),
-            lastRound
-        );
+        broadcast(new NotifyTurn(currentPlayer.getColor(), currentPlayer.getAvailablePositions()));
 
-        synchronized (this){
-            wait();
-        }
+        checkpoint();
     }
 
     /**
@@ -575,8 +874,12 @@ public class Match {
      */
     public PlayableCard drawGold() throws PlayerExceptions {
         PlayableCard card = goldDeck.draw();
+        record(DRAW, currentPlayer.getColor(), NotifyDraw.DrawType.GOLD);
+        if(replaying){
+            return card;
+        }
 
-        clients.get(currentPlayer).update(new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.GOLD, goldDeck.topCardKingdom(), card));
+        send(clients.get(currentPlayer), new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.GOLD, goldDeck.topCardKingdom(), card));
         broadcast(new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.GOLD, goldDeck.topCardKingdom()), currentPlayer);
 
         return  card;
@@ -590,8 +893,12 @@ public class Match {
      */
     public PlayableCard drawResource() throws PlayerExceptions {
         PlayableCard card = resourceDeck.draw();
+        record(DRAW, currentPlayer.getColor(), NotifyDraw.DrawType.RESOURCE);
+        if(replaying){
+            return card;
+        }
 
-        clients.get(currentPlayer).update(new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.RESOURCE, resourceDeck.topCardKingdom(), card));
+        send(clients.get(currentPlayer), new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.RESOURCE, resourceDeck.topCardKingdom(), card));
         broadcast(new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.RESOURCE, resourceDeck.topCardKingdom()), currentPlayer);
 
         return card;
@@ -634,7 +941,7 @@ public class Match {
         }
 
         market[index] = replaceCard;
-
+        record(DRAW, currentPlayer.getColor(), NotifyDraw.DrawType.MARKET, index);
 
         broadcast(new NotifyDraw(currentPlayer.getColor(), NotifyDraw.DrawType.MARKET, topKingdom, index, replaceCard));
 
@@ -678,24 +985,12 @@ public class Match {
         currentPlayer = nextPlayer;
 
         // NOTIFY PLAYER ITS TURN TO PLAY
-        broadcast(new NotifyTurn(currentPlayer.getColor()));
+        broadcast(new NotifyTurn(currentPlayer.getColor(), currentPlayer.getAvailablePositions()));
 
-        // save ServerGameState
-        new ServerGameState(
-                lobbyId,
-                players.stream().map(Player::getColor).toList(),
-                players.stream().map(p -> clients.get(p).getUsername()).toList(),
-                players.stream().map(Player::getPlayerField).toList(),
-                players.stream().map(p -> scoreTrack.getPlayerScore(p)).toList(),
-                players.stream().map(Player::getObjective).toList(),
-                players.stream().map(Player::getHand).toList(),
-                objectives,
-                goldDeck,
-                resourceDeck,
-                market,
-                currentPlayer.getColor(),
-                lastRound
-        );
+        // the turns in between are recovered from the journal
+        if(++turnsSinceCheckpoint >= CHECKPOINT_INTERVAL){
+            checkpoint();
+        }
     }
 
     /**
@@ -734,10 +1029,28 @@ public class Match {
         return Arrays.copyOf(market, market.length);
     }
 
+    /**
+     * Retrieves a copy of the gold deck of the match.
+     *
+     * @return The gold deck, in drawing order.
+     */
+    public GoldDeck getGoldDeck() {
+        return new GoldDeck(goldDeck);
+    }
+
+    /**
+     * Retrieves a copy of the resource deck of the match.
+     *
+     * @return The resource deck, in drawing order.
+     */
+    public ResourceDeck getResourceDeck() {
+        return new ResourceDeck(resourceDeck);
+    }
+
     /**
      * Ends the match and determines the winner(s).
      */
-    synchronized public void endMatch(){
+    public void endMatch(){
         currentPlayer = null;
         gameEnded = true;
 
@@ -779,15 +1092,16 @@ public class Match {
         int numWinners = winners.size();
         List<Player> orderedPlayers = scoreTrack.getPlayersOrderedByScore();
 
-        broadcast(new NotifyEndMatch(
+        endResult = new NotifyEndMatch(
                 numWinners,
                 orderedPlayers.stream().map(Player::getColor).toList(),
                 orderedPlayers.stream().map(p -> scoreTrack.getPlayerScore(p)).toList(),
                 orderedPlayers.stream().map(Player::getObjective).toList(),
                 orderedPlayers.stream().map(objScore::get).toList()
-        ));
+        );
+        broadcast(endResult);
 
-        this.notifyAll();
+        finish();
     }
 
     /**
@@ -806,13 +1120,18 @@ public class Match {
 
     /**
      * Broadcasts a message to all players in the match.
+     * The message is encoded once and the same bytes are sent to every player.
      *
      * @param m The message to broadcast.
      */
     public void broadcast(Message m){
+        if(replaying){
+            return;
+        }
+        PreparedMessage prepared = new PreparedMessage(m);
         for(Player p : players){
             Controller c = clients.get(p);
-            c.update(m);
+            deliver(() -> c.update(prepared));
         }
     }
 
@@ -823,10 +1142,14 @@ public class Match {
      * @param exclude the player to exclude from receiving the message
      */
     public void broadcast(Message m, Player exclude){
+        if(replaying){
+            return;
+        }
+        PreparedMessage prepared = new PreparedMessage(m);
         for(Player p : players){
             if (p != exclude) {
                 Controller c = clients.get(p);
-                c.update(m);
+                deliver(() -> c.update(prepared));
             }
         }
     }
@@ -846,11 +1169,6 @@ public class Match {
         }
 
         if(inSetUp){
-            synchronized (playersInitialConfig) {
-                playersInitialConfig.notifyAll();
-                playersInitialConfig.notifyAll();
-            }
-
             broadcast(new NotifyEndMatch(-1, null, null, null, null));
         }
         else {
@@ -877,8 +1195,26 @@ public class Match {
             ));
         }
 
-        synchronized (this) {
-            this.notifyAll();
+        finish();
+    }
+
+    /**
+     * Releases the callers waiting for the match to end and runs the end action, only the first time it is called.
+     * A match ending while being replayed is finished when resumed, once the players are notified.
+     */
+    private void finish(){
+        if(replaying){
+            return;
+        }
+        if(finished.compareAndSet(false, true)){
+            if(journal != null){
+                journal.close();
+            }
+            // after the last notifications, which may be held until the last action is synced
+            deliver(() -> {
+                ended.countDown();
+                onEnd.run();
+            });
         }
     }
 }
\ No newline at end of file
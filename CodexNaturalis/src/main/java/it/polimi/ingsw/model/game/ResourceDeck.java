@@ -3,9 +3,12 @@ package it.polimi.ingsw.model.game;
 import com.google.gson.reflect.TypeToken;
 import it.polimi.ingsw.exception.JsonLoadException;
 
+import it.polimi.ingsw.model.card.CardCatalog;
+import it.polimi.ingsw.model.card.PlayableCard;
 import it.polimi.ingsw.model.card.ResourceCard;
 import it.polimi.ingsw.utilities.GsonSingleton;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,13 +18,13 @@ import java.util.List;
 public class ResourceDeck extends Deck{
 
     /**
-     * Constructs a ResourceDeck object by loading resource cards from the default JSON file.
+     * Constructs a ResourceDeck object holding the resource cards of the {@link CardCatalog}.
      *
      * @throws JsonLoadException if there is an error loading the JSON file.
      */
     public ResourceDeck() throws JsonLoadException {
-        // Load resource cards from the default JSON file and add them to the deck
-        cards.addAll(load("/resourceCards.json"));
+        // the cards are shared with every other deck, only their order belongs to this deck
+        super(CardCatalog.getInstance().getResourceCards());
     }
 
     /**
@@ -32,18 +35,24 @@ public class ResourceDeck extends Deck{
      */
     public ResourceDeck(String filePath) throws JsonLoadException {
         // Load resource cards from the JSON file and add them to the deck
-        cards.addAll(load(filePath));
+        super(GsonSingleton.<List<ResourceCard>>loadJson(filePath, new TypeToken<List<ResourceCard>>(){}.getType()));
+    }
 
+    /**
+     * Constructs a copy of a ResourceDeck, holding the same cards in the same order.
+     *
+     * @param other the deck to copy
+     */
+    public ResourceDeck(ResourceDeck other) {
+        super(other);
     }
 
     /**
-     * Loads a list of ResourceCard objects from a JSON file.
+     * Constructs a ResourceDeck holding the given cards, the last one on top.
      *
-     * @param filepath the path to the JSON file containing ResourceCard data
-     * @return a list of ResourceCard objects loaded from the JSON file
-     * @throws JsonLoadException if there is an error loading the JSON file
+     * @param cards the cards of the deck, from the bottom to the top
      */
-    public static List<ResourceCard> load(String filepath) throws JsonLoadException {
-        return GsonSingleton.loadJson(filepath, new TypeToken<List<ResourceCard>>(){}.getType());
+    public ResourceDeck(Collection<PlayableCard> cards) {
+        super(cards);
     }
 }
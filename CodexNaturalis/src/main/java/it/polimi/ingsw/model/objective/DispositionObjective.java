@@ -39,118 +39,187 @@ public class DispositionObjective extends Objective{
         patternKingdom = s;
     }
 
-    /**
-     * Calculates the difference between the positions of two card placements.
-     *
-     * @param c1 the first card placement
-     * @param c2 the second card placement
-     * @return the position representing the difference between the positions of the two card placements
-     */
-    private Position difference(CardPlacement c1, CardPlacement c2) {
-        return c1.getPosition().distance(c2.getPosition());
-    }
-
     /**
      * Finds all occurrences of the specified card pattern within the given list of card placements.
+     * Each card of the first kingdom is taken as the first card of an occurrence, and the other two cards are looked up
+     * by position, so the search is linear in the number of cards.
      *
      * @param cards the list of card placements to search for occurrences
-     * @return an ArrayList containing arrays representing occurrences of the pattern
+     * @return an ArrayList containing arrays representing occurrences of the pattern, as indexes in the list
      */
-    private ArrayList<int[]> findAllOccurrences(ArrayList<CardPlacement> cards){
-        ArrayList<int[]> occurrences = new ArrayList<>();
-
-        int c1_index = 0;
-        for(CardPlacement c1: cards){
-            if(c1.getKingdom() == patternKingdom[0]){
-
-                int c2_index = 0;
-                for(CardPlacement c2: cards){
-                    if (c2.getKingdom() == patternKingdom[1] && difference(c1, c2).equals(patternPosition[0])) {
-
-                        int c3_index = 0;
-                        for (CardPlacement c3 : cards) {
-                            if (c3.getKingdom() == patternKingdom[2] && difference(c1, c3).equals(patternPosition[1])) {
-                                occurrences.add(new int[]{c1_index, c2_index, c3_index});
-                            }
-
-                            c3_index += 1;
-                        }
-                    }
+    private ArrayList<int[]> findAllOccurrences(List<CardPlacement> cards){
+        Map<Position, Integer> byPosition = new HashMap<>(cards.size() * 2);
+        for (int i = 0; i < cards.size(); i++){
+            byPosition.put(cards.get(i).getPosition(), i);
+        }
 
-                    c2_index += 1;
-                }
+        ArrayList<int[]> occurrences = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++){
+            CardPlacement c1 = cards.get(i);
+            if (c1.getKingdom() != patternKingdom[0]){
+                continue;
+            }
+            int c2 = find(cards, byPosition, c1.getPosition(), patternPosition[0], patternKingdom[1]);
+            if (c2 < 0){
+                continue;
+            }
+            int c3 = find(cards, byPosition, c1.getPosition(), patternPosition[1], patternKingdom[2]);
+            if (c3 >= 0){
+                occurrences.add(new int[]{i, c2, c3});
             }
-
-            c1_index += 1;
         }
 
         return occurrences;
     }
 
     /**
-     * Counts the number of occurrences of the specified card pattern without allowing the same card to be used in multiple occurrences.
+     * Looks up the card of a kingdom placed at an offset from a position.
      *
-     * @param arrays the list of arrays representing occurrences of the pattern
+     * @param cards the list of card placements
+     * @param byPosition the index in the list of the card at each position
+     * @param from the position
+     * @param offset the offset
+     * @param kingdom the kingdom
+     * @return the index of the card in the list, or -1 if there is no card of the kingdom there
+     */
+    private static int find(List<CardPlacement> cards, Map<Position, Integer> byPosition, Position from, Position offset, Symbol kingdom){
+        Integer i = byPosition.get(new Position(from.x() + offset.x(), from.y() + offset.y()));
+        return i != null && cards.get(i).getKingdom() == kingdom ? i : -1;
+    }
+
+    /**
+     * Counts the maximum number of occurrences of the specified card pattern without allowing the same card to be used
+     * in multiple occurrences.
+     * Occurrences sharing a card are grouped, and the best choice is searched for in each group on its own.
+     *
+     * @param cards the list of card placements
+     * @param occurrences the list of arrays representing occurrences of the pattern
      * @return the count of occurrences without repetition
      */
-    private int countWithoutRepetition(ArrayList<int[]> arrays){
-        //Count frequency of each number
-        Map<Integer, Integer> freq = new HashMap<>();
-
-        for (int[] arr : arrays){
-            for(int n : arr){
-                if(freq.containsKey(n)){
-                    freq.put(n, freq.get(n) + 1);
-                }
-                else{
-                    freq.put(n, 1);
-                }
+    private int countWithoutRepetition(List<CardPlacement> cards, ArrayList<int[]> occurrences){
+        // The occurrences using each card: at most one per card of the pattern.
+        List<List<Integer>> byCard = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++){
+            byCard.add(new ArrayList<>(3));
+        }
+        for (int o = 0; o < occurrences.size(); o++){
+            for (int card : occurrences.get(o)){
+                byCard.get(card).add(o);
             }
         }
 
         int res = 0;
-        while (!arrays.isEmpty()) {
-            //Find the element with minimum number frequency
-            int[] chosen = arrays.stream().min((a, b) -> {
-                int a_sum = 0;
-                for (int n : a) {
-                    a_sum += freq.get(n);
-                }
-
-                int b_sum = 0;
-                for (int n : b) {
-                    b_sum += freq.get(n);
+        boolean[] visited = new boolean[occurrences.size()];
+        for (int o = 0; o < occurrences.size(); o++){
+            if (visited[o]){
+                continue;
+            }
+            // Collect the occurrences connected to this one through shared cards.
+            List<Integer> group = new ArrayList<>();
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            visited[o] = true;
+            queue.add(o);
+            while (!queue.isEmpty()){
+                int current = queue.poll();
+                group.add(current);
+                for (int card : occurrences.get(current)){
+                    for (int other : byCard.get(card)){
+                        if (!visited[other]){
+                            visited[other] = true;
+                            queue.add(other);
+                        }
+                    }
                 }
+            }
+            res += countGroup(cards, occurrences, group, byCard);
+        }
 
-                return Integer.compare(a_sum, b_sum);
-            }).get();
-
-            res += 1;
+        return res;
+    }
 
-            //Remove all the array that have any number in common with the chosen array
-            // Collect arrays to be removed
-            List<int[]> arraysToRemove = new ArrayList<>();
-            for (int[] arr : arrays) {
-                for (int n : chosen) {
-                    if (arr[0] == n || arr[1] == n || arr[2] == n) {
-                        for (int k : arr) {
-                            freq.put(n, freq.get(k) - 1);
-                        }
-                        arraysToRemove.add(arr);
-                        break; // No need to continue checking if any number is found
+    /**
+     * Counts the maximum number of occurrences in a group that do not share any card.
+     * The occurrences are sorted along the direction of the pattern and each one is either taken, discarding the later
+     * ones sharing a card with it, or skipped, remembering the best count reachable from each state.
+     * Along the chains of cards formed by the patterns of the game an occurrence only shares cards with the next few,
+     * so the number of states stays linear in the size of the group; the search is exact for any pattern.
+     *
+     * @param cards the list of card placements
+     * @param occurrences the list of arrays representing occurrences of the pattern
+     * @param group the indexes of the occurrences in the group
+     * @param byCard the occurrences using each card
+     * @return the count of occurrences without repetition in the group
+     */
+    private int countGroup(List<CardPlacement> cards, ArrayList<int[]> occurrences, List<Integer> group, List<List<Integer>> byCard){
+        if (group.size() == 1){
+            return 1;
+        }
+        // The direction of the pattern, from its first card towards the other two.
+        int dx = patternPosition[0].x() + patternPosition[1].x();
+        int dy = patternPosition[0].y() + patternPosition[1].y();
+        Comparator<Position> alongPattern = Comparator.comparingInt((Position p) -> p.x() * dx + p.y() * dy)
+                .thenComparingInt(Position::x)
+                .thenComparingInt(Position::y);
+        group.sort(Comparator.comparing(o -> cards.get(occurrences.get(o)[0]).getPosition(), alongPattern));
+
+        int n = group.size();
+        Map<Integer, Integer> local = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++){
+            local.put(group.get(i), i);
+        }
+        // The later occurrences sharing a card with each one.
+        BitSet[] later = new BitSet[n];
+        for (int i = 0; i < n; i++){
+            later[i] = new BitSet(n);
+            for (int card : occurrences.get(group.get(i))){
+                for (int other : byCard.get(card)){
+                    int j = local.get(other);
+                    if (j > i){
+                        later[i].set(j);
                     }
                 }
             }
+        }
 
-            // Remove collected arrays
-            for (int[] arr : arraysToRemove) {
-                arrays.remove(arr);
-            }
+        return best(0, new BitSet(n), later, new HashMap<>());
+    }
+
+    /**
+     * Finds the maximum number of occurrences that can be taken from an occurrence on, given those already discarded.
+     *
+     * @param next the index of the next occurrence to consider
+     * @param discarded the occurrences discarded because they share a card with one already taken
+     * @param later the later occurrences sharing a card with each one
+     * @param memo the best count already found for each state
+     * @return the maximum number of occurrences that can be taken
+     */
+    private static int best(int next, BitSet discarded, BitSet[] later, Map<State, Integer> memo){
+        int n = later.length;
+        int i = discarded.nextClearBit(next);
+        if (i >= n){
+            return 0;
+        }
+        State state = new State(i, discarded.get(i, n));
+        Integer known = memo.get(state);
+        if (known != null){
+            return known;
         }
 
+        BitSet taken = (BitSet) discarded.clone();
+        taken.or(later[i]);
+        int res = Math.max(best(i + 1, discarded, later, memo), 1 + best(i + 1, taken, later, memo));
+        memo.put(state, res);
         return res;
     }
 
+    /**
+     * A state of the search: the next occurrence to consider and which of the following ones are discarded.
+     *
+     * @param next the index of the next occurrence
+     * @param discarded the discarded occurrences, counted from the next one
+     */
+    private record State(int next, BitSet discarded) {}
+
     /**
      * Calculates the total score achievable for this objective based on the provided player field.
      * This method overrides the abstract method in the superclass.
@@ -160,8 +229,8 @@ public class DispositionObjective extends Objective{
      */
     @Override
     public  int calculateObjectiveCompletionTimes(PlayerField field) {
-        ArrayList<int[]> occurrences = findAllOccurrences(field.getCards());
+        List<CardPlacement> cards = field.getCards();
 
-        return countWithoutRepetition(occurrences);
+        return countWithoutRepetition(cards, findAllOccurrences(cards));
     }
 }
@@ -147,6 +147,7 @@ public class Player {
         playerField.placeCard(card, isFront, position);
         match.updateScoreTrack(score);
         cardPlayedThisTurn = true;
+        match.cardPlayed(this, index, position, isFront);
 
         match.broadcast(new NotifyCardPlayed(playerColor, index, card, position, isFront, score));
 
@@ -275,27 +276,21 @@ public class Player {
     }
 
     /**
-     * Gets the player's field
+     * Gets a snapshot of the player's field, which is not affected by the cards placed afterwards.
      *
      * @return the player's field
      */
     public PlayerField getPlayerField() {
-        List<CardPlacement> cards = playerField.getCards();
-        PlayerField p = new PlayerField();
-
-        if(cards!=null) {
-            if (!cards.isEmpty()) {
-                CardPlacement placement = cards.getFirst();
-                p.placeStarterCard((StarterCard) placement.getCard(), placement.isFront());
-            }
-
-            for (int i = 1; i < cards.size(); i++) {
-                CardPlacement placement = cards.get(i);
-                p.placeCard((PlayableCard) placement.getCard(), placement.isFront(), placement.getPosition());
-            }
-        }
+        return playerField.snapshot();
+    }
 
-        return p;
+    /**
+     * Gets the positions where the player can place a card.
+     *
+     * @return the available positions
+     */
+    public List<Position> getAvailablePositions() {
+        return playerField.getAvailablePositions();
     }
 
     /**
@@ -323,6 +318,15 @@ public class Player {
         return o.calculateObjectiveScore(playerField);
     }
 
+    /**
+     * Gets the match the player belongs to.
+     *
+     * @return The match of the player.
+     */
+    public Match getMatch(){
+        return match;
+    }
+
     /**
      * Checks whether it's currently not the player's turn in the game.
      *
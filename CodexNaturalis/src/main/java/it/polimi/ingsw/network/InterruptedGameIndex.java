@@ -0,0 +1,129 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.controller.Controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the players of the games interrupted by a server shutdown, so that they can rejoin at login.
+ * Usernames are indexed by the game they belong to, so that checking a login costs the same no matter how many
+ * interrupted games the server carries, and only the game being rejoined is locked.
+ */
+public class InterruptedGameIndex {
+
+    /**
+     * The outcome of a player rejoining an interrupted game.
+     *
+     * @param id          The ID of the game.
+     * @param controllers The controllers of all the players if the player was the last one missing, otherwise null.
+     */
+    public record Rejoin(int id, List<Controller> controllers) {
+
+        /**
+         * Checks whether every player of the game rejoined, so that the game can be resumed.
+         *
+         * @return True if the game can be resumed, otherwise False.
+         */
+        public boolean isComplete() {
+            return controllers != null;
+        }
+    }
+
+    /**
+     * An interrupted game waiting for its players.
+     */
+    private static final class Game {
+        private final Set<String> missing;
+        private final List<Controller> rejoined = new ArrayList<>();
+
+        /**
+         * Constructs a Game.
+         *
+         * @param players The usernames of the players of the game.
+         */
+        private Game(List<String> players) {
+            missing = new HashSet<>(players);
+        }
+    }
+
+    private final Map<String, Integer> gameOf = new ConcurrentHashMap<>();
+    private final Map<Integer, Game> games = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an InterruptedGameIndex.
+     *
+     * @param interrupted The usernames of the players of each interrupted game, by game ID.
+     */
+    public InterruptedGameIndex(Map<Integer, List<String>> interrupted) {
+        for (Map.Entry<Integer, List<String>> entry : interrupted.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+            games.put(entry.getKey(), new Game(entry.getValue()));
+            for (String username : entry.getValue()) {
+                gameOf.put(username, entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Records that a player logged in, if they belong to an interrupted game.
+     * A player rejoins a game only once; logging in again afterwards is a normal login.
+     *
+     * @param username   The username of the player.
+     * @param controller The controller of the player.
+     * @return The outcome of the rejoin, or null if the player does not belong to an interrupted game.
+     */
+    public Rejoin rejoin(String username, Controller controller) {
+        Integer id = gameOf.remove(username);
+        if (id == null) {
+            return null;
+        }
+
+        Game game = games.get(id);
+        synchronized (game) {
+            game.missing.remove(username);
+            game.rejoined.add(controller);
+            if (!game.missing.isEmpty()) {
+                return new Rejoin(id, null);
+            }
+            games.remove(id);
+            return new Rejoin(id, Collections.unmodifiableList(new ArrayList<>(game.rejoined)));
+        }
+    }
+
+    /**
+     * Gets the ID of the interrupted game a player belongs to.
+     *
+     * @param username The username of the player.
+     * @return The ID of the game, or null if the player does not belong to a game waiting for them.
+     */
+    public Integer getGameOf(String username) {
+        return gameOf.get(username);
+    }
+
+    /**
+     * Gets the highest ID of the interrupted games still waiting for players.
+     *
+     * @return The highest ID, if any game is waiting.
+     */
+    public OptionalInt getMaxId() {
+        return games.keySet().stream().mapToInt(Integer::intValue).max();
+    }
+
+    /**
+     * Gets the number of interrupted games still waiting for players.
+     *
+     * @return The number of games.
+     */
+    public int size() {
+        return games.size();
+    }
+}
@@ -0,0 +1,295 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.controller.Controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Groups the players waiting in the matchmaking queue into matches.
+ * Players are bucketed by the size of match they prefer; at every round the buckets are scanned from the largest
+ * size down and every group of players that can play together is handed over to be turned into a lobby.
+ * A player accepts a match one player smaller than preferred for every relaxation period spent waiting,
+ * down to the minimum size, so that nobody waits forever for a large match.
+ * The time each player waited before being matched is sampled to compute percentiles.
+ */
+public class Matchmaker {
+    private static final Logger logger = Logger.getLogger(Matchmaker.class.getName());
+    public static final int MIN_SIZE = 2;
+    public static final int MAX_SIZE = 4;
+    private static final int SAMPLES = 1024;
+    private static final long ROUND_INTERVAL = 50;
+
+    /**
+     * A player waiting in the queue.
+     *
+     * @param username      The username of the player.
+     * @param controller    The controller of the player.
+     * @param preferredSize The preferred number of players of the match.
+     * @param enqueuedAt    The time the player joined the queue, in milliseconds.
+     */
+    public record Ticket(String username, Controller controller, int preferredSize, long enqueuedAt) {}
+
+    private final long relaxAfter;
+    private final LongSupplier clock;
+    private final Consumer<List<Ticket>> former;
+    private final List<Set<Ticket>> buckets = new ArrayList<>(MAX_SIZE + 1);
+    private final Map<String, Ticket> queued = new HashMap<>();
+    private final long[] samples = new long[SAMPLES];
+    private long matchedPlayers;
+    private volatile boolean running;
+
+    /**
+     * Constructs a Matchmaker using the system clock.
+     *
+     * @param relaxAfter How long, in milliseconds, a player waits before accepting a match one player smaller.
+     * @param former     Turns a group of matched players into a lobby; called outside any lock of the matchmaker.
+     */
+    public Matchmaker(long relaxAfter, Consumer<List<Ticket>> former) {
+        this(relaxAfter, former, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a Matchmaker.
+     *
+     * @param relaxAfter How long, in milliseconds, a player waits before accepting a match one player smaller.
+     * @param former     Turns a group of matched players into a lobby; called outside any lock of the matchmaker.
+     * @param clock      The source of the current time in milliseconds.
+     */
+    Matchmaker(long relaxAfter, Consumer<List<Ticket>> former, LongSupplier clock) {
+        this.relaxAfter = relaxAfter;
+        this.former = former;
+        this.clock = clock;
+        for (int i = 0; i <= MAX_SIZE; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Starts forming matches periodically on a dedicated daemon thread.
+     */
+    public void start() {
+        running = true;
+        Thread.ofPlatform().name("matchmaker").daemon().start(this::run);
+    }
+
+    /**
+     * Stops forming matches.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Runs a matchmaking round at every interval until stopped.
+     */
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(ROUND_INTERVAL);
+            } catch (InterruptedException e) {
+                logger.warning("Matchmaker interrupted");
+                return;
+            }
+            formMatches();
+        }
+    }
+
+    /**
+     * Adds a player to the queue, unless already queued.
+     *
+     * @param username      The username of the player.
+     * @param controller    The controller of the player.
+     * @param preferredSize The preferred number of players of the match, between {@link #MIN_SIZE} and {@link #MAX_SIZE}.
+     * @return True if the player was added, False if the player was already queued.
+     */
+    public synchronized boolean enqueue(String username, Controller controller, int preferredSize) {
+        if (preferredSize < MIN_SIZE || preferredSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid match size " + preferredSize);
+        }
+        if (queued.containsKey(username)) {
+            return false;
+        }
+
+        Ticket ticket = new Ticket(username, controller, preferredSize, clock.getAsLong());
+        queued.put(username, ticket);
+        buckets.get(preferredSize).add(ticket);
+        return true;
+    }
+
+    /**
+     * Puts back in the queue players taken out by a round, keeping their original place.
+     *
+     * @param tickets The tickets of the players.
+     */
+    public synchronized void requeue(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            if (queued.putIfAbsent(ticket.username(), ticket) == null) {
+                Set<Ticket> bucket = buckets.get(ticket.preferredSize());
+                List<Ticket> rest = new ArrayList<>(bucket);
+                rest.add(ticket);
+                rest.sort(Comparator.comparingLong(Ticket::enqueuedAt));
+                bucket.clear();
+                bucket.addAll(rest);
+            }
+        }
+    }
+
+    /**
+     * Removes a player from the queue.
+     *
+     * @param username The username of the player.
+     * @return True if the player was queued, otherwise False.
+     */
+    public synchronized boolean cancel(String username) {
+        Ticket ticket = queued.remove(username);
+        if (ticket == null) {
+            return false;
+        }
+        buckets.get(ticket.preferredSize()).remove(ticket);
+        return true;
+    }
+
+    /**
+     * Checks whether a player is waiting in the queue.
+     *
+     * @param username The username of the player.
+     * @return True if the player is queued, otherwise False.
+     */
+    public synchronized boolean isQueued(String username) {
+        return queued.containsKey(username);
+    }
+
+    /**
+     * Gets the number of players waiting in the queue.
+     *
+     * @return The number of queued players.
+     */
+    public synchronized int size() {
+        return queued.size();
+    }
+
+    /**
+     * Runs a matchmaking round, handing every group formed to the former.
+     */
+    void formMatches() {
+        List<List<Ticket>> groups = takeGroups();
+        for (List<Ticket> group : groups) {
+            try {
+                former.accept(group);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error forming match", e);
+            }
+        }
+    }
+
+    /**
+     * Takes out of the queue every group of players that can play together, largest matches first.
+     *
+     * @return The groups formed, each holding the players of a match.
+     */
+    private synchronized List<List<Ticket>> takeGroups() {
+        long now = clock.getAsLong();
+        List<List<Ticket>> groups = new ArrayList<>();
+        for (int size = MAX_SIZE; size >= MIN_SIZE; size--) {
+            List<Ticket> candidates;
+            while ((candidates = candidates(size, now)).size() >= size) {
+                List<Ticket> group = new ArrayList<>(candidates.subList(0, size));
+                for (Ticket ticket : group) {
+                    queued.remove(ticket.username());
+                    buckets.get(ticket.preferredSize()).remove(ticket);
+                    record(now - ticket.enqueuedAt());
+                }
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Lists the oldest players accepting a match of the given size, oldest first.
+     * Since a player relaxes the longer it waits, the players of a bucket accepting the size are a prefix of the
+     * bucket; at most {@code size} of them are taken from each bucket, enough to pick the oldest ones overall.
+     *
+     * @param size The number of players of the match.
+     * @param now  The current time.
+     * @return The candidates, oldest first.
+     */
+    private List<Ticket> candidates(int size, long now) {
+        List<Ticket> candidates = new ArrayList<>();
+        for (int preferred = size; preferred <= MAX_SIZE; preferred++) {
+            int taken = 0;
+            for (Ticket ticket : buckets.get(preferred)) {
+                if (taken == size || minimumSize(ticket, now) > size) {
+                    break;
+                }
+                candidates.add(ticket);
+                taken++;
+            }
+        }
+        candidates.sort(Comparator.comparingLong(Ticket::enqueuedAt));
+        return candidates;
+    }
+
+    /**
+     * Computes the smallest match a player accepts after waiting so far.
+     *
+     * @param ticket The ticket of the player.
+     * @param now    The current time.
+     * @return The minimum size of the match.
+     */
+    private int minimumSize(Ticket ticket, long now) {
+        if (relaxAfter <= 0) {
+            return MIN_SIZE;
+        }
+        long steps = (now - ticket.enqueuedAt()) / relaxAfter;
+        return (int) Math.max(MIN_SIZE, ticket.preferredSize() - steps);
+    }
+
+    /**
+     * Records the time a player waited before being matched.
+     *
+     * @param wait The waiting time in milliseconds.
+     */
+    private void record(long wait) {
+        samples[(int) (matchedPlayers % SAMPLES)] = wait;
+        matchedPlayers++;
+    }
+
+    /**
+     * Computes a percentile of the time the most recently matched players waited in the queue.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The waiting time in milliseconds, or 0 if no player was matched yet.
+     */
+    public synchronized long getTimeToMatchPercentile(double percentile) {
+        int count = (int) Math.min(matchedPlayers, SAMPLES);
+        if (count == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.min(count - 1, Math.max(0, rank - 1))];
+    }
+
+    /**
+     * Gets the number of players matched since the matchmaker was created.
+     *
+     * @return The number of matched players.
+     */
+    public synchronized long getMatchedPlayers() {
+        return matchedPlayers;
+    }
+}
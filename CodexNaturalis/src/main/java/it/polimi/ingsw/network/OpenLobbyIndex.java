@@ -0,0 +1,194 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.lobby.LobbyInfo;
+import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
+import it.polimi.ingsw.message.lobby.LobbyUpdateMessage;
+import it.polimi.ingsw.network.codec.PreparedMessage;
+import it.polimi.ingsw.network.server.Connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the lobbies that players can join, kept up to date as players join and leave.
+ * Lobbies are bucketed by number of free seats and listed starting from the ones closest to be full.
+ * The response listing every open lobby is encoded once and reused until the index changes,
+ * and every change is pushed as a {@link LobbyUpdateMessage} to the subscribed clients.
+ */
+public class OpenLobbyIndex {
+    private static final int MAX_SEATS = 4;
+
+    /**
+     * A response built for a given version of the index.
+     *
+     * @param version  The version of the index the response reflects.
+     * @param response The encoded response.
+     */
+    private record CachedResponse(long version, PreparedMessage response) {}
+
+    private final List<NavigableMap<Integer, LobbyInfo>> buckets = new ArrayList<>(MAX_SEATS + 1);
+    private final Map<Integer, LobbyInfo> entries = new ConcurrentHashMap<>();
+    private final Set<Connection> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private volatile CachedResponse cached;
+
+    /**
+     * Constructs an empty OpenLobbyIndex.
+     */
+    public OpenLobbyIndex() {
+        for (int i = 0; i <= MAX_SEATS; i++) {
+            buckets.add(new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Records the current state of a lobby, adding it to the index if it can be joined and removing it otherwise.
+     * Updates of the same lobby must be serialized by the caller.
+     *
+     * @param id             The ID of the lobby.
+     * @param currentPlayers The number of players in the lobby.
+     * @param maxPlayers     The number of players of the match.
+     * @param open           False if the lobby can no longer be joined regardless of its free seats.
+     */
+    public void update(int id, int currentPlayers, int maxPlayers, boolean open) {
+        int freeSeats = maxPlayers - currentPlayers;
+        if (!open || freeSeats <= 0 || freeSeats > MAX_SEATS) {
+            remove(id);
+            return;
+        }
+
+        LobbyInfo info = new LobbyInfo(id, currentPlayers, maxPlayers);
+        LobbyInfo previous = entries.put(id, info);
+        if (previous != null) {
+            if (previous.getNumCurrentPlayers() == currentPlayers && previous.getMaxPlayers() == maxPlayers) {
+                return;
+            }
+            buckets.get(previous.getMaxPlayers() - previous.getNumCurrentPlayers()).remove(id);
+        }
+        buckets.get(freeSeats).put(id, info);
+        changed(new LobbyUpdateMessage(info, true));
+    }
+
+    /**
+     * Removes a lobby from the index.
+     *
+     * @param id The ID of the lobby.
+     */
+    public void remove(int id) {
+        LobbyInfo previous = entries.remove(id);
+        if (previous != null) {
+            buckets.get(previous.getMaxPlayers() - previous.getNumCurrentPlayers()).remove(id);
+            changed(new LobbyUpdateMessage(previous, false));
+        }
+    }
+
+    /**
+     * Invalidates the cached response and pushes a change to the subscribed clients.
+     *
+     * @param delta The change.
+     */
+    private void changed(LobbyUpdateMessage delta) {
+        version.incrementAndGet();
+        if (!subscribers.isEmpty()) {
+            PreparedMessage prepared = new PreparedMessage(delta);
+            for (Connection subscriber : subscribers) {
+                subscriber.send(prepared);
+            }
+        }
+    }
+
+    /**
+     * Gets the response listing every open lobby, encoding it only if the index changed since the last call.
+     *
+     * @return The prepared response.
+     */
+    public PreparedMessage getAll() {
+        long current = version.get();
+        CachedResponse c = cached;
+        if (c == null || c.version() != current) {
+            List<LobbyInfo> lobbies = query(1, 0, 0, 0);
+            c = new CachedResponse(current, new PreparedMessage(new GetLobbiesResponseMessage(lobbies)));
+            cached = c;
+        }
+        return c.response();
+    }
+
+    /**
+     * Gets a page of the open lobbies matching the given filters, starting from the lobbies with fewer free seats.
+     *
+     * @param minFreeSeats The minimum number of free seats of the returned lobbies.
+     * @param maxPlayers   The size of the returned lobbies, 0 for any size.
+     * @param offset       The number of matching lobbies to skip.
+     * @param limit        The maximum number of lobbies to return, 0 for no limit.
+     * @return The response with the page and the total number of matching lobbies.
+     */
+    public GetLobbiesResponseMessage getPage(int minFreeSeats, int maxPlayers, int offset, int limit) {
+        List<LobbyInfo> matching = query(minFreeSeats, maxPlayers, 0, 0);
+        int from = Math.min(Math.max(offset, 0), matching.size());
+        int to = limit > 0 ? Math.min(from + limit, matching.size()) : matching.size();
+        return new GetLobbiesResponseMessage(new ArrayList<>(matching.subList(from, to)), matching.size());
+    }
+
+    /**
+     * Lists the open lobbies matching the given filters, starting from the lobbies with fewer free seats.
+     *
+     * @param minFreeSeats The minimum number of free seats of the returned lobbies.
+     * @param maxPlayers   The size of the returned lobbies, 0 for any size.
+     * @param offset       The number of matching lobbies to skip.
+     * @param limit        The maximum number of lobbies to return, 0 for no limit.
+     * @return The matching lobbies.
+     */
+    public List<LobbyInfo> query(int minFreeSeats, int maxPlayers, int offset, int limit) {
+        List<LobbyInfo> result = new ArrayList<>();
+        int skipped = 0;
+        for (int free = Math.max(1, minFreeSeats); free <= MAX_SEATS; free++) {
+            for (LobbyInfo info : buckets.get(free).values()) {
+                if (maxPlayers != 0 && info.getMaxPlayers() != maxPlayers) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(info);
+                if (limit > 0 && result.size() == limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of open lobbies.
+     *
+     * @return The number of lobbies in the index.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Subscribes a client to the changes of the index.
+     *
+     * @param connection The connection of the client.
+     */
+    public void subscribe(Connection connection) {
+        subscribers.add(connection);
+    }
+
+    /**
+     * Unsubscribes a client from the changes of the index.
+     *
+     * @param connection The connection of the client.
+     */
+    public void unsubscribe(Connection connection) {
+        subscribers.remove(connection);
+    }
+}
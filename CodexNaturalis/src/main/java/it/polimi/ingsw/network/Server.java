@@ -1,35 +1,39 @@
 package it.polimi.ingsw.network;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.exception.*;
+import it.polimi.ingsw.gamestate.ActionJournal;
+import it.polimi.ingsw.gamestate.CommitLog;
+import it.polimi.ingsw.gamestate.SnapshotWriter;
 import it.polimi.ingsw.lobby.Lobby;
 import it.polimi.ingsw.lobby.LobbyInfo;
-import it.polimi.ingsw.message.FailedGameReconnectionMessage;
 import it.polimi.ingsw.message.GameReconnectionMessage;
+import it.polimi.ingsw.message.MessageType;
+import it.polimi.ingsw.message.SuccessLobby;
+import it.polimi.ingsw.message.SuccessMessage;
+import it.polimi.ingsw.message.error.JoinMatchError;
+import it.polimi.ingsw.message.lobby.GetLobbiesMessage;
+import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
 import it.polimi.ingsw.message.lobby.PlayerJoinedLobbyMessage;
+import it.polimi.ingsw.network.codec.PreparedMessage;
 import it.polimi.ingsw.network.server.Connection;
+import it.polimi.ingsw.network.server.LivenessMonitor;
+import it.polimi.ingsw.network.server.ServerConfig;
+import it.polimi.ingsw.network.server.SocketServer;
 import it.polimi.ingsw.network.server.Stub;
 import it.polimi.ingsw.network.server.SocketConnection;
 
 import java.io.*;
-import java.lang.reflect.Type;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * The server class manages game connections and lobbies, handling client interactions via both socket and RMI protocols.
@@ -41,15 +45,15 @@ public class Server {
     private static String serverIp = null;
     private static final int SOCKET_PORT = 13337;
     private static final int RMI_PORT = 33445;
-    private static final int THREAD_POOL_SIZE = 10;
-    private static final Map<String, Connection> clients = new HashMap<>();
-    private static final Map<String, Integer> gameId = new HashMap<>();
-    private static final Map<Integer, Lobby> lobbies = new HashMap<>();
-    private static final Object lockId = new Object();
-    private static int nextId = 0;
+    private static final SessionRegistry registry = new SessionRegistry();
+    private static final OpenLobbyIndex openLobbies = new OpenLobbyIndex();
+    private static final int QUEUED = -1;     // Lobby ID recorded for the players waiting in the matchmaking queue
 
-    private static Map<Integer, List<String>> interruptedGames = null;
-    private static final Map<Integer, List<Controller>> interruptedClients = new HashMap<>();
+    private static InterruptedGameIndex interruptedGames = null;
+    // Replaced by a running monitor at startup; connections registered before that are never timed out
+    private static LivenessMonitor liveness = new LivenessMonitor(ServerConfig.getHeartbeatTimeout());
+    // Replaced by a running matchmaker at startup; players queued before that are only matched by explicit rounds
+    private static Matchmaker matchmaker = new Matchmaker(ServerConfig.getQueueRelaxTime(), Server::formQueuedLobby);
 
     /**
      * Main method to start the server.
@@ -57,14 +61,23 @@ public class Server {
      * Loads interrupted games, starts socket communication, configures RMI settings, and registers
      * the server in the RMI registry.
      *
-     * @param args Command line arguments. Use "-ip:ip_address" to specify the server IP address.
+     * @param args Command line arguments. Use "-ip:ip_address" to specify the server IP address,
+     *             "-io:nio|blocking" to choose the socket front end, "-loops:n" to set its number of event loops,
+     *             "-threads:platform|virtual" to choose the threads running connections,
+     *             "-match-threads:n" to set the number of threads shared by all the matches,
+     *             "-queue-relax:ms" to set after how long a queued player accepts a smaller match,
+     *             "-durability:durable|async" to choose whether actions are synced to disk before being acknowledged,
+     *             "-outbound:n" to bound the messages pending for each client,
+     *             "-callback-overflow:drop|disconnect|block" to choose what happens when an RMI client falls behind,
+     *             "-batch-window:ms" to set how long messages for an RMI client are accumulated in one call,
+     *             and "-timeout:ms" to set after how long without heartbeats a client is considered disconnected.
      */
     public static void main(String[] args) {
         // Check command line arguments
         for (String arg : args) {
             if(arg.startsWith("-ip:")){
                 serverIp = arg.substring(4);
-            } else {
+            } else if(!ServerConfig.parse(arg)) {
                 logger.warning("Unknown argument: " + arg);
             }
         }
@@ -74,11 +87,15 @@ public class Server {
 
         loadInterruptedGames();
         if(interruptedGames != null) {
-            if(interruptedGames.keySet().stream().max(Integer::compare).isPresent()){
-                nextId = interruptedGames.keySet().stream().max(Integer::compare).get() + 1;
-            }
+            interruptedGames.getMaxId().ifPresent(registry::reserveLobbyId);
         }
 
+        liveness = new LivenessMonitor(ServerConfig.getHeartbeatTimeout());
+        liveness.start();
+
+        matchmaker = new Matchmaker(ServerConfig.getQueueRelaxTime(), Server::formQueuedLobby);
+        matchmaker.start();
+
         new Thread(Server::serverSocket).start();
 
         System.setProperty("java.rmi.server.hostname", serverIp);
@@ -86,14 +103,57 @@ public class Server {
         registerRMIServer();
     }
 
+    /**
+     * Gets the monitor detecting dead clients of both transports.
+     *
+     * @return The liveness monitor.
+     */
+    public static LivenessMonitor getLivenessMonitor() {
+        return liveness;
+    }
+
+    /**
+     * Gets the matchmaking queue.
+     *
+     * @return The matchmaker.
+     */
+    public static Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    /**
+     * Gets a percentile of the time the recently matched players waited in the matchmaking queue.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The waiting time in milliseconds, or 0 if no player was matched yet.
+     */
+    public static long getTimeToMatchPercentile(double percentile) {
+        return matchmaker.getTimeToMatchPercentile(percentile);
+    }
+
+    /**
+     * Starts the socket front end selected in the configuration.
+     */
+    private static void serverSocket() {
+        if(ServerConfig.getSocketMode() == ServerConfig.SocketMode.BLOCKING){
+            blockingServerSocket();
+            return;
+        }
+
+        try {
+            new SocketServer(SOCKET_PORT, ServerConfig.getSocketLoops()).start();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Exception occurred in serverSocket", e);
+        }
+    }
+
     /**
      * Starts a server socket and listens for incoming connections.
      * When a client connects, it creates a new instance of SocketConnection
-     * and handles the connection in a separate thread.
+     * and handles the connection in a separate thread of the configured kind.
      */
-    private static void serverSocket() {
-        try (ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-             ServerSocket serverSocket = new ServerSocket(SOCKET_PORT)) {
+    private static void blockingServerSocket() {
+        try (ServerSocket serverSocket = new ServerSocket(SOCKET_PORT)) {
 
             logger.info("Server listening on port " + SOCKET_PORT);
 
@@ -105,7 +165,7 @@ public class Server {
                 SocketConnection conn = new SocketConnection(clientSocket);
 
                 // Execute the connection handler in a separate thread
-                executorService.execute(new Thread(conn::start));
+                ServerConfig.startThread("socket-" + clientSocket.getRemoteSocketAddress(), conn::start);
             }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Exception occurred in serverSocket", e);
@@ -127,12 +187,10 @@ public class Server {
 
     /**
      * Registers the RMI server with the RMI registry.
-     * Also starts a thread to handle reconnections for disconnected clients.
      */
     private static void registerRMIServer() {
         try {
             Stub server = new Stub();
-            new Thread(server::findDisconnectedClients).start();
             Registry registry = LocateRegistry.getRegistry(RMI_PORT);
             registry.rebind("RMIServer", server);
 
@@ -141,69 +199,41 @@ public class Server {
         }
     }
 
-    /**
-     * Generates a unique lobby ID in a thread-safe manner.
-     *
-     * @return The generated lobby ID.
-     */
-    private static int generateLobbyId() {
-        synchronized (lockId) {
-            return nextId++;
-        }
-    }
-
     /**
      * Allows a client to log in to the server.
+     * The username is reserved atomically, so that two clients can never log in with the same name.
      *
      * @param username The username of the client.
      * @param conn     The connection object associated with the client.
      * @throws NetworkExceptions If the client is already logged in or if the username is not available.
      */
     public static boolean login(String username, Connection conn) throws NetworkExceptions {
-        synchronized (clients) {
-            if (clients.containsKey(username)) {
-                if (clients.get(username).equals(conn)) {
-                    throw new NetworkExceptions(NetworkExceptions.ErrorCode.CLIENT_ALREADY_LOGGED, "The client is already logged!");
-                } else {
-                    throw new NetworkExceptions(NetworkExceptions.ErrorCode.USERNAME_NOT_AVAILABLE, "Username not available!");
-                }
+        Connection holder = registry.reserveUsername(username, conn);
+        if (holder != null) {
+            if (holder.equals(conn)) {
+                throw new NetworkExceptions(NetworkExceptions.ErrorCode.CLIENT_ALREADY_LOGGED, "The client is already logged!");
+            } else {
+                throw new NetworkExceptions(NetworkExceptions.ErrorCode.USERNAME_NOT_AVAILABLE, "Username not available!");
             }
-            conn.setUsername(username);
-            clients.put(username, conn);
-
-            // Check if user is part of an interrupted game
-            if(interruptedGames != null) {
-                for (int id : interruptedGames.keySet()) {
-                    if(interruptedGames.get(id).contains(username)){
-                        conn.send(new GameReconnectionMessage());
-
-                        interruptedGames.get(id).remove(username);
-                        if(!interruptedClients.containsKey(id)){
-                            interruptedClients.put(id, new ArrayList<>());
-                        }
-                        interruptedClients.get(id).add(conn.getController());
-                        if(interruptedGames.get(id).isEmpty()){
-                            interruptedGames.remove(id);
-                            Lobby lobby = null;
-                            try {
-                                lobby = new Lobby(id, interruptedClients.get(id));
-                            } catch (IOException e) {
-                                logger.log(Level.SEVERE, "Reconnection failed", e);
-                                conn.send(new FailedGameReconnectionMessage());
-                            }
-                            interruptedClients.remove(id);
-
-                            if(lobby != null) {
-                                for (String name : lobby.getPlayers()) {
-                                    gameId.put(name, id);
-                                }
-                            }
-
-                            lobbies.put(id, lobby);
-                        }
-                        return false;
+        }
+        conn.setUsername(username);
+
+        // Check if user is part of an interrupted game
+        if(interruptedGames != null) {
+            InterruptedGameIndex.Rejoin rejoin = interruptedGames.rejoin(username, conn.getController());
+            if(rejoin != null){
+                conn.send(new GameReconnectionMessage());
+
+                if(rejoin.isComplete()){
+                    // the match is loaded on its own mailbox, not on the thread handling this connection
+                    Lobby lobby = new Lobby(rejoin.id(), rejoin.controllers());
+                    for (String name : lobby.getPlayers()) {
+                        registry.assignLobby(name, rejoin.id());
                     }
+                    registry.addLobby(lobby);
+                    lobby.resume(rejoin.controllers());
                 }
+                return false;
             }
         }
 
@@ -212,6 +242,7 @@ public class Server {
 
     /**
      * Allows a client to join a lobby.
+     * Only the joined lobby is locked, so that joins to different lobbies proceed in parallel.
      *
      * @param username The username of the client.
      * @param id       The ID of the lobby.
@@ -220,28 +251,38 @@ public class Server {
      * @throws MatchExceptions   If there is an error related to the match.
      */
     public static Lobby joinLobby(String username, int id, Controller c) throws NetworkExceptions, MatchExceptions {
-        synchronized (gameId) {
-            if (gameId.containsKey(username)) {
-                throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_ALREADY_IN_GAME, "Player " + username + " is playing in another game.");
-            }
+        if (registry.assignLobby(username, id) != null) {
+            throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_ALREADY_IN_GAME, "Player " + username + " is playing in another game.");
+        }
 
-            if (!lobbies.containsKey(id)) {
+        Lobby lobby = registry.getLobby(id);
+        try {
+            if (lobby == null) {
                 throw new NetworkExceptions(NetworkExceptions.ErrorCode.GAME_NOT_FOUND, "Game id " + id + " doesn't exist.");
             }
 
-            Lobby lobby = lobbies.get(id);
-            List<String> usernames = lobby.getPlayers();
-            for(String user : usernames){
-                clients.get(user).send(new PlayerJoinedLobbyMessage(username));
-            }
-
-            lobby.join(username, c);
-            gameId.put(username, id);
+            synchronized (lobby) {
+                if (!registry.isRegistered(lobby)) {
+                    throw new NetworkExceptions(NetworkExceptions.ErrorCode.GAME_NOT_FOUND, "Game id " + id + " doesn't exist.");
+                }
 
-            saveGameId();
+                PreparedMessage joined = new PreparedMessage(new PlayerJoinedLobbyMessage(username));
+                for (String user : lobby.getPlayers()) {
+                    Connection client = registry.getClient(user);
+                    if (client != null) {
+                        client.send(joined);
+                    }
+                }
 
-            return lobby;
+                lobby.join(username, c);
+                lobbyChanged(lobby);
+            }
+        } catch (NetworkExceptions | MatchExceptions e) {
+            registry.unassignLobby(username, id);
+            throw e;
         }
+
+        return lobby;
     }
 
     /**
@@ -258,28 +299,31 @@ public class Server {
             throw new NetworkExceptions(NetworkExceptions.ErrorCode.INVALID_GAME_PARAMETER, "Invalid game parameter!");
         }
 
-        synchronized (gameId) {
-            if (gameId.containsKey(username)) {
-                throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_ALREADY_IN_GAME, "Player " + username + " is playing in another game.");
-            }
-
-            int id = generateLobbyId();
-            Lobby lobby = new Lobby(id, numPlayers);
+        int id = registry.nextLobbyId();
+        if (registry.assignLobby(username, id) != null) {
+            throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_ALREADY_IN_GAME, "Player " + username + " is playing in another game.");
+        }
 
+        Lobby lobby = new Lobby(id, numPlayers);
+        try {
             lobby.join(username, c);
-
-            gameId.put(username, id);
-            lobbies.put(id, lobby);
-
-            saveGameId();
-
-            return lobby;
+        } catch (MatchExceptions e) {
+            registry.unassignLobby(username, id);
+            throw e;
         }
+        synchronized (lobby) {
+            registry.addLobby(lobby);
+            lobbyChanged(lobby);
+        }
+
+        return lobby;
     }
 
 
     /**
      * Allows a client to leave a lobby.
+     * The lobby is removed once empty, while holding its lock so that no player can join it in the meantime.
+     * If the player cannot leave, because the match already started, the player stays assigned to the lobby.
      *
      * @param username The username of the client.
      * @param c        The controller associated with the client.
@@ -287,20 +331,127 @@ public class Server {
      * @throws MatchExceptions   If there is an error related to the match.
      */
     public static void leaveLobby(String username, Controller c) throws NetworkExceptions, MatchExceptions {
-        synchronized (gameId) {
-            if (!gameId.containsKey(username)) {
-                throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_NOT_IN_GAME, "Player " + username + " is playing in any games.");
+        Integer id = registry.unassignLobby(username);
+        if (id == null) {
+            throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_NOT_IN_GAME, "Player " + username + " is playing in any games.");
+        }
+        if (id == QUEUED) {
+            matchmaker.cancel(username);
+            return;
+        }
+
+        Lobby lobby = registry.getLobby(id);
+        if (lobby != null) {
+            synchronized (lobby) {
+                if (!lobby.getPlayers().contains(username)) {
+                    // left while the lobby was being formed from the queue, before joining it
+                    return;
+                }
+                try {
+                    lobby.leave(username, c);
+                } catch (MatchExceptions e) {
+                    registry.assignLobby(username, id);
+                    throw e;
+                }
+                if (lobby.isEmpty()) {
+                    registry.removeLobby(lobby);
+                }
+                lobbyChanged(lobby);
             }
+        }
+    }
 
-            int id = gameId.remove(username);
-            Lobby lobby = lobbies.get(id);
-            lobby.leave(username, c);
-            if (lobby.isEmpty()) {
-                lobbies.remove(id);
+    /**
+     * Puts a client in the matchmaking queue.
+     * The client is acknowledged before being queued, so that the acknowledgement always precedes the lobby it is put in.
+     * While queued the client counts as part of a lobby, so it can neither create nor join another one.
+     *
+     * @param client        The connection of the client.
+     * @param preferredSize The preferred number of players of the match.
+     * @throws NetworkExceptions If the size is invalid or the client is already in a lobby or in the queue.
+     */
+    public static void queueForMatch(Connection client, int preferredSize) throws NetworkExceptions {
+        if(preferredSize < Matchmaker.MIN_SIZE || preferredSize > Matchmaker.MAX_SIZE){
+            throw new NetworkExceptions(NetworkExceptions.ErrorCode.INVALID_GAME_PARAMETER, "Invalid game parameter!");
+        }
+
+        String username = client.getUsername();
+        if (registry.assignLobby(username, QUEUED) != null) {
+            throw new NetworkExceptions(NetworkExceptions.ErrorCode.PLAYER_ALREADY_IN_GAME, "Player " + username + " is playing in another game.");
+        }
+
+        client.send(new SuccessMessage(MessageType.QUEUE));
+        matchmaker.enqueue(username, client.getController(), preferredSize);
+    }
+
+    /**
+     * Turns a group of queued players into a full lobby, starting its match.
+     * The lobby is registered and locked before the players are moved into it, so that a player leaving meanwhile
+     * finds the lobby and waits for it to be formed; the memberships are checked again under the lock right before
+     * joining, and if a player left or disconnected the lobby is dropped and the others are put back in the queue.
+     *
+     * @param group The tickets of the players matched together.
+     */
+    private static void formQueuedLobby(List<Matchmaker.Ticket> group) {
+        int id = registry.nextLobbyId();
+        Lobby lobby = new Lobby(id, group.size());
+        synchronized (lobby) {
+            registry.addLobby(lobby);
+
+            List<Matchmaker.Ticket> accepted = new ArrayList<>();
+            for (Matchmaker.Ticket ticket : group) {
+                if (!ticket.controller().isDisconnected() && registry.moveLobby(ticket.username(), QUEUED, id)) {
+                    accepted.add(ticket);
+                }
+            }
+            accepted.removeIf(ticket -> registry.getLobbyOf(ticket.username()) != lobby);
+
+            if (accepted.size() < group.size()) {
+                registry.removeLobby(lobby);
+                List<Matchmaker.Ticket> requeued = new ArrayList<>();
+                for (Matchmaker.Ticket ticket : accepted) {
+                    if (registry.moveLobby(ticket.username(), id, QUEUED)) {
+                        requeued.add(ticket);
+                    }
+                }
+                matchmaker.requeue(requeued);
+                return;
             }
 
-            saveGameId();
+            List<String> players = group.stream().map(Matchmaker.Ticket::username).toList();
+            PreparedMessage success = new PreparedMessage(new SuccessLobby(MessageType.JOIN, id, players, group.size()));
+            try {
+                for (Matchmaker.Ticket ticket : group) {
+                    ticket.controller().update(success);
+                }
+                for (Matchmaker.Ticket ticket : group) {
+                    lobby.join(ticket.username(), ticket.controller());
+                }
+            } catch (MatchExceptions e) {
+                logger.warning("Failed to form lobby from queue : " + e.getMessage());
+                registry.removeLobby(lobby);
+                for (Matchmaker.Ticket ticket : group) {
+                    registry.unassignLobby(ticket.username(), id);
+                    ticket.controller().update(new JoinMatchError());
+                }
+                return;
+            }
+            lobbyChanged(lobby);
         }
+
+        logger.info("Formed lobby " + id + " of " + group.size() + " players from the queue, time to match p50 "
+                + getTimeToMatchPercentile(50) + " ms, p99 " + getTimeToMatchPercentile(99) + " ms");
+    }
+
+    /**
+     * Updates the index of open lobbies after the players of a lobby changed.
+     * Must be called while holding the lock of the lobby, so that the updates of a lobby are applied in order.
+     *
+     * @param lobby The lobby that changed.
+     */
+    private static void lobbyChanged(Lobby lobby) {
+        openLobbies.update(lobby.getId(), lobby.getCurrentPlayersNum(), lobby.getMaxPlayersNum(),
+                !lobby.isStarted() && registry.isRegistered(lobby));
     }
 
     /**
@@ -309,11 +460,30 @@ public class Server {
      * @return List of non-started lobbies.
      */
     public static List<LobbyInfo> getNonStartedLobbies() {
-        return lobbies.entrySet().stream()
-                .parallel()
-                .filter(entry -> !entry.getValue().isStarted())
-                .map(map -> new LobbyInfo(map.getKey(), map.getValue().getCurrentPlayersNum(), map.getValue().getMaxPlayersNum()))
-                .collect(Collectors.toList());
+        return openLobbies.query(1, 0, 0, 0);
+    }
+
+    /**
+     * Answers a request for the list of open lobbies, updating the subscription of the client to its changes.
+     * The client is subscribed before the list is built, so that no change after the list is missed.
+     *
+     * @param client  The connection of the client.
+     * @param request The request.
+     */
+    public static void sendOpenLobbies(Connection client, GetLobbiesMessage request) {
+        if (request.isSubscribe()) {
+            openLobbies.subscribe(client);
+        } else {
+            openLobbies.unsubscribe(client);
+        }
+
+        if (request.isUnfiltered()) {
+            client.send(openLobbies.getAll());
+        } else {
+            GetLobbiesResponseMessage page = openLobbies.getPage(request.getMinFreeSeats(), request.getMaxPlayers(),
+                    request.getOffset(), request.getLimit());
+            client.send(page);
+        }
     }
 
     /**
@@ -323,10 +493,7 @@ public class Server {
      * @return The lobby object associated with the client.
      */
     public static Lobby getLobby(String username) {
-        if (!gameId.containsKey(username)) {
-            return null;
-        }
-        return lobbies.get(gameId.get(username));
+        return registry.getLobbyOf(username);
     }
 
     /**
@@ -336,9 +503,14 @@ public class Server {
      * @param c The Connection object representing the client.
      */
     public static void handleDisconnection(Connection c){
+        openLobbies.unsubscribe(c);
         String username = c.getUsername();
-        if(username != null && clients.containsKey(username) && clients.get(username) == c){
-            clients.remove(username);
+        if(username != null && registry.releaseUsername(username, c)){
+            if(registry.unassignLobby(username, QUEUED)){
+                matchmaker.cancel(username);
+                return;
+            }
+
             Lobby lobby = getLobby(username);
             if(lobby != null){
                 if(lobby.isStarted()){
@@ -361,97 +533,59 @@ public class Server {
      * @param lobby The Lobby object representing the lobby where the match ended.
      */
     public static void matchEnded(Lobby lobby){
-        List<String> players = lobby.getPlayers();
-        lobbies.remove(gameId.get(players.getFirst()));
-        for(String username : players){
-            gameId.remove(username);
+        registry.removeLobby(lobby);
+        openLobbies.remove(lobby.getId());
+        for(String username : lobby.getPlayers()){
+            registry.unassignLobby(username, lobby.getId());
         }
-        saveGameId();
 
-        // Deleting the file
-        File directory = new File("interruptedGames");
-        if (!directory.exists() || !directory.isDirectory()) {
-            logger.warning("Directory does not exist: " + directory.getAbsolutePath());
-            return;
-        }
-
-        File file = new File(directory, lobby.getId() + ".json");
-        if (file.exists() && file.isFile()) {
-            if (!file.delete()) {
-                logger.warning("Failed to delete file: " + file.getAbsolutePath());
-            }
-        } else {
-            logger.warning("File does not exist or is not a file: " + file.getAbsolutePath());
-        }
+        // Deleting the files, after any snapshot of the match still waiting to be written
+        ActionJournal.delete(lobby.getId());
+        SnapshotWriter.getInstance().delete(lobby.getId());
     }
 
     /**
-     * Saves the current game IDs and associated players to a JSON file.
-     * This method is used to persist interrupted games for potential reconnections.
+     * Releases the lobby of an interrupted match that could not be loaded, keeping its saved files for a later run.
+     *
+     * @param lobby The lobby of the match.
      */
-    private static void saveGameId(){
-        HashMap<Integer, List<String>> games = new HashMap<>();
-        synchronized (gameId) {
-            for(String key : gameId.keySet()){
-                if(lobbies.get(gameId.get(key)).getMaxPlayersNum() == lobbies.get(gameId.get(key)).getCurrentPlayersNum()) {
-                    if (!games.containsKey(gameId.get(key))) {
-                        games.put(gameId.get(key), new ArrayList<>());
-                    }
-                    games.get(gameId.get(key)).add(key);
-                }
-            }
+    public static void reconnectionFailed(Lobby lobby){
+        registry.removeLobby(lobby);
+        for(String username : lobby.getPlayers()){
+            registry.unassignLobby(username, lobby.getId());
         }
+    }
 
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    /**
+     * Loads the interrupted games and their players from the saved snapshots into memory.
+     * This method is called during server startup to resume interrupted game states, after importing the games saved
+     * by the original server; it also creates the directory holding the saved games, so that the games of this run
+     * are saved.
+     */
+    private static void loadInterruptedGames(){
         File directory = new File("interruptedGames");
-
-        // Create directory if it doesn't exist
-        if (!directory.exists()) {
-            boolean created = directory.mkdirs();
-            if (!created) {
-                logger.warning("Failed to create directory: " + directory.getPath());
-                return;
-            }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            logger.warning("Failed to create directory: " + directory.getPath());
+            return;
         }
 
-        File file = new File(directory, "info.json");
-
-        // Create file if it doesn't exist
+        // the games saved by the original server, one JSON file each, are moved into the snapshot store once
         try {
-            if (!file.exists()) {
-                boolean created = file.createNewFile();
-                if (!created) {
-                    logger.warning("Failed to create file: " + file.getPath());
-                    return;
-                }
-            }
-        } catch (IOException e) {
-            logger.warning("Failed to create file: " + e.getMessage());
-            return;
+            SnapshotWriter.getInstance().importLegacy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Interrupted while importing the saved games");
         }
 
-        // Write data to the file
-        try (FileWriter writer = new FileWriter(file)) {
-            gson.toJson(games, writer); // Assuming 'games' is your data structure to be serialized
-            logger.info("Successfully saved active games to file: " + file.getPath());
-        } catch (IOException e) {
-            logger.warning("Failed to save active games: " + e.getMessage());
+        // the journals of the matches interrupted before their first checkpoint cannot be replayed
+        int orphans = ActionJournal.deleteAllExcept(CommitLog.getInstance(), SnapshotWriter.getInstance().getSavedIds());
+        if (orphans > 0) {
+            logger.info("Deleted the journals of " + orphans + " matches interrupted during the set up");
         }
-    }
 
-    /**
-     * Loads interrupted games and associated players from a JSON file into memory.
-     * This method is called during server startup to resume interrupted game states.
-     */
-    private static void loadInterruptedGames(){
-        Gson gson = new Gson();
-        try (FileReader reader = new FileReader("interruptedGames/info.json")) {
-            Type mapType = new TypeToken<HashMap<Integer, List<String>>>(){}.getType();
-            interruptedGames = gson.fromJson(reader, mapType);
-        } catch (FileNotFoundException e) {
-            logger.warning("File not found: " + e.getMessage());
-        } catch (IOException e) {
-            logger.warning("Failed to load interrupted games: " + e.getMessage());
-        }
+        // only the labels of the snapshots are read, each snapshot is decoded when its match is resumed
+        Map<Integer, List<String>> games = SnapshotWriter.getInstance().getSavedPlayers();
+        interruptedGames = new InterruptedGameIndex(games);
+        logger.info("Loaded " + games.size() + " interrupted games");
     }
 }
\ No newline at end of file
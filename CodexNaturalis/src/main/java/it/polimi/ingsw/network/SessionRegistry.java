@@ -0,0 +1,185 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.lobby.Lobby;
+import it.polimi.ingsw.network.server.Connection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the logged clients, of the lobbies and of the lobby each player belongs to.
+ * Every map is concurrent and every reservation is a single atomic operation, so that logins and lobby changes
+ * of different players never contend on a shared lock; operations that must be consistent with the content of a
+ * lobby are serialized by the caller on the lobby itself.
+ */
+public class SessionRegistry {
+    private final Map<String, Connection> clients = new ConcurrentHashMap<>();
+    private final Map<String, Integer> memberships = new ConcurrentHashMap<>();
+    private final Map<Integer, Lobby> lobbies = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(0);
+
+    /**
+     * Reserves a username for a connection, unless it is already taken.
+     *
+     * @param username   The username to reserve.
+     * @param connection The connection logging in with the username.
+     * @return The connection already holding the username, or null if the reservation succeeded.
+     */
+    public Connection reserveUsername(String username, Connection connection) {
+        return clients.putIfAbsent(username, connection);
+    }
+
+    /**
+     * Releases a username, only if it is still held by the given connection.
+     *
+     * @param username   The username to release.
+     * @param connection The connection holding the username.
+     * @return True if the username was released, otherwise False.
+     */
+    public boolean releaseUsername(String username, Connection connection) {
+        return clients.remove(username, connection);
+    }
+
+    /**
+     * Gets the connection of a logged client.
+     *
+     * @param username The username of the client.
+     * @return The connection of the client, or null if no client is logged with the username.
+     */
+    public Connection getClient(String username) {
+        return clients.get(username);
+    }
+
+    /**
+     * Records that a player belongs to a lobby, unless the player already belongs to one.
+     *
+     * @param username The username of the player.
+     * @param id       The ID of the lobby.
+     * @return The ID of the lobby the player already belongs to, or null if the player was assigned to the lobby.
+     */
+    public Integer assignLobby(String username, int id) {
+        return memberships.putIfAbsent(username, id);
+    }
+
+    /**
+     * Removes a player from the lobby they belong to.
+     *
+     * @param username The username of the player.
+     * @return The ID of the lobby the player belonged to, or null if the player was not in a lobby.
+     */
+    public Integer unassignLobby(String username) {
+        return memberships.remove(username);
+    }
+
+    /**
+     * Removes a player from a lobby, only if they still belong to it.
+     *
+     * @param username The username of the player.
+     * @param id       The ID of the lobby.
+     * @return True if the player was removed, otherwise False.
+     */
+    public boolean unassignLobby(String username, int id) {
+        return memberships.remove(username, id);
+    }
+
+    /**
+     * Moves a player from a lobby to another, only if they still belong to the first one.
+     *
+     * @param username The username of the player.
+     * @param from     The ID of the lobby the player is expected to belong to.
+     * @param to       The ID of the lobby to move the player to.
+     * @return True if the player was moved, otherwise False.
+     */
+    public boolean moveLobby(String username, int from, int to) {
+        return memberships.replace(username, from, to);
+    }
+
+    /**
+     * Gets the lobby a player belongs to.
+     *
+     * @param username The username of the player.
+     * @return The lobby of the player, or null if the player is not in a lobby.
+     */
+    public Lobby getLobbyOf(String username) {
+        Integer id = memberships.get(username);
+        return id == null ? null : lobbies.get(id);
+    }
+
+    /**
+     * Gets a lobby by ID.
+     *
+     * @param id The ID of the lobby.
+     * @return The lobby, or null if no lobby has the ID.
+     */
+    public Lobby getLobby(int id) {
+        return lobbies.get(id);
+    }
+
+    /**
+     * Adds a lobby to the registry.
+     *
+     * @param lobby The lobby to add.
+     */
+    public void addLobby(Lobby lobby) {
+        lobbies.put(lobby.getId(), lobby);
+    }
+
+    /**
+     * Removes a lobby, only if its ID is still mapped to it.
+     *
+     * @param lobby The lobby to remove.
+     * @return True if the lobby was removed, otherwise False.
+     */
+    public boolean removeLobby(Lobby lobby) {
+        return lobbies.remove(lobby.getId(), lobby);
+    }
+
+    /**
+     * Checks whether a lobby is still part of the registry.
+     *
+     * @param lobby The lobby.
+     * @return True if the lobby is registered, otherwise False.
+     */
+    public boolean isRegistered(Lobby lobby) {
+        return lobbies.get(lobby.getId()) == lobby;
+    }
+
+    /**
+     * Gets all the registered lobbies.
+     *
+     * @return An unmodifiable, weakly consistent view of the lobbies.
+     */
+    public Collection<Lobby> getLobbies() {
+        return Collections.unmodifiableCollection(lobbies.values());
+    }
+
+    /**
+     * Gets the lobby of every player in a lobby.
+     *
+     * @return An unmodifiable, weakly consistent view mapping usernames to lobby IDs.
+     */
+    public Map<String, Integer> getMemberships() {
+        return Collections.unmodifiableMap(memberships);
+    }
+
+    /**
+     * Generates a new unique lobby ID.
+     *
+     * @return The generated lobby ID.
+     */
+    public int nextLobbyId() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Makes sure that the generated lobby IDs never reuse the given one.
+     *
+     * @param id A lobby ID already in use.
+     */
+    public void reserveLobbyId(int id) {
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+}
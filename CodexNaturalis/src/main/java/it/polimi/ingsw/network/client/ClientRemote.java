@@ -4,6 +4,7 @@ import it.polimi.ingsw.message.Message;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * The ClientRemote interface represents the remote interface for a client in a distributed system.
@@ -21,4 +22,13 @@ public interface ClientRemote extends Remote {
      * @throws RemoteException if there is a communication-related exception during the remote method call
      */
     void receive(Message m) throws RemoteException;
+
+    /**
+     * Receives several messages sent remotely in a single call.
+     * The messages must be handled in the order of the list.
+     *
+     * @param messages the Message objects received from the server
+     * @throws RemoteException if there is a communication-related exception during the remote method call
+     */
+    void receiveBatch(List<Message> messages) throws RemoteException;
 }
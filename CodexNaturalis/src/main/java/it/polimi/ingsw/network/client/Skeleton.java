@@ -7,18 +7,27 @@ import it.polimi.ingsw.view.View;
 import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Logger;
 
 /**
  * The Skeleton class represents a client-side implementation of both ClientRemote and Connection interfaces
  * for interacting with a remote server.
+ * Outgoing messages are sent in order by a dedicated thread, which delivers all the messages queued
+ * while the previous call was in flight in a single remote call.
  */
 public class Skeleton extends UnicastRemoteObject implements ClientRemote, Connection {
     private static final Logger logger = Logger.getLogger(Skeleton.class.getName());
+    private static final long CLOSE_TIMEOUT_MS = 5000;
     private final ServerRemote server;
     private final String uuid;
     private final View view;
-    private boolean running;
+    private final BlockingQueue<Message> outbound = new LinkedBlockingQueue<>();
+    private final Thread sender;
+    private volatile boolean running;
 
     /**
      * Constructs a Skeleton instance with the given ServerRemote instance and View.
@@ -36,6 +45,9 @@ public class Skeleton extends UnicastRemoteObject implements ClientRemote, Conne
         uuid = s.setCallback(this);
         this.view = view;
         running = true;
+        sender = new Thread(this::sendQueued, "rmi-sender");
+        sender.setDaemon(true);
+        sender.start();
     }
 
     /**
@@ -50,14 +62,68 @@ public class Skeleton extends UnicastRemoteObject implements ClientRemote, Conne
     }
 
     /**
-     * Sends a message to the server.
+     * Receives several messages from the server and updates the associated view with each of them, in order.
+     *
+     * @param messages the Messages received from the server
+     * @throws RemoteException if there is a communication-related exception during the remote method call
+     */
+    @Override
+    public void receiveBatch(List<Message> messages) throws RemoteException {
+        for (Message m : messages) {
+            view.update(m);
+        }
+    }
+
+    /**
+     * Queues a message to be sent to the server.
      *
      * @param m the Message to be sent
      */
     @Override
     public void send(Message m) {
+        outbound.add(m);
+    }
+
+    /**
+     * Sends the queued messages to the server until the connection is closed,
+     * batching the messages that accumulated while the previous call was in flight.
+     * The messages still queued when the connection is closed are sent before returning.
+     */
+    private void sendQueued() {
+        List<Message> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(outbound.take());
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            outbound.drainTo(batch);
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        // the interrupt only stops the wait, the last messages are still sent
+        Thread.interrupted();
+        outbound.drainTo(batch);
+        if (!batch.isEmpty()) {
+            sendBatch(batch);
+        }
+    }
+
+    /**
+     * Sends a batch of messages to the server with a single remote call.
+     *
+     * @param batch the Messages to be sent, in order
+     */
+    private void sendBatch(List<Message> batch) {
         try {
-            server.receive(uuid, m);
+            if (batch.size() == 1) {
+                server.receive(uuid, batch.getFirst());
+            } else {
+                server.receiveBatch(uuid, batch);
+            }
         } catch (RemoteException e){
             logger.warning("Failed to send message: "+ e.getMessage());
         }
@@ -65,10 +131,20 @@ public class Skeleton extends UnicastRemoteObject implements ClientRemote, Conne
 
     /**
      * Closes the connection and stops the Skeleton instance.
+     * Waits for the sender thread to send the messages still queued, for a bounded time,
+     * before the Skeleton stops receiving from the server.
      */
     @Override
     public void close(){
         running = false;
+        sender.interrupt();
+        if (Thread.currentThread() != sender) {
+            try {
+                sender.join(CLOSE_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         try {
             UnicastRemoteObject.unexportObject(this, true);
         } catch (NoSuchObjectException e) {
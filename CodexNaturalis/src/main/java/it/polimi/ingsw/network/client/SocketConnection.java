@@ -1,12 +1,16 @@
 package it.polimi.ingsw.network.client;
 
 import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.PingMessage;
+import it.polimi.ingsw.network.codec.FrameCodec;
 import it.polimi.ingsw.view.View;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.Socket;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -17,9 +21,10 @@ import java.util.logging.Logger;
  */
 public class SocketConnection implements Connection {
     private static final Logger logger = Logger.getLogger(SocketConnection.class.getName());
+    private static final long PING_INTERVAL = 5000;
     private final Socket socket;
-    private final ObjectInputStream inputStream;
-    private final ObjectOutputStream outputStream;
+    private final DataInputStream inputStream;
+    private final OutputStream outputStream;
     private volatile boolean running;
     private final View view;
 
@@ -32,8 +37,8 @@ public class SocketConnection implements Connection {
      */
     public SocketConnection(Socket s, View view) throws IOException {
         socket = s;
-        inputStream = new ObjectInputStream(socket.getInputStream());
-        outputStream = new ObjectOutputStream(socket.getOutputStream());
+        inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        outputStream = new BufferedOutputStream(socket.getOutputStream());
         this.view = view;
     }
 
@@ -45,8 +50,11 @@ public class SocketConnection implements Connection {
     @Override
     public void send(Message m) {
         try {
-            outputStream.writeObject(m);
-            outputStream.flush();
+            byte[] frame = FrameCodec.encode(m);
+            synchronized (outputStream) {
+                outputStream.write(frame);
+                outputStream.flush();
+            }
         } catch (IOException e){
             logger.log(Level.SEVERE, "Error sending message" + e.getMessage() + "\r\n");
         }
@@ -58,19 +66,23 @@ public class SocketConnection implements Connection {
      */
     public void start(){
         running = true;
+        Thread pinger = new Thread(this::ping, "socket-ping");
+        pinger.setDaemon(true);
+        pinger.start();
         try {
-            Message message;
-            while (running && (message = (Message) inputStream.readObject()) != null) {
-                view.update(message);
+            while (running) {
+                view.update(FrameCodec.read(inputStream));
             }
         } catch (EOFException e) {
             logger.log(Level.INFO, "Disconnected");
             //view.disconnection();
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             // server disconnected
             logger.log(Level.SEVERE, "Error in connection handling");
             view.disconnection();
         } finally {
+            running = false;
+            pinger.interrupt();
             try {
                 socket.close();
             } catch (IOException e) {
@@ -79,14 +91,31 @@ public class SocketConnection implements Connection {
         }
     }
 
+    /**
+     * Periodically sends a ping to the server so that it knows this client is still alive.
+     */
+    private void ping(){
+        while (running) {
+            try {
+                Thread.sleep(PING_INTERVAL);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (running) {
+                send(new PingMessage());
+            }
+        }
+    }
+
     /**
      * Closes the socket connection and stops the SocketConnection instance.
+     * The output is shut down so that the server reads the end of the stream.
      */
     @Override
     public void close() {
         running = false;
         try {
-            send(null);
+            socket.shutdownOutput();
         } catch (Exception e){
             logger.warning(e.getMessage());
         }
@@ -0,0 +1,109 @@
+package it.polimi.ingsw.network.codec;
+
+import it.polimi.ingsw.message.Message;
+
+import java.io.*;
+
+/**
+ * Utility class implementing the framing used by the socket transport.
+ * Every message travels as a frame made of a 4 byte big-endian payload length followed by the payload,
+ * so that a reader can always tell whether a complete message has been received without blocking.
+ * The payload is the binary encoding produced by {@link MessageCodec}.
+ */
+public class FrameCodec {
+    /**
+     * Size in bytes of the length header preceding every payload.
+     */
+    public static final int HEADER_SIZE = 4;
+
+    /**
+     * Maximum accepted payload size; larger frames are treated as a protocol violation.
+     */
+    public static final int MAX_FRAME_SIZE = 1 << 22;
+
+    /**
+     * Private constructor, this class only exposes static helpers.
+     */
+    private FrameCodec() {}
+
+    /**
+     * Encodes a message into a complete frame, header included.
+     *
+     * @param m The message to encode.
+     * @return The bytes of the frame.
+     * @throws IOException If the message cannot be encoded or exceeds the maximum frame size.
+     */
+    public static byte[] encode(Message m) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        MessageCodec.write(out, m);
+
+        byte[] frame = bytes.toByteArray();
+        int length = frame.length - HEADER_SIZE;
+        checkLength(length);
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        return frame;
+    }
+
+    /**
+     * Decodes the payload of a frame into a message.
+     *
+     * @param payload The buffer containing the payload.
+     * @param offset  The offset of the payload inside the buffer.
+     * @param length  The length of the payload.
+     * @return The decoded message.
+     * @throws IOException If the payload does not contain a valid message.
+     */
+    public static Message decode(byte[] payload, int offset, int length) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(payload, offset, length);
+        Message m = MessageCodec.read(new DataInputStream(bytes));
+        if (bytes.available() != 0) {
+            throw new IOException("Invalid frame payload: " + bytes.available() + " trailing bytes");
+        }
+        return m;
+    }
+
+    /**
+     * Writes a message as a single frame on a blocking stream and flushes it.
+     *
+     * @param out The stream to write to.
+     * @param m   The message to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void write(OutputStream out, Message m) throws IOException {
+        out.write(encode(m));
+        out.flush();
+    }
+
+    /**
+     * Reads a single frame from a blocking stream.
+     *
+     * @param in The stream to read from.
+     * @return The decoded message.
+     * @throws EOFException If the stream ends before a complete frame is read.
+     * @throws IOException  If an I/O error occurs or the frame is invalid.
+     */
+    public static Message read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return decode(payload, 0, length);
+    }
+
+    /**
+     * Checks that a payload length announced by a header is acceptable.
+     *
+     * @param length The payload length.
+     * @throws IOException If the length is negative or exceeds {@link #MAX_FRAME_SIZE}.
+     */
+    public static void checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+    }
+}
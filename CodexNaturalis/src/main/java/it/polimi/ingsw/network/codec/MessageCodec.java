@@ -0,0 +1,611 @@
+package it.polimi.ingsw.network.codec;
+
+import it.polimi.ingsw.lobby.LobbyInfo;
+import it.polimi.ingsw.message.*;
+import it.polimi.ingsw.message.action.*;
+import it.polimi.ingsw.message.error.*;
+import it.polimi.ingsw.message.lobby.*;
+import it.polimi.ingsw.message.notify.*;
+import it.polimi.ingsw.model.card.PlayableCard;
+import it.polimi.ingsw.model.card.StarterCard;
+import it.polimi.ingsw.model.card.Symbol;
+import it.polimi.ingsw.model.field.PlayerField;
+import it.polimi.ingsw.model.field.Position;
+import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.model.player.PlayerColor;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static it.polimi.ingsw.network.codec.ModelCodec.*;
+
+/**
+ * Binary codec of the messages exchanged on the socket transport.
+ * Every message starts with a one byte tag identifying its type; game actions, notifications and errors
+ * carry a second tag identifying the concrete message. Tags are fixed numbers, independent of the order
+ * of the enum constants, so they never change when an enum is extended; so are the codes of the enum constants
+ * carried by the messages, listed in {@link ModelCodec}.
+ */
+public class MessageCodec {
+    // Message tags
+    private static final int LOGIN = 1;
+    private static final int CHAT = 2;
+    private static final int JOIN = 3;
+    private static final int CREATE = 4;
+    private static final int LEAVE = 5;
+    private static final int GET = 6;
+    private static final int GET_LOBBY_INFO = 7;
+    private static final int SUCCESS = 8;
+    private static final int SUCCESS_LOBBY = 9;
+    private static final int LOBBIES = 10;
+    private static final int PLAYER_JOINED_LOBBY = 11;
+    private static final int PLAYER_LEFT_LOBBY = 12;
+    private static final int LOBBY_INFO = 13;
+    private static final int RECONNECTION = 14;
+    private static final int RECONNECTION_FAILED = 15;
+    private static final int GAMESTATE = 16;
+    private static final int FAILED_TO_START_MATCH = 17;
+    private static final int GAME = 18;
+    private static final int INFO = 19;
+    private static final int ERROR = 20;
+    private static final int PING = 21;
+    private static final int LOBBY_UPDATE = 22;
+    private static final int QUEUE = 23;
+
+    // Game action tags
+    private static final int CHOOSE_STARTER = 1;
+    private static final int CHOOSE_OBJECTIVE = 2;
+    private static final int PLAY_CARD = 3;
+    private static final int DRAW_GOLD = 4;
+    private static final int DRAW_RESOURCE = 5;
+    private static final int DRAW_MARKET = 6;
+
+    // Error tags, one for each error class since their codes are not unique
+    private static final int CHAT_ERROR = 1;
+    private static final int CREATE_MATCH_ERROR = 2;
+    private static final int DRAW_ERROR = 3;
+    private static final int INVALID_MESSAGE = 4;
+    private static final int JOIN_MATCH_ERROR = 5;
+    private static final int LEAVE_MATCH_ERROR = 6;
+    private static final int LOGIN_ERROR = 7;
+    private static final int MATCH_DOES_NOT_EXIST_ERROR = 8;
+    private static final int OBJECTIVE_CHOOSE_ERROR = 9;
+    private static final int PLAY_CARD_ERROR = 10;
+    private static final int STARTER_CHOOSE_ERROR = 11;
+    private static final int UNAUTHORIZED_ERROR = 12;
+
+    /**
+     * Private constructor, this class only exposes static helpers.
+     */
+    private MessageCodec() {}
+
+    /**
+     * Returns the fixed tag of a notification type.
+     *
+     * @param type The notification type.
+     * @return The tag of the type.
+     */
+    private static int notifyTag(NotifyType type) {
+        return switch (type) {
+            case YOUR_TURN -> 1;
+            case CHOOSE_STARTER -> 2;
+            case CHOOSE_OBJECTIVE -> 3;
+            case SET_UP_END -> 4;
+            case PLAY_CARD -> 5;
+            case DRAW -> 6;
+            case PLAYER_HAND -> 7;
+            case CARD_STATE -> 8;
+            case COLOR_ASSIGNMENT -> 9;
+            case STARTER_CARDS -> 10;
+            case END_MATCH -> 11;
+            case LAST_ROUND -> 12;
+            case GLOBAL_OBJECTIVES -> 13;
+            case MATCH_STARTED -> 14;
+            case OBJECTIVE_CHOSEN -> 15;
+            case STARTER_CHOSEN -> 16;
+        };
+    }
+
+    /**
+     * Writes a message on a binary stream.
+     *
+     * @param out The stream to write to.
+     * @param m   The message to write.
+     * @throws IOException If an I/O error occurs or the message has no encoder.
+     */
+    public static void write(DataOutput out, Message m) throws IOException {
+        switch (m) {
+            case LoginMessage msg -> {
+                out.writeByte(LOGIN);
+                writeString(out, msg.username());
+            }
+            case ChatMessage msg -> {
+                out.writeByte(CHAT);
+                writeString(out, msg.getSender());
+                writeString(out, msg.getMessage());
+                out.writeBoolean(msg.getDate() != null);
+                if (msg.getDate() != null) {
+                    out.writeLong(msg.getDate().getTime());
+                }
+                writeList(out, msg.getRecipients(), ModelCodec::writeString);
+            }
+            case JoinLobbyMessage msg -> {
+                out.writeByte(JOIN);
+                out.writeInt(msg.lobbyId());
+            }
+            case CreateLobbyMessage msg -> {
+                out.writeByte(CREATE);
+                out.writeInt(msg.numPlayers());
+            }
+            case LeaveLobbyMessage ignored -> out.writeByte(LEAVE);
+            case QueueMessage msg -> {
+                out.writeByte(QUEUE);
+                out.writeInt(msg.preferredSize());
+            }
+            case GetLobbiesMessage msg -> {
+                out.writeByte(GET);
+                out.writeInt(msg.getOffset());
+                out.writeInt(msg.getLimit());
+                out.writeInt(msg.getMinFreeSeats());
+                out.writeInt(msg.getMaxPlayers());
+                out.writeBoolean(msg.isSubscribe());
+            }
+            case GetLobbyInfoMessage ignored -> out.writeByte(GET_LOBBY_INFO);
+            case PingMessage ignored -> out.writeByte(PING);
+            case SuccessLobby msg -> {
+                out.writeByte(SUCCESS_LOBBY);
+                writeEnum(out, msg.successType());
+                out.writeInt(msg.getId());
+                writeList(out, msg.getPlayers(), ModelCodec::writeString);
+                out.writeInt(msg.getMaxNumPlayers());
+            }
+            case SuccessMessage msg -> {
+                out.writeByte(SUCCESS);
+                writeEnum(out, msg.successType());
+            }
+            case GetLobbiesResponseMessage msg -> {
+                out.writeByte(LOBBIES);
+                writeList(out, msg.getLobbies(), MessageCodec::writeLobbyInfo);
+                out.writeInt(msg.getTotal());
+            }
+            case LobbyUpdateMessage msg -> {
+                out.writeByte(LOBBY_UPDATE);
+                writeLobbyInfo(out, msg.lobby());
+                out.writeBoolean(msg.open());
+            }
+            case PlayerJoinedLobbyMessage msg -> {
+                out.writeByte(PLAYER_JOINED_LOBBY);
+                writeString(out, msg.getUsername());
+            }
+            case PlayerLeftLobbyMessage msg -> {
+                out.writeByte(PLAYER_LEFT_LOBBY);
+                writeString(out, msg.getUsername());
+            }
+            case LobbyInfoMessage msg -> {
+                out.writeByte(LOBBY_INFO);
+                writeList(out, msg.getPlayers(), ModelCodec::writeString);
+            }
+            case GameReconnectionMessage ignored -> out.writeByte(RECONNECTION);
+            case FailedGameReconnectionMessage ignored -> out.writeByte(RECONNECTION_FAILED);
+            case FailedToStartMatchMessage ignored -> out.writeByte(FAILED_TO_START_MATCH);
+            case GameStateMessage msg -> {
+                out.writeByte(GAMESTATE);
+                writeGameState(out, msg);
+            }
+            case GameMessage msg -> {
+                out.writeByte(GAME);
+                writeAction(out, msg);
+            }
+            case NotifyMessage msg -> {
+                out.writeByte(INFO);
+                out.writeByte(notifyTag(msg.getNotifyType()));
+                writeNotify(out, msg);
+            }
+            case ErrorMessage msg -> {
+                out.writeByte(ERROR);
+                out.writeByte(errorTag(msg));
+            }
+            case null, default -> throw new IOException("No encoder for message " + (m == null ? null : m.getClass().getName()));
+        }
+    }
+
+    /**
+     * Reads a message from a binary stream.
+     *
+     * @param in The stream to read from.
+     * @return The message read.
+     * @throws IOException If an I/O error occurs or the message is invalid.
+     */
+    public static Message read(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        return switch (tag) {
+            case LOGIN -> new LoginMessage(readString(in));
+            case CHAT -> {
+                String sender = readString(in);
+                String text = readString(in);
+                Date date = in.readBoolean() ? new Date(in.readLong()) : null;
+                List<String> recipients = readList(in, ModelCodec::readString);
+                ChatMessage msg = recipients == null
+                        ? new ChatMessage(text, date)
+                        : new ChatMessage(text, date, new HashSet<>(recipients));
+                msg.setSender(sender);
+                yield msg;
+            }
+            case JOIN -> new JoinLobbyMessage(in.readInt());
+            case CREATE -> new CreateLobbyMessage(in.readInt());
+            case LEAVE -> new LeaveLobbyMessage();
+            case QUEUE -> new QueueMessage(in.readInt());
+            case GET -> new GetLobbiesMessage(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readBoolean());
+            case GET_LOBBY_INFO -> new GetLobbyInfoMessage();
+            case PING -> new PingMessage();
+            case SUCCESS -> new SuccessMessage(readEnum(in, MessageType.class));
+            case SUCCESS_LOBBY -> {
+                MessageType successType = readEnum(in, MessageType.class);
+                int id = in.readInt();
+                List<String> players = readList(in, ModelCodec::readString);
+                yield new SuccessLobby(successType, id, players, in.readInt());
+            }
+            case LOBBIES -> new GetLobbiesResponseMessage(readList(in, MessageCodec::readLobbyInfo), in.readInt());
+            case LOBBY_UPDATE -> new LobbyUpdateMessage(readLobbyInfo(in), in.readBoolean());
+            case PLAYER_JOINED_LOBBY -> new PlayerJoinedLobbyMessage(readString(in));
+            case PLAYER_LEFT_LOBBY -> new PlayerLeftLobbyMessage(readString(in));
+            case LOBBY_INFO -> new LobbyInfoMessage(readList(in, ModelCodec::readString));
+            case RECONNECTION -> new GameReconnectionMessage();
+            case RECONNECTION_FAILED -> new FailedGameReconnectionMessage();
+            case FAILED_TO_START_MATCH -> new FailedToStartMatchMessage();
+            case GAMESTATE -> readGameState(in);
+            case GAME -> readAction(in);
+            case INFO -> readNotify(in);
+            case ERROR -> readError(in);
+            default -> throw new IOException("Unknown message tag " + tag);
+        };
+    }
+
+    // Game actions
+
+    /**
+     * Writes the tag and the content of a game action.
+     *
+     * @param out The stream to write to.
+     * @param m   The action to write.
+     * @throws IOException If an I/O error occurs or the action has no encoder.
+     */
+    private static void writeAction(DataOutput out, GameMessage m) throws IOException {
+        switch (m) {
+            case ChooseStarter msg -> {
+                out.writeByte(CHOOSE_STARTER);
+                out.writeBoolean(msg.isFront());
+            }
+            case ChooseObjective msg -> {
+                out.writeByte(CHOOSE_OBJECTIVE);
+                out.writeInt(msg.getNumObj());
+            }
+            case PlayCard msg -> {
+                out.writeByte(PLAY_CARD);
+                out.writeInt(msg.getCardIndex());
+                writePosition(out, msg.getPosition());
+                out.writeBoolean(msg.getSide());
+            }
+            case DrawGold ignored -> out.writeByte(DRAW_GOLD);
+            case DrawResource ignored -> out.writeByte(DRAW_RESOURCE);
+            case DrawMarket msg -> {
+                out.writeByte(DRAW_MARKET);
+                out.writeInt(msg.getMarketIndex());
+            }
+            default -> throw new IOException("No encoder for game action " + m.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a game action.
+     *
+     * @param in The stream to read from.
+     * @return The action read.
+     * @throws IOException If an I/O error occurs or the action is invalid.
+     */
+    private static GameMessage readAction(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        return switch (tag) {
+            case CHOOSE_STARTER -> new ChooseStarter(in.readBoolean());
+            case CHOOSE_OBJECTIVE -> new ChooseObjective(in.readInt());
+            case PLAY_CARD -> {
+                int index = in.readInt();
+                yield new PlayCard(index, readPosition(in), in.readBoolean());
+            }
+            case DRAW_GOLD -> new DrawGold();
+            case DRAW_RESOURCE -> new DrawResource();
+            case DRAW_MARKET -> new DrawMarket(in.readInt());
+            default -> throw new IOException("Unknown game action tag " + tag);
+        };
+    }
+
+    // Notifications
+
+    /**
+     * Writes the content of a notification, its tag excluded.
+     *
+     * @param out The stream to write to.
+     * @param m   The notification to write.
+     * @throws IOException If an I/O error occurs or the notification has no encoder.
+     */
+    private static void writeNotify(DataOutput out, NotifyMessage m) throws IOException {
+        switch (m) {
+            case NotifyTurn msg -> {
+                writeEnum(out, msg.getColor());
+                writeList(out, msg.getAvailablePositions(), ModelCodec::writePosition);
+            }
+            case NotifyToChooseStarter msg -> writeCard(out, msg.getStarter());
+            case NotifyToChooseObjective msg -> writeObjectives(out, msg.getObjective());
+            case NotifySetUpFinished msg -> writeList(out, msg.getColors(), ModelCodec::writeEnum);
+            case NotifyCardPlayed msg -> {
+                writeEnum(out, msg.getWho());
+                out.writeInt(msg.getIndex());
+                writeCard(out, msg.getCard());
+                writePosition(out, msg.getPosition());
+                out.writeBoolean(msg.getSide());
+                out.writeInt(msg.getScore());
+            }
+            case NotifyDraw msg -> {
+                writeEnum(out, msg.getWho());
+                writeEnum(out, msg.getWhere());
+                writeEnum(out, msg.getKingdom());
+                out.writeInt(msg.getIndex());
+                writeCard(out, msg.getCard());
+            }
+            case NotifyPlayerHand msg -> {
+                writePlayableCards(out, msg.getHand());
+                writeMap(out, msg.getBackHands(), ModelCodec::writeEnum, ModelCodec::writeSymbols);
+            }
+            case NotifyCardState msg -> {
+                writePlayableCards(out, msg.getMarket());
+                writeEnum(out, msg.getResourceKingdom());
+                writeEnum(out, msg.getGoldKingdom());
+            }
+            case NotifyColorsAssignment msg -> writeMap(out, msg.getColors(), ModelCodec::writeString, ModelCodec::writeEnum);
+            case NotifyStarterCards msg -> {
+                writeList(out, msg.getColors(), ModelCodec::writeEnum);
+                writeList(out, msg.getStarterCards(), ModelCodec::writeCard);
+                writeList(out, msg.getSides(), ModelCodec::writeNullableBoolean);
+            }
+            case NotifyEndMatch msg -> {
+                out.writeInt(msg.getWinners());
+                writeList(out, msg.getPlayers(), ModelCodec::writeEnum);
+                writeList(out, msg.getScores(), ModelCodec::writeInteger);
+                writeList(out, msg.getObjs(), ModelCodec::writeObjective);
+                writeList(out, msg.getObjScores(), ModelCodec::writeInteger);
+            }
+            case NotifyLastRound ignored -> { }
+            case NotifyGlobalObjectives msg -> writeObjectives(out, msg.getObjectives());
+            case NotifyMatchStarted ignored -> { }
+            case NotifyChosenObjective msg -> writeObjective(out, msg.getObjective());
+            case NotifyChosenStarter msg -> {
+                writeCard(out, msg.getCard());
+                out.writeBoolean(msg.getSide());
+            }
+            default -> throw new IOException("No encoder for notification " + m.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a notification.
+     *
+     * @param in The stream to read from.
+     * @return The notification read.
+     * @throws IOException If an I/O error occurs or the notification is invalid.
+     */
+    private static NotifyMessage readNotify(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        NotifyType type = null;
+        for (NotifyType t : NotifyType.values()) {
+            if (notifyTag(t) == tag) {
+                type = t;
+                break;
+            }
+        }
+        if (type == null) {
+            throw new IOException("Unknown notification tag " + tag);
+        }
+
+        return switch (type) {
+            case YOUR_TURN -> new NotifyTurn(readColor(in), readList(in, ModelCodec::readPosition));
+            case CHOOSE_STARTER -> new NotifyToChooseStarter(readStarterCard(in));
+            case CHOOSE_OBJECTIVE -> {
+                Objective[] objs = readObjectives(in);
+                if (objs == null || objs.length != 2) {
+                    throw new IOException("Expected two objectives");
+                }
+                yield new NotifyToChooseObjective(objs[0], objs[1]);
+            }
+            case SET_UP_END -> new NotifySetUpFinished(readList(in, MessageCodec::readColor));
+            case PLAY_CARD -> {
+                PlayerColor who = readColor(in);
+                int index = in.readInt();
+                PlayableCard card = readPlayableCard(in);
+                Position position = readPosition(in);
+                boolean side = in.readBoolean();
+                yield new NotifyCardPlayed(who, index, card, position, side, in.readInt());
+            }
+            case DRAW -> {
+                PlayerColor who = readColor(in);
+                NotifyDraw.DrawType where = readEnum(in, NotifyDraw.DrawType.class);
+                Symbol kingdom = readSymbol(in);
+                int index = in.readInt();
+                yield new NotifyDraw(who, where, kingdom, index, readPlayableCard(in));
+            }
+            case PLAYER_HAND -> {
+                PlayableCard[] hand = readPlayableCards(in);
+                yield new NotifyPlayerHand(hand, readMap(in, MessageCodec::readColor, ModelCodec::readSymbols));
+            }
+            case CARD_STATE -> {
+                PlayableCard[] market = readPlayableCards(in);
+                Symbol resourceKingdom = readSymbol(in);
+                yield new NotifyCardState(market, resourceKingdom, readSymbol(in));
+            }
+            case COLOR_ASSIGNMENT -> new NotifyColorsAssignment(readMap(in, ModelCodec::readString, MessageCodec::readColor));
+            case STARTER_CARDS -> {
+                List<PlayerColor> colors = readList(in, MessageCodec::readColor);
+                List<StarterCard> starters = readList(in, ModelCodec::readStarterCard);
+                yield new NotifyStarterCards(colors, starters, readList(in, ModelCodec::readNullableBoolean));
+            }
+            case END_MATCH -> {
+                int winners = in.readInt();
+                List<PlayerColor> players = readList(in, MessageCodec::readColor);
+                List<Integer> scores = readList(in, ModelCodec::readInteger);
+                List<Objective> objs = readList(in, ModelCodec::readObjective);
+                yield new NotifyEndMatch(winners, players, scores, objs, readList(in, ModelCodec::readInteger));
+            }
+            case LAST_ROUND -> new NotifyLastRound();
+            case GLOBAL_OBJECTIVES -> new NotifyGlobalObjectives(readObjectives(in));
+            case MATCH_STARTED -> new NotifyMatchStarted();
+            case OBJECTIVE_CHOSEN -> new NotifyChosenObjective(readObjective(in));
+            case STARTER_CHOSEN -> {
+                StarterCard card = readStarterCard(in);
+                yield new NotifyChosenStarter(card, in.readBoolean());
+            }
+        };
+    }
+
+    /**
+     * Writes the public information about a lobby.
+     *
+     * @param out   The stream to write to.
+     * @param lobby The lobby information.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void writeLobbyInfo(DataOutput out, LobbyInfo lobby) throws IOException {
+        out.writeInt(lobby.getId());
+        out.writeInt(lobby.getNumCurrentPlayers());
+        out.writeInt(lobby.getMaxPlayers());
+    }
+
+    /**
+     * Reads the public information about a lobby.
+     *
+     * @param in The stream to read from.
+     * @return The lobby information read.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static LobbyInfo readLobbyInfo(DataInput in) throws IOException {
+        return new LobbyInfo(in.readInt(), in.readInt(), in.readInt());
+    }
+
+    /**
+     * Reads a nullable player color.
+     *
+     * @param in The stream to read from.
+     * @return The color read.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static PlayerColor readColor(DataInput in) throws IOException {
+        return readEnum(in, PlayerColor.class);
+    }
+
+    // Game state
+
+    /**
+     * Writes the content of a game state message.
+     *
+     * @param out The stream to write to.
+     * @param m   The message to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void writeGameState(DataOutput out, GameStateMessage m) throws IOException {
+        writeMap(out, m.players(), ModelCodec::writeString, ModelCodec::writeEnum);
+        writeList(out, m.gameOrder(), ModelCodec::writeEnum);
+        writeMap(out, m.fields(), ModelCodec::writeEnum, ModelCodec::writeField);
+        writeMap(out, m.scores(), ModelCodec::writeEnum, ModelCodec::writeInteger);
+        writeMap(out, m.cardsBack(), ModelCodec::writeEnum, ModelCodec::writeSymbols);
+        writeObjective(out, m.personalObjective());
+        writePlayableCards(out, m.hand());
+        writeObjectives(out, m.commonObjectives());
+        writeEnum(out, m.topResourceDeck());
+        out.writeInt(m.numResourceCard());
+        writeEnum(out, m.topGoldDeck());
+        out.writeInt(m.numGoldCard());
+        writePlayableCards(out, m.market());
+        writeEnum(out, m.currentPlayer());
+    }
+
+    /**
+     * Reads a game state message.
+     *
+     * @param in The stream to read from.
+     * @return The message read.
+     * @throws IOException If an I/O error occurs or the message is invalid.
+     */
+    private static GameStateMessage readGameState(DataInput in) throws IOException {
+        Map<String, PlayerColor> players = readMap(in, ModelCodec::readString, MessageCodec::readColor);
+        List<PlayerColor> gameOrder = readList(in, MessageCodec::readColor);
+        Map<PlayerColor, PlayerField> fields = readMap(in, MessageCodec::readColor, ModelCodec::readField);
+        Map<PlayerColor, Integer> scores = readMap(in, MessageCodec::readColor, ModelCodec::readInteger);
+        Map<PlayerColor, Symbol[]> cardsBack = readMap(in, MessageCodec::readColor, ModelCodec::readSymbols);
+        Objective personalObjective = readObjective(in);
+        PlayableCard[] hand = readPlayableCards(in);
+        Objective[] commonObjectives = readObjectives(in);
+        Symbol topResourceDeck = readSymbol(in);
+        int numResourceCard = in.readInt();
+        Symbol topGoldDeck = readSymbol(in);
+        int numGoldCard = in.readInt();
+        PlayableCard[] market = readPlayableCards(in);
+        return new GameStateMessage(players, gameOrder, fields, scores, cardsBack, personalObjective, hand,
+                commonObjectives, topResourceDeck, numResourceCard, topGoldDeck, numGoldCard, market, readColor(in));
+    }
+
+    // Errors
+
+    /**
+     * Returns the tag of an error message.
+     *
+     * @param m The error message.
+     * @return The tag of the error.
+     * @throws IOException If the error has no tag.
+     */
+    private static int errorTag(ErrorMessage m) throws IOException {
+        return switch (m) {
+            case ChatError ignored -> CHAT_ERROR;
+            case CreateMatchError ignored -> CREATE_MATCH_ERROR;
+            case DrawError ignored -> DRAW_ERROR;
+            case InvalidMessage ignored -> INVALID_MESSAGE;
+            case JoinMatchError ignored -> JOIN_MATCH_ERROR;
+            case LeaveMatchError ignored -> LEAVE_MATCH_ERROR;
+            case LoginError ignored -> LOGIN_ERROR;
+            case MatchDoesNotExistError ignored -> MATCH_DOES_NOT_EXIST_ERROR;
+            case ObjectiveChooseError ignored -> OBJECTIVE_CHOOSE_ERROR;
+            case PlayCardError ignored -> PLAY_CARD_ERROR;
+            case StarterChooseError ignored -> STARTER_CHOOSE_ERROR;
+            case UnauthorizedError ignored -> UNAUTHORIZED_ERROR;
+            default -> throw new IOException("No encoder for error " + m.getClass().getName());
+        };
+    }
+
+    /**
+     * Reads an error message.
+     *
+     * @param in The stream to read from.
+     * @return The error read.
+     * @throws IOException If an I/O error occurs or the tag is unknown.
+     */
+    private static ErrorMessage readError(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        return switch (tag) {
+            case CHAT_ERROR -> new ChatError();
+            case CREATE_MATCH_ERROR -> new CreateMatchError();
+            case DRAW_ERROR -> new DrawError();
+            case INVALID_MESSAGE -> new InvalidMessage();
+            case JOIN_MATCH_ERROR -> new JoinMatchError();
+            case LEAVE_MATCH_ERROR -> new LeaveMatchError();
+            case LOGIN_ERROR -> new LoginError();
+            case MATCH_DOES_NOT_EXIST_ERROR -> new MatchDoesNotExistError();
+            case OBJECTIVE_CHOOSE_ERROR -> new ObjectiveChooseError();
+            case PLAY_CARD_ERROR -> new PlayCardError();
+            case STARTER_CHOOSE_ERROR -> new StarterChooseError();
+            case UNAUTHORIZED_ERROR -> new UnauthorizedError();
+            default -> throw new IOException("Unknown error tag " + tag);
+        };
+    }
+}
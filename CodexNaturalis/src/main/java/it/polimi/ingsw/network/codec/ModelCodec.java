@@ -0,0 +1,800 @@
+package it.polimi.ingsw.network.codec;
+
+import it.polimi.ingsw.exception.InvalidSymbolException;
+import it.polimi.ingsw.message.MessageType;
+import it.polimi.ingsw.message.notify.NotifyDraw;
+import it.polimi.ingsw.model.card.*;
+import it.polimi.ingsw.model.field.CardPlacement;
+import it.polimi.ingsw.model.field.PlayerField;
+import it.polimi.ingsw.model.field.Position;
+import it.polimi.ingsw.model.objective.DispositionObjective;
+import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.model.objective.SymbolObjective;
+import it.polimi.ingsw.model.player.PlayerColor;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Hand-written binary encoders for the model objects carried by messages: cards, objectives, fields,
+ * positions, enums and the collections holding them.
+ * Every nullable value is preceded by a presence marker, so decoding never needs class descriptors.
+ */
+public class ModelCodec {
+    // Card tags
+    private static final int RESOURCE_CARD = 1;
+    private static final int GOLD_CARD_INT = 2;
+    private static final int GOLD_CARD_CORNER = 3;
+    private static final int GOLD_CARD_OBJECT = 4;
+    private static final int STARTER_CARD = 5;
+
+    // Objective tags
+    private static final int SYMBOL_OBJECTIVE = 1;
+    private static final int DISPOSITION_OBJECTIVE = 2;
+
+    private static final int NULL = 0;
+    private static final int NULL_SIZE = -1;
+
+    // The corners of a side are written in this order, whatever the order of the constants
+    private static final CornerPosition[] CORNER_ORDER = {
+            CornerPosition.TOP_LEFT, CornerPosition.TOP_RIGHT, CornerPosition.BOTTOM_LEFT, CornerPosition.BOTTOM_RIGHT
+    };
+
+    // Enum codes, fixed numbers independent of the order of the constants, 0 being null
+    private static final Map<Class<?>, EnumCodes<?>> ENUM_CODES = Map.of(
+            MessageType.class, new EnumCodes<>(MessageType.class, Map.ofEntries(
+                    Map.entry(MessageType.LOGIN, 1),
+                    Map.entry(MessageType.GAME, 2),
+                    Map.entry(MessageType.ERROR, 3),
+                    Map.entry(MessageType.SUCCESS, 4),
+                    Map.entry(MessageType.INFO, 5),
+                    Map.entry(MessageType.CHAT, 6),
+                    Map.entry(MessageType.JOIN, 7),
+                    Map.entry(MessageType.CREATE, 8),
+                    Map.entry(MessageType.LEAVE, 9),
+                    Map.entry(MessageType.GET, 10),
+                    Map.entry(MessageType.LOBBIES, 11),
+                    Map.entry(MessageType.PLAYER_JOINED_LOBBY, 12),
+                    Map.entry(MessageType.PLAYER_LEFT_LOBBY, 13),
+                    Map.entry(MessageType.LOBBY_INFO, 14),
+                    Map.entry(MessageType.GET_LOBBY_INFO, 15),
+                    Map.entry(MessageType.RECONNECTION, 16),
+                    Map.entry(MessageType.RECONNECTION_FAILED, 17),
+                    Map.entry(MessageType.GAMESTATE, 18),
+                    Map.entry(MessageType.FAILED_TO_START_MATCH, 19),
+                    Map.entry(MessageType.PING, 20),
+                    Map.entry(MessageType.LOBBY_UPDATE, 21),
+                    Map.entry(MessageType.QUEUE, 22))),
+            PlayerColor.class, new EnumCodes<>(PlayerColor.class, Map.ofEntries(
+                    Map.entry(PlayerColor.RED, 1),
+                    Map.entry(PlayerColor.YELLOW, 2),
+                    Map.entry(PlayerColor.GREEN, 3),
+                    Map.entry(PlayerColor.BLUE, 4))),
+            Symbol.class, new EnumCodes<>(Symbol.class, Map.ofEntries(
+                    Map.entry(Symbol.EMPTY, 1),
+                    Map.entry(Symbol.FUNGI, 2),
+                    Map.entry(Symbol.INSECT, 3),
+                    Map.entry(Symbol.PLANT, 4),
+                    Map.entry(Symbol.ANIMAL, 5),
+                    Map.entry(Symbol.QUILL, 6),
+                    Map.entry(Symbol.INKWELL, 7),
+                    Map.entry(Symbol.MANUSCRIPT, 8))),
+            NotifyDraw.DrawType.class, new EnumCodes<>(NotifyDraw.DrawType.class, Map.ofEntries(
+                    Map.entry(NotifyDraw.DrawType.GOLD, 1),
+                    Map.entry(NotifyDraw.DrawType.RESOURCE, 2),
+                    Map.entry(NotifyDraw.DrawType.MARKET, 3)))
+    );
+
+    /**
+     * Writer of a single value on a binary stream.
+     *
+     * @param <T> The type of the value.
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+        void write(DataOutput out, T value) throws IOException;
+    }
+
+    /**
+     * Reader of a single value from a binary stream.
+     *
+     * @param <T> The type of the value.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * The wire codes of the constants of an enum, checked to give every constant its own code.
+     *
+     * @param <E> The type of the enum.
+     */
+    private static final class EnumCodes<E extends Enum<E>> {
+        private final Map<E, Integer> codes;
+        private final Map<Integer, E> constants = new HashMap<>();
+
+        /**
+         * Constructs the codes of an enum.
+         *
+         * @param type  The class of the enum.
+         * @param codes The code of every constant, between 1 and 255.
+         */
+        private EnumCodes(Class<E> type, Map<E, Integer> codes) {
+            this.codes = new EnumMap<>(codes);
+            for (Map.Entry<E, Integer> code : codes.entrySet()) {
+                if (code.getValue() <= NULL || code.getValue() > 255 || constants.put(code.getValue(), code.getKey()) != null) {
+                    throw new IllegalStateException("Invalid code " + code.getValue() + " of " + code.getKey());
+                }
+            }
+            if (this.codes.size() != type.getEnumConstants().length) {
+                throw new IllegalStateException("Missing codes of " + type.getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Private constructor, this class only exposes static helpers.
+     */
+    private ModelCodec() {}
+
+    // Basic values
+
+    /**
+     * Writes a nullable string.
+     *
+     * @param out   The stream to write to.
+     * @param value The string to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a nullable string.
+     *
+     * @param in The stream to read from.
+     * @return The string read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes a nullable enum constant as one byte, its fixed code.
+     *
+     * @param out   The stream to write to.
+     * @param value The constant to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? NULL : codes(value.getDeclaringClass()).codes.get(value));
+    }
+
+    /**
+     * Reads a nullable enum constant.
+     *
+     * @param in   The stream to read from.
+     * @param type The class of the enum.
+     * @param <E>  The type of the enum.
+     * @return The constant read.
+     * @throws IOException If an I/O error occurs or the code is unknown.
+     */
+    public static <E extends Enum<E>> E readEnum(DataInput in, Class<E> type) throws IOException {
+        int tag = in.readUnsignedByte();
+        if (tag == NULL) {
+            return null;
+        }
+        E value = ModelCodec.<E>codes(type).constants.get(tag);
+        if (value == null) {
+            throw new IOException("Invalid " + type.getSimpleName() + " code " + tag);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the codes of an enum carried by the messages.
+     *
+     * @param type The class of the enum.
+     * @param <E>  The type of the enum.
+     * @return The codes of the enum.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> EnumCodes<E> codes(Class<?> type) {
+        EnumCodes<E> codes = (EnumCodes<E>) ENUM_CODES.get(type);
+        if (codes == null) {
+            throw new IllegalArgumentException("No codes of " + type.getSimpleName());
+        }
+        return codes;
+    }
+
+    /**
+     * Writes a nullable integer.
+     *
+     * @param out   The stream to write to.
+     * @param value The integer to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads a nullable integer.
+     *
+     * @param in The stream to read from.
+     * @return The integer read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    /**
+     * Writes a nullable boolean.
+     *
+     * @param out   The stream to write to.
+     * @param value The boolean to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeNullableBoolean(DataOutput out, Boolean value) throws IOException {
+        out.writeByte(value == null ? NULL : (value ? 2 : 1));
+    }
+
+    /**
+     * Reads a nullable boolean.
+     *
+     * @param in The stream to read from.
+     * @return The boolean read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Boolean readNullableBoolean(DataInput in) throws IOException {
+        int value = in.readUnsignedByte();
+        return value == NULL ? null : value == 2;
+    }
+
+    // Collections
+
+    /**
+     * Writes a nullable list, element by element.
+     *
+     * @param out    The stream to write to.
+     * @param list   The list to write.
+     * @param writer The writer of the elements.
+     * @param <T>    The type of the elements.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static <T> void writeList(DataOutput out, Collection<T> list, Writer<T> writer) throws IOException {
+        if (list == null) {
+            out.writeInt(NULL_SIZE);
+            return;
+        }
+        out.writeInt(list.size());
+        for (T value : list) {
+            writer.write(out, value);
+        }
+    }
+
+    /**
+     * Reads a nullable list.
+     *
+     * @param in     The stream to read from.
+     * @param reader The reader of the elements.
+     * @param <T>    The type of the elements.
+     * @return The list read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static <T> ArrayList<T> readList(DataInput in, Reader<T> reader) throws IOException {
+        int size = readSize(in);
+        if (size == NULL_SIZE) {
+            return null;
+        }
+        ArrayList<T> list = new ArrayList<>(Math.min(size, 64));
+        for (int i = 0; i < size; i++) {
+            list.add(reader.read(in));
+        }
+        return list;
+    }
+
+    /**
+     * Writes a nullable map, entry by entry.
+     *
+     * @param out         The stream to write to.
+     * @param map         The map to write.
+     * @param keyWriter   The writer of the keys.
+     * @param valueWriter The writer of the values.
+     * @param <K>         The type of the keys.
+     * @param <V>         The type of the values.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static <K, V> void writeMap(DataOutput out, Map<K, V> map, Writer<K> keyWriter, Writer<V> valueWriter) throws IOException {
+        if (map == null) {
+            out.writeInt(NULL_SIZE);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            keyWriter.write(out, entry.getKey());
+            valueWriter.write(out, entry.getValue());
+        }
+    }
+
+    /**
+     * Reads a nullable map.
+     *
+     * @param in          The stream to read from.
+     * @param keyReader   The reader of the keys.
+     * @param valueReader The reader of the values.
+     * @param <K>         The type of the keys.
+     * @param <V>         The type of the values.
+     * @return The map read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static <K, V> HashMap<K, V> readMap(DataInput in, Reader<K> keyReader, Reader<V> valueReader) throws IOException {
+        int size = readSize(in);
+        if (size == NULL_SIZE) {
+            return null;
+        }
+        HashMap<K, V> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            K key = keyReader.read(in);
+            map.put(key, valueReader.read(in));
+        }
+        return map;
+    }
+
+    /**
+     * Writes a nullable array of symbols.
+     *
+     * @param out     The stream to write to.
+     * @param symbols The symbols to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeSymbols(DataOutput out, Symbol[] symbols) throws IOException {
+        writeList(out, symbols == null ? null : Arrays.asList(symbols), ModelCodec::writeEnum);
+    }
+
+    /**
+     * Reads a nullable array of symbols.
+     *
+     * @param in The stream to read from.
+     * @return The symbols read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Symbol[] readSymbols(DataInput in) throws IOException {
+        List<Symbol> symbols = readList(in, ModelCodec::readSymbol);
+        return symbols == null ? null : symbols.toArray(new Symbol[0]);
+    }
+
+    /**
+     * Reads a nullable symbol.
+     *
+     * @param in The stream to read from.
+     * @return The symbol read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Symbol readSymbol(DataInput in) throws IOException {
+        return readEnum(in, Symbol.class);
+    }
+
+    /**
+     * Reads the size of a collection, checking it is sensible.
+     *
+     * @param in The stream to read from.
+     * @return The size read, {@code -1} for a null collection.
+     * @throws IOException If an I/O error occurs or the size is invalid.
+     */
+    private static int readSize(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < NULL_SIZE || size > FrameCodec.MAX_FRAME_SIZE) {
+            throw new IOException("Invalid collection size " + size);
+        }
+        return size;
+    }
+
+    // Field
+
+    /**
+     * Writes a nullable position.
+     *
+     * @param out      The stream to write to.
+     * @param position The position to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writePosition(DataOutput out, Position position) throws IOException {
+        out.writeBoolean(position != null);
+        if (position != null) {
+            out.writeInt(position.x());
+            out.writeInt(position.y());
+        }
+    }
+
+    /**
+     * Reads a nullable position.
+     *
+     * @param in The stream to read from.
+     * @return The position read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Position readPosition(DataInput in) throws IOException {
+        return in.readBoolean() ? new Position(in.readInt(), in.readInt()) : null;
+    }
+
+    /**
+     * Writes a nullable player field as the ordered list of its placements.
+     *
+     * @param out   The stream to write to.
+     * @param field The field to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeField(DataOutput out, PlayerField field) throws IOException {
+        writeList(out, field == null ? null : field.getCards(), (o, placement) -> {
+            writeCard(o, placement.getCard());
+            o.writeBoolean(placement.isFront());
+            writePosition(o, placement.getPosition());
+        });
+    }
+
+    /**
+     * Reads a nullable player field, replaying its placements in order.
+     *
+     * @param in The stream to read from.
+     * @return The field read.
+     * @throws IOException If an I/O error occurs or a placement is invalid.
+     */
+    public static PlayerField readField(DataInput in) throws IOException {
+        List<CardPlacement> placements = readList(in, i -> {
+            Card card = readCard(i);
+            boolean isFront = i.readBoolean();
+            return new CardPlacement(isFront, readPosition(i), card);
+        });
+        if (placements == null) {
+            return null;
+        }
+
+        PlayerField field = new PlayerField();
+        for (CardPlacement placement : placements) {
+            switch (placement.getCard()) {
+                case StarterCard c -> field.placeStarterCard(c, placement.isFront());
+                case PlayableCard c -> field.placeCard(c, placement.isFront(), placement.getPosition());
+                case null, default -> throw new IOException("Invalid card placement");
+            }
+        }
+        return field;
+    }
+
+    // Cards
+
+    /**
+     * Writes a nullable card with all its data.
+     *
+     * @param out  The stream to write to.
+     * @param card The card to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeCard(DataOutput out, Card card) throws IOException {
+        switch (card) {
+            case null -> out.writeByte(NULL);
+            case ResourceCard c -> {
+                out.writeByte(RESOURCE_CARD);
+                writePlayableFields(out, c);
+                out.writeInt(c.getScore());
+            }
+            case GoldCardInt c -> {
+                out.writeByte(GOLD_CARD_INT);
+                writeGoldCard(out, c);
+                out.writeInt(c.getScore());
+            }
+            case GoldCardCorner c -> {
+                out.writeByte(GOLD_CARD_CORNER);
+                writeGoldCard(out, c);
+                out.writeInt(c.getScorePerCorner());
+            }
+            case GoldCardObject c -> {
+                out.writeByte(GOLD_CARD_OBJECT);
+                writeGoldCard(out, c);
+                out.writeInt(c.getScorePerSymbol());
+                writeEnum(out, c.getSymbol());
+            }
+            case StarterCard c -> {
+                out.writeByte(STARTER_CARD);
+                writeString(out, c.getId());
+                writeCorners(out, c, true);
+                writeCorners(out, c, false);
+                writeList(out, c.getCenterSymbols(true), ModelCodec::writeEnum);
+            }
+            default -> throw new IOException("No encoder for card " + card.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a nullable card.
+     *
+     * @param in The stream to read from.
+     * @return The card read.
+     * @throws IOException If an I/O error occurs or the card is invalid.
+     */
+    public static Card readCard(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        try {
+            switch (tag) {
+                case NULL:
+                    return null;
+                case RESOURCE_CARD: {
+                    String id = readString(in);
+                    Symbol kingdom = readSymbol(in);
+                    Map<CornerPosition, Corner> corners = readCorners(in);
+                    return new ResourceCard(kingdom, corners, in.readInt(), id);
+                }
+                case GOLD_CARD_INT: {
+                    String id = readString(in);
+                    Symbol kingdom = readSymbol(in);
+                    Map<CornerPosition, Corner> corners = readCorners(in);
+                    Map<Symbol, Integer> requirements = readRequirements(in);
+                    return new GoldCardInt(kingdom, corners, requirements, in.readInt(), id);
+                }
+                case GOLD_CARD_CORNER: {
+                    String id = readString(in);
+                    Symbol kingdom = readSymbol(in);
+                    Map<CornerPosition, Corner> corners = readCorners(in);
+                    Map<Symbol, Integer> requirements = readRequirements(in);
+                    return new GoldCardCorner(kingdom, corners, requirements, in.readInt(), id);
+                }
+                case GOLD_CARD_OBJECT: {
+                    String id = readString(in);
+                    Symbol kingdom = readSymbol(in);
+                    Map<CornerPosition, Corner> corners = readCorners(in);
+                    Map<Symbol, Integer> requirements = readRequirements(in);
+                    int scorePerSymbol = in.readInt();
+                    return new GoldCardObject(kingdom, corners, requirements, scorePerSymbol, readSymbol(in), id);
+                }
+                case STARTER_CARD: {
+                    String id = readString(in);
+                    Map<CornerPosition, Corner> front = readCorners(in);
+                    Map<CornerPosition, Corner> back = readCorners(in);
+                    return new StarterCard(front, back, readList(in, ModelCodec::readSymbol), id);
+                }
+                default:
+                    throw new IOException("Unknown card tag " + tag);
+            }
+        } catch (InvalidSymbolException | NullPointerException e) {
+            throw new IOException("Invalid card", e);
+        }
+    }
+
+    /**
+     * Writes a nullable playable card.
+     *
+     * @param out  The stream to write to.
+     * @param card The card to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writePlayableCard(DataOutput out, PlayableCard card) throws IOException {
+        writeCard(out, card);
+    }
+
+    /**
+     * Reads a nullable playable card.
+     *
+     * @param in The stream to read from.
+     * @return The card read.
+     * @throws IOException If an I/O error occurs or the card is not playable.
+     */
+    public static PlayableCard readPlayableCard(DataInput in) throws IOException {
+        Card card = readCard(in);
+        if (card != null && !(card instanceof PlayableCard)) {
+            throw new IOException("Expected a playable card");
+        }
+        return (PlayableCard) card;
+    }
+
+    /**
+     * Reads a nullable starter card.
+     *
+     * @param in The stream to read from.
+     * @return The card read.
+     * @throws IOException If an I/O error occurs or the card is not a starter card.
+     */
+    public static StarterCard readStarterCard(DataInput in) throws IOException {
+        Card card = readCard(in);
+        if (card != null && !(card instanceof StarterCard)) {
+            throw new IOException("Expected a starter card");
+        }
+        return (StarterCard) card;
+    }
+
+    /**
+     * Writes a nullable array of playable cards; single slots may be null.
+     *
+     * @param out   The stream to write to.
+     * @param cards The cards to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writePlayableCards(DataOutput out, PlayableCard[] cards) throws IOException {
+        writeList(out, cards == null ? null : Arrays.asList(cards), ModelCodec::writePlayableCard);
+    }
+
+    /**
+     * Reads a nullable array of playable cards.
+     *
+     * @param in The stream to read from.
+     * @return The cards read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static PlayableCard[] readPlayableCards(DataInput in) throws IOException {
+        List<PlayableCard> cards = readList(in, ModelCodec::readPlayableCard);
+        return cards == null ? null : cards.toArray(new PlayableCard[0]);
+    }
+
+    /**
+     * Writes the fields shared by all the playable cards, without the card tag.
+     *
+     * @param out  The stream to write to.
+     * @param card The card to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void writePlayableFields(DataOutput out, PlayableCard card) throws IOException {
+        writeString(out, card.getId());
+        writeEnum(out, card.getKingdom());
+        writeCorners(out, card, true);
+    }
+
+    /**
+     * Writes the fields shared by all the gold cards, without the card tag.
+     *
+     * @param out  The stream to write to.
+     * @param card The card to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void writeGoldCard(DataOutput out, GoldCard card) throws IOException {
+        writePlayableFields(out, card);
+        writeMap(out, card.getRequirements(true), ModelCodec::writeEnum, DataOutput::writeInt);
+    }
+
+    /**
+     * Reads the requirements of a gold card.
+     *
+     * @param in The stream to read from.
+     * @return The requirements read.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Map<Symbol, Integer> readRequirements(DataInput in) throws IOException {
+        return readMap(in, ModelCodec::readSymbol, DataInput::readInt);
+    }
+
+    /**
+     * Writes the corners of one side of a card.
+     *
+     * @param out     The stream to write to.
+     * @param card    The card whose corners are written.
+     * @param isFront True for the front side, false for the back side.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void writeCorners(DataOutput out, Card card, boolean isFront) throws IOException {
+        for (CornerPosition position : CORNER_ORDER) {
+            Corner corner = card.getCorner(position, isFront);
+            if (corner == null) {
+                out.writeByte(NULL);
+            } else if (!corner.IsPresent()) {
+                out.writeByte(1);
+            } else {
+                out.writeByte(2);
+                writeEnum(out, corner.getSymbol());
+            }
+        }
+    }
+
+    /**
+     * Reads the corners of one side of a card.
+     *
+     * @param in The stream to read from.
+     * @return The corners read, keyed by position.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static Map<CornerPosition, Corner> readCorners(DataInput in) throws IOException {
+        Map<CornerPosition, Corner> corners = new HashMap<>();
+        for (CornerPosition position : CORNER_ORDER) {
+            int state = in.readUnsignedByte();
+            if (state == 1) {
+                corners.put(position, new Corner(false, null));
+            } else if (state == 2) {
+                corners.put(position, new Corner(true, readSymbol(in)));
+            }
+        }
+        return corners;
+    }
+
+    // Objectives
+
+    /**
+     * Writes a nullable objective with all its data.
+     *
+     * @param out       The stream to write to.
+     * @param objective The objective to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeObjective(DataOutput out, Objective objective) throws IOException {
+        switch (objective) {
+            case null -> out.writeByte(NULL);
+            case SymbolObjective o -> {
+                out.writeByte(SYMBOL_OBJECTIVE);
+                writeString(out, o.getId());
+                out.writeInt(o.getScore());
+                writeMap(out, o.getSymbols(), ModelCodec::writeEnum, DataOutput::writeInt);
+            }
+            case DispositionObjective o -> {
+                out.writeByte(DISPOSITION_OBJECTIVE);
+                writeString(out, o.getId());
+                out.writeInt(o.getScore());
+                writeList(out, Arrays.asList(o.getPatternPosition()), ModelCodec::writePosition);
+                writeSymbols(out, o.getPatternKingdom());
+            }
+            default -> throw new IOException("No encoder for objective " + objective.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a nullable objective.
+     *
+     * @param in The stream to read from.
+     * @return The objective read.
+     * @throws IOException If an I/O error occurs or the objective is invalid.
+     */
+    public static Objective readObjective(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case SYMBOL_OBJECTIVE: {
+                String id = readString(in);
+                int score = in.readInt();
+                return new SymbolObjective(readMap(in, ModelCodec::readSymbol, DataInput::readInt), score, id);
+            }
+            case DISPOSITION_OBJECTIVE: {
+                String id = readString(in);
+                int score = in.readInt();
+                List<Position> positions = readList(in, ModelCodec::readPosition);
+                Symbol[] kingdoms = readSymbols(in);
+                if (positions == null || kingdoms == null) {
+                    throw new IOException("Invalid disposition objective");
+                }
+                return new DispositionObjective(positions.toArray(new Position[0]), kingdoms, score, id);
+            }
+            default:
+                throw new IOException("Unknown objective tag " + tag);
+        }
+    }
+
+    /**
+     * Writes a nullable array of objectives; single slots may be null.
+     *
+     * @param out        The stream to write to.
+     * @param objectives The objectives to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeObjectives(DataOutput out, Objective[] objectives) throws IOException {
+        writeList(out, objectives == null ? null : Arrays.asList(objectives), ModelCodec::writeObjective);
+    }
+
+    /**
+     * Reads a nullable array of objectives.
+     *
+     * @param in The stream to read from.
+     * @return The objectives read.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static Objective[] readObjectives(DataInput in) throws IOException {
+        List<Objective> objectives = readList(in, ModelCodec::readObjective);
+        return objectives == null ? null : objectives.toArray(new Objective[0]);
+    }
+}
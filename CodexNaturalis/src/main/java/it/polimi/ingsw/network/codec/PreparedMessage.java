@@ -0,0 +1,54 @@
+package it.polimi.ingsw.network.codec;
+
+import it.polimi.ingsw.message.Message;
+
+import java.io.IOException;
+
+/**
+ * A message meant for several recipients, encoded at most once.
+ * The frame is built the first time a socket connection asks for it and then shared by all the
+ * other socket recipients; connections that do not use frames simply deliver the wrapped message.
+ */
+public class PreparedMessage {
+    private final Message message;
+    private volatile byte[] frame;
+
+    /**
+     * Constructs a PreparedMessage wrapping the given message.
+     *
+     * @param message The message to deliver.
+     */
+    public PreparedMessage(Message message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets the wrapped message.
+     *
+     * @return The message.
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the encoded frame of the message, encoding it on the first call.
+     * The returned array is shared and must not be modified.
+     *
+     * @return The bytes of the frame, header included.
+     * @throws IOException If the message cannot be encoded.
+     */
+    public byte[] getFrame() throws IOException {
+        byte[] f = frame;
+        if (f == null) {
+            synchronized (this) {
+                f = frame;
+                if (f == null) {
+                    f = FrameCodec.encode(message);
+                    frame = f;
+                }
+            }
+        }
+        return f;
+    }
+}
@@ -4,41 +4,50 @@ import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.message.Message;
 import it.polimi.ingsw.network.client.ClientRemote;
 
-import java.rmi.RemoteException;
-import java.util.logging.Logger;
+import java.util.concurrent.ExecutorService;
 
 /**
  * The Callback class represents a server-side callback handler that interacts with a remote client.
+ * Messages are delivered asynchronously by a {@link CallbackDispatcher}, so that a slow client never
+ * stalls the match logic sending to it.
  * It implements the Connection interface.
  */
 public class Callback implements Connection {
-    private static final Logger logger = Logger.getLogger(Callback.class.getName());
-    private final ClientRemote client;
+    private static final ExecutorService dispatchExecutor = ServerConfig.newExecutor("rmi-callback");
+    private final CallbackDispatcher dispatcher;
     private String username;
     private final Controller controller;
 
     /**
      * Constructs a Callback instance with the given ClientRemote instance.
      *
-     * @param client the ClientRemote instance representing the remote client
+     * @param client       the ClientRemote instance representing the remote client
+     * @param onDisconnect called once when the client is disconnected because its backlog of messages overflowed
      */
-    public Callback(ClientRemote client) {
-        this.client = client;
+    public Callback(ClientRemote client, Runnable onDisconnect) {
         this.controller = new Controller(this);
+        this.dispatcher = new CallbackDispatcher(client, ServerConfig.getOutboundQueueSize(),
+                ServerConfig.getCallbackOverflow(), ServerConfig.getCallbackBatchWindow(), onDisconnect, dispatchExecutor);
     }
 
     /**
-     * Sends a message to the associated remote client.
+     * Queues a message to be sent to the associated remote client.
      *
      * @param m the Message object to be sent
      */
     @Override
     public void send(Message m) {
-        try {
-            client.receive(m);
-        } catch (RemoteException e){
-            logger.warning("Error while sending message : " + e.getMessage());
-        }
+        dispatcher.send(m);
+    }
+
+    /**
+     * Returns the number of messages waiting to be sent to the client.
+     *
+     * @return the callback backlog depth
+     */
+    @Override
+    public int getOutboundQueueDepth() {
+        return dispatcher.getBacklogDepth();
     }
 
     /**
@@ -74,9 +83,10 @@ public class Callback implements Connection {
     }
 
     /**
-     * Placeholder method for closing the callback handler.
-     * Currently does nothing in this implementation.
+     * Stops sending messages to the remote client, discarding the ones not yet delivered.
      */
     @Override
-    public void close() {}
+    public void close() {
+        dispatcher.close();
+    }
 }
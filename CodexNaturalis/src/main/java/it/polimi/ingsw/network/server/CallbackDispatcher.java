@@ -0,0 +1,159 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.network.client.ClientRemote;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Delivers the messages for a single RMI client without blocking the sending thread.
+ * Messages are queued in a bounded backlog and delivered in order by a drain task running on a shared executor;
+ * at most one drain task per client runs at a time, so the remote calls to the same client never overlap,
+ * while the senders keep running ahead of the client up to the size of the backlog.
+ * All the messages queued while a call is in flight, or within a short window after the client was idle,
+ * are delivered together in a single remote call.
+ */
+public class CallbackDispatcher {
+    private static final Logger logger = Logger.getLogger(CallbackDispatcher.class.getName());
+    private static final int MAX_BATCH = 64;
+    private final ClientRemote client;
+    private final BlockingQueue<Message> backlog;
+    private final ServerConfig.OverflowPolicy policy;
+    private final long batchWindow;
+    private final Runnable onOverflow;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private volatile boolean closed;
+
+    /**
+     * Constructs a CallbackDispatcher for a remote client.
+     *
+     * @param client      The remote client receiving the messages.
+     * @param capacity    The maximum number of messages waiting to be delivered.
+     * @param policy      What to do when a message is sent while the backlog is full.
+     * @param batchWindow How long to wait, in milliseconds, for more messages before calling an idle client.
+     * @param onOverflow  Called once when the client is disconnected by the {@code DISCONNECT} policy.
+     * @param executor    The executor running the drain tasks, possibly shared by several clients.
+     */
+    public CallbackDispatcher(ClientRemote client, int capacity, ServerConfig.OverflowPolicy policy, long batchWindow, Runnable onOverflow, Executor executor) {
+        this.client = client;
+        this.backlog = new LinkedBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.batchWindow = batchWindow;
+        this.onOverflow = onOverflow;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a message for delivery and returns without waiting for the remote call.
+     * If the backlog is full the configured overflow policy is applied.
+     *
+     * @param m The message to deliver.
+     */
+    public void send(Message m) {
+        if (closed) {
+            return;
+        }
+
+        if (!backlog.offer(m)) {
+            switch (policy) {
+                case DROP -> {
+                    logger.warning("Callback backlog is full, dropping message " + m.getType());
+                    return;
+                }
+                case DISCONNECT -> {
+                    logger.warning("Callback backlog is full, disconnecting slow client");
+                    close();
+                    onOverflow.run();
+                    return;
+                }
+                case BLOCK -> {
+                    try {
+                        backlog.put(m);
+                    } catch (InterruptedException e) {
+                        logger.warning("Interrupted while waiting for callback backlog, dropping message " + m.getType());
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        schedule();
+    }
+
+    /**
+     * Submits a drain task unless one is already pending or running.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Delivers the queued messages in order, in batches, then reschedules itself if new messages arrived in the meantime.
+     */
+    private void drain() {
+        try {
+            if (batchWindow > 0) {
+                Thread.sleep(batchWindow);
+            }
+
+            List<Message> batch = new ArrayList<>();
+            while (!closed && backlog.drainTo(batch, MAX_BATCH) > 0) {
+                deliver(batch);
+                batch = new ArrayList<>();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scheduled.set(false);
+        }
+
+        if (!closed && !backlog.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Delivers a batch of messages with a single remote call.
+     *
+     * @param batch The messages to deliver, in order.
+     */
+    private void deliver(List<Message> batch) {
+        try {
+            if (batch.size() == 1) {
+                client.receive(batch.getFirst());
+            } else {
+                client.receiveBatch(batch);
+            }
+        } catch (RemoteException e) {
+            logger.warning("Error while sending message : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of messages waiting to be delivered.
+     *
+     * @return The backlog depth.
+     */
+    public int getBacklogDepth() {
+        return backlog.size();
+    }
+
+    /**
+     * Stops the delivery of messages, discarding the ones still queued.
+     */
+    public void close() {
+        closed = true;
+        backlog.clear();
+    }
+}
@@ -0,0 +1,280 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.network.Server;
+import it.polimi.ingsw.network.codec.FrameCodec;
+import it.polimi.ingsw.network.codec.PreparedMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ChannelConnection class represents a server-side connection served by a {@link SocketEventLoop}.
+ * Incoming bytes are accumulated until a complete frame is available, then decoded and handed to the
+ * {@link ServerMessageHandler}; outgoing messages are encoded by the sending thread and queued in a bounded
+ * queue that the loop drains, gathering all the pending frames in as few writes as possible.
+ * It implements the Connection interface.
+ */
+public class ChannelConnection implements Connection {
+    private static final Logger logger = Logger.getLogger(ChannelConnection.class.getName());
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int MAX_GATHER = 16;
+
+    private final SocketChannel channel;
+    private final SocketEventLoop loop;
+    private final Controller controller;
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger outboundDepth = new AtomicInteger(0);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private SelectionKey key;
+    private String username;
+
+    /**
+     * Constructs a ChannelConnection for an accepted channel.
+     *
+     * @param channel The non-blocking channel connected to the client.
+     * @param loop    The event loop serving the channel.
+     */
+    public ChannelConnection(SocketChannel channel, SocketEventLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+        controller = new Controller(this);
+        Server.getLivenessMonitor().register(this, () -> loop.execute(this::disconnect));
+    }
+
+    /**
+     * Sets the selection key of the channel, once registered in the loop selector.
+     *
+     * @param key The selection key.
+     */
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Encodes a message and queues it to be written to the client by the event loop.
+     *
+     * @param m the Message object to be sent
+     */
+    @Override
+    public void send(Message m) {
+        send(new PreparedMessage(m));
+    }
+
+    /**
+     * Queues a message to be written to the client by the event loop, reusing its encoded frame.
+     * If the client does not keep up and the queue overflows, the connection is dropped.
+     *
+     * @param m the prepared message to be sent
+     */
+    @Override
+    public void send(PreparedMessage m) {
+        if (closed.get()) {
+            return;
+        }
+
+        ByteBuffer frame;
+        try {
+            logger.info("Send message to " + username + ": " + m.getMessage().getType());
+            frame = ByteBuffer.wrap(m.getFrame());
+        } catch (IOException e) {
+            logger.warning("Error sending message : " + e.getMessage());
+            return;
+        }
+
+        if (outboundDepth.incrementAndGet() > ServerConfig.getOutboundQueueSize()) {
+            outboundDepth.decrementAndGet();
+            logger.warning("Outbound queue of " + username + " is full, disconnecting slow client");
+            loop.execute(this::disconnect);
+            return;
+        }
+        outbound.add(frame);
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes as many queued frames as the channel accepts, gathering several frames in a single write.
+     * If the socket buffer is full, the remaining frames are written when the channel becomes writable again.
+     * Must be called from the loop thread.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        if (closed.get()) {
+            return;
+        }
+
+        try {
+            ByteBuffer[] batch = new ByteBuffer[MAX_GATHER];
+            while (!outbound.isEmpty()) {
+                int n = 0;
+                Iterator<ByteBuffer> it = outbound.iterator();
+                while (n < MAX_GATHER && it.hasNext()) {
+                    batch[n++] = it.next();
+                }
+
+                channel.write(batch, 0, n);
+
+                for (int i = 0; i < n && !batch[i].hasRemaining(); i++) {
+                    outbound.poll();
+                    outboundDepth.decrementAndGet();
+                }
+
+                if (batch[n - 1].hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            logger.log(Level.INFO, "Disconnected");
+            disconnect();
+        }
+    }
+
+    /**
+     * Returns the number of messages waiting to be written to the client.
+     *
+     * @return the outbound queue depth
+     */
+    @Override
+    public int getOutboundQueueDepth() {
+        return outboundDepth.get();
+    }
+
+    /**
+     * Reads the available bytes from the channel and dispatches every complete frame.
+     * Must be called from the loop thread.
+     */
+    void onReadable() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                logger.log(Level.INFO, "Disconnected");
+                disconnect();
+                return;
+            }
+            Server.getLivenessMonitor().heartbeat(this);
+
+            readBuffer.flip();
+            while (!closed.get() && readBuffer.remaining() >= FrameCodec.HEADER_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                FrameCodec.checkLength(length);
+
+                int frameSize = FrameCodec.HEADER_SIZE + length;
+                if (readBuffer.remaining() < frameSize) {
+                    if (readBuffer.capacity() < frameSize) {
+                        ByteBuffer bigger = ByteBuffer.allocate(frameSize);
+                        bigger.put(readBuffer);
+                        readBuffer = bigger;
+                        return;
+                    }
+                    break;
+                }
+
+                int start = readBuffer.arrayOffset() + readBuffer.position() + FrameCodec.HEADER_SIZE;
+                Message message = FrameCodec.decode(readBuffer.array(), start, length);
+                readBuffer.position(readBuffer.position() + frameSize);
+                dispatch(message);
+            }
+            readBuffer.compact();
+        } catch (IOException e) {
+            logger.log(Level.INFO, "Disconnected : " + e.getMessage());
+            disconnect();
+        }
+    }
+
+    /**
+     * Hands a decoded message to the server message handler, isolating the loop from handler failures.
+     *
+     * @param message The received message.
+     */
+    private void dispatch(Message message) {
+        try {
+            ServerMessageHandler.handle(this, message);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error handling message from " + username, e);
+        }
+    }
+
+    /**
+     * Sets the username associated with this connection.
+     *
+     * @param username the username to set
+     */
+    @Override
+    public void setUsername(String username) {
+        if (username != null && this.username == null) {
+            this.username = username;
+        }
+    }
+
+    /**
+     * Returns the username associated with this connection.
+     *
+     * @return the username
+     */
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Returns the Controller instance associated with this connection.
+     *
+     * @return the Controller instance
+     */
+    @Override
+    public Controller getController() {
+        return controller;
+    }
+
+    /**
+     * Closes the connection after writing the messages already queued.
+     */
+    @Override
+    public void close() {
+        loop.execute(() -> {
+            flush();
+            disconnect();
+        });
+    }
+
+    /**
+     * Releases the channel and notifies the server of the disconnection; only the first call has effect.
+     * Must be called from the loop thread.
+     */
+    void disconnect() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            if (key != null) {
+                key.cancel();
+            }
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing channel", e);
+        } finally {
+            outbound.clear();
+            outboundDepth.set(0);
+            Server.getLivenessMonitor().unregister(this);
+            controller.disconnected();
+            Server.handleDisconnection(this);
+        }
+    }
+}
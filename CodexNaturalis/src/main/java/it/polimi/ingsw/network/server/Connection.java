@@ -2,6 +2,7 @@ package it.polimi.ingsw.network.server;
 
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.network.codec.PreparedMessage;
 
 /**
  * The Connection interface represents a connection handler on the server side.
@@ -17,6 +18,16 @@ public interface Connection {
      */
     void send(Message m);
 
+    /**
+     * Sends a message shared with other recipients over the connection.
+     * Connections writing frames should override this method to reuse the frame encoded once for all the recipients.
+     *
+     * @param m the prepared message to be sent
+     */
+    default void send(PreparedMessage m) {
+        send(m.getMessage());
+    }
+
     /**
      * Sets the username associated with this connection.
      *
@@ -38,6 +49,16 @@ public interface Connection {
      */
     Controller getController();
 
+    /**
+     * Returns the number of messages queued on the connection and not yet delivered to the client.
+     * Used to monitor slow consumers.
+     *
+     * @return the outbound queue depth, 0 for connections that deliver synchronously
+     */
+    default int getOutboundQueueDepth() {
+        return 0;
+    }
+
     /**
      * Closes the connection.
      * Implementations should release any resources associated with the connection.
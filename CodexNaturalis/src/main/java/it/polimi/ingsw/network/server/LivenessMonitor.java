@@ -0,0 +1,208 @@
+package it.polimi.ingsw.network.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Detects dead clients of both transports with a hashed timing wheel.
+ * Every registered connection sits in the slot of the wheel matching its deadline; a heartbeat only updates the
+ * time the connection was last seen, and the connection is moved to a later slot lazily when its slot is reached.
+ * Each tick therefore only looks at the connections whose deadline falls in it, instead of scanning all of them,
+ * and a dead client is detected at most one tick after its timeout expires.
+ */
+public class LivenessMonitor {
+    private static final Logger logger = Logger.getLogger(LivenessMonitor.class.getName());
+    private static final int TICKS_PER_TIMEOUT = 20;
+
+    /**
+     * A registered connection and the action to run when it times out.
+     */
+    private static final class Session {
+        private final Connection connection;
+        private final Runnable onTimeout;
+        private volatile long lastSeen;
+        private volatile int slot;
+
+        /**
+         * Constructs a Session.
+         *
+         * @param connection The monitored connection.
+         * @param onTimeout  The action run when the connection times out.
+         * @param now        The current time.
+         */
+        private Session(Connection connection, Runnable onTimeout, long now) {
+            this.connection = connection;
+            this.onTimeout = onTimeout;
+            this.lastSeen = now;
+        }
+    }
+
+    private final long timeout;
+    private final long tick;
+    private final LongSupplier clock;
+    private final List<Set<Session>> wheel;
+    private final Map<Connection, Session> sessions = new ConcurrentHashMap<>();
+    private long currentTick;
+    private volatile boolean running;
+
+    /**
+     * Constructs a LivenessMonitor using the system clock.
+     *
+     * @param timeout The time in milliseconds without heartbeats after which a client is considered disconnected.
+     */
+    public LivenessMonitor(long timeout) {
+        this(timeout, Math.max(10, timeout / TICKS_PER_TIMEOUT), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a LivenessMonitor.
+     *
+     * @param timeout The time in milliseconds without heartbeats after which a client is considered disconnected.
+     * @param tick    The duration in milliseconds of a slot of the wheel.
+     * @param clock   The source of the current time in milliseconds.
+     */
+    LivenessMonitor(long timeout, long tick, LongSupplier clock) {
+        this.timeout = timeout;
+        this.tick = tick;
+        this.clock = clock;
+        int size = (int) (timeout / tick) + 2;
+        wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        currentTick = clock.getAsLong() / tick;
+    }
+
+    /**
+     * Starts monitoring on a dedicated daemon thread.
+     */
+    public void start() {
+        running = true;
+        Thread.ofPlatform().name("liveness-monitor").daemon().start(this::run);
+    }
+
+    /**
+     * Stops monitoring.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Advances the wheel once per tick until stopped.
+     */
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(tick);
+            } catch (InterruptedException e) {
+                logger.warning("Liveness monitor interrupted");
+                return;
+            }
+            advance();
+        }
+    }
+
+    /**
+     * Starts monitoring a connection, considering it alive now.
+     *
+     * @param connection The connection to monitor.
+     * @param onTimeout  The action run, on the monitor thread, if the connection times out.
+     */
+    public void register(Connection connection, Runnable onTimeout) {
+        long now = clock.getAsLong();
+        Session session = new Session(connection, onTimeout, now);
+        Session previous = sessions.put(connection, session);
+        if (previous != null) {
+            wheel.get(previous.slot).remove(previous);
+        }
+        schedule(session, now + timeout, now / tick + 1);
+    }
+
+    /**
+     * Records that a connection is alive. Does nothing if the connection is not monitored.
+     *
+     * @param connection The connection a heartbeat or any other message was received from.
+     */
+    public void heartbeat(Connection connection) {
+        Session session = sessions.get(connection);
+        if (session != null) {
+            session.lastSeen = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Stops monitoring a connection, for instance because it was closed.
+     *
+     * @param connection The connection.
+     */
+    public void unregister(Connection connection) {
+        Session session = sessions.remove(connection);
+        if (session != null) {
+            wheel.get(session.slot).remove(session);
+        }
+    }
+
+    /**
+     * Checks whether a connection is monitored.
+     *
+     * @param connection The connection.
+     * @return True if the connection is registered and did not time out yet, otherwise False.
+     */
+    public boolean isMonitored(Connection connection) {
+        return sessions.containsKey(connection);
+    }
+
+    /**
+     * Processes all the slots up to the current time, timing out the expired connections
+     * and moving the others to the slot of their new deadline.
+     */
+    void advance() {
+        long now = clock.getAsLong();
+        long lastTick = now / tick;
+        while (currentTick < lastTick) {
+            currentTick++;
+            Set<Session> bucket = wheel.get((int) (currentTick % wheel.size()));
+            List<Session> due = new ArrayList<>(bucket);
+            bucket.removeAll(due);
+
+            for (Session session : due) {
+                if (sessions.get(session.connection) != session) {
+                    continue;
+                }
+
+                long deadline = session.lastSeen + timeout;
+                if (deadline > now) {
+                    schedule(session, deadline, currentTick + 1);
+                } else if (sessions.remove(session.connection, session)) {
+                    logger.info("Client " + session.connection.getUsername() + " timed out");
+                    try {
+                        session.onTimeout.run();
+                    } catch (RuntimeException e) {
+                        logger.log(Level.WARNING, "Error handling timeout", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts a session in the slot of its deadline.
+     *
+     * @param session  The session.
+     * @param deadline The time at which the session expires if no heartbeat arrives.
+     * @param minTick  The earliest tick the session can be placed in.
+     */
+    private void schedule(Session session, long deadline, long minTick) {
+        long deadlineTick = Math.max((deadline + tick - 1) / tick, minTick);
+        int slot = (int) (deadlineTick % wheel.size());
+        session.slot = slot;
+        wheel.get(slot).add(session);
+    }
+}
@@ -0,0 +1,245 @@
+package it.polimi.ingsw.network.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Holds the tunable settings of the server, filled from the command line arguments at startup.
+ */
+public class ServerConfig {
+    private static final Logger logger = Logger.getLogger(ServerConfig.class.getName());
+
+    /**
+     * The available implementations of the socket front end.
+     */
+    public enum SocketMode {
+        NIO,        // Few selector loops own all the client channels
+        BLOCKING    // One thread blocked in a read loop for each client
+    }
+
+    /**
+     * The kinds of thread used for per-connection read loops and other server tasks.
+     */
+    public enum ThreadMode {
+        PLATFORM,   // One operating system thread each
+        VIRTUAL     // Virtual threads multiplexed over a small carrier pool
+    }
+
+    /**
+     * What to do when a client does not keep up and its backlog of pending callbacks is full.
+     */
+    public enum OverflowPolicy {
+        DROP,       // Discard the new message and keep the client
+        DISCONNECT, // Treat the client as disconnected
+        BLOCK       // Wait for room, slowing down the sender
+    }
+
+    /**
+     * When the actions of a match are acknowledged to the players, with respect to the commit log.
+     */
+    public enum Durability {
+        DURABLE,    // Only after the batch holding the action is synced to disk
+        ASYNC       // At once, the action reaches the disk with the next batch
+    }
+
+    private static SocketMode socketMode = SocketMode.NIO;
+    private static int socketLoops = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static ThreadMode threadMode = ThreadMode.PLATFORM;
+    private static int outboundQueueSize = 1024;
+    private static OverflowPolicy callbackOverflow = OverflowPolicy.DISCONNECT;
+    private static long callbackBatchWindow = 2;
+    private static long heartbeatTimeout = 15000;
+    private static long queueRelaxTime = 30000;
+    private static int matchThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static Durability durability = Durability.DURABLE;
+    private static ExecutorService matchExecutor;
+
+    /**
+     * Private constructor, this class only exposes static settings.
+     */
+    private ServerConfig() {}
+
+    /**
+     * Tries to parse a command line argument as a server setting.
+     *
+     * @param arg The command line argument.
+     * @return True if the argument was recognized, otherwise False.
+     */
+    public static boolean parse(String arg) {
+        try {
+            if (arg.startsWith("-io:")) {
+                socketMode = SocketMode.valueOf(arg.substring(4).toUpperCase());
+                return true;
+            }
+            if (arg.startsWith("-loops:")) {
+                socketLoops = Math.max(1, Integer.parseInt(arg.substring(7)));
+                return true;
+            }
+            if (arg.startsWith("-outbound:")) {
+                outboundQueueSize = Math.max(1, Integer.parseInt(arg.substring(10)));
+                return true;
+            }
+            if (arg.startsWith("-callback-overflow:")) {
+                callbackOverflow = OverflowPolicy.valueOf(arg.substring(19).toUpperCase());
+                return true;
+            }
+            if (arg.startsWith("-batch-window:")) {
+                callbackBatchWindow = Math.max(0, Long.parseLong(arg.substring(14)));
+                return true;
+            }
+            if (arg.startsWith("-timeout:")) {
+                heartbeatTimeout = Math.max(1000, Long.parseLong(arg.substring(9)));
+                return true;
+            }
+            if (arg.startsWith("-queue-relax:")) {
+                queueRelaxTime = Math.max(0, Long.parseLong(arg.substring(13)));
+                return true;
+            }
+            if (arg.startsWith("-match-threads:")) {
+                matchThreads = Math.max(1, Integer.parseInt(arg.substring(15)));
+                return true;
+            }
+            if (arg.startsWith("-durability:")) {
+                durability = Durability.valueOf(arg.substring(12).toUpperCase());
+                return true;
+            }
+            if (arg.startsWith("-threads:")) {
+                threadMode = ThreadMode.valueOf(arg.substring(9).toUpperCase());
+                return true;
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid value for argument " + arg + ", using default");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the configured socket front end implementation.
+     *
+     * @return The socket mode.
+     */
+    public static SocketMode getSocketMode() {
+        return socketMode;
+    }
+
+    /**
+     * Gets the number of selector loops used by the non-blocking socket front end.
+     *
+     * @return The number of selector loops.
+     */
+    public static int getSocketLoops() {
+        return socketLoops;
+    }
+
+    /**
+     * Gets the configured kind of thread for connection loops and other server tasks.
+     *
+     * @return The thread mode.
+     */
+    public static ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    /**
+     * Gets the maximum number of messages queued for a client before it is considered a slow consumer and dropped.
+     *
+     * @return The size of the outbound queue of each connection.
+     */
+    public static int getOutboundQueueSize() {
+        return outboundQueueSize;
+    }
+
+    /**
+     * Gets the policy applied when the backlog of callbacks of an RMI client is full.
+     *
+     * @return The overflow policy.
+     */
+    public static OverflowPolicy getCallbackOverflow() {
+        return callbackOverflow;
+    }
+
+    /**
+     * Gets how long the messages for an idle RMI client are accumulated before being sent in a single call.
+     *
+     * @return The batching window in milliseconds, 0 to send as soon as possible.
+     */
+    public static long getCallbackBatchWindow() {
+        return callbackBatchWindow;
+    }
+
+    /**
+     * Gets the time without heartbeats after which a client is considered disconnected.
+     *
+     * @return The heartbeat timeout in milliseconds.
+     */
+    public static long getHeartbeatTimeout() {
+        return heartbeatTimeout;
+    }
+
+    /**
+     * Gets how long a player waits in the matchmaking queue before accepting a match one player smaller than preferred.
+     *
+     * @return The relaxation time in milliseconds, 0 to accept any size at once.
+     */
+    public static long getQueueRelaxTime() {
+        return queueRelaxTime;
+    }
+
+    /**
+     * Gets the number of threads shared by all the matches to run their commands.
+     *
+     * @return The number of match threads.
+     */
+    public static int getMatchThreads() {
+        return matchThreads;
+    }
+
+    /**
+     * Gets whether the matches wait for their actions to be synced to disk before acknowledging them.
+     *
+     * @return The durability mode.
+     */
+    public static Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Gets the executor shared by all the matches to run their commands, creating it on first use.
+     *
+     * @return The match executor.
+     */
+    public static synchronized ExecutorService getMatchExecutor() {
+        if (matchExecutor == null) {
+            matchExecutor = Executors.newFixedThreadPool(matchThreads, Thread.ofPlatform().name("match-", 0).daemon().factory());
+        }
+        return matchExecutor;
+    }
+
+    /**
+     * Creates an executor running each task on a thread of the configured kind.
+     * Platform threads are pooled and reused, virtual threads are created for each task.
+     *
+     * @param name The prefix of the names of the threads.
+     * @return The new executor.
+     */
+    public static ExecutorService newExecutor(String name) {
+        if (threadMode == ThreadMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().name(name + "-", 0).daemon().factory());
+    }
+
+    /**
+     * Starts a thread of the configured kind running the given task.
+     *
+     * @param name The name of the thread.
+     * @param task The task to run.
+     * @return The started thread.
+     */
+    public static Thread startThread(String name, Runnable task) {
+        Thread.Builder builder = threadMode == ThreadMode.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+        return builder.name(name).start(task);
+    }
+}
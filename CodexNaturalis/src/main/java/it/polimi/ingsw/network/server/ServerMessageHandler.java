@@ -8,13 +8,12 @@ import it.polimi.ingsw.message.error.*;
 import it.polimi.ingsw.message.action.GameMessage;
 import it.polimi.ingsw.message.lobby.CreateLobbyMessage;
 import it.polimi.ingsw.message.lobby.JoinLobbyMessage;
-import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
-import it.polimi.ingsw.lobby.LobbyInfo;
+import it.polimi.ingsw.message.lobby.GetLobbiesMessage;
 import it.polimi.ingsw.message.lobby.LobbyInfoMessage;
+import it.polimi.ingsw.message.lobby.QueueMessage;
 import it.polimi.ingsw.network.Server;
 import it.polimi.ingsw.controller.Controller;
 
-import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -31,6 +30,10 @@ public class ServerMessageHandler {
      * @param m the Message object received from the client
      */
     public static void handle(Connection client, Message m) {
+        if (m.getType() == MessageType.PING){
+            return; // Only keeps the connection alive, already recorded by the connection
+        }
+
         if (client.getUsername() == null){
             logger.info("Received message: " + m.getType());
 
@@ -81,6 +84,13 @@ public class ServerMessageHandler {
                         client.send(new CreateMatchError());
                     }
                     break;
+                case QUEUE:
+                    try {
+                        Server.queueForMatch(client, ((QueueMessage) m).preferredSize());
+                    } catch (NetworkExceptions e){
+                        client.send(new JoinMatchError());
+                    }
+                    break;
                 case LEAVE:
                     try {
                         Server.leaveLobby(client.getUsername(), client.getController());
@@ -90,8 +100,7 @@ public class ServerMessageHandler {
                     }
                     break;
                 case GET:
-                    List<LobbyInfo> lobbies = Server.getNonStartedLobbies();
-                    client.send(new GetLobbiesResponseMessage(lobbies));
+                    Server.sendOpenLobbies(client, (GetLobbiesMessage) m);
                     break;
                 case GET_LOBBY_INFO:
                     Lobby lobby = Server.getLobby(client.getUsername());
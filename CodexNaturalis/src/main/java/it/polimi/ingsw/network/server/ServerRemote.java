@@ -5,6 +5,7 @@ import it.polimi.ingsw.network.client.ClientRemote;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * The ServerRemote interface defines remote methods that a server can expose to clients
@@ -21,6 +22,16 @@ public interface ServerRemote extends Remote {
      */
     void receive(String uuid, Message m) throws RemoteException;
 
+    /**
+     * Receives several messages from a client identified by UUID in a single call.
+     * The messages are handled in the order of the list.
+     *
+     * @param uuid the unique identifier of the client
+     * @param messages the Message objects received from the client
+     * @throws RemoteException if there is a communication-related exception during the remote method call
+     */
+    void receiveBatch(String uuid, List<Message> messages) throws RemoteException;
+
     /**
      * Sets the callback interface for a client identified by UUID.
      *
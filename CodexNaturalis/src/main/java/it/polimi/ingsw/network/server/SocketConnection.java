@@ -3,24 +3,35 @@ package it.polimi.ingsw.network.server;
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.message.Message;
 import it.polimi.ingsw.network.Server;
+import it.polimi.ingsw.network.codec.FrameCodec;
+import it.polimi.ingsw.network.codec.PreparedMessage;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * The SocketConnection class represents a server-side socket-based connection handler
  * that manages communication with a client.
+ * Outgoing messages are queued in a bounded queue and written by a dedicated writer thread,
+ * so that a slow client never blocks the thread sending to it.
  * It implements the Connection interface.
  */
 public class SocketConnection implements Connection {
     private static final Logger logger = Logger.getLogger(SocketConnection.class.getName());
     private final Socket socket;
-    private final ObjectInputStream inputStream;
-    private final ObjectOutputStream outputStream;
+    private final DataInputStream inputStream;
+    private final OutputStream outputStream;
+    private final BlockingQueue<byte[]> outbound = new LinkedBlockingQueue<>(ServerConfig.getOutboundQueueSize());
+    private static final byte[] END_OF_STREAM = new byte[0];  // Queued by close() after the last message
+    private Thread writer;
     private String username;
     private final Controller controller;
     private volatile boolean running;
@@ -33,27 +44,83 @@ public class SocketConnection implements Connection {
      */
     public SocketConnection(Socket s) throws IOException {
         socket = s;
-        outputStream = new ObjectOutputStream(socket.getOutputStream());
-        inputStream = new ObjectInputStream(socket.getInputStream());
+        outputStream = new BufferedOutputStream(socket.getOutputStream());
+        inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
         controller = new Controller(this);
     }
 
     /**
-     * Sends a message over the socket connection to the client.
+     * Queues a message to be sent over the socket connection to the client.
      *
      * @param m the Message object to be sent
      */
     @Override
     public void send(Message m) {
+        send(new PreparedMessage(m));
+    }
+
+    /**
+     * Queues a message to be sent over the socket connection to the client, reusing its encoded frame.
+     * If the client does not keep up and the queue overflows, the connection is dropped.
+     *
+     * @param m the prepared message to be sent
+     */
+    @Override
+    public void send(PreparedMessage m) {
+        byte[] frame;
         try {
-            logger.info("Send message to " + username + ": " + m.getType());
-            outputStream.writeObject(m);
-            outputStream.flush();
+            logger.info("Send message to " + username + ": " + m.getMessage().getType());
+            frame = m.getFrame();
         } catch (IOException e){
             logger.warning("Error sending message : " + e.getMessage());
+            return;
+        }
+
+        if (!outbound.offer(frame)) {
+            logger.warning("Outbound queue of " + username + " is full, disconnecting slow client");
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Error closing socket", e);
+            }
         }
     }
 
+    /**
+     * Writes the queued messages to the socket until the connection is closed.
+     * All the messages already queued are written before a single flush.
+     */
+    private void write(){
+        try {
+            while (true) {
+                byte[] frame = outbound.take();
+                do {
+                    if (frame == END_OF_STREAM) {
+                        outputStream.flush();
+                        socket.shutdownOutput();
+                        return;
+                    }
+                    outputStream.write(frame);
+                } while ((frame = outbound.poll()) != null);
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            logger.log(Level.INFO, "Error writing to " + username + " : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of messages waiting to be written to the client.
+     *
+     * @return the outbound queue depth
+     */
+    @Override
+    public int getOutboundQueueDepth(){
+        return outbound.size();
+    }
+
     /**
      * Sets the username associated with this connection.
      *
@@ -82,15 +149,20 @@ public class SocketConnection implements Connection {
      */
     public void start(){
         running = true;
+        writer = ServerConfig.startThread("socket-writer-" + socket.getRemoteSocketAddress(), this::write);
+        Server.getLivenessMonitor().register(this, this::timedOut);
         try {
-            Message message;
-            while (running && (message = (Message) inputStream.readObject()) != null) {
-                ServerMessageHandler.handle(this, message);
+            while (running) {
+                Message m = FrameCodec.read(inputStream);
+                Server.getLivenessMonitor().heartbeat(this);
+                ServerMessageHandler.handle(this, m);
             }
-        } catch (ClassNotFoundException | IOException e) {
+        } catch (IOException e) {
             logger.log(Level.INFO, "Disconnected");
         } finally {
             try {
+                writer.interrupt();
+                Server.getLivenessMonitor().unregister(this);
                 controller.disconnected();
                 Server.handleDisconnection(this);
                 socket.close();
@@ -100,6 +172,17 @@ public class SocketConnection implements Connection {
         }
     }
 
+    /**
+     * Closes the socket of a client that stopped sending pings, making the read loop terminate.
+     */
+    private void timedOut() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing socket", e);
+        }
+    }
+
     /**
      * Returns the Controller instance associated with this connection.
      *
@@ -112,13 +195,16 @@ public class SocketConnection implements Connection {
 
     /**
      * Closes the socket connection and stops the SocketConnection instance.
+     * Once the queued messages are written, the output is shut down so that the client reads the end of the stream.
      */
     @Override
     public void close() {
         running = false;
         try {
-            send(null); //
-        } catch (Exception e){
+            if (!outbound.offer(END_OF_STREAM)) {
+                socket.close();
+            }
+        } catch (IOException e){
             logger.warning("Error while closing connection : " + e.getMessage());
         }
     }
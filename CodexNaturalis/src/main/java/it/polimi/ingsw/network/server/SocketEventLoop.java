@@ -0,0 +1,137 @@
+package it.polimi.ingsw.network.server;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A selector based event loop owning a subset of the socket clients.
+ * The loop reads and writes all of its channels without blocking; work coming from other threads
+ * (new channels, pending writes, close requests) is queued as tasks and run by the loop thread.
+ */
+public class SocketEventLoop implements Runnable {
+    private static final Logger logger = Logger.getLogger(SocketEventLoop.class.getName());
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * Constructs a new event loop with its own selector.
+     *
+     * @throws IOException If the selector cannot be opened.
+     */
+    public SocketEventLoop() throws IOException {
+        selector = Selector.open();
+        running = true;
+    }
+
+    /**
+     * Hands an accepted channel to this loop, which will serve it from now on.
+     *
+     * @param channel The accepted client channel.
+     */
+    public void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                ChannelConnection conn = new ChannelConnection(channel, this);
+                conn.setKey(channel.register(selector, SelectionKey.OP_READ, conn));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to register channel", e);
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    logger.log(Level.WARNING, "Error closing channel", ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues a task to be run by the loop thread and wakes the selector up.
+     *
+     * @param task The task to run.
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Checks whether the calling thread is the thread running this loop.
+     *
+     * @return True if called from the loop thread, otherwise False.
+     */
+    public boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Runs the loop until {@link #stop()} is called: waits for ready channels, serves them and runs queued tasks.
+     */
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        while (running) {
+            try {
+                selector.select();
+                runTasks();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    ChannelConnection conn = (ChannelConnection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            conn.onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            conn.flush();
+                        }
+                    } catch (CancelledKeyException e) {
+                        conn.disconnect();
+                    }
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Exception occurred in socket event loop", e);
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing selector", e);
+        }
+    }
+
+    /**
+     * Runs all the tasks queued by other threads.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Exception occurred in socket event loop task", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the loop; the selector is closed once the current iteration ends.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,63 @@
+package it.polimi.ingsw.network.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.logging.Logger;
+
+/**
+ * The non-blocking socket front end of the server.
+ * Accepted channels are spread round-robin over a fixed number of {@link SocketEventLoop}s,
+ * so the number of clients is bound by file descriptors instead of threads.
+ */
+public class SocketServer {
+    private static final Logger logger = Logger.getLogger(SocketServer.class.getName());
+    private final int port;
+    private final SocketEventLoop[] loops;
+
+    /**
+     * Constructs a SocketServer listening on the given port.
+     *
+     * @param port     The port to listen on.
+     * @param numLoops The number of event loops serving the clients.
+     * @throws IOException If an event loop cannot be created.
+     */
+    public SocketServer(int port, int numLoops) throws IOException {
+        this.port = port;
+        loops = new SocketEventLoop[numLoops];
+        for (int i = 0; i < numLoops; i++) {
+            loops[i] = new SocketEventLoop();
+        }
+    }
+
+    /**
+     * Starts the event loops and accepts incoming connections until the server channel fails.
+     *
+     * @throws IOException If the server channel cannot be opened or an error occurs while accepting.
+     */
+    public void start() throws IOException {
+        for (int i = 0; i < loops.length; i++) {
+            Thread t = new Thread(loops[i], "socket-loop-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+            logger.info("Server listening on port " + port + " with " + loops.length + " event loops");
+
+            int next = 0;
+            while (true) {
+                SocketChannel channel = serverChannel.accept();
+                logger.info("New connection from " + channel.getRemoteAddress());
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            }
+        } finally {
+            for (SocketEventLoop loop : loops) {
+                loop.stop();
+            }
+        }
+    }
+}
@@ -8,19 +8,17 @@ import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
 import java.util.*;
 
-import java.util.logging.Level;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
  * The Stub class implements the ServerRemote interface for handling RMI communication
- * with clients. It manages client callbacks, message reception, and heartbeat monitoring.
+ * with clients. It manages client callbacks and message reception; heartbeats are tracked
+ * by the server {@link LivenessMonitor}.
  */
 public class Stub extends UnicastRemoteObject implements ServerRemote {
     private static final Logger logger = Logger.getLogger(Stub.class.getName());
-    private final long timeout = 20000;
     private final Map<String, Callback> clients;
-    private final Map<String, Long> lastHeartbeatTimes;
-    private boolean running;
 
     /**
      * Constructs a Stub instance.
@@ -29,9 +27,7 @@ public class Stub extends UnicastRemoteObject implements ServerRemote {
      */
     public Stub() throws RemoteException {
         super();
-        clients = new HashMap<>();
-        running = true;
-        lastHeartbeatTimes = new HashMap<>();
+        clients = new ConcurrentHashMap<>();
     }
 
     /**
@@ -60,11 +56,33 @@ public class Stub extends UnicastRemoteObject implements ServerRemote {
      */
     @Override
     public void receive(String uuid, Message m) throws RemoteException {
-        if(!clients.containsKey(uuid)){
+        Callback c = clients.get(uuid);
+        if(c == null){
             throw new RemoteException("Client not found.");
         }
 
-        ServerMessageHandler.handle(clients.get(uuid), m);
+        Server.getLivenessMonitor().heartbeat(c);
+        ServerMessageHandler.handle(c, m);
+    }
+
+    /**
+     * Receives several messages from a client identified by UUID and processes them in order using ServerMessageHandler.
+     *
+     * @param uuid the unique identifier of the client
+     * @param messages the Message objects received from the client
+     * @throws RemoteException if there is an RMI-related exception or if the client is not found
+     */
+    @Override
+    public void receiveBatch(String uuid, List<Message> messages) throws RemoteException {
+        Callback c = clients.get(uuid);
+        if(c == null){
+            throw new RemoteException("Client not found.");
+        }
+
+        Server.getLivenessMonitor().heartbeat(c);
+        for(Message m : messages){
+            ServerMessageHandler.handle(c, m);
+        }
     }
 
     /**
@@ -77,66 +95,43 @@ public class Stub extends UnicastRemoteObject implements ServerRemote {
     public String setCallback(ClientRemote c){
         logger.info("New RMI connection.");
         String uuid = generateUniqueId();
-        clients.put(uuid, new Callback(c));
+        Callback callback = new Callback(c, () -> disconnect(uuid));
+        clients.put(uuid, callback);
+        Server.getLivenessMonitor().register(callback, () -> disconnect(uuid));
         return uuid;
     }
 
     /**
-     * Sends a heartbeat signal to indicate that the client identified by UUID is still connected.
+     * Disconnects a client that stopped sending heartbeats or whose backlog of messages overflowed,
+     * removing it and notifying the server of the disconnection; only the first call for a client has effect.
      *
      * @param uuid the unique identifier of the client
-     * @throws RemoteException if there is an RMI-related exception or if the client is not found
      */
-    @Override
-    public void heartbeat(String uuid) throws RemoteException {
-        logger.info(uuid + " heartbeat");
-        if(!clients.containsKey(uuid)){
-            throw new RemoteException("Client not found.");
+    private void disconnect(String uuid) {
+        Callback callback = clients.remove(uuid);
+        if (callback == null) {
+            return;
         }
-
-        lastHeartbeatTimes.put(uuid, System.currentTimeMillis());
+        Server.getLivenessMonitor().unregister(callback);
+        callback.close();
+        callback.getController().disconnected();
+        Server.handleDisconnection(callback);
     }
 
     /**
-     * Monitors and handles disconnections of clients based on heartbeat timeouts.
-     * Runs in a loop until stopped.
+     * Sends a heartbeat signal to indicate that the client identified by UUID is still connected.
+     *
+     * @param uuid the unique identifier of the client
+     * @throws RemoteException if there is an RMI-related exception or if the client is not found
      */
-    public void findDisconnectedClients() {
-        while(running) {
-            Set<String> disconnectedClients = new HashSet<>();
-            long currentTime = System.currentTimeMillis();
-
-            for (Map.Entry<String, Long> entry : lastHeartbeatTimes.entrySet()) {
-                String clientUUID = entry.getKey();
-                long lastHeartbeatTime = entry.getValue();
-                long timeSinceLastHeartbeat = currentTime - lastHeartbeatTime;
-
-                if (timeSinceLastHeartbeat > timeout) {
-                    logger.log(Level.INFO, "Client " + clientUUID + " Disconnected");
-                    disconnectedClients.add(clientUUID);
-                    clients.get(clientUUID).getController().disconnected();
-                }
-            }
-
-            for(String UUID : disconnectedClients) {
-                Connection c = clients.get(UUID);
-                Server.handleDisconnection(c);
-                clients.remove(UUID);
-                lastHeartbeatTimes.remove(UUID);
-            }
-
-            try {
-                Thread.sleep(20000);
-            } catch (InterruptedException e){
-                logger.warning("Error while waiting to check disconnection");
-            }
+    @Override
+    public void heartbeat(String uuid) throws RemoteException {
+        logger.fine(uuid + " heartbeat");
+        Callback c = clients.get(uuid);
+        if(c == null){
+            throw new RemoteException("Client not found.");
         }
-    }
 
-    /**
-     * Stops the disconnection monitoring loop.
-     */
-    public void stop(){
-        running = false;
+        Server.getLivenessMonitor().heartbeat(c);
     }
 }
@@ -0,0 +1,312 @@
+package it.polimi.ingsw.utilities;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import it.polimi.ingsw.exception.InvalidSymbolException;
+import it.polimi.ingsw.model.card.*;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gson streaming adapter for cards, reading and writing the fields of the cards directly and building them through
+ * their constructors, without reflection or intermediate trees.
+ * A card is written as an object holding the simple name of its class under "type" and its fields under "data",
+ * so that the right class is built when reading it back whatever type it is declared with.
+ * The fields of a card of a concrete class may also be read on their own, as they are in the card resources.
+ *
+ * @param <T> the card type handled by the adapter
+ */
+public class CardTypeAdapter<T extends Card> extends TypeAdapter<T> {
+    private static final CornerAdapter cornerAdapter = new CornerAdapter();
+
+    private final Class<T> type;
+
+    /**
+     * Constructs an adapter for a card type.
+     *
+     * @param type the card type
+     */
+    public CardTypeAdapter(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Writes a card with the name of its class.
+     *
+     * @param out the writer to write to
+     * @param card the card to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(JsonWriter out, T card) throws IOException {
+        if (card == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type").value(card.getClass().getSimpleName());
+        out.name("data");
+        writeFields(out, card);
+        out.endObject();
+    }
+
+    /**
+     * Reads a card, either written with the name of its class or, for a concrete class, as its fields alone.
+     * The fields are read in a single pass, in any order.
+     *
+     * @param in the reader to read from
+     * @return the card, or null for a JSON null
+     * @throws IOException if an I/O error occurs or the JSON is malformed
+     * @throws JsonParseException if the class is unknown or the fields do not make a valid card of the handled type
+     */
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String cardType = Modifier.isAbstract(type.getModifiers()) ? null : type.getSimpleName();
+        Fields fields = new Fields();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "type" -> cardType = in.nextString();
+                case "data" -> {
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        fields.read(in.nextName(), in);
+                    }
+                    in.endObject();
+                }
+                default -> fields.read(name, in);
+            }
+        }
+        in.endObject();
+
+        if (cardType == null) {
+            throw new JsonParseException("Missing element type at " + in.getPath());
+        }
+        Card card = fields.build(cardType, in.getPath());
+        if (!type.isInstance(card)) {
+            throw new JsonParseException("Unknown element type: " + cardType);
+        }
+        return type.cast(card);
+    }
+
+    /**
+     * Writes the fields of a card as an object, with the same names Gson would find by reflection.
+     *
+     * @param out the writer to write to
+     * @param card the card to write
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeFields(JsonWriter out, Card card) throws IOException {
+        out.beginObject();
+        out.name("id").value(card.getId());
+        if (card instanceof PlayableCard playable) {
+            out.name("kingdom").value(playable.getKingdom().name());
+        }
+        out.name("frontCorners");
+        writeCorners(out, card, true);
+
+        switch (card) {
+            case StarterCard starter -> {
+                out.name("backCorners");
+                writeCorners(out, card, false);
+                out.name("centerSymbols").beginArray();
+                for (Symbol symbol : starter.getCenterSymbols(true)) {
+                    out.value(symbol.name());
+                }
+                out.endArray();
+            }
+            case ResourceCard resource -> out.name("score").value(resource.getScore());
+            case GoldCardInt gold -> {
+                writeRequirements(out, gold);
+                out.name("score").value(gold.getScore());
+            }
+            case GoldCardObject gold -> {
+                writeRequirements(out, gold);
+                out.name("scorePerSymbol").value(gold.getScorePerSymbol());
+                out.name("symbol").value(gold.getSymbol().name());
+            }
+            case GoldCardCorner gold -> {
+                writeRequirements(out, gold);
+                out.name("scorePerCorner").value(gold.getScorePerCorner());
+            }
+            default -> throw new JsonParseException("Unknown element type: " + card.getClass().getSimpleName());
+        }
+        out.endObject();
+    }
+
+    /**
+     * Writes the corners of a side of a card as an object keyed by corner position.
+     *
+     * @param out the writer to write to
+     * @param card the card
+     * @param isFront true for the front side, false for the back side
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeCorners(JsonWriter out, Card card, boolean isFront) throws IOException {
+        out.beginObject();
+        for (CornerPosition position : CornerPosition.values()) {
+            Corner corner = card.getCorner(position, isFront);
+            if (corner != null) {
+                out.name(position.name());
+                cornerAdapter.write(out, corner);
+            }
+        }
+        out.endObject();
+    }
+
+    /**
+     * Writes the requirements of a gold card.
+     *
+     * @param out the writer to write to
+     * @param card the gold card
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeRequirements(JsonWriter out, GoldCard card) throws IOException {
+        out.name("requirements");
+        writeSymbolCounts(out, card.getRequirements(true));
+    }
+
+    /**
+     * Writes a number for each symbol as an object keyed by symbol.
+     *
+     * @param out the writer to write to
+     * @param counts the number for each symbol
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeSymbolCounts(JsonWriter out, Map<Symbol, Integer> counts) throws IOException {
+        out.beginObject();
+        for (Map.Entry<Symbol, Integer> entry : counts.entrySet()) {
+            out.name(entry.getKey().name()).value(entry.getValue());
+        }
+        out.endObject();
+    }
+
+    /**
+     * Reads a number for each symbol.
+     *
+     * @param in the reader to read from
+     * @return the number for each symbol
+     * @throws IOException if an I/O error occurs or the JSON is malformed
+     */
+    static Map<Symbol, Integer> readSymbolCounts(JsonReader in) throws IOException {
+        Map<Symbol, Integer> counts = new EnumMap<>(Symbol.class);
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            try {
+                counts.put(Symbol.valueOf(name), in.nextInt());
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException("Unknown symbol " + name + " at " + in.getPath());
+            }
+        }
+        in.endObject();
+        return counts;
+    }
+
+    /**
+     * The fields of a card being read, collected until the class of the card is known.
+     */
+    private static class Fields {
+        private String id;
+        private Symbol kingdom;
+        private Map<CornerPosition, Corner> frontCorners;
+        private Map<CornerPosition, Corner> backCorners;
+        private final ArrayList<Symbol> centerSymbols = new ArrayList<>();
+        private Map<Symbol, Integer> requirements = new EnumMap<>(Symbol.class);
+        private Symbol symbol;
+        private int score;
+        private int scorePerSymbol;
+        private int scorePerCorner;
+
+        /**
+         * Reads the value of a field, skipping unknown fields.
+         *
+         * @param name the name of the field
+         * @param in the reader positioned on the value
+         * @throws IOException if an I/O error occurs or the JSON is malformed
+         */
+        private void read(String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id" -> id = in.nextString();
+                case "kingdom" -> kingdom = CornerAdapter.readSymbol(in);
+                case "frontCorners" -> frontCorners = readCorners(in);
+                case "backCorners" -> backCorners = readCorners(in);
+                case "centerSymbols" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        centerSymbols.add(CornerAdapter.readSymbol(in));
+                    }
+                    in.endArray();
+                }
+                case "requirements" -> requirements = readSymbolCounts(in);
+                case "symbol" -> symbol = CornerAdapter.readSymbol(in);
+                case "score" -> score = in.nextInt();
+                case "scorePerSymbol" -> scorePerSymbol = in.nextInt();
+                case "scorePerCorner" -> scorePerCorner = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+
+        /**
+         * Reads the corners of a side of a card.
+         *
+         * @param in the reader to read from
+         * @return the corners by position
+         * @throws IOException if an I/O error occurs or the JSON is malformed
+         */
+        private static Map<CornerPosition, Corner> readCorners(JsonReader in) throws IOException {
+            Map<CornerPosition, Corner> corners = new EnumMap<>(CornerPosition.class);
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                try {
+                    corners.put(CornerPosition.valueOf(name), cornerAdapter.read(in));
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException("Unknown corner position " + name + " at " + in.getPath());
+                }
+            }
+            in.endObject();
+            return corners;
+        }
+
+        /**
+         * Builds the card of a class from the fields read.
+         *
+         * @param type the simple name of the card class
+         * @param path the location of the card in the JSON, for the error messages
+         * @return the card
+         * @throws JsonParseException if the class is unknown or the fields do not make a valid card
+         */
+        private Card build(String type, String path) {
+            boolean starter = type.equals("StarterCard");
+            if (frontCorners == null || (starter ? backCorners == null : kingdom == null)) {
+                throw new JsonParseException("Incomplete " + type + " " + id + " at " + path);
+            }
+            try {
+                return switch (type) {
+                    case "StarterCard" -> new StarterCard(frontCorners, backCorners, centerSymbols, id);
+                    case "ResourceCard" -> new ResourceCard(kingdom, frontCorners, score, id);
+                    case "GoldCardInt" -> new GoldCardInt(kingdom, frontCorners, requirements, score, id);
+                    case "GoldCardObject" -> new GoldCardObject(kingdom, frontCorners, requirements, scorePerSymbol, symbol, id);
+                    case "GoldCardCorner" -> new GoldCardCorner(kingdom, frontCorners, requirements, scorePerCorner, id);
+                    default -> throw new JsonParseException("Unknown element type: " + type);
+                };
+            } catch (InvalidSymbolException e) {
+                throw new JsonParseException("Invalid " + type + " " + id + " at " + path + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package it.polimi.ingsw.utilities;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import it.polimi.ingsw.model.card.Corner;
+import it.polimi.ingsw.model.card.Symbol;
+
+import java.io.IOException;
+
+/**
+ * Gson streaming adapter for Corner objects, writing the same fields Gson would find by reflection.
+ */
+public class CornerAdapter extends TypeAdapter<Corner> {
+
+    /**
+     * Writes a Corner as an object with its presence and, for a present corner, its symbol.
+     *
+     * @param out the writer to write to
+     * @param corner the corner to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(JsonWriter out, Corner corner) throws IOException {
+        if (corner == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("isPresent").value(corner.IsPresent());
+        if (corner.IsPresent()) {
+            out.name("symbol").value(corner.getSymbol().name());
+        }
+        out.endObject();
+    }
+
+    /**
+     * Reads a Corner, ignoring unknown fields.
+     *
+     * @param in the reader to read from
+     * @return the corner, or null for a JSON null
+     * @throws IOException if an I/O error occurs or the JSON is malformed
+     */
+    @Override
+    public Corner read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        boolean isPresent = false;
+        Symbol symbol = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "isPresent" -> isPresent = in.nextBoolean();
+                case "symbol" -> symbol = readSymbol(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Corner(isPresent, symbol);
+    }
+
+    /**
+     * Reads a symbol written by name, or a JSON null.
+     *
+     * @param in the reader to read from
+     * @return the symbol, or null for a JSON null
+     * @throws IOException if an I/O error occurs
+     * @throws JsonParseException if the name is not a symbol
+     */
+    static Symbol readSymbol(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = in.nextString();
+        try {
+            return Symbol.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown symbol " + name + " at " + in.getPath());
+        }
+    }
+}
@@ -3,10 +3,11 @@ package it.polimi.ingsw.utilities;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import it.polimi.ingsw.exception.JsonLoadException;
-import it.polimi.ingsw.model.card.Card;
-import it.polimi.ingsw.model.card.GoldCard;
-import it.polimi.ingsw.model.card.PlayableCard;
+import it.polimi.ingsw.model.card.*;
+import it.polimi.ingsw.model.field.Position;
+import it.polimi.ingsw.model.objective.DispositionObjective;
 import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.model.objective.SymbolObjective;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -14,21 +15,34 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 
 /**
- * Utility class for creating a Gson instance configured with custom adapters for serializing and deserializing
- * PlayableCard and Objective objects.
+ * Utility class for creating Gson instances configured with custom adapters for serializing and deserializing
+ * cards, corners, positions and objectives.
+ * The adapters stream the fields directly, without reflection or intermediate trees.
  */
 public class GsonSingleton {
 
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
+    private static final Gson compactGson = new GsonBuilder()
             .registerTypeAdapter(Card.class, new CardAdapter())
             .registerTypeAdapter(PlayableCard.class, new PlayableCardAdapter())
             .registerTypeAdapter(GoldCard.class, new GoldCardAdapter())
+            .registerTypeAdapter(StarterCard.class, new CardTypeAdapter<>(StarterCard.class))
+            .registerTypeAdapter(ResourceCard.class, new CardTypeAdapter<>(ResourceCard.class))
+            .registerTypeAdapter(GoldCardInt.class, new CardTypeAdapter<>(GoldCardInt.class))
+            .registerTypeAdapter(GoldCardObject.class, new CardTypeAdapter<>(GoldCardObject.class))
+            .registerTypeAdapter(GoldCardCorner.class, new CardTypeAdapter<>(GoldCardCorner.class))
+            .registerTypeAdapter(Corner.class, new CornerAdapter())
+            .registerTypeAdapter(Position.class, new PositionAdapter())
             .registerTypeAdapter(Objective.class, new ObjectiveAdapter())
+            .registerTypeAdapter(DispositionObjective.class, new ObjectiveTypeAdapter<>(DispositionObjective.class))
+            .registerTypeAdapter(SymbolObjective.class, new ObjectiveTypeAdapter<>(SymbolObjective.class))
+            .create();
+
+    private static final Gson gson = compactGson.newBuilder()
+            .setPrettyPrinting()
             .create();
 
     /**
-     * Retrieves a Gson instance configured with custom adapters objects.
+     * Retrieves a Gson instance configured with custom adapters objects, writing indented JSON meant to be read by people.
      *
      * @return Gson instance configured with custom adapters
      */
@@ -36,6 +50,16 @@ public class GsonSingleton {
         return gson;
     }
 
+    /**
+     * Retrieves a Gson instance configured with custom adapters objects, writing JSON without any whitespace;
+     * used for everything read only by the program, such as saved games.
+     *
+     * @return compact Gson instance configured with custom adapters
+     */
+    public static Gson getCompactGson() {
+        return compactGson;
+    }
+
     public static <T> T loadJson(String filePath, Type type) throws JsonLoadException {
         if (filePath == null || filePath.isEmpty()) {
             throw new IllegalArgumentException("File path cannot be null or empty.");
@@ -47,7 +71,7 @@ public class GsonSingleton {
         }
 
         try (InputStreamReader reader = new InputStreamReader(inputStream)){
-            return gson.fromJson(reader, type);
+            return compactGson.fromJson(reader, type);
         } catch (IOException e) {
             throw new JsonLoadException("Error loading JSON from file: " + filePath + ". Error: " + e.getMessage());
         }
@@ -0,0 +1,185 @@
+package it.polimi.ingsw.utilities;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import it.polimi.ingsw.model.card.Symbol;
+import it.polimi.ingsw.model.field.Position;
+import it.polimi.ingsw.model.objective.DispositionObjective;
+import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.model.objective.SymbolObjective;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gson streaming adapter for objectives, reading and writing the fields of the objectives directly and building them
+ * through their constructors, without reflection or intermediate trees.
+ * An objective is written as an object holding the simple name of its class under "type" and its fields under "data";
+ * the fields of an objective of a concrete class may also be read on their own.
+ *
+ * @param <T> the objective type handled by the adapter
+ */
+public class ObjectiveTypeAdapter<T extends Objective> extends TypeAdapter<T> {
+    private static final PositionAdapter positionAdapter = new PositionAdapter();
+
+    private final Class<T> type;
+
+    /**
+     * Constructs an adapter for an objective type.
+     *
+     * @param type the objective type
+     */
+    public ObjectiveTypeAdapter(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Writes an objective with the name of its class.
+     *
+     * @param out the writer to write to
+     * @param objective the objective to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(JsonWriter out, T objective) throws IOException {
+        if (objective == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type").value(objective.getClass().getSimpleName());
+        out.name("data").beginObject();
+        out.name("id").value(objective.getId());
+        out.name("score").value(objective.getScore());
+        switch (objective) {
+            case DispositionObjective disposition -> {
+                out.name("patternPosition").beginArray();
+                for (Position position : disposition.getPatternPosition()) {
+                    positionAdapter.write(out, position);
+                }
+                out.endArray();
+                out.name("patternKingdom").beginArray();
+                for (Symbol symbol : disposition.getPatternKingdom()) {
+                    out.value(symbol.name());
+                }
+                out.endArray();
+            }
+            case SymbolObjective symbols -> {
+                out.name("symbols");
+                CardTypeAdapter.writeSymbolCounts(out, symbols.getSymbols());
+            }
+            default -> throw new JsonParseException("Unknown element type: " + objective.getClass().getSimpleName());
+        }
+        out.endObject();
+        out.endObject();
+    }
+
+    /**
+     * Reads an objective, either written with the name of its class or, for a concrete class, as its fields alone.
+     * The fields are read in a single pass, in any order.
+     *
+     * @param in the reader to read from
+     * @return the objective, or null for a JSON null
+     * @throws IOException if an I/O error occurs or the JSON is malformed
+     * @throws JsonParseException if the class is unknown or is not of the handled type
+     */
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String objectiveType = Modifier.isAbstract(type.getModifiers()) ? null : type.getSimpleName();
+        Fields fields = new Fields();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "type" -> objectiveType = in.nextString();
+                case "data" -> {
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        fields.read(in.nextName(), in);
+                    }
+                    in.endObject();
+                }
+                default -> fields.read(name, in);
+            }
+        }
+        in.endObject();
+
+        if (objectiveType == null) {
+            throw new JsonParseException("Missing element type at " + in.getPath());
+        }
+        Objective objective = fields.build(objectiveType);
+        if (!type.isInstance(objective)) {
+            throw new JsonParseException("Unknown element type: " + objectiveType);
+        }
+        return type.cast(objective);
+    }
+
+    /**
+     * The fields of an objective being read, collected until the class of the objective is known.
+     */
+    private static class Fields {
+        private String id;
+        private int score;
+        private final List<Position> patternPosition = new ArrayList<>();
+        private final List<Symbol> patternKingdom = new ArrayList<>();
+        private Map<Symbol, Integer> symbols = new EnumMap<>(Symbol.class);
+
+        /**
+         * Reads the value of a field, skipping unknown fields.
+         *
+         * @param name the name of the field
+         * @param in the reader positioned on the value
+         * @throws IOException if an I/O error occurs or the JSON is malformed
+         */
+        private void read(String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "id" -> id = in.nextString();
+                case "score" -> score = in.nextInt();
+                case "patternPosition" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        patternPosition.add(positionAdapter.read(in));
+                    }
+                    in.endArray();
+                }
+                case "patternKingdom" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        patternKingdom.add(CornerAdapter.readSymbol(in));
+                    }
+                    in.endArray();
+                }
+                case "symbols" -> symbols = CardTypeAdapter.readSymbolCounts(in);
+                default -> in.skipValue();
+            }
+        }
+
+        /**
+         * Builds the objective of a class from the fields read.
+         *
+         * @param type the simple name of the objective class
+         * @return the objective
+         * @throws JsonParseException if the class is unknown
+         */
+        private Objective build(String type) {
+            return switch (type) {
+                case "DispositionObjective" -> new DispositionObjective(patternPosition.toArray(new Position[0]),
+                        patternKingdom.toArray(new Symbol[0]), score, id);
+                case "SymbolObjective" -> new SymbolObjective(symbols, score, id);
+                default -> throw new JsonParseException("Unknown element type: " + type);
+            };
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package it.polimi.ingsw.utilities;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import it.polimi.ingsw.model.field.Position;
+
+import java.io.IOException;
+
+/**
+ * Gson streaming adapter for Position records, written as an object with their two coordinates.
+ */
+public class PositionAdapter extends TypeAdapter<Position> {
+
+    /**
+     * Writes a Position as an object with its coordinates.
+     *
+     * @param out the writer to write to
+     * @param position the position to write
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(JsonWriter out, Position position) throws IOException {
+        if (position == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("x").value(position.x());
+        out.name("y").value(position.y());
+        out.endObject();
+    }
+
+    /**
+     * Reads a Position, ignoring unknown fields.
+     *
+     * @param in the reader to read from
+     * @return the position, or null for a JSON null
+     * @throws IOException if an I/O error occurs or the JSON is malformed
+     */
+    @Override
+    public Position read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int x = 0;
+        int y = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "x" -> x = in.nextInt();
+                case "y" -> y = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Position(x, y);
+    }
+}
@@ -5,6 +5,7 @@ import it.polimi.ingsw.message.*;
 import it.polimi.ingsw.message.error.ErrorMessage;
 import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
 import it.polimi.ingsw.message.lobby.LobbyInfoMessage;
+import it.polimi.ingsw.message.lobby.LobbyUpdateMessage;
 import it.polimi.ingsw.message.lobby.PlayerJoinedLobbyMessage;
 import it.polimi.ingsw.message.lobby.PlayerLeftLobbyMessage;
 import it.polimi.ingsw.message.notify.*;
@@ -251,6 +252,9 @@ public abstract class View {
             case LOBBY_INFO:
                 onLobbyInfoMessage((LobbyInfoMessage) m);
                 break;
+            case LOBBY_UPDATE:
+                onLobbyUpdateMessage((LobbyUpdateMessage) m);
+                break;
             case PLAYER_JOINED_LOBBY:
                 onPlayerJoinedMessage((PlayerJoinedLobbyMessage) m);
                 break;
@@ -343,6 +347,7 @@ public abstract class View {
     protected void onErrorMessage(ErrorMessage m){}
     protected void onGetLobbiesMessage(GetLobbiesResponseMessage m){}
     protected void onLobbyInfoMessage(LobbyInfoMessage m){}
+    protected void onLobbyUpdateMessage(LobbyUpdateMessage m){}
     protected void onPlayerJoinedMessage(PlayerJoinedLobbyMessage m){}
     protected void onPlayerLeftMessage(PlayerLeftLobbyMessage m){}
     protected void onChatMessage(ChatMessage m){}
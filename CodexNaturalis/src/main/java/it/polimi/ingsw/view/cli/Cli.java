@@ -1296,6 +1296,10 @@ public class Cli extends View {
     protected void onNotifyTurnMessage(NotifyTurn notifyMsg) {
         if(notifyMsg.getColor() == getGameState().getPlayers().get(getGameState().getUser())){
             cmdWin.addLine("It's your turn!!");
+            if(!notifyMsg.getAvailablePositions().isEmpty()){
+                cmdWin.addLine("You can place a card at " + notifyMsg.getAvailablePositions().stream()
+                        .map(p -> "(" + p.x() + ", " + p.y() + ")").collect(Collectors.joining(" ")));
+            }
         } else {
             cmdWin.addLine("It's " + Draw.getColor(notifyMsg.getColor()) + getGameState().getName(notifyMsg.getColor()) + ANSI.RESET + " turn!!");
         }
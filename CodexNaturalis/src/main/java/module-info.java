@@ -24,6 +24,7 @@ module it.polimi.ingsw.view.gui {
 
     exports it.polimi.ingsw.network.client;
     exports it.polimi.ingsw.network.server;
+    exports it.polimi.ingsw.network.codec;
 
     exports it.polimi.ingsw.message;
     exports it.polimi.ingsw.message.notify;
@@ -0,0 +1,142 @@
+package it.polimi.ingsw.gamestate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ActionJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private CommitLog commitLog;
+
+    @After
+    public void tearDown() {
+        commitLog.close();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.newFolder("games");
+        commitLog = new CommitLog(directory);
+    }
+
+    @Test
+    public void recoversActionsAfterCheckpoint() {
+        try (ActionJournal journal = new ActionJournal(commitLog, 1, false)) {
+            journal.append("SEED", 42L);
+            journal.append("PLAY", "RED", 0, 1, -1, true);
+            journal.append("DRAW", "RED", "MARKET", 2);
+        }
+
+        try (ActionJournal journal = new ActionJournal(commitLog, 1, true)) {
+            List<ActionJournal.Entry> entries = journal.getEntriesAfter(1);
+            assertEquals(2, entries.size());
+            assertEquals("PLAY", entries.get(0).action());
+            assertEquals(-1, entries.get(0).intArg(3));
+            assertEquals("true", entries.get(0).arg(4));
+            assertEquals(2, entries.get(1).intArg(2));
+            assertEquals(3, journal.getLastSeq());
+
+            assertEquals(4L, (long) journal.append("DRAW", "BLUE", "GOLD").join());
+        }
+    }
+
+    @Test
+    public void dropsTornLastLine() throws Exception {
+        try (ActionJournal journal = new ActionJournal(commitLog, 2, false)) {
+            journal.append("DRAW", "RED", "GOLD").join();
+        }
+        commitLog.close();
+        File log = new File(directory, "commit.log");
+        Files.writeString(log.toPath(), "2 2 PLAY RE", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        commitLog = new CommitLog(directory);
+        try (ActionJournal journal = new ActionJournal(commitLog, 2, true)) {
+            assertEquals(1, journal.getEntriesAfter(0).size());
+            journal.append("DRAW", "BLUE", "RESOURCE").join();
+        }
+
+        assertEquals("2 1 DRAW RED GOLD\n2 2 DRAW BLUE RESOURCE\n",
+                Files.readString(log.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void discardedActionsAreNotRecovered() {
+        try (ActionJournal journal = new ActionJournal(commitLog, 3, false)) {
+            journal.append("DRAW", "RED", "GOLD");
+            journal.append("PLAY", "BLUE", 1, 1, 1, false);
+        }
+
+        try (ActionJournal journal = new ActionJournal(commitLog, 3, true)) {
+            journal.discardFrom(2);
+            assertEquals(1, journal.getLastSeq());
+            journal.append("PLAY", "BLUE", 0, -1, 1, true);
+        }
+
+        try (ActionJournal journal = new ActionJournal(commitLog, 3, true)) {
+            List<ActionJournal.Entry> entries = journal.getEntriesAfter(0);
+            assertEquals(2, entries.size());
+            assertEquals(0, entries.get(1).intArg(1));
+        }
+    }
+
+    @Test
+    public void truncatedActionsAreNotRecovered() throws Exception {
+        try (ActionJournal journal = new ActionJournal(commitLog, 5, false)) {
+            journal.append("DRAW", "RED", "GOLD");
+            journal.append("PLAY", "BLUE", 1, 1, 1, false);
+            journal.append("DRAW", "BLUE", "RESOURCE").join();
+            journal.truncate(2);
+            assertEquals(3, journal.getLastSeq());
+            assertEquals(1, commitLog.getActions(5).size());
+        }
+        commitLog.close();
+
+        commitLog = new CommitLog(directory);
+        try (ActionJournal journal = new ActionJournal(commitLog, 5, true)) {
+            List<ActionJournal.Entry> entries = journal.getEntriesAfter(0);
+            assertEquals(1, entries.size());
+            assertEquals(3, entries.get(0).seq());
+            assertEquals(4L, (long) journal.append("PLAY", "RED", 0, 1, 1, true).join());
+        }
+    }
+
+    @Test
+    public void deletesJournalsWithoutCheckpoint() throws Exception {
+        try (ActionJournal journal = new ActionJournal(commitLog, 6, false)) {
+            journal.append("SEED", 42L);
+        }
+        try (ActionJournal journal = new ActionJournal(commitLog, 7, false)) {
+            journal.append("SEED", 7L).join();
+        }
+
+        assertEquals(1, ActionJournal.deleteAllExcept(commitLog, Set.of(7)));
+        assertEquals(Set.of(7), commitLog.getIds());
+        commitLog.close();
+
+        commitLog = new CommitLog(directory);
+        assertTrue(commitLog.getActions(6).isEmpty());
+        assertEquals(1, commitLog.getActions(7).size());
+    }
+
+    @Test
+    public void missingDirectoryDisablesJournal() {
+        try (ActionJournal journal = new ActionJournal(new CommitLog(new File(directory, "missing")), 4, false)) {
+            assertEquals(1L, (long) journal.append("SEED", 7L).join());
+        }
+        assertFalse(new File(directory, "missing").exists());
+    }
+}
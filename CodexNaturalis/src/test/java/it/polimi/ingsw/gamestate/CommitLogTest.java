@@ -0,0 +1,120 @@
+package it.polimi.ingsw.gamestate;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class CommitLogTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void batchesActionsOfManyMatches() throws Exception {
+        CommitLog commitLog = new CommitLog(folder.getRoot());
+        List<CompletableFuture<Void>> synced = new ArrayList<>();
+
+        for (int i = 1; i <= 1000; i++) {
+            for (int id = 0; id < 4; id++) {
+                synced.add(commitLog.append(id, i, "DRAW RED GOLD " + i));
+            }
+        }
+        CompletableFuture.allOf(synced.toArray(new CompletableFuture[0])).join();
+        commitLog.close();
+
+        assertEquals(4000, commitLog.getChanges());
+        assertTrue(commitLog.getBatches() < commitLog.getChanges());
+        assertEquals(commitLog.getBatches(), commitLog.getSyncs());
+
+        CommitLog reopened = new CommitLog(folder.getRoot());
+        for (int id = 0; id < 4; id++) {
+            List<String> actions = reopened.getActions(id);
+            assertEquals(1000, actions.size());
+            assertEquals("1000 DRAW RED GOLD 1000", actions.get(999));
+        }
+        reopened.close();
+    }
+
+    @Test
+    public void discardDropsActionsOfOneMatch() throws Exception {
+        CommitLog commitLog = new CommitLog(folder.getRoot());
+        commitLog.append(1, 1, "SEED 42");
+        commitLog.append(2, 1, "SEED 7");
+        commitLog.append(1, 2, "DRAW RED GOLD");
+        commitLog.discard(1, 2);
+        commitLog.discard(2, 1).join();
+        commitLog.close();
+
+        CommitLog reopened = new CommitLog(folder.getRoot());
+        assertEquals(List.of("1 SEED 42"), reopened.getActions(1));
+        assertTrue(reopened.getActions(2).isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    public void compactsTruncatedActions() throws Exception {
+        CommitLog commitLog = new CommitLog(folder.getRoot());
+        List<CompletableFuture<Void>> synced = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            synced.add(commitLog.append(1, i, "DRAW RED GOLD " + i));
+        }
+        CompletableFuture.allOf(synced.toArray(new CompletableFuture[0])).join();
+
+        commitLog.truncate(1, 4990);
+        assertEquals(10, commitLog.getActions(1).size());
+        commitLog.append(1, 5001, "DRAW RED GOLD 5001").join();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (commitLog.getCompactions() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, commitLog.getCompactions());
+        assertEquals(11, commitLog.getLines());
+        assertEquals(11, Files.readAllLines(folder.getRoot().toPath().resolve("commit.log")).size());
+
+        commitLog.append(1, 5002, "DRAW RED GOLD 5002").join();
+        commitLog.close();
+
+        CommitLog reopened = new CommitLog(folder.getRoot());
+        List<String> actions = reopened.getActions(1);
+        assertEquals(12, actions.size());
+        assertEquals("4991 DRAW RED GOLD 4991", actions.get(0));
+        assertEquals("5002 DRAW RED GOLD 5002", actions.get(11));
+        reopened.close();
+    }
+
+    @Test
+    public void failsAfterClose() {
+        CommitLog commitLog = new CommitLog(folder.getRoot());
+        commitLog.append(1, 1, "SEED 42").join();
+        commitLog.close();
+
+        try {
+            commitLog.append(1, 2, "DRAW RED GOLD").join();
+            fail("An action appended to a closed log was reported as synced");
+        } catch (CompletionException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void failsWithoutDirectory() {
+        CommitLog commitLog = new CommitLog(new File(folder.getRoot(), "missing"));
+        assertFalse(commitLog.isEnabled());
+        try {
+            commitLog.append(1, 1, "SEED 42").join();
+            fail("An action appended without a directory was reported as synced");
+        } catch (CompletionException e) {
+            // expected
+        }
+        commitLog.close();
+    }
+}
@@ -0,0 +1,124 @@
+package it.polimi.ingsw.gamestate;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SlotStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("snapshots.db");
+    }
+
+    private static byte[] data(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + seed);
+        }
+        return data;
+    }
+
+    @Test
+    public void replacesAndReusesSlots() throws Exception {
+        try (SlotStore store = new SlotStore(file, 128, 8)) {
+            store.put(1, data(200, 1));
+            store.put(2, data(50, 2));
+            int free = store.getFreeSlots();
+
+            store.put(1, data(300, 3));
+            assertArrayEquals(data(300, 3), store.get(1));
+            assertArrayEquals(data(50, 2), store.get(2));
+            assertEquals(free - 1, store.getFreeSlots());
+
+            store.remove(1);
+            assertNull(store.get(1));
+            assertEquals(Set.of(2), store.getIds());
+            assertEquals(7, store.getFreeSlots());
+            assertEquals(8, store.getSlotCount());
+        }
+    }
+
+    @Test
+    public void growsWhenFull() throws Exception {
+        try (SlotStore store = new SlotStore(file, 64, 2)) {
+            store.put(1, data(1000, 1));
+            store.put(2, data(1000, 2));
+            assertTrue(store.getSlotCount() > 2);
+            assertArrayEquals(data(1000, 1), store.get(1));
+            assertArrayEquals(data(1000, 2), store.get(2));
+        }
+    }
+
+    @Test
+    public void recoversAfterReopening() throws Exception {
+        try (SlotStore store = new SlotStore(file, 128, 4)) {
+            store.put(1, data(500, 1));
+            store.put(2, data(10, 2));
+            store.put(1, data(20, 3));
+            store.remove(2);
+            store.put(3, data(0, 4));
+        }
+
+        try (SlotStore store = new SlotStore(file, 4096, 1)) {
+            assertEquals(Set.of(1, 3), store.getIds());
+            assertArrayEquals(data(20, 3), store.get(1));
+            assertEquals(0, store.get(3).length);
+            assertEquals(store.getSlotCount() - 2, store.getFreeSlots());
+        }
+    }
+
+    @Test
+    public void corruptedSnapshotFallsBackToPrevious() throws Exception {
+        try (SlotStore store = new SlotStore(file, 128, 4)) {
+            store.put(1, data(50, 1));
+        }
+
+        // a newer head of the same match whose content does not match its checksum, as left by a torn write
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(64 + 128 * 3);
+            raw.writeInt(1);
+            raw.writeInt(1);
+            raw.writeLong(99);
+            raw.writeInt(50);
+            raw.writeInt(-1);
+            raw.writeInt(0);
+        }
+
+        try (SlotStore store = new SlotStore(file, 128, 4)) {
+            assertTrue(Arrays.equals(data(50, 1), store.get(1)));
+            assertEquals(3, store.getFreeSlots());
+            store.put(2, data(10, 2));
+            assertArrayEquals(data(10, 2), store.get(2));
+        }
+    }
+
+    @Test
+    public void labelIsKeptApartFromSnapshot() throws Exception {
+        try (SlotStore store = new SlotStore(file, 128, 4)) {
+            store.put(1, data(20, 5), data(300, 1));
+            store.put(2, data(10, 6));
+            assertArrayEquals(data(20, 5), store.getLabel(1));
+            assertArrayEquals(data(300, 1), store.get(1));
+            assertEquals(0, store.getLabel(2).length);
+            assertNull(store.getLabel(3));
+        }
+
+        try (SlotStore store = new SlotStore(file, 128, 4)) {
+            assertArrayEquals(data(20, 5), store.getLabel(1));
+            assertArrayEquals(data(300, 1), store.get(1));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package it.polimi.ingsw.gamestate;
+
+import com.google.gson.reflect.TypeToken;
+import it.polimi.ingsw.model.card.PlayableCard;
+import it.polimi.ingsw.model.card.StarterCard;
+import it.polimi.ingsw.model.field.PlayerField;
+import it.polimi.ingsw.model.game.GoldDeck;
+import it.polimi.ingsw.model.game.ResourceDeck;
+import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.model.player.PlayerColor;
+import it.polimi.ingsw.utilities.GsonSingleton;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SnapshotWriterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private SnapshotWriter writer;
+    private GoldDeck goldDeck;
+    private ResourceDeck resourceDeck;
+    private PlayableCard[] market;
+    private PlayableCard[] hand;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.newFolder("games");
+        writer = new SnapshotWriter(directory);
+        goldDeck = new GoldDeck();
+        resourceDeck = new ResourceDeck();
+        market = new PlayableCard[]{resourceDeck.draw(), resourceDeck.draw(), goldDeck.draw(), goldDeck.draw()};
+        hand = new PlayableCard[]{resourceDeck.draw(), resourceDeck.draw(), goldDeck.draw()};
+    }
+
+    private ServerGameState state(PlayerColor current, boolean lastLap) throws Exception {
+        List<StarterCard> starters = GsonSingleton.loadJson("/starterCards.json", new TypeToken<List<StarterCard>>() {}.getType());
+        List<Objective> objectives = GsonSingleton.loadJson("/objectiveCards.json", new TypeToken<List<Objective>>() {}.getType());
+        PlayerField field = new PlayerField();
+        field.placeStarterCard(starters.getFirst(), true);
+
+        return new ServerGameState(1, List.of(PlayerColor.RED), List.of("alice"), List.of(field), List.of(0),
+                List.of(objectives.get(0)), List.<PlayableCard[]>of(hand), new Objective[]{objectives.get(1), objectives.get(2)},
+                goldDeck, resourceDeck, market, current, lastLap, 0);
+    }
+
+    private ServerGameState read(int id) throws IOException {
+        return ServerGameState.decode(writer.read(id));
+    }
+
+    @Test
+    public void writesLatestSnapshot() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            writer.submit(1, state(PlayerColor.RED, false));
+        }
+        writer.submit(1, state(PlayerColor.RED, true));
+        writer.flush();
+
+        assertTrue(read(1).isLastLap());
+        assertEquals(Set.of(1), writer.getSavedIds());
+        assertEquals(Map.of(1, List.of("alice")), writer.getSavedPlayers());
+        assertEquals(0, writer.getPending());
+        assertTrue(writer.getMaxLag() >= writer.getLastLag());
+    }
+
+    @Test
+    public void snapshotIsDetachedFromLiveDecks() throws Exception {
+        ServerGameState snapshot = state(PlayerColor.RED, false);
+        while (!goldDeck.isEmpty()) {
+            goldDeck.draw();
+        }
+        market[0] = null;
+
+        writer.submit(1, snapshot);
+        writer.flush();
+
+        assertFalse(read(1).getGoldDeck().isEmpty());
+        assertNotNull(read(1).getMarket()[0]);
+    }
+
+    @Test
+    public void deleteSupersedesPendingSnapshot() throws Exception {
+        writer.submit(2, state(PlayerColor.RED, false));
+        writer.flush();
+        assertTrue(writer.getSavedIds().contains(2));
+
+        writer.submit(2, state(PlayerColor.RED, false));
+        writer.delete(2);
+        writer.flush();
+        assertFalse(writer.getSavedIds().contains(2));
+    }
+
+    @Test
+    public void snapshotReferencesCardsById() throws Exception {
+        ServerGameState snapshot = state(PlayerColor.RED, false);
+        StringWriter saved = new StringWriter();
+        snapshot.write(saved);
+        assertTrue(saved.toString().startsWith("{\"version\":" + ServerGameState.FORMAT_VERSION));
+
+        ServerGameState decoded = ServerGameState.decode(saved.toString().getBytes(StandardCharsets.UTF_8));
+        assertEquals(snapshot.getGoldDeck().getCards().stream().map(PlayableCard::getId).toList(),
+                decoded.getGoldDeck().getCards().stream().map(PlayableCard::getId).toList());
+        assertEquals(market[2].getId(), decoded.getMarket()[2].getId());
+        assertEquals(hand[0].getId(), decoded.getHands().getFirst()[0].getId());
+
+        StringWriter legacy = new StringWriter();
+        GsonSingleton.getGson().toJson(snapshot, legacy);
+        assertTrue(saved.toString().length() * 4 < legacy.toString().length());
+        assertEquals(market[2].getId(), ServerGameState.decode(legacy.toString().getBytes(StandardCharsets.UTF_8)).getMarket()[2].getId());
+    }
+
+    @Test
+    public void importsLegacyGames() throws Exception {
+        for (String name : List.of("3.json", "info.json")) {
+            try (InputStream in = getClass().getResourceAsStream("/legacy/" + name)) {
+                Files.copy(in, new File(directory, name).toPath());
+            }
+        }
+
+        assertEquals(1, writer.importLegacy());
+        assertEquals(Map.of(3, List.of("bob", "alice")), writer.getSavedPlayers());
+        assertFalse(new File(directory, "3.json").exists());
+        assertFalse(new File(directory, "info.json").exists());
+
+        ServerGameState imported = read(3);
+        assertEquals(List.of(PlayerColor.BLUE, PlayerColor.GREEN), imported.getGameOrder());
+        assertEquals(PlayerColor.BLUE, imported.getCurrentPlayer());
+        assertEquals(0, imported.getJournalSeq());
+        assertFalse(imported.getGoldDeck().isEmpty());
+        assertEquals(3, imported.getHands().getFirst().length);
+        assertEquals(2, imported.getCommonObjectives().length);
+    }
+
+    @Test
+    public void keepsLegacyGamesThatFailToImport() throws Exception {
+        Files.writeString(new File(directory, "4.json").toPath(), "{\"players\": [", StandardCharsets.UTF_8);
+        Files.writeString(new File(directory, "info.json").toPath(), "{\"4\": [\"alice\"]}", StandardCharsets.UTF_8);
+
+        assertEquals(0, writer.importLegacy());
+        assertTrue(writer.getSavedIds().isEmpty());
+        assertTrue(new File(directory, "4.json").exists());
+        assertTrue(new File(directory, "info.json").exists());
+    }
+}
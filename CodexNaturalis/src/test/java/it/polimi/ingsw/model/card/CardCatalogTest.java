@@ -0,0 +1,74 @@
+package it.polimi.ingsw.model.card;
+
+import it.polimi.ingsw.exception.JsonLoadException;
+import it.polimi.ingsw.model.game.GoldDeck;
+import it.polimi.ingsw.model.game.ResourceDeck;
+import it.polimi.ingsw.model.objective.Objective;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for testing the functionalities of {@link CardCatalog}.
+ */
+public class CardCatalogTest {
+
+    private CardCatalog catalog;
+
+    /**
+     * Gets the catalog shared by the tests.
+     *
+     * @throws JsonLoadException if there's an issue loading JSON data.
+     */
+    @Before
+    public void setUp() throws JsonLoadException {
+        catalog = CardCatalog.getInstance();
+    }
+
+    /**
+     * Verifies that every resource is loaded and that the catalog is loaded only once.
+     */
+    @Test
+    public void loadsEveryCardOnce() throws JsonLoadException {
+        assertEquals(40, catalog.getGoldCards().size());
+        assertEquals(40, catalog.getResourceCards().size());
+        assertEquals(6, catalog.getStarterCards().size());
+        assertEquals(16, catalog.getObjectives().size());
+        assertSame(catalog, CardCatalog.getInstance());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getGoldCards().clear());
+    }
+
+    /**
+     * Verifies that cards and objectives are found by their ID.
+     */
+    @Test
+    public void looksUpById() {
+        for (StarterCard card : catalog.getStarterCards()) {
+            assertSame(card, catalog.getCard(card.getId()));
+        }
+        for (Objective objective : catalog.getObjectives()) {
+            assertSame(objective, catalog.getObjective(objective.getId()));
+        }
+        assertNull(catalog.getCard("999"));
+        assertNull(catalog.getObjective("999"));
+    }
+
+    /**
+     * Verifies that different decks share the same card instances in their own order.
+     */
+    @Test
+    public void decksShareCards() throws Exception {
+        GoldDeck first = new GoldDeck();
+        GoldDeck second = new GoldDeck();
+        second.shuffle(new Random(1));
+
+        assertNotEquals(first.getCards(), second.getCards());
+        for (PlayableCard card : second.getCards()) {
+            assertSame(card, catalog.getCard(card.getId()));
+        }
+        assertSame(catalog.getCard(new ResourceDeck().draw().getId()), new ResourceDeck().draw());
+    }
+}
@@ -0,0 +1,74 @@
+package it.polimi.ingsw.model.card;
+
+import it.polimi.ingsw.exception.JsonLoadException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for testing the functionalities of {@link PackedCorners}.
+ */
+public class PackedCornersTest {
+
+    /**
+     * Verifies that each corner is packed with its presence and symbol.
+     */
+    @Test
+    public void packsEachCorner() {
+        Map<CornerPosition, Corner> corners = new EnumMap<>(CornerPosition.class);
+        corners.put(CornerPosition.TOP_LEFT, new Corner(true, Symbol.QUILL));
+        corners.put(CornerPosition.TOP_RIGHT, new Corner(false, null));
+        corners.put(CornerPosition.BOTTOM_LEFT, new Corner(true, Symbol.EMPTY));
+        corners.put(CornerPosition.BOTTOM_RIGHT, new Corner(true, Symbol.QUILL));
+        int packed = PackedCorners.pack(corners);
+
+        assertEquals(Symbol.QUILL.ordinal(), PackedCorners.symbol(packed, CornerPosition.TOP_LEFT));
+        assertFalse(PackedCorners.isPresent(packed, CornerPosition.TOP_RIGHT));
+        assertEquals(-1, PackedCorners.symbol(packed, CornerPosition.TOP_RIGHT));
+        assertTrue(PackedCorners.isPresent(packed, CornerPosition.BOTTOM_LEFT));
+        assertEquals(Symbol.EMPTY.ordinal(), PackedCorners.symbol(packed, CornerPosition.BOTTOM_LEFT));
+        assertEquals(2, PackedCorners.count(packed, Symbol.QUILL));
+        assertEquals(CornerPosition.BOTTOM_RIGHT, PackedCorners.opposite(CornerPosition.TOP_LEFT));
+        assertEquals(CornerPosition.BOTTOM_LEFT, PackedCorners.opposite(CornerPosition.TOP_RIGHT));
+    }
+
+    /**
+     * Verifies that the packed corners and symbol counts of every card agree with its corner objects and symbols.
+     *
+     * @throws JsonLoadException if there's an issue loading JSON data.
+     */
+    @Test
+    public void agreesWithCornerObjects() throws JsonLoadException {
+        CardCatalog catalog = CardCatalog.getInstance();
+        List<Card> cards = new ArrayList<>();
+        cards.addAll(catalog.getResourceCards());
+        cards.addAll(catalog.getGoldCards());
+        cards.addAll(catalog.getStarterCards());
+
+        for (Card card : cards) {
+            for (boolean isFront : new boolean[]{true, false}) {
+                int packed = card.getPackedCorners(isFront);
+                for (CornerPosition position : CornerPosition.values()) {
+                    Corner corner = card.getCorner(position, isFront);
+                    assertEquals(card.getId(), corner.IsPresent(), PackedCorners.isPresent(packed, position));
+                    if (corner.IsPresent()) {
+                        assertEquals(card.getId(), corner.getSymbol().ordinal(), PackedCorners.symbol(packed, position));
+                    }
+                }
+
+                int[] expected = new int[PackedCorners.SYMBOLS];
+                for (Symbol symbol : card.getSymbolsOnSide(isFront)) {
+                    expected[symbol.ordinal()]++;
+                }
+                int[] counts = new int[PackedCorners.SYMBOLS];
+                card.addSymbolsOnSide(counts, isFront);
+                assertArrayEquals(card.getId(), expected, counts);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package it.polimi.ingsw.model.field;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PlacementIndexTest {
+
+    @Test
+    public void findsPlacementsAcrossGrowth() {
+        PlacementIndex index = new PlacementIndex();
+        for (int x = -20; x <= 20; x++) {
+            for (int y = -20 + Math.abs(x) % 2; y <= 20; y += 2) {
+                index.put(new CardPlacement(true, new Position(x, y), null));
+            }
+        }
+        assertEquals(841, index.size());
+
+        for (int x = -20; x <= 20; x++) {
+            for (int y = -20; y <= 20; y++) {
+                CardPlacement placement = index.get(x, y);
+                if ((x + y) % 2 == 0) {
+                    assertEquals(new Position(x, y), placement.getPosition());
+                } else {
+                    assertNull(placement);
+                }
+            }
+        }
+        assertNull(index.get(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void replacesPlacementAtSamePosition() {
+        PlacementIndex index = new PlacementIndex();
+        index.put(new CardPlacement(true, new Position(0, 0), null));
+        CardPlacement back = new CardPlacement(false, new Position(0, 0), null);
+        index.put(back);
+
+        assertEquals(1, index.size());
+        assertSame(back, index.get(0, 0));
+    }
+}
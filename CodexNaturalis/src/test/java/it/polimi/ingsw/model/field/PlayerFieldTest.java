@@ -8,6 +8,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -81,7 +82,7 @@ public class PlayerFieldTest {
     public void placeStarterCard() throws InvalidSymbolException {
         StarterCard starterCard = createStarterCard();
         playerField.placeStarterCard(starterCard, true);
-        ArrayList<CardPlacement> res = playerField.getCards();
+        List<CardPlacement> res = playerField.getCards();
         assertEquals(starterCard, res.getFirst().getCard());
         assertEquals(1, res.size());
     }
@@ -110,7 +111,7 @@ public class PlayerFieldTest {
         Position position3 = new Position(0,2);
         playerField.placeCard(playableCard3, true, position3);
 
-        ArrayList<CardPlacement> res = playerField.getCards();
+        List<CardPlacement> res = playerField.getCards();
         assertEquals(starterCard, res.get(0).getCard());
         assertEquals(playableCard1, res.get(1).getCard());
         assertEquals(playableCard2, res.get(2).getCard());
@@ -162,6 +163,83 @@ public class PlayerFieldTest {
         assertFalse(playerField.isCardPlaceableAt(position4));
     }
 
+    @Test
+    public void getAvailablePositions() throws InvalidSymbolException {
+        Map<CornerPosition, Corner> frontCorners = new HashMap<>();
+        frontCorners.put(CornerPosition.TOP_LEFT, new Corner(true, Symbol.EMPTY));
+        frontCorners.put(CornerPosition.TOP_RIGHT, new Corner(true, Symbol.EMPTY));
+        frontCorners.put(CornerPosition.BOTTOM_LEFT, new Corner(false, null));
+        frontCorners.put(CornerPosition.BOTTOM_RIGHT, new Corner(false, null));
+        StarterCard starterCard = new StarterCard(frontCorners, frontCorners, new ArrayList<>(), "000");
+        playerField.placeStarterCard(starterCard, true);
+        assertEquals(List.of(new Position(-1, 1), new Position(1, 1)), playerField.getAvailablePositions());
+
+        Map<CornerPosition, Corner> frontCorners1 = new HashMap<>();
+        frontCorners1.put(CornerPosition.TOP_LEFT, new Corner(true, Symbol.INKWELL));
+        frontCorners1.put(CornerPosition.TOP_RIGHT, new Corner(false, null));
+        frontCorners1.put(CornerPosition.BOTTOM_LEFT, new Corner(true, Symbol.FUNGI));
+        frontCorners1.put(CornerPosition.BOTTOM_RIGHT, new Corner(true, Symbol.ANIMAL));
+        playerField.placeCard(new ResourceCard(Symbol.FUNGI, frontCorners1, 0, "000"), true, new Position(1, 1));
+
+        // (1, 1) is taken, (2, 2) is touched by a missing corner and (1, -1) stays blocked by the starter card.
+        assertEquals(List.of(new Position(-1, 1), new Position(0, 2), new Position(2, 0)), playerField.getAvailablePositions());
+        for (Position pos : playerField.getAvailablePositions()) {
+            assertTrue(playerField.isCardPlaceableAt(pos));
+        }
+        assertFalse(playerField.isCardPlaceableAt(new Position(2, 2)));
+        assertFalse(playerField.isCardPlaceableAt(new Position(1, -1)));
+    }
+
+    @Test
+    public void snapshot() throws InvalidSymbolException {
+        playerField.placeStarterCard(createStarterCard(), true);
+        PlayerField snapshot = playerField.snapshot();
+        List<CardPlacement> cards = playerField.getCards();
+        int fungi = playerField.getSymbolNum(Symbol.FUNGI);
+
+        Map<CornerPosition, Corner> frontCorners = new HashMap<>();
+        frontCorners.put(CornerPosition.TOP_LEFT, new Corner(true, Symbol.INKWELL));
+        frontCorners.put(CornerPosition.TOP_RIGHT, new Corner(false, null));
+        frontCorners.put(CornerPosition.BOTTOM_LEFT, new Corner(true, Symbol.FUNGI));
+        frontCorners.put(CornerPosition.BOTTOM_RIGHT, new Corner(true, Symbol.ANIMAL));
+        PlayableCard card1 = new ResourceCard(Symbol.FUNGI, frontCorners, 0, "001");
+        PlayableCard card2 = new ResourceCard(Symbol.ANIMAL, frontCorners, 0, "002");
+        playerField.placeCard(card1, true, new Position(1, 1));
+
+        // The snapshot and the lists taken before do not see the cards placed afterwards.
+        assertEquals(1, snapshot.getCards().size());
+        assertEquals(1, cards.size());
+        assertEquals(fungi, snapshot.getSymbolNum(Symbol.FUNGI));
+        assertEquals(fungi + 1, playerField.getSymbolNum(Symbol.FUNGI));
+        assertEquals(0, snapshot.getSymbolNum(Symbol.INKWELL));
+        assertNull(snapshot.getCardAt(new Position(1, 1)));
+        assertEquals(1, playerField.getSymbolNum(Symbol.INKWELL));
+
+        // Placing a card on the snapshot does not affect the original field.
+        snapshot.placeCard(card2, false, new Position(1, 1));
+        assertSame(card2, snapshot.getCards().get(1).getCard());
+        assertSame(card1, playerField.getCards().get(1).getCard());
+        assertSame(card1, playerField.getCardAt(new Position(1, 1)).getCard());
+        assertEquals(2, playerField.getCards().size());
+    }
+
+    @Test
+    public void getCoveredCorner() throws InvalidSymbolException {
+        StarterCard starterCard = createStarterCard();
+        playerField.placeStarterCard(starterCard, true);
+
+        Position pos = new Position(1, 1);
+        assertSame(starterCard.getCorner(CornerPosition.TOP_RIGHT, true), playerField.getCoveredCorner(pos, CornerPosition.BOTTOM_LEFT));
+        assertNull(playerField.getCoveredCorner(pos, CornerPosition.TOP_LEFT));
+        assertNull(playerField.getCoveredCorner(pos, CornerPosition.TOP_RIGHT));
+        assertNull(playerField.getCoveredCorner(pos, CornerPosition.BOTTOM_RIGHT));
+
+        assertSame(starterCard, playerField.getCardAt(new Position(0, 0)).getCard());
+        assertNull(playerField.getCardAt(pos));
+        assertSame(starterCard.getCorner(CornerPosition.BOTTOM_LEFT, true),
+                playerField.getCoveredCorner(new Position(-1, -1), CornerPosition.TOP_RIGHT));
+    }
+
     @Test
     public void getSymbolNum() throws InvalidSymbolException {
         StarterCard starterCard = createStarterCard();
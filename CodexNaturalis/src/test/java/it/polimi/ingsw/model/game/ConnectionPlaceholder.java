@@ -4,6 +4,9 @@ import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.message.Message;
 import it.polimi.ingsw.network.server.Connection;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * A placeholder implementation of the Connection interface used for testing.
  * This class initializes a Controller instance and provides stubs for connection-related methods.
@@ -11,23 +14,46 @@ import it.polimi.ingsw.network.server.Connection;
  */
 public class ConnectionPlaceholder implements Connection {
     private final Controller c;
+    private final String username;
+    private final List<Message> received = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a new ConnectionPlaceholder instance for testing.
      * Initializes a Controller with a reference to this connection.
      */
     public ConnectionPlaceholder(){
+        this("");
+    }
+
+    /**
+     * Constructs a new ConnectionPlaceholder instance for testing, logged with the given username.
+     *
+     * @param username The username of the connection.
+     */
+    public ConnectionPlaceholder(String username){
+        this.username = username;
         c = new Controller(this);
     }
 
     @Override
-    public void send(Message m) {}
+    public void send(Message m) {
+        received.add(m);
+    }
+
+    /**
+     * Gets the messages sent to this connection, in order.
+     *
+     * @return The received messages.
+     */
+    public List<Message> getReceived(){
+        return received;
+    }
 
     @Override
     public void setUsername(String username){}
 
     @Override
-    public String getUsername(){ return ""; }
+    public String getUsername(){ return username; }
 
     @Override
     public void close(){}
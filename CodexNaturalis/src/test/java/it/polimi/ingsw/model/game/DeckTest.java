@@ -121,14 +121,14 @@ public class DeckTest {
     public void shuffle() {
         // initial order of cards
         Collection<PlayableCard> initialOrder = new Stack<>();
-        initialOrder.addAll(deck.cards);
+        initialOrder.addAll(deck.getCards());
 
         // Shuffle the deck
         deck.shuffle();
 
         // shuffled order of cards
         Collection<PlayableCard> shuffledOrder = new Stack<>();
-        shuffledOrder.addAll(deck.cards);
+        shuffledOrder.addAll(deck.getCards());
 
         assertNotEquals(initialOrder, shuffledOrder);
         assertEquals(initialOrder.size(), shuffledOrder.size());
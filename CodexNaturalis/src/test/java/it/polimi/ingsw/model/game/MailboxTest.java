@@ -0,0 +1,132 @@
+package it.polimi.ingsw.model.game;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MailboxTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void runsCommandsInOrderWithoutOverlap() throws InterruptedException {
+        Mailbox mailbox = new Mailbox(executor);
+        List<Integer> executed = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1000);
+
+        Thread[] senders = new Thread[4];
+        for (int t = 0; t < senders.length; t++) {
+            int base = t * 250;
+            senders[t] = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    int value = base + i;
+                    mailbox.execute(() -> {
+                        assertEquals(1, running.incrementAndGet());
+                        executed.add(value);
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            });
+            senders[t].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1000, executed.size());
+        for (int t = 0; t < senders.length; t++) {
+            int last = -1;
+            for (int value : executed) {
+                if (value / 250 == t) {
+                    assertTrue(value > last);
+                    last = value;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void failingCommandDoesNotStopMailbox() throws InterruptedException {
+        Mailbox mailbox = new Mailbox(executor);
+        CountDownLatch done = new CountDownLatch(1);
+
+        mailbox.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        mailbox.execute(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, mailbox.getPendingCommands());
+    }
+
+    @Test
+    public void pauseHoldsCommandsWithoutThread() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            Mailbox paused = new Mailbox(single);
+            Mailbox other = new Mailbox(single);
+            CompletableFuture<Void> synced = new CompletableFuture<>();
+            List<String> executed = new CopyOnWriteArrayList<>();
+            CountDownLatch otherDone = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(1);
+
+            paused.execute(() -> {
+                executed.add("command");
+                paused.pauseUntil(synced, () -> executed.add("first"));
+            });
+            paused.execute(() -> {
+                executed.add("next");
+                done.countDown();
+            });
+            other.execute(otherDone::countDown);
+
+            // the only thread is free for the other mailbox while the first one is paused
+            assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("command"), executed);
+
+            synced.complete(null);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("command", "first", "next"), executed);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void manyMailboxesShareFewThreads() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch done = new CountDownLatch(2000);
+            List<Mailbox> mailboxes = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                mailboxes.add(new Mailbox(single));
+            }
+            for (Mailbox mailbox : mailboxes) {
+                mailbox.execute(done::countDown);
+                mailbox.execute(done::countDown);
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+}
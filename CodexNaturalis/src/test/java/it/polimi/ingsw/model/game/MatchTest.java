@@ -2,25 +2,40 @@ package it.polimi.ingsw.model.game;
 
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.exception.*;
+import it.polimi.ingsw.gamestate.ActionJournal;
+import it.polimi.ingsw.gamestate.SnapshotWriter;
+import it.polimi.ingsw.message.notify.NotifyEndMatch;
 import it.polimi.ingsw.model.card.*;
 import it.polimi.ingsw.model.field.CardPlacement;
 import it.polimi.ingsw.model.objective.Objective;
 import it.polimi.ingsw.model.player.Player;
+import it.polimi.ingsw.model.player.PlayerColor;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
 public class MatchTest {
+    private static final File SAVE_DIRECTORY = new File("interruptedGames");
     private Match match;
     private Player player1;
     private Player player2;
 
+    @BeforeClass
+    public static void loadCatalog() throws JsonLoadException {
+        // loaded once up front, so that the waits for the set up do not include it
+        CardCatalog.getInstance();
+    }
+
     @Before
     public void setUp() throws Exception {
         match = new Match(0);
@@ -702,4 +717,228 @@ public class MatchTest {
         Thread.sleep(100);
         match.endMatch();
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the directory of the saved games, enabling the journal and the snapshots of the matches.
+     *
+     * @return True if the directory was created, False if it already existed.
+     */
+    private boolean enableSaving() {
+        return SAVE_DIRECTORY.mkdir();
+    }
+
+    /**
+     * Deletes the journal and the snapshot of a match, and the directory of the saved games if it was created by the test.
+     *
+     * @param id      The ID of the match.
+     * @param created True if the directory was created by the test.
+     * @throws InterruptedException if the thread is interrupted while waiting for the snapshot to be deleted.
+     */
+    private void disableSaving(int id, boolean created) throws InterruptedException {
+        ActionJournal.delete(id);
+        SnapshotWriter.getInstance().delete(id);
+        SnapshotWriter.getInstance().flush();
+        if (created) {
+            for (File file : SAVE_DIRECTORY.listFiles()) {
+                file.delete();
+            }
+            SAVE_DIRECTORY.delete();
+        }
+    }
+
+    /**
+     * Starts a match of two players and completes its set up, taking the first checkpoint.
+     *
+     * @param m           The match.
+     * @param connections The connections of the players.
+     * @throws Exception if the set up fails.
+     */
+    private void setUpMatch(Match m, ConnectionPlaceholder... connections) throws Exception {
+        for (ConnectionPlaceholder connection : connections) {
+            m.takeSeat(connection.getController());
+        }
+        m.start();
+        for (Player p : m.getPlayers()) {
+            p.chooseStarterCardSide(true);
+        }
+        for (Player p : m.getPlayers()) {
+            p.chooseObjective(0);
+        }
+    }
+
+    /**
+     * Plays the back of the first card in the hand of the current player on the first available position.
+     *
+     * @param m The match.
+     * @throws PlayerExceptions if the card cannot be played.
+     */
+    private void playFirstCard(Match m) throws PlayerExceptions {
+        Player p = m.getCurrentPlayer();
+        p.playCard(0, p.getAvailablePositions().getFirst(), false);
+    }
+
+    /**
+     * Plays a turn for the current player, drawing from the gold deck, the resource deck or the market in turn.
+     *
+     * @param m    The match.
+     * @param turn The number of the turn.
+     * @throws PlayerExceptions if the turn cannot be played.
+     */
+    private void playTurn(Match m, int turn) throws PlayerExceptions {
+        Player p = m.getCurrentPlayer();
+        playFirstCard(m);
+        switch (turn % 3) {
+            case 0 -> p.drawGold();
+            case 1 -> p.drawResource();
+            default -> p.drawMarket(turn % 4);
+        }
+    }
+
+    /**
+     * Describes the state of a match that is saved and recovered: hands, fields, scores, decks, market and current player.
+     *
+     * @param m The match.
+     * @return The description of the state.
+     */
+    private List<String> describe(Match m) {
+        List<String> state = new ArrayList<>();
+        ScoreTrack scores = m.getScoreTrack();
+        for (Player p : m.getPlayers()) {
+            state.add(p.getColor() + " hand " + Arrays.stream(p.getHand()).map(c -> c == null ? "-" : c.getId()).toList());
+            state.add(p.getColor() + " field " + p.getPlayerField().getCards().stream()
+                    .map(c -> c.getCard().getId() + "@" + c.getPosition() + (c.isFront() ? "F" : "B")).toList());
+            state.add(p.getColor() + " score " + scores.getPlayerScore(p));
+        }
+        state.add("gold " + m.getGoldDeck().getCards().stream().map(Card::getId).toList());
+        state.add("resource " + m.getResourceDeck().getCards().stream().map(Card::getId).toList());
+        state.add("market " + Arrays.stream(m.getMarket()).map(c -> c == null ? "-" : c.getId()).toList());
+        state.add("current " + (m.getCurrentPlayer() == null ? "-" : m.getCurrentPlayer().getColor()));
+        return state;
+    }
+
+    /**
+     * Verifies that the set up of a match is reproduced from the seed written to its journal.
+     *
+     * @throws Exception if the set up fails.
+     */
+    @Test
+    public void setUpIsReproducedFromSeed() throws Exception {
+        int id = 9001;
+        boolean created = enableSaving();
+        try {
+            Match live = new Match(id);
+            live.takeSeat(new ConnectionPlaceholder("a").getController());
+            live.takeSeat(new ConnectionPlaceholder("b").getController());
+            live.start();
+
+            List<ActionJournal.Entry> entries = ActionJournal.recover(id).getEntriesAfter(0);
+            assertEquals("SEED", entries.getFirst().action());
+            Random random = new Random(Long.parseLong(entries.getFirst().arg(0)));
+
+            List<PlayerColor> colors = new ArrayList<>(Arrays.asList(PlayerColor.values()));
+            for (Player p : live.getPlayers()) {
+                assertEquals(colors.remove(random.nextInt(colors.size())), p.getColor());
+            }
+
+            ResourceDeck resourceDeck = new ResourceDeck();
+            GoldDeck goldDeck = new GoldDeck();
+            resourceDeck.shuffle(random);
+            goldDeck.shuffle(random);
+            List<String> market = List.of(resourceDeck.draw().getId(), resourceDeck.draw().getId(),
+                    goldDeck.draw().getId(), goldDeck.draw().getId());
+
+            assertEquals(market, Arrays.stream(live.getMarket()).map(Card::getId).toList());
+            assertEquals(resourceDeck.getCards().stream().map(Card::getId).toList(),
+                    live.getResourceDeck().getCards().stream().map(Card::getId).toList());
+            assertEquals(goldDeck.getCards().stream().map(Card::getId).toList(),
+                    live.getGoldDeck().getCards().stream().map(Card::getId).toList());
+        } finally {
+            disableSaving(id, created);
+        }
+    }
+
+    /**
+     * Verifies that a match is recovered from its checkpoint and the journaled turns that follow it,
+     * discarding a card played without the following draw.
+     *
+     * @throws Exception if the match cannot be played or recovered.
+     */
+    @Test
+    public void recoversTurnsFromJournal() throws Exception {
+        int id = 9002;
+        boolean created = enableSaving();
+        try {
+            Match live = new Match(id);
+            setUpMatch(live, new ConnectionPlaceholder("a"), new ConnectionPlaceholder("b"));
+            for (int turn = 0; turn < 6; turn++) {
+                playTurn(live, turn);
+            }
+            List<String> expected = describe(live);
+            long lastDraw = ActionJournal.recover(id).getLastSeq();
+
+            // the server stops after a card is played, before the draw
+            playFirstCard(live);
+            SnapshotWriter.getInstance().flush();
+
+            Match recovered = new Match(id);
+            recovered.load(List.of(new ConnectionPlaceholder("a").getController(), new ConnectionPlaceholder("b").getController()));
+
+            assertEquals(expected, describe(recovered));
+            assertEquals(lastDraw, ActionJournal.recover(id).getLastSeq());
+            assertEquals("DRAW", ActionJournal.recover(id).getEntriesAfter(lastDraw - 1).getFirst().action());
+
+            // the recovered match goes on from the current player
+            playTurn(recovered, 6);
+        } finally {
+            disableSaving(id, created);
+        }
+    }
+
+    /**
+     * Verifies that a match ending in the journaled turns is ended by the recovery, and that the result
+     * is sent to the players once the match is resumed.
+     *
+     * @throws Exception if the match cannot be played or recovered.
+     */
+    @Test
+    public void matchEndingDuringReplayIsFinishedOnResume() throws Exception {
+        int id = 9003;
+        boolean created = enableSaving();
+        try {
+            Match live = new Match(id);
+            setUpMatch(live, new ConnectionPlaceholder("a"), new ConnectionPlaceholder("b"));
+
+            // the last round starts with the checkpoint taken after the eighth turn
+            for (int turn = 0; turn < 8; turn++) {
+                if (turn == 7) {
+                    playFirstCard(live);
+                    live.updateScoreTrack(20);
+                    live.getCurrentPlayer().drawGold();
+                } else {
+                    playTurn(live, turn);
+                }
+            }
+            assertTrue(live.lastRound());
+            SnapshotWriter.getInstance().flush();
+
+            // the last round is only in the journal, without draws
+            playFirstCard(live);
+            playFirstCard(live);
+            assertNull(live.getCurrentPlayer());
+
+            ConnectionPlaceholder a = new ConnectionPlaceholder("a");
+            ConnectionPlaceholder b = new ConnectionPlaceholder("b");
+            Match recovered = new Match(id);
+            recovered.load(List.of(a.getController(), b.getController()));
+            assertNull(recovered.getCurrentPlayer());
+            assertTrue(a.getReceived().isEmpty());
+
+            recovered.resumeGame();
+            assertTrue(a.getReceived().getLast() instanceof NotifyEndMatch);
+            assertTrue(b.getReceived().getLast() instanceof NotifyEndMatch);
+            assertEquals(describe(live), describe(recovered));
+        } finally {
+            disableSaving(id, created);
+        }
+    }
+}
@@ -202,4 +202,42 @@ public class DispositionObjectiveTest {
         assertEquals(5, objType3.calculateObjectiveCompletionTimes(field));
         assertEquals(0, objType4.calculateObjectiveCompletionTimes(field));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that overlapping occurrences are counted at their best: along a chain of three L-shaped occurrences,
+     * where the middle one shares a card with each of the others, the first and the last are counted.
+     *
+     * @throws Exception if a card cannot be created.
+     */
+    @Test
+    public void countsDisjointOccurrencesAtBest() throws Exception {
+        Map<CornerPosition, Corner> corner = new HashMap<>();
+        for(CornerPosition p : CornerPosition.values()){
+            corner.put(p, new Corner(true, Symbol.EMPTY));
+        }
+        PlayerField chain = new PlayerField();
+        chain.placeStarterCard(new StarterCard(corner, corner, new ArrayList<>(), "000"), false);
+        for(int y = 2; y <= 8; y += 2){
+            chain.placeCard(new ResourceCard(Symbol.FUNGI, corner, 0, "000"), true, new Position(0, y));
+        }
+        for(int y = 1; y <= 5; y += 2){
+            chain.placeCard(new ResourceCard(Symbol.PLANT, corner, 0, "000"), true, new Position(1, y));
+        }
+
+        DispositionObjective lShape = new DispositionObjective(new Position[]{new Position(0, -2), new Position(1, -3)},
+                new Symbol[]{Symbol.FUNGI, Symbol.FUNGI, Symbol.PLANT}, 3, "000");
+        assertEquals(2, lShape.calculateObjectiveCompletionTimes(chain));
+
+        // Five cards in a diagonal hold three overlapping occurrences, but only one without repetition.
+        DispositionObjective diagonal = new DispositionObjective(new Position[]{new Position(1, 1), new Position(2, 2)},
+                new Symbol[]{Symbol.FUNGI, Symbol.FUNGI, Symbol.FUNGI}, 2, "000");
+        PlayerField line = new PlayerField();
+        line.placeStarterCard(new StarterCard(corner, corner, new ArrayList<>(), "000"), false);
+        for(int i = 1; i <= 5; i++){
+            line.placeCard(new ResourceCard(Symbol.FUNGI, corner, 0, "000"), true, new Position(i, i));
+        }
+        assertEquals(1, diagonal.calculateObjectiveCompletionTimes(line));
+        line.placeCard(new ResourceCard(Symbol.FUNGI, corner, 0, "000"), true, new Position(6, 6));
+        assertEquals(2, diagonal.calculateObjectiveCompletionTimes(line));
+    }
+}
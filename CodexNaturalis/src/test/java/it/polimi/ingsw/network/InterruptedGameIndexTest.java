@@ -0,0 +1,42 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.controller.Controller;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InterruptedGameIndexTest {
+
+    @Test
+    public void gameCompletesWhenLastPlayerRejoins() {
+        InterruptedGameIndex index = new InterruptedGameIndex(Map.of(3, List.of("a", "b"), 7, List.of("c", "d", "e")));
+        Controller a = new Controller(null);
+        Controller b = new Controller(null);
+
+        assertEquals(Integer.valueOf(3), index.getGameOf("a"));
+        assertEquals(7, index.getMaxId().getAsInt());
+
+        InterruptedGameIndex.Rejoin first = index.rejoin("a", a);
+        assertEquals(3, first.id());
+        assertFalse(first.isComplete());
+
+        InterruptedGameIndex.Rejoin last = index.rejoin("b", b);
+        assertTrue(last.isComplete());
+        assertEquals(List.of(a, b), last.controllers());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void unknownOrAlreadyRejoinedPlayersLogInNormally() {
+        InterruptedGameIndex index = new InterruptedGameIndex(Map.of(1, List.of("a", "b")));
+
+        assertNull(index.rejoin("z", new Controller(null)));
+        assertNotNull(index.rejoin("a", new Controller(null)));
+        assertNull(index.rejoin("a", new Controller(null)));
+        assertNull(index.getGameOf("a"));
+        assertEquals(Integer.valueOf(1), index.getGameOf("b"));
+    }
+}
@@ -0,0 +1,105 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.model.game.ConnectionPlaceholder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class MatchmakerTest {
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<List<String>> formed = new ArrayList<>();
+    private final Matchmaker matchmaker = new Matchmaker(1000,
+            group -> formed.add(group.stream().map(Matchmaker.Ticket::username).toList()), now::get);
+
+    @Test
+    public void formsMatchesOfPreferredSize() {
+        matchmaker.enqueue("a", null, 3);
+        matchmaker.enqueue("b", null, 2);
+        matchmaker.enqueue("c", null, 3);
+        matchmaker.formMatches();
+        assertTrue(formed.isEmpty());
+
+        matchmaker.enqueue("d", null, 3);
+        matchmaker.enqueue("e", null, 2);
+        matchmaker.formMatches();
+
+        assertEquals(List.of(List.of("a", "c", "d"), List.of("b", "e")), formed);
+        assertEquals(0, matchmaker.size());
+    }
+
+    @Test
+    public void relaxesToSmallerMatchesAfterWaiting() {
+        matchmaker.enqueue("a", null, 4);
+        now.set(200);
+        matchmaker.enqueue("b", null, 4);
+        matchmaker.enqueue("c", null, 3);
+
+        now.set(1100);
+        matchmaker.formMatches();
+        assertTrue(formed.isEmpty());
+
+        now.set(1200);
+        matchmaker.formMatches();
+        assertEquals(1, formed.size());
+        assertEquals(Set.of("a", "b", "c"), Set.copyOf(formed.getFirst()));
+
+        assertEquals(1200, matchmaker.getTimeToMatchPercentile(100));
+        assertEquals(1000, matchmaker.getTimeToMatchPercentile(50));
+        assertEquals(3, matchmaker.getMatchedPlayers());
+    }
+
+    @Test
+    public void neverExceedsPreferredSize() {
+        matchmaker.enqueue("a", null, 2);
+        matchmaker.enqueue("b", null, 4);
+        matchmaker.enqueue("c", null, 4);
+        matchmaker.enqueue("d", null, 4);
+        matchmaker.formMatches();
+        assertTrue(formed.isEmpty());
+
+        now.set(1000);
+        matchmaker.formMatches();
+        assertEquals(List.of(List.of("b", "c", "d")), formed);
+        assertTrue(matchmaker.isQueued("a"));
+    }
+
+    @Test
+    public void cancelledAndRequeuedPlayers() {
+        matchmaker.enqueue("a", null, 2);
+        assertFalse(matchmaker.enqueue("a", null, 2));
+        assertTrue(matchmaker.cancel("a"));
+        assertFalse(matchmaker.cancel("a"));
+
+        matchmaker.enqueue("b", null, 2);
+        now.set(500);
+        matchmaker.enqueue("c", null, 2);
+        matchmaker.requeue(List.of(new Matchmaker.Ticket("a", null, 2, -100)));
+        matchmaker.formMatches();
+
+        assertEquals(List.of(List.of("a", "b")), formed);
+        assertTrue(matchmaker.isQueued("c"));
+    }
+
+    @Test
+    public void serverReportsTimeToMatch() throws Exception {
+        ConnectionPlaceholder first = new ConnectionPlaceholder("ttm-first");
+        ConnectionPlaceholder second = new ConnectionPlaceholder("ttm-second");
+        long matched = Server.getMatchmaker().getMatchedPlayers();
+
+        Server.queueForMatch(first, 2);
+        Server.queueForMatch(second, 2);
+        Thread.sleep(50);
+        Server.getMatchmaker().formMatches();
+
+        assertEquals(matched + 2, Server.getMatchmaker().getMatchedPlayers());
+        assertTrue(Server.getTimeToMatchPercentile(100) >= 50);
+        assertEquals(Server.getMatchmaker().getTimeToMatchPercentile(50), Server.getTimeToMatchPercentile(50));
+        assertNotNull(Server.getLobby("ttm-first"));
+        assertSame(Server.getLobby("ttm-first"), Server.getLobby("ttm-second"));
+    }
+}
@@ -0,0 +1,109 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.lobby.LobbyInfo;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
+import it.polimi.ingsw.message.lobby.LobbyUpdateMessage;
+import it.polimi.ingsw.network.server.Connection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OpenLobbyIndexTest {
+
+    private static class RecordingConnection implements Connection {
+        private final List<Message> received = new ArrayList<>();
+
+        @Override
+        public void send(Message m) {
+            received.add(m);
+        }
+
+        @Override
+        public void setUsername(String username) {}
+
+        @Override
+        public String getUsername() {
+            return null;
+        }
+
+        @Override
+        public Controller getController() {
+            return null;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private static List<Integer> ids(List<LobbyInfo> lobbies) {
+        return lobbies.stream().map(LobbyInfo::getId).toList();
+    }
+
+    @Test
+    public void lobbiesClosestToFullComeFirst() {
+        OpenLobbyIndex index = new OpenLobbyIndex();
+        index.update(1, 1, 4, true);
+        index.update(2, 1, 2, true);
+        index.update(3, 2, 4, true);
+        index.update(4, 3, 3, true);
+
+        assertEquals(List.of(2, 3, 1), ids(index.query(1, 0, 0, 0)));
+        assertEquals(List.of(3, 1), ids(index.query(2, 0, 0, 0)));
+        assertEquals(List.of(3, 1), ids(index.query(1, 4, 0, 0)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void pagesReportTotal() {
+        OpenLobbyIndex index = new OpenLobbyIndex();
+        for (int id = 0; id < 10; id++) {
+            index.update(id, 1, 3, true);
+        }
+
+        GetLobbiesResponseMessage page = index.getPage(1, 0, 4, 3);
+        assertEquals(List.of(4, 5, 6), ids(page.getLobbies()));
+        assertEquals(10, page.getTotal());
+
+        assertTrue(index.getPage(1, 0, 20, 3).getLobbies().isEmpty());
+    }
+
+    @Test
+    public void cachedResponseChangesOnlyWithMembership() {
+        OpenLobbyIndex index = new OpenLobbyIndex();
+        index.update(1, 1, 2, true);
+
+        assertSame(index.getAll(), index.getAll());
+        Object before = index.getAll();
+
+        index.update(1, 1, 2, true);
+        assertSame(before, index.getAll());
+
+        index.update(1, 2, 2, true);
+        assertNotSame(before, index.getAll());
+        assertTrue(((GetLobbiesResponseMessage) index.getAll().getMessage()).getLobbies().isEmpty());
+    }
+
+    @Test
+    public void subscribersReceiveDeltas() {
+        OpenLobbyIndex index = new OpenLobbyIndex();
+        RecordingConnection client = new RecordingConnection();
+        index.subscribe(client);
+
+        index.update(5, 1, 3, true);
+        index.update(5, 2, 3, true);
+        index.update(5, 2, 3, false);
+        index.unsubscribe(client);
+        index.update(6, 1, 3, true);
+
+        assertEquals(3, client.received.size());
+        LobbyUpdateMessage joined = (LobbyUpdateMessage) client.received.get(1);
+        assertTrue(joined.open());
+        assertEquals(2, joined.lobby().getNumCurrentPlayers());
+        assertFalse(((LobbyUpdateMessage) client.received.get(2)).open());
+    }
+}
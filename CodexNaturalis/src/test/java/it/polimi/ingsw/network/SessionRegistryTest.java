@@ -0,0 +1,102 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.network.server.Connection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SessionRegistryTest {
+
+    private static class FakeConnection implements Connection {
+        @Override
+        public void send(Message m) {}
+
+        @Override
+        public void setUsername(String username) {}
+
+        @Override
+        public String getUsername() {
+            return null;
+        }
+
+        @Override
+        public Controller getController() {
+            return null;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    @Test
+    public void usernameIsReservedOnce() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry();
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Connection c = new FakeConnection();
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (registry.reserveUsername("alice", c) == null) {
+                    winners.incrementAndGet();
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(1, winners.get());
+        assertNotNull(registry.getClient("alice"));
+    }
+
+    @Test
+    public void onlyHolderReleasesUsername() {
+        SessionRegistry registry = new SessionRegistry();
+        Connection alice = new FakeConnection();
+        Connection other = new FakeConnection();
+
+        assertNull(registry.reserveUsername("alice", alice));
+        assertSame(alice, registry.reserveUsername("alice", other));
+        assertFalse(registry.releaseUsername("alice", other));
+        assertTrue(registry.releaseUsername("alice", alice));
+        assertNull(registry.getClient("alice"));
+    }
+
+    @Test
+    public void playerBelongsToOneLobby() {
+        SessionRegistry registry = new SessionRegistry();
+
+        assertNull(registry.assignLobby("alice", 1));
+        assertEquals(Integer.valueOf(1), registry.assignLobby("alice", 2));
+
+        registry.unassignLobby("alice", 2);
+        assertEquals(Integer.valueOf(1), registry.getMemberships().get("alice"));
+        assertEquals(Integer.valueOf(1), registry.unassignLobby("alice"));
+        assertNull(registry.unassignLobby("alice"));
+    }
+
+    @Test
+    public void lobbyIdsSkipReservedOnes() {
+        SessionRegistry registry = new SessionRegistry();
+        assertEquals(0, registry.nextLobbyId());
+        registry.reserveLobbyId(7);
+        registry.reserveLobbyId(3);
+        assertEquals(8, registry.nextLobbyId());
+    }
+}
@@ -0,0 +1,77 @@
+package it.polimi.ingsw.network.codec;
+
+import it.polimi.ingsw.message.LoginMessage;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FrameCodecTest {
+
+    private static DataInputStream stream(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] header(int length) {
+        return ByteBuffer.allocate(FrameCodec.HEADER_SIZE).putInt(length).array();
+    }
+
+    @Test
+    public void readsConsecutiveFrames() throws IOException {
+        byte[] first = FrameCodec.encode(new LoginMessage("alice"));
+        byte[] second = FrameCodec.encode(new LoginMessage("bob"));
+        byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+
+        DataInputStream in = stream(both);
+        assertEquals("alice", ((LoginMessage) FrameCodec.read(in)).username());
+        assertEquals("bob", ((LoginMessage) FrameCodec.read(in)).username());
+    }
+
+    @Test
+    public void partialFrameFails() throws IOException {
+        byte[] frame = FrameCodec.encode(new LoginMessage("alice"));
+        for (int cut : new int[]{2, FrameCodec.HEADER_SIZE, frame.length - 1}) {
+            try {
+                FrameCodec.read(stream(Arrays.copyOf(frame, cut)));
+                fail("A frame cut at " + cut + " bytes was decoded");
+            } catch (EOFException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void oversizedFrameIsRejectedBeforeReadingIt() {
+        for (int length : new int[]{FrameCodec.MAX_FRAME_SIZE + 1, Integer.MAX_VALUE, -1}) {
+            try {
+                FrameCodec.read(stream(header(length)));
+                fail("A frame of " + length + " bytes was accepted");
+            } catch (EOFException e) {
+                fail("The payload of a frame of " + length + " bytes was read");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("Invalid frame length"));
+            }
+        }
+    }
+
+    @Test
+    public void largestFrameIsAccepted() throws IOException {
+        FrameCodec.checkLength(FrameCodec.MAX_FRAME_SIZE);
+        FrameCodec.checkLength(0);
+    }
+
+    @Test(expected = IOException.class)
+    public void trailingBytesAreRejected() throws IOException {
+        byte[] frame = FrameCodec.encode(new LoginMessage("alice"));
+        int length = frame.length - FrameCodec.HEADER_SIZE;
+        byte[] padded = Arrays.copyOf(frame, frame.length + 1);
+        FrameCodec.decode(padded, FrameCodec.HEADER_SIZE, length + 1);
+    }
+}
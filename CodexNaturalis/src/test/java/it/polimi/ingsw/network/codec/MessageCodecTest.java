@@ -0,0 +1,245 @@
+package it.polimi.ingsw.network.codec;
+
+import com.google.gson.reflect.TypeToken;
+import it.polimi.ingsw.lobby.LobbyInfo;
+import it.polimi.ingsw.message.*;
+import it.polimi.ingsw.message.action.PlayCard;
+import it.polimi.ingsw.message.error.CreateMatchError;
+import it.polimi.ingsw.message.error.InvalidMessage;
+import it.polimi.ingsw.message.lobby.GetLobbiesMessage;
+import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
+import it.polimi.ingsw.message.lobby.LobbyUpdateMessage;
+import it.polimi.ingsw.message.lobby.QueueMessage;
+import it.polimi.ingsw.message.notify.NotifyCardPlayed;
+import it.polimi.ingsw.message.notify.NotifyDraw;
+import it.polimi.ingsw.message.notify.NotifyEndMatch;
+import it.polimi.ingsw.message.notify.NotifyTurn;
+import it.polimi.ingsw.model.card.*;
+import it.polimi.ingsw.model.field.PlayerField;
+import it.polimi.ingsw.model.field.Position;
+import it.polimi.ingsw.model.game.GoldDeck;
+import it.polimi.ingsw.model.game.ResourceDeck;
+import it.polimi.ingsw.model.objective.DispositionObjective;
+import it.polimi.ingsw.model.objective.Objective;
+import it.polimi.ingsw.model.player.PlayerColor;
+import it.polimi.ingsw.utilities.GsonSingleton;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MessageCodecTest {
+
+    private static Message roundTrip(Message m) throws IOException {
+        byte[] frame = FrameCodec.encode(m);
+        return FrameCodec.read(new DataInputStream(new ByteArrayInputStream(frame)));
+    }
+
+    @Test
+    public void simpleMessages() throws IOException {
+        LoginMessage login = (LoginMessage) roundTrip(new LoginMessage("alice"));
+        assertEquals("alice", login.username());
+
+        SuccessLobby success = (SuccessLobby) roundTrip(new SuccessLobby(MessageType.JOIN, 3, List.of("a", "b"), 4));
+        assertEquals(MessageType.JOIN, success.successType());
+        assertEquals(3, success.getId());
+        assertEquals(List.of("a", "b"), success.getPlayers());
+        assertEquals(4, success.getMaxNumPlayers());
+
+        GetLobbiesResponseMessage lobbies = (GetLobbiesResponseMessage) roundTrip(new GetLobbiesResponseMessage(List.of(new LobbyInfo(7, 1, 3))));
+        assertEquals(1, lobbies.getLobbies().size());
+        assertEquals(7, lobbies.getLobbies().getFirst().getId());
+        assertEquals(1, lobbies.getLobbies().getFirst().getNumCurrentPlayers());
+        assertEquals(3, lobbies.getLobbies().getFirst().getMaxPlayers());
+    }
+
+    @Test
+    public void lobbyListRequests() throws IOException {
+        GetLobbiesMessage request = (GetLobbiesMessage) roundTrip(new GetLobbiesMessage(10, 5, 2, 4, true));
+        assertEquals(10, request.getOffset());
+        assertEquals(5, request.getLimit());
+        assertEquals(2, request.getMinFreeSeats());
+        assertEquals(4, request.getMaxPlayers());
+        assertTrue(request.isSubscribe());
+        assertTrue(((GetLobbiesMessage) roundTrip(new GetLobbiesMessage())).isUnfiltered());
+
+        GetLobbiesResponseMessage page = (GetLobbiesResponseMessage) roundTrip(new GetLobbiesResponseMessage(List.of(), 12));
+        assertEquals(12, page.getTotal());
+
+        LobbyUpdateMessage update = (LobbyUpdateMessage) roundTrip(new LobbyUpdateMessage(new LobbyInfo(3, 2, 4), false));
+        assertEquals(3, update.lobby().getId());
+        assertFalse(update.open());
+
+        assertEquals(3, ((QueueMessage) roundTrip(new QueueMessage(3))).preferredSize());
+    }
+
+    @Test
+    public void chatMessage() throws IOException {
+        ChatMessage chat = new ChatMessage("hi", new Date(1234), Set.of("bob"));
+        chat.setSender("alice");
+        ChatMessage decoded = (ChatMessage) roundTrip(chat);
+        assertEquals("alice", decoded.getSender());
+        assertEquals("hi", decoded.getMessage());
+        assertEquals(new Date(1234), decoded.getDate());
+        assertEquals(Set.of("bob"), decoded.getRecipients());
+
+        ChatMessage publicChat = (ChatMessage) roundTrip(new ChatMessage("all", new Date(1)));
+        assertEquals(ChatMessage.ChatType.PUBLIC, publicChat.getChatType());
+    }
+
+    @Test
+    public void errorsWithSameCodeKeepTheirClass() throws IOException {
+        assertTrue(roundTrip(new CreateMatchError()) instanceof CreateMatchError);
+        assertTrue(roundTrip(new InvalidMessage()) instanceof InvalidMessage);
+    }
+
+    @Test
+    public void gameAction() throws IOException {
+        PlayCard play = (PlayCard) roundTrip(new PlayCard(2, new Position(-1, 3), false));
+        assertEquals(2, play.getCardIndex());
+        assertEquals(new Position(-1, 3), play.getPosition());
+        assertFalse(play.getSide());
+    }
+
+    @Test
+    public void turnCarriesAvailablePositions() throws IOException {
+        NotifyTurn turn = (NotifyTurn) roundTrip(new NotifyTurn(PlayerColor.RED, List.of(new Position(-1, 1), new Position(2, 0))));
+        assertEquals(PlayerColor.RED, turn.getColor());
+        assertEquals(List.of(new Position(-1, 1), new Position(2, 0)), turn.getAvailablePositions());
+    }
+
+    @Test
+    public void cardsKeepTheirData() throws Exception {
+        GoldDeck goldDeck = new GoldDeck();
+        while (!goldDeck.isEmpty()) {
+            GoldCard card = (GoldCard) goldDeck.draw();
+            NotifyDraw decoded = (NotifyDraw) roundTrip(new NotifyDraw(PlayerColor.RED, NotifyDraw.DrawType.GOLD, null, card));
+            GoldCard copy = (GoldCard) decoded.getCard();
+
+            assertEquals(card.getClass(), copy.getClass());
+            assertEquals(card.getId(), copy.getId());
+            assertEquals(card.getKingdom(), copy.getKingdom());
+            assertEquals(card.getRequirements(true), copy.getRequirements(true));
+            assertEquals(card.getSymbolsOnSide(true), copy.getSymbolsOnSide(true));
+            for (CornerPosition position : CornerPosition.values()) {
+                assertEquals(card.getCorner(position, true).IsPresent(), copy.getCorner(position, true).IsPresent());
+            }
+            assertNull(decoded.getKingdom());
+        }
+    }
+
+    @Test
+    public void fieldAndObjectives() throws Exception {
+        List<StarterCard> starters = GsonSingleton.loadJson("/starterCards.json", new TypeToken<List<StarterCard>>() {}.getType());
+        List<Objective> objectives = GsonSingleton.loadJson("/objectiveCards.json", new TypeToken<List<Objective>>() {}.getType());
+        ResourceDeck resourceDeck = new ResourceDeck();
+
+        PlayerField field = new PlayerField();
+        field.placeStarterCard(starters.getFirst(), false);
+        field.placeCard(resourceDeck.draw(), true, new Position(1, 1));
+        field.placeCard(resourceDeck.draw(), false, new Position(-1, -1));
+
+        GameStateMessage state = new GameStateMessage(
+                Map.of("alice", PlayerColor.BLUE),
+                List.of(PlayerColor.BLUE),
+                Map.of(PlayerColor.BLUE, field),
+                Map.of(PlayerColor.BLUE, 12),
+                Map.of(PlayerColor.BLUE, new Symbol[]{Symbol.FUNGI, Symbol.PLANT, Symbol.ANIMAL}),
+                objectives.getFirst(),
+                new PlayableCard[]{resourceDeck.draw(), null, resourceDeck.draw()},
+                new Objective[]{objectives.get(1), objectives.getLast()},
+                Symbol.INSECT, 30, null, 0,
+                new PlayableCard[4],
+                PlayerColor.BLUE
+        );
+
+        GameStateMessage decoded = (GameStateMessage) roundTrip(state);
+        PlayerField decodedField = decoded.fields().get(PlayerColor.BLUE);
+        assertEquals(field.getCards().size(), decodedField.getCards().size());
+        for (int i = 0; i < field.getCards().size(); i++) {
+            assertEquals(field.getCards().get(i).getCard().getId(), decodedField.getCards().get(i).getCard().getId());
+            assertEquals(field.getCards().get(i).getPosition(), decodedField.getCards().get(i).getPosition());
+            assertEquals(field.getCards().get(i).isFront(), decodedField.getCards().get(i).isFront());
+        }
+        for (Symbol s : Symbol.values()) {
+            assertEquals(field.getSymbolNum(s), decodedField.getSymbolNum(s));
+        }
+
+        assertEquals(objectives.getFirst().getId(), decoded.personalObjective().getId());
+        assertNull(decoded.hand()[1]);
+        assertEquals(Integer.valueOf(12), decoded.scores().get(PlayerColor.BLUE));
+        assertArrayEquals(new Symbol[]{Symbol.FUNGI, Symbol.PLANT, Symbol.ANIMAL}, decoded.cardsBack().get(PlayerColor.BLUE));
+        assertNull(decoded.topGoldDeck());
+        assertEquals(30, decoded.numResourceCard());
+
+        DispositionObjective disposition = (DispositionObjective) objectives.stream().filter(o -> o instanceof DispositionObjective).findFirst().orElseThrow();
+        NotifyEndMatch end = (NotifyEndMatch) roundTrip(new NotifyEndMatch(1, null, null, List.of(disposition), null));
+        DispositionObjective decodedDisposition = (DispositionObjective) end.getObjs().getFirst();
+        assertArrayEquals(disposition.getPatternPosition(), decodedDisposition.getPatternPosition());
+        assertArrayEquals(disposition.getPatternKingdom(), decodedDisposition.getPatternKingdom());
+        assertEquals(disposition.getScore(), decodedDisposition.getScore());
+        assertNull(end.getPlayers());
+    }
+
+    @Test
+    public void cardPlayed() throws Exception {
+        PlayableCard card = new ResourceDeck().draw();
+        NotifyCardPlayed decoded = (NotifyCardPlayed) roundTrip(new NotifyCardPlayed(PlayerColor.GREEN, 1, card, new Position(2, 0), true, 1));
+        assertEquals(PlayerColor.GREEN, decoded.getWho());
+        assertEquals(card.getId(), decoded.getCard().getId());
+        assertEquals(new Position(2, 0), decoded.getPosition());
+        assertEquals(1, decoded.getScore());
+    }
+
+    @Test
+    public void preparedMessageEncodesOnce() throws IOException {
+        PreparedMessage prepared = new PreparedMessage(new LoginMessage("alice"));
+        byte[] frame = prepared.getFrame();
+        assertSame(frame, prepared.getFrame());
+        assertArrayEquals(FrameCodec.encode(new LoginMessage("alice")), frame);
+    }
+
+    private static int code(Enum<?> value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ModelCodec.writeEnum(new DataOutputStream(bytes), value);
+        return bytes.toByteArray()[0];
+    }
+
+    private static <E extends Enum<E>> void assertCodes(Class<E> type, int... codes) throws IOException {
+        E[] constants = type.getEnumConstants();
+        assertEquals(constants.length, codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            assertEquals(constants[i].name(), codes[i], code(constants[i]));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[]{(byte) codes[i]}));
+            assertSame(constants[i], ModelCodec.readEnum(in, type));
+        }
+    }
+
+    @Test
+    public void enumCodesArePinned() throws IOException {
+        assertEquals(0, code(null));
+        assertCodes(MessageType.class, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22);
+        assertCodes(PlayerColor.class, 1, 2, 3, 4);
+        assertCodes(Symbol.class, 1, 2, 3, 4, 5, 6, 7, 8);
+        assertCodes(NotifyDraw.DrawType.class, 1, 2, 3);
+
+        byte[] frame = FrameCodec.encode(new SuccessMessage(MessageType.QUEUE));
+        assertArrayEquals(new byte[]{0, 0, 0, 2, 8, 22}, frame);
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownEnumCode() throws IOException {
+        ModelCodec.readEnum(new DataInputStream(new ByteArrayInputStream(new byte[]{5})), PlayerColor.class);
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownTag() throws IOException {
+        FrameCodec.decode(new byte[]{(byte) 200}, 0, 1);
+    }
+}
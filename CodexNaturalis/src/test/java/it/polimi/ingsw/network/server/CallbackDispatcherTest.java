@@ -0,0 +1,133 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.message.LoginMessage;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.network.client.ClientRemote;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CallbackDispatcherTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private interface Receiver {
+        void receive(Message m);
+    }
+
+    private static ClientRemote client(Receiver receiver) {
+        return new ClientRemote() {
+            @Override
+            public void receive(Message m) {
+                receiver.receive(m);
+            }
+
+            @Override
+            public void receiveBatch(List<Message> messages) {
+                messages.forEach(receiver::receive);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void deliversInOrder() throws InterruptedException {
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+        CallbackDispatcher dispatcher = new CallbackDispatcher(client(m -> {
+            received.add(((LoginMessage) m).username());
+            done.countDown();
+        }), 1000, ServerConfig.OverflowPolicy.DROP, 0, () -> fail("unexpected disconnection"), executor);
+
+        for (int i = 0; i < 100; i++) {
+            dispatcher.send(new LoginMessage("user" + i));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("user" + i, received.get(i));
+        }
+    }
+
+    @Test
+    public void slowClientDoesNotBlockSender() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        CallbackDispatcher dispatcher = new CallbackDispatcher(client(m -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.incrementAndGet();
+        }), 2, ServerConfig.OverflowPolicy.DROP, 0, () -> fail("unexpected disconnection"), executor);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.send(new LoginMessage("user"));
+        }
+        assertTrue(dispatcher.getBacklogDepth() <= 2);
+
+        release.countDown();
+        Thread.sleep(200);
+        assertTrue(delivered.get() <= 4);
+    }
+
+    @Test
+    public void overflowDisconnectsOnce() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger disconnections = new AtomicInteger();
+        CallbackDispatcher dispatcher = new CallbackDispatcher(client(m -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), 1, ServerConfig.OverflowPolicy.DISCONNECT, 0, disconnections::incrementAndGet, executor);
+
+        Message m = new LoginMessage("user");
+        for (int i = 0; i < 10; i++) {
+            dispatcher.send(m);
+        }
+        release.countDown();
+
+        assertEquals(1, disconnections.get());
+        assertEquals(0, dispatcher.getBacklogDepth());
+    }
+
+    @Test
+    public void messagesWithinWindowShareOneCall() throws InterruptedException {
+        List<Integer> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        ClientRemote remote = new ClientRemote() {
+            @Override
+            public void receive(Message m) {
+                batches.add(1);
+                done.countDown();
+            }
+
+            @Override
+            public void receiveBatch(List<Message> messages) {
+                batches.add(messages.size());
+                done.countDown();
+            }
+        };
+        CallbackDispatcher dispatcher = new CallbackDispatcher(remote, 100, ServerConfig.OverflowPolicy.DROP, 200,
+                () -> fail("unexpected disconnection"), executor);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.send(new LoginMessage("user" + i));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(new ArrayList<>(List.of(5)), new ArrayList<>(batches));
+    }
+}
@@ -0,0 +1,154 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.message.ChatMessage;
+import it.polimi.ingsw.message.LoginMessage;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.MessageType;
+import it.polimi.ingsw.message.SuccessMessage;
+import it.polimi.ingsw.message.error.MatchDoesNotExistError;
+import it.polimi.ingsw.message.lobby.GetLobbiesMessage;
+import it.polimi.ingsw.message.lobby.GetLobbiesResponseMessage;
+import it.polimi.ingsw.model.game.ConnectionPlaceholder;
+import it.polimi.ingsw.network.Server;
+import it.polimi.ingsw.network.codec.FrameCodec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class ChannelConnectionTest {
+    private SocketEventLoop loop;
+    private ServerSocketChannel server;
+    private Socket client;
+
+    @Before
+    public void setUp() throws IOException {
+        loop = new SocketEventLoop();
+        Thread.ofPlatform().daemon().start(loop);
+        server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ServerConfig.parse("-outbound:1024");
+        if (client != null) {
+            client.close();
+        }
+        server.close();
+        loop.stop();
+    }
+
+    private SocketChannel connect(int bufferSize) throws IOException {
+        client = new Socket();
+        if (bufferSize > 0) {
+            client.setReceiveBufferSize(bufferSize);
+        }
+        client.connect(server.getLocalAddress());
+        client.setSoTimeout(5000);
+        SocketChannel accepted = server.accept();
+        if (bufferSize > 0) {
+            accepted.socket().setSendBufferSize(bufferSize);
+        }
+        loop.register(accepted);
+        return accepted;
+    }
+
+    private Message read() throws IOException {
+        return FrameCodec.read(new DataInputStream(client.getInputStream()));
+    }
+
+    private void writeInPieces(byte[] frame, int... cuts) throws Exception {
+        OutputStream out = client.getOutputStream();
+        int from = 0;
+        for (int cut : cuts) {
+            out.write(frame, from, cut - from);
+            out.flush();
+            Thread.sleep(20);
+            from = cut;
+        }
+        out.write(frame, from, frame.length - from);
+        out.flush();
+    }
+
+    @Test
+    public void reassemblesFramesAcrossReads() throws Exception {
+        connect(0);
+
+        byte[] login = FrameCodec.encode(new LoginMessage("cc-reassembly"));
+        writeInPieces(login, 1, 3, FrameCodec.HEADER_SIZE, login.length - 1);
+        SuccessMessage success = (SuccessMessage) read();
+        assertEquals(MessageType.LOGIN, success.successType());
+
+        // two frames in one write, the second one cut in half by the next write
+        byte[] get = FrameCodec.encode(new GetLobbiesMessage());
+        byte[] twoAndHalf = Arrays.copyOf(get, get.length * 2 + 2);
+        System.arraycopy(get, 0, twoAndHalf, get.length, get.length);
+        System.arraycopy(get, 0, twoAndHalf, get.length * 2, 2);
+        writeInPieces(twoAndHalf);
+        writeInPieces(Arrays.copyOfRange(get, 2, get.length));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(read() instanceof GetLobbiesResponseMessage);
+        }
+
+        // a frame larger than the initial read buffer
+        byte[] chat = FrameCodec.encode(new ChatMessage("x".repeat(20000), new Date()));
+        writeInPieces(chat, 5000, 12000);
+        assertTrue(read() instanceof MatchDoesNotExistError);
+    }
+
+    @Test
+    public void disconnectsSlowConsumer() throws Exception {
+        ServerConfig.parse("-outbound:4");
+        connect(4096);
+
+        FrameCodec.write(client.getOutputStream(), new LoginMessage("cc-slow"));
+        assertEquals(MessageType.LOGIN, ((SuccessMessage) read()).successType());
+
+        // the client keeps asking without reading the answers, until the server drops it
+        byte[] get = FrameCodec.encode(new GetLobbiesMessage());
+        OutputStream out = client.getOutputStream();
+        try {
+            for (int i = 0; i < 200000; i++) {
+                out.write(get);
+            }
+            out.flush();
+        } catch (IOException e) {
+            // expected once the server closed the connection
+        }
+
+        InputStream in = client.getInputStream();
+        byte[] drain = new byte[8192];
+        try {
+            while (in.read(drain) >= 0) {
+                // discard the answers written before the disconnection
+            }
+        } catch (IOException e) {
+            // a reset also means the server closed the connection
+        }
+
+        // the username was released with the disconnection
+        long deadline = System.currentTimeMillis() + 5000;
+        boolean released = false;
+        while (!released && System.currentTimeMillis() < deadline) {
+            try {
+                Server.login("cc-slow", new ConnectionPlaceholder("cc-slow"));
+                released = true;
+            } catch (Exception e) {
+                Thread.sleep(20);
+            }
+        }
+        assertTrue(released);
+    }
+}
@@ -0,0 +1,93 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.message.Message;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class LivenessMonitorTest {
+    private final AtomicLong now = new AtomicLong();
+    private LivenessMonitor monitor;
+
+    private static class FakeConnection implements Connection {
+        @Override
+        public void send(Message m) {}
+
+        @Override
+        public void setUsername(String username) {}
+
+        @Override
+        public String getUsername() {
+            return "user";
+        }
+
+        @Override
+        public Controller getController() {
+            return null;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    @Before
+    public void setUp() {
+        now.set(1_000_000);
+        monitor = new LivenessMonitor(1000, 100, now::get);
+    }
+
+    private void advanceTo(long time) {
+        while (now.get() < time) {
+            now.addAndGet(10);
+            monitor.advance();
+        }
+    }
+
+    @Test
+    public void silentConnectionTimesOutWithinOneTick() {
+        Connection c = new FakeConnection();
+        AtomicLong timedOutAt = new AtomicLong(-1);
+        monitor.register(c, () -> timedOutAt.set(now.get()));
+
+        advanceTo(1_000_000 + 990);
+        assertEquals(-1, timedOutAt.get());
+        assertTrue(monitor.isMonitored(c));
+
+        advanceTo(1_000_000 + 1200);
+        assertTrue(timedOutAt.get() >= 1_000_000 + 1000);
+        assertTrue(timedOutAt.get() <= 1_000_000 + 1100);
+        assertFalse(monitor.isMonitored(c));
+    }
+
+    @Test
+    public void heartbeatsKeepConnectionAlive() {
+        Connection c = new FakeConnection();
+        AtomicInteger timeouts = new AtomicInteger();
+        monitor.register(c, timeouts::incrementAndGet);
+
+        for (int i = 0; i < 50; i++) {
+            advanceTo(now.get() + 500);
+            monitor.heartbeat(c);
+        }
+        assertEquals(0, timeouts.get());
+
+        advanceTo(now.get() + 1200);
+        assertEquals(1, timeouts.get());
+    }
+
+    @Test
+    public void unregisteredConnectionNeverTimesOut() {
+        Connection c = new FakeConnection();
+        AtomicInteger timeouts = new AtomicInteger();
+        monitor.register(c, timeouts::incrementAndGet);
+        monitor.unregister(c);
+
+        advanceTo(now.get() + 5000);
+        assertEquals(0, timeouts.get());
+    }
+}
@@ -0,0 +1,86 @@
+package it.polimi.ingsw.network.server;
+
+import it.polimi.ingsw.message.LoginMessage;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.MessageType;
+import it.polimi.ingsw.message.lobby.GetLobbiesMessage;
+import it.polimi.ingsw.network.client.ClientRemote;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StubTest {
+    private Stub stub;
+
+    @Before
+    public void setUp() throws RemoteException {
+        ServerConfig.parse("-outbound:2");
+        stub = new Stub();
+    }
+
+    @After
+    public void tearDown() throws RemoteException {
+        ServerConfig.parse("-outbound:1024");
+        UnicastRemoteObject.unexportObject(stub, true);
+    }
+
+    private static ClientRemote client(BlockingQueue<Message> received, CountDownLatch blocked) {
+        return new ClientRemote() {
+            @Override
+            public void receive(Message m) {
+                receiveBatch(List.of(m));
+            }
+
+            @Override
+            public void receiveBatch(List<Message> messages) {
+                received.addAll(messages);
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    @Test
+    public void overflowRemovesTheClient() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+        String uuid = stub.setCallback(client(received, blocked));
+        stub.receive(uuid, new LoginMessage("stub-slow"));
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                stub.receive(uuid, new GetLobbiesMessage());
+            }
+            fail("A client whose backlog overflowed was kept");
+        } catch (RemoteException e) {
+            // expected
+        }
+        try {
+            stub.heartbeat(uuid);
+            fail("A client whose backlog overflowed was kept");
+        } catch (RemoteException e) {
+            // expected
+        }
+        blocked.countDown();
+
+        // the username was released with the disconnection
+        BlockingQueue<Message> again = new LinkedBlockingQueue<>();
+        String other = stub.setCallback(client(again, new CountDownLatch(0)));
+        stub.receive(other, new LoginMessage("stub-slow"));
+        assertEquals(MessageType.SUCCESS, again.poll(5, TimeUnit.SECONDS).getType());
+    }
+}
@@ -1,5 +1,7 @@
 package it.polimi.ingsw.utilities;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import it.polimi.ingsw.exception.JsonLoadException;
 import it.polimi.ingsw.model.card.*;
@@ -244,4 +246,47 @@ public class GsonSingletonTest {
             fail();
         } catch (JsonLoadException ignored){}
     }
+
+    @Test
+    public void compactRoundTrip() throws JsonLoadException {
+        Gson gson = GsonSingleton.getCompactGson();
+        List<Card> cards = new ArrayList<>();
+        cards.addAll(GsonSingleton.<List<GoldCard>>loadJson("/goldCards.json", new TypeToken<List<GoldCard>>() {}.getType()));
+        cards.addAll(GsonSingleton.<List<ResourceCard>>loadJson("/resourceCards.json", new TypeToken<List<ResourceCard>>() {}.getType()));
+        cards.addAll(GsonSingleton.<List<StarterCard>>loadJson("/starterCards.json", new TypeToken<List<StarterCard>>() {}.getType()));
+        List<Objective> objectives = GsonSingleton.loadJson("/objectiveCards.json", new TypeToken<List<Objective>>() {}.getType());
+
+        String json = gson.toJson(cards, new TypeToken<List<Card>>() {}.getType());
+        assertFalse(json.contains("\n"));
+        List<Card> read = gson.fromJson(json, new TypeToken<List<Card>>() {}.getType());
+        assertEquals(cards.size(), read.size());
+        for (int i = 0; i < cards.size(); i++) {
+            assertEquals(cards.get(i).getClass(), read.get(i).getClass());
+            assertEquals(cards.get(i).getId(), read.get(i).getId());
+            assertEquals(cards.get(i).getKingdom(), read.get(i).getKingdom());
+            assertEquals(cards.get(i).getSymbolsOnSide(true), read.get(i).getSymbolsOnSide(true));
+            for (CornerPosition p : CornerPosition.values()) {
+                for (boolean isFront : new boolean[]{true, false}) {
+                    assertEquals(cards.get(i).getCorner(p, isFront).IsPresent(), read.get(i).getCorner(p, isFront).IsPresent());
+                }
+            }
+            assertEquals(cards.get(i).getSymbolsOnSide(false), read.get(i).getSymbolsOnSide(false));
+        }
+
+        // objectives declared by their abstract type keep the name of their class
+        json = gson.toJson(objectives, new TypeToken<List<Objective>>() {}.getType());
+        List<Objective> readObjectives = gson.fromJson(json, new TypeToken<List<Objective>>() {}.getType());
+        for (int i = 0; i < objectives.size(); i++) {
+            assertEquals(objectives.get(i).getClass(), readObjectives.get(i).getClass());
+            assertEquals(objectives.get(i).getId(), readObjectives.get(i).getId());
+        }
+        assertArrayEquals(((DispositionObjective) objectives.getFirst()).getPatternPosition(),
+                ((DispositionObjective) readObjectives.getFirst()).getPatternPosition());
+        assertEquals(((SymbolObjective) objectives.get(8)).getSymbols(), ((SymbolObjective) readObjectives.get(8)).getSymbols());
+
+        // a card of a concrete class is read both with and without the name of its class
+        ResourceCard resource = (ResourceCard) cards.get(40);
+        assertEquals(resource.getId(), gson.fromJson(gson.toJson(resource), ResourceCard.class).getId());
+        assertThrows(JsonParseException.class, () -> gson.fromJson(gson.toJson(resource, Card.class), GoldCard.class));
+    }
 }